@@ -0,0 +1,205 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.featurehouse;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.StringTokenizer;
+import java.util.concurrent.ConcurrentHashMap;
+
+import builder.ArtifactBuilder;
+import builder.ArtifactBuilderInterface;
+import cide.gparser.ParseException;
+import composer.FSTGenComposerExtension;
+import composer.FSTGenProcessor;
+import de.ovgu.cide.fstgen.ast.AbstractFSTParser;
+import de.ovgu.cide.fstgen.ast.CommandLineParameterHelper;
+import de.ovgu.cide.fstgen.ast.FSTNode;
+import de.ovgu.cide.fstgen.ast.FSTNonTerminal;
+
+/**
+ * Caches the feature structure trees of parsed source files, such that FeatureHouse only parses files whose content changed since the last
+ * composition.<br> <br> The cache is {@link #register(FSTGenProcessor) registered} at a newly created composer, which replaces the composer's artifact
+ * builders by caching ones. For each file, a caching builder stores a copy of the parsed tree together with all nodes the parser added to the global
+ * list {@link AbstractFSTParser#fstnodes}, which is used to build the FST model. If the content of a file did not change, a copy of the stored tree is
+ * inserted and the stored nodes are added again to the global list.
+ *
+ * @author FeatureIDE Team
+ */
+public class FSTParseCache {
+
+	private static final class CacheEntry {
+
+		private final String hash;
+		private final List<FSTNode> children;
+		private final List<FSTNode> fstnodes;
+
+		private CacheEntry(String hash, List<FSTNode> parsedChildren, List<FSTNode> parsedFSTNodes) {
+			this.hash = hash;
+			final Map<FSTNode, FSTNode> copies = new IdentityHashMap<>();
+			children = copy(parsedChildren, copies);
+			fstnodes = map(parsedFSTNodes, copies);
+		}
+
+		private void replay(FSTNonTerminal parent) {
+			final Map<FSTNode, FSTNode> copies = new IdentityHashMap<>();
+			for (final FSTNode child : copy(children, copies)) {
+				parent.addChild(child);
+			}
+			AbstractFSTParser.fstnodes.addAll(map(fstnodes, copies));
+		}
+
+		private static List<FSTNode> copy(List<FSTNode> nodes, Map<FSTNode, FSTNode> copies) {
+			final List<FSTNode> nodeCopies = new ArrayList<>(nodes.size());
+			for (final FSTNode node : nodes) {
+				final FSTNode copy = node.getDeepClone();
+				collectCopies(node, copy, copies);
+				nodeCopies.add(copy);
+			}
+			return nodeCopies;
+		}
+
+		private static List<FSTNode> map(List<FSTNode> nodes, Map<FSTNode, FSTNode> copies) {
+			final List<FSTNode> mappedNodes = new ArrayList<>(nodes.size());
+			for (final FSTNode node : nodes) {
+				final FSTNode copy = copies.get(node);
+				mappedNodes.add(copy != null ? copy : (node != null ? node.getDeepClone() : null));
+			}
+			return mappedNodes;
+		}
+
+		private static void collectCopies(FSTNode node, FSTNode copy, Map<FSTNode, FSTNode> copies) {
+			copies.put(node, copy);
+			if ((node instanceof FSTNonTerminal) && (copy instanceof FSTNonTerminal)) {
+				final List<FSTNode> children = ((FSTNonTerminal) node).getChildren();
+				final List<FSTNode> childCopies = ((FSTNonTerminal) copy).getChildren();
+				for (int i = 0; i < Math.min(children.size(), childCopies.size()); i++) {
+					collectCopies(children.get(i), childCopies.get(i), copies);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Delegates the parsing of files to the original artifact builder and caches the results.
+	 */
+	private class CachingArtifactBuilder extends ArtifactBuilder {
+
+		private final ArtifactBuilder builder;
+
+		public CachingArtifactBuilder(ArtifactBuilder builder) {
+			super(new String[0]);
+			this.builder = builder;
+		}
+
+		@Override
+		public boolean acceptFile(File inputFile) {
+			return builder.acceptFile(inputFile);
+		}
+
+		@Override
+		public void setPreprocessNode(boolean preprocessNode) {
+			super.setPreprocessNode(preprocessNode);
+			builder.setPreprocessNode(preprocessNode);
+		}
+
+		@Override
+		public void processNode(FSTNonTerminal parent, StringTokenizer st, File inputFile) throws FileNotFoundException, ParseException {
+			final String key = builder.getClass().getName() + '|' + CommandLineParameterHelper.isJML() + '|' + FSTGenComposerExtension.metaproduct + '|'
+				+ isPreprocessNode() + '|' + inputFile.getAbsolutePath();
+			final String hash;
+			try {
+				hash = hash(Files.readAllBytes(inputFile.toPath()));
+			} catch (final IOException e) {
+				entries.remove(key);
+				builder.processNode(parent, st, inputFile);
+				return;
+			}
+
+			final CacheEntry entry = entries.get(key);
+			if ((entry != null) && entry.hash.equals(hash)) {
+				// consume the file name, as the original builder would do
+				while (st.hasMoreTokens()) {
+					st.nextToken();
+				}
+				entry.replay(parent);
+				return;
+			}
+
+			final FSTNonTerminal temporaryParent = new FSTNonTerminal(parent.getType(), parent.getName());
+			temporaryParent.setParent(parent.getParent());
+			final List<FSTNode> fstnodes = AbstractFSTParser.fstnodes;
+			final int start = fstnodes.size();
+			try {
+				builder.processNode(temporaryParent, st, inputFile);
+			} finally {
+				for (final FSTNode child : new ArrayList<>(temporaryParent.getChildren())) {
+					parent.addChild(child);
+				}
+			}
+			entries.put(key, new CacheEntry(hash, temporaryParent.getChildren(), fstnodes.subList(start, fstnodes.size())));
+		}
+	}
+
+	private final ConcurrentHashMap<String, CacheEntry> entries = new ConcurrentHashMap<>();
+
+	/**
+	 * Replaces all artifact builders of the given composer by caching ones. Must be called before the composer is run.
+	 *
+	 * @param composer the composer
+	 */
+	public void register(FSTGenProcessor composer) {
+		for (final ArtifactBuilderInterface builder : new ArrayList<>(composer.getArtifactBuilders())) {
+			composer.unregisterArtifactBuilder(builder);
+			composer.registerArtifactBuilder(builder instanceof ArtifactBuilder ? new CachingArtifactBuilder((ArtifactBuilder) builder) : builder);
+		}
+	}
+
+	/**
+	 * Removes all cached trees.
+	 */
+	public void clear() {
+		entries.clear();
+	}
+
+	private static String hash(byte[] content) {
+		try {
+			final byte[] digest = MessageDigest.getInstance("SHA-256").digest(content);
+			final StringBuilder sb = new StringBuilder(digest.length * 2);
+			for (final byte b : digest) {
+				sb.append(Character.forDigit((b >> 4) & 0xF, 16));
+				sb.append(Character.forDigit(b & 0xF, 16));
+			}
+			return sb.toString();
+		} catch (final NoSuchAlgorithmException e) {
+			throw new RuntimeException(e);
+		}
+	}
+
+}
@@ -140,6 +140,11 @@ public class FeatureHouseComposer extends ComposerExtensionClass {
 
 	private FSTGenComposer composer;
 
+	/**
+	 * Keeps the parsed feature structure trees of all source files, such that only changed files are parsed again.
+	 */
+	private final FSTParseCache parseCache = new FSTParseCache();
+
 	public FeatureHouseModelBuilder fhModelBuilder;
 
 	private ErrorPropagation errorPropagation = null;
@@ -390,6 +395,7 @@ public class FeatureHouseComposer extends ComposerExtensionClass {
 			}
 		} else {
 			composer = new FSTGenComposer(false);
+			parseCache.register(composer);
 			composer.addCompositionErrorListener(compositionErrorListener);
 			try {
 				composer.run(getArguments(configPath, basePath, outputPath, getContractParameter()));
@@ -727,6 +733,7 @@ public class FeatureHouseComposer extends ComposerExtensionClass {
 		// build the complete fst model
 		final FSTGenComposerExtension composerExtension = new FSTGenComposerExtension();
 		composer = composerExtension;
+		parseCache.register(composerExtension);
 		composerExtension.addParseErrorListener(listener);
 		final List<String> featureOrder = featureProject.getFeatureModel().getFeatureOrderList();
 		final String[] features = new String[featureOrder.size()];
@@ -881,6 +888,7 @@ public class FeatureHouseComposer extends ComposerExtensionClass {
 
 		final FSTGenComposerExtension composerExtension = new FSTGenComposerExtension();
 		composer = composerExtension;
+		parseCache.register(composerExtension);
 		composerExtension.addParseErrorListener(listener);
 
 		final List<String> featureOrderList = featureProject.getFeatureModel().getFeatureOrderList();
@@ -910,6 +918,7 @@ public class FeatureHouseComposer extends ComposerExtensionClass {
 		super.buildConfiguration(folder, configuration, congurationName);
 		final Path configurationFile = EclipseFileSystem.getPath(folder).resolve(congurationName + '.' + getConfigurationFormat().getSuffix());
 		final FSTGenComposer composer = new FSTGenComposer(false);
+		parseCache.register(composer);
 		composer.addParseErrorListener(createParseErrorListener());
 		composer.addCompositionErrorListener(createCompositionErrorListener());
 		final Path temporaryConfigrationFile = createTemporaryConfigrationFile(configurationFile);
@@ -40,6 +40,7 @@ class FeatureLocation {
 	String className;
 	FeatureLocation parent;
 	boolean inConfig;
+	boolean indexed;
 	FSTDirectiveCommand cmd;
 
 	FeatureLocation(final String featureName, final int startLineNum, final int endLineNum, final IFile classFile, final String className,
@@ -51,6 +52,7 @@ class FeatureLocation {
 		this.className = className;
 		parent = null;
 		inConfig = false;
+		indexed = false;
 		this.cmd = cmd;
 	}
 
@@ -90,6 +92,13 @@ class FeatureLocation {
 		return inConfig;
 	}
 
+	/**
+	 * @return {@code true} if the feature is queried by its index constant, {@code false} if it is queried by its name.
+	 */
+	public boolean isIndexed() {
+		return indexed;
+	}
+
 	public void setCmd(final FSTDirectiveCommand cmd) {
 		this.cmd = cmd;
 	}
@@ -102,6 +111,10 @@ class FeatureLocation {
 		this.inConfig = inConfig;
 	}
 
+	public void setIndexed(final boolean indexed) {
+		this.indexed = indexed;
+	}
+
 	public void setParent(final FeatureLocation parent) {
 		this.parent = parent;
 	}
@@ -0,0 +1,96 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.core.runtime;
+
+import java.util.List;
+
+import org.eclipse.jdt.core.dom.AST;
+import org.eclipse.jdt.core.dom.ASTNode;
+import org.eclipse.jdt.core.dom.ASTVisitor;
+import org.eclipse.jdt.core.dom.Expression;
+import org.eclipse.jdt.core.dom.IMethodBinding;
+import org.eclipse.jdt.core.dom.MethodInvocation;
+import org.eclipse.jdt.core.dom.Name;
+import org.eclipse.jdt.core.dom.StringLiteral;
+import org.eclipse.jdt.core.dom.rewrite.ASTRewrite;
+
+/**
+ * Visitor for AST, replacing each call of the getProperty()-method that queries a feature by its name with a call of the isSelected()-method that uses the
+ * index constant of the feature.
+ *
+ * @author FeatureIDE Team
+ */
+class PropertyCallVisitor extends ASTVisitor {
+
+	private static final String PROPERTY_MANAGER_NAME = RuntimeParameters.PROPERTY_MANAGER_PACKAGE + "." + RuntimeParameters.PROPERTY_MANAGER_CLASS;
+
+	private final PropertyManagerGenerator generator;
+	private final ASTRewrite rewrite;
+	private int replacedCalls;
+
+	public PropertyCallVisitor(final PropertyManagerGenerator generator, final ASTRewrite rewrite) {
+		super();
+		this.generator = generator;
+		this.rewrite = rewrite;
+		replacedCalls = 0;
+	}
+
+	@Override
+	public void endVisit(final MethodInvocation node) {
+		if (RuntimeParameters.GET_PROPERTY_METHOD.equals(node.getName().getIdentifier()) && (node.arguments().size() == 1)
+			&& (node.arguments().get(0) instanceof StringLiteral)) {
+			final IMethodBinding binding = node.resolveMethodBinding();
+			if ((binding != null) && PROPERTY_MANAGER_NAME.equals(binding.getDeclaringClass().getQualifiedName())) {
+				final String constantName = generator.getConstantName(((StringLiteral) node.arguments().get(0)).getLiteralValue());
+				if (constantName != null) {
+					rewrite.replace(node, createIndexedCall(node, constantName), null);
+					replacedCalls++;
+				}
+			}
+		}
+		super.endVisit(node);
+	}
+
+	@SuppressWarnings("unchecked")
+	private MethodInvocation createIndexedCall(final MethodInvocation node, final String constantName) {
+		final AST ast = node.getAST();
+		final Expression expression = node.getExpression();
+
+		// keep the qualifier of the original call, otherwise (e.g., for static imports) use the fully qualified class name
+		final MethodInvocation indexedCall = ast.newMethodInvocation();
+		final Name qualifier;
+		if (expression instanceof Name) {
+			indexedCall.setExpression((Expression) rewrite.createCopyTarget(expression));
+			qualifier = (Name) ASTNode.copySubtree(ast, expression);
+		} else {
+			indexedCall.setExpression(ast.newName(PROPERTY_MANAGER_NAME));
+			qualifier = ast.newName(PROPERTY_MANAGER_NAME);
+		}
+		indexedCall.setName(ast.newSimpleName(RuntimeParameters.IS_SELECTED_METHOD));
+		((List<Expression>) indexedCall.arguments()).add(ast.newQualifiedName(qualifier, ast.newSimpleName(constantName)));
+		return indexedCall;
+	}
+
+	public int getReplacedCalls() {
+		return replacedCalls;
+	}
+
+}
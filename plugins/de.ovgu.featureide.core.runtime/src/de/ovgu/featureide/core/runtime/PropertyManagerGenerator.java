@@ -0,0 +1,306 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.core.runtime;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.jdt.core.JavaConventions;
+import org.eclipse.jdt.core.JavaCore;
+
+import de.ovgu.featureide.fm.core.configuration.Configuration;
+import de.ovgu.featureide.fm.core.configuration.SelectableFeature;
+import de.ovgu.featureide.fm.core.configuration.Selection;
+
+/**
+ * Generates the source code of the PropertyManager class for a configuration.<br> Each concrete feature is resolved to an index constant at build time. At
+ * runtime, all values are loaded once from the property file into an array that is replaced atomically on reload. Features that are selected or deselected in
+ * every configuration are folded into constants. Index constants that are still referenced in the source code, but whose features do not exist anymore, are
+ * kept as deprecated constants.
+ *
+ * @author FeatureIDE Team
+ */
+class PropertyManagerGenerator {
+
+	/**
+	 * Names of the fields of the generated class and of the types that are referenced in expressions, which must not be obscured by an index constant.
+	 */
+	private static final String[] RESERVED_NAMES = { "RUNTIME_PROPERTIES", "NAMES", "NUMBER_OF_LIVE_NAMES", "DEFAULTS", "INDEX", "MISSING", "values", "Boolean",
+		"Collections", "System" };
+
+	private final List<String> featureNames = new ArrayList<>();
+	private final List<String> constantNames = new ArrayList<>();
+	private final List<Boolean> defaultValues = new ArrayList<>();
+	private final Map<String, String> featureToConstant = new HashMap<>();
+	private final Map<String, String> constantToFeature = new HashMap<>();
+	private final List<String> coreConstants = new ArrayList<>();
+	private final List<String> deadConstants = new ArrayList<>();
+	private final List<String> deprecatedConstants = new ArrayList<>();
+
+	/**
+	 * @param configuration the configuration that is written to the property file
+	 * @param coreFeatures the names of all features that are selected in every configuration
+	 * @param deadFeatures the names of all features that are deselected in every configuration
+	 * @param referencedConstants the names of all index constants that are referenced in the source code
+	 */
+	PropertyManagerGenerator(Configuration configuration, Collection<String> coreFeatures, Collection<String> deadFeatures,
+			Collection<String> referencedConstants) {
+		final Set<String> usedNames = new HashSet<>();
+		for (final String reservedName : RESERVED_NAMES) {
+			usedNames.add(reservedName);
+		}
+		for (final SelectableFeature feature : configuration.getFeatures()) {
+			if (!feature.getFeature().getStructure().isAbstract()) {
+				final String featureName = feature.getName();
+				final boolean selected = feature.getSelection() == Selection.SELECTED;
+				final String constantName = createConstantName(featureName, usedNames);
+
+				featureNames.add(featureName);
+				constantNames.add(constantName);
+				defaultValues.add(selected);
+				featureToConstant.put(featureName, constantName);
+				constantToFeature.put(constantName, featureName);
+
+				// only fold features whose value in the configuration agrees with the feature model
+				if (selected && coreFeatures.contains(featureName)) {
+					coreConstants.add(constantName);
+				} else if (!selected && deadFeatures.contains(featureName)) {
+					deadConstants.add(constantName);
+				}
+			}
+		}
+		// keep constants of removed or renamed features, such that the source code still compiles
+		for (final String constantName : referencedConstants) {
+			if (usedNames.add(constantName)) {
+				deprecatedConstants.add(constantName);
+			}
+		}
+	}
+
+	private static String createConstantName(String featureName, Set<String> usedNames) {
+		final StringBuilder sb = new StringBuilder(featureName.length() + 1);
+		for (final char c : featureName.toCharArray()) {
+			sb.append(Character.isJavaIdentifierPart(c) ? c : '_');
+		}
+		if ((sb.length() == 0) || !Character.isJavaIdentifierStart(sb.charAt(0))) {
+			sb.insert(0, '_');
+		}
+		String constantName = sb.toString();
+		if (JavaConventions.validateIdentifier(constantName, JavaCore.VERSION_1_8, JavaCore.VERSION_1_8).getSeverity() == IStatus.ERROR) {
+			constantName = '_' + constantName;
+		}
+		final String baseName = constantName;
+		for (int i = 2; !usedNames.add(constantName); i++) {
+			constantName = baseName + '_' + i;
+		}
+		return constantName;
+	}
+
+	/**
+	 * @param featureName the name of a feature
+	 * @return the name of the index constant for the given feature or {@code null} if the feature is not part of the property file.
+	 */
+	String getConstantName(String featureName) {
+		return featureToConstant.get(featureName);
+	}
+
+	/**
+	 * @param constantName the name of an index constant
+	 * @return the name of the feature for the given constant or {@code null} if there is no such constant.
+	 */
+	String getFeatureName(String constantName) {
+		return constantToFeature.get(constantName);
+	}
+
+	/**
+	 * @return the source code of the PropertyManager class.
+	 */
+	String generate() {
+		final StringBuilder sb = new StringBuilder();
+		sb.append("package ").append(RuntimeParameters.PROPERTY_MANAGER_PACKAGE).append(";\n\n");
+		sb.append("import java.io.BufferedInputStream;\n");
+		sb.append("import java.io.File;\n");
+		sb.append("import java.io.FileInputStream;\n");
+		sb.append("import java.io.IOException;\n");
+		sb.append("import java.util.Collections;\n");
+		sb.append("import java.util.HashMap;\n");
+		sb.append("import java.util.Map;\n");
+		sb.append("import java.util.Properties;\n");
+		sb.append("import java.util.Set;\n");
+		sb.append("import java.util.concurrent.ConcurrentHashMap;\n\n");
+		sb.append("/**\n");
+		sb.append(" * Class generated by FeatureIDE to read feature selections from property files.<br>\n");
+		sb.append(" * Features are identified by the index constants of this class. Use {@link #isSelected(int)} to query a feature.\n");
+		sb.append(" */\n");
+		sb.append("public final class ").append(RuntimeParameters.PROPERTY_MANAGER_CLASS).append(" {\n\n");
+
+		for (int i = 0; i < constantNames.size(); i++) {
+			sb.append("\tpublic static final int ").append(constantNames.get(i)).append(" = ").append(i).append(";\n");
+		}
+		if (!constantNames.isEmpty()) {
+			sb.append('\n');
+		}
+		for (int i = 0; i < deprecatedConstants.size(); i++) {
+			sb.append("\t/**\n");
+			sb.append("\t * @deprecated The feature of this constant does not exist in the current configuration.\n");
+			sb.append("\t */\n");
+			sb.append("\t@Deprecated\n");
+			sb.append("\tpublic static final int ").append(deprecatedConstants.get(i)).append(" = ").append(constantNames.size() + i).append(";\n\n");
+		}
+
+		sb.append("\tprivate static final String RUNTIME_PROPERTIES = \"runtime.properties\";\n\n");
+		// deprecated constants are stored after all live names and are treated like missing properties
+		final List<String> names = new ArrayList<>(featureNames);
+		names.addAll(deprecatedConstants);
+		final List<Boolean> defaults = new ArrayList<>(defaultValues);
+		defaults.addAll(Collections.nCopies(deprecatedConstants.size(), Boolean.FALSE));
+		sb.append("\tprivate static final String[] NAMES = {");
+		appendList(sb, names, true);
+		sb.append("};\n");
+		sb.append("\tprivate static final int NUMBER_OF_LIVE_NAMES = ").append(featureNames.size()).append(";\n");
+		sb.append("\tprivate static final boolean[] DEFAULTS = {");
+		appendList(sb, defaults, false);
+		sb.append("};\n\n");
+		sb.append("\tprivate static final Map<String, Integer> INDEX = new HashMap<>();\n");
+		sb.append("\tprivate static final Set<String> MISSING = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());\n\n");
+		sb.append("\tprivate static volatile boolean[] values = DEFAULTS;\n\n");
+
+		sb.append("\tprivate ").append(RuntimeParameters.PROPERTY_MANAGER_CLASS).append("() {}\n\n");
+
+		sb.append("\tstatic {\n");
+		sb.append("\t\tfor (int i = 0; i < NAMES.length; i++) {\n");
+		sb.append("\t\t\tINDEX.put(NAMES[i], i);\n");
+		sb.append("\t\t}\n");
+		sb.append("\t\treload();\n");
+		sb.append("\t}\n\n");
+
+		sb.append("\t/**\n");
+		sb.append("\t * Reads all feature selections from the property file. Features that are missing in the file keep their value from the build.<br>\n");
+		sb.append("\t * The new values replace the old values at once, such that concurrent queries never see a partially loaded configuration.\n");
+		sb.append("\t *\n");
+		sb.append("\t * @return {@code true} if the property file could be read, {@code false} otherwise.\n");
+		sb.append("\t */\n");
+		sb.append("\tpublic static synchronized boolean reload() {\n");
+		sb.append("\t\tfinal File file = new File(RUNTIME_PROPERTIES);\n");
+		sb.append("\t\tif (!file.exists()) {\n");
+		sb.append("\t\t\treturn false;\n");
+		sb.append("\t\t}\n");
+		sb.append("\t\tfinal Properties property = new Properties();\n");
+		sb.append("\t\ttry (BufferedInputStream bis = new BufferedInputStream(new FileInputStream(file))) {\n");
+		sb.append("\t\t\tproperty.load(bis);\n");
+		sb.append("\t\t} catch (IOException e) {\n");
+		sb.append("\t\t\te.printStackTrace();\n");
+		sb.append("\t\t\treturn false;\n");
+		sb.append("\t\t}\n");
+		sb.append("\t\tfinal boolean[] newValues = DEFAULTS.clone();\n");
+		sb.append("\t\tfor (int i = 0; i < NUMBER_OF_LIVE_NAMES; i++) {\n");
+		sb.append("\t\t\tfinal String value = property.getProperty(NAMES[i]);\n");
+		sb.append("\t\t\tif (value == null) {\n");
+		sb.append("\t\t\t\tSystem.err.println(\"Queried Property '\" + NAMES[i] + \"' does not exist!\");\n");
+		sb.append("\t\t\t} else {\n");
+		sb.append("\t\t\t\tnewValues[i] = Boolean.parseBoolean(value);\n");
+		sb.append("\t\t\t}\n");
+		sb.append("\t\t}\n");
+		sb.append("\t\tvalues = newValues;\n");
+		sb.append("\t\treturn true;\n");
+		sb.append("\t}\n\n");
+
+		sb.append("\t/**\n");
+		sb.append("\t * Gets the value of a feature.\n");
+		sb.append("\t *\n");
+		sb.append("\t * @param feature One of the index constants of this class.\n");
+		sb.append("\t * @return Value of feature.\n");
+		sb.append("\t */\n");
+		sb.append("\tpublic static boolean isSelected(int feature) {\n");
+		if (!deprecatedConstants.isEmpty()) {
+			sb.append("\t\tif (feature >= NUMBER_OF_LIVE_NAMES) {\n");
+			sb.append("\t\t\tif (MISSING.add(NAMES[feature])) {\n");
+			sb.append("\t\t\t\tSystem.err.println(\"Queried Property '\" + NAMES[feature] + \"' does not exist!\");\n");
+			sb.append("\t\t\t}\n");
+			sb.append("\t\t\treturn false;\n");
+			sb.append("\t\t}\n");
+		}
+		if (coreConstants.isEmpty() && deadConstants.isEmpty()) {
+			sb.append("\t\treturn values[feature];\n");
+		} else {
+			sb.append("\t\tswitch (feature) {\n");
+			appendCases(sb, coreConstants, "true");
+			appendCases(sb, deadConstants, "false");
+			sb.append("\t\tdefault:\n");
+			sb.append("\t\t\treturn values[feature];\n");
+			sb.append("\t\t}\n");
+		}
+		sb.append("\t}\n\n");
+
+		sb.append("\t/**\n");
+		sb.append("\t * Gets value for queried property. Prints an error message once if it does not exist.\n");
+		sb.append("\t *\n");
+		sb.append("\t * @param propertyName\n");
+		sb.append("\t * @return Value of property.\n");
+		sb.append("\t */\n");
+		sb.append("\tpublic static boolean getProperty(String propertyName) {\n");
+		sb.append("\t\tfinal Integer feature = INDEX.get(propertyName);\n");
+		sb.append("\t\tif (feature == null) {\n");
+		sb.append("\t\t\tif (MISSING.add(propertyName)) {\n");
+		sb.append("\t\t\t\tSystem.err.println(\"Queried Property '\" + propertyName + \"' does not exist!\");\n");
+		sb.append("\t\t\t}\n");
+		sb.append("\t\t\treturn false;\n");
+		sb.append("\t\t}\n");
+		sb.append("\t\treturn isSelected(feature);\n");
+		sb.append("\t}\n\n");
+		sb.append("}\n");
+		return sb.toString();
+	}
+
+	private static void appendList(StringBuilder sb, List<?> list, boolean quote) {
+		for (int i = 0; i < list.size(); i++) {
+			if (i > 0) {
+				sb.append(", ");
+			}
+			if (quote) {
+				sb.append('"').append(escape(list.get(i).toString())).append('"');
+			} else {
+				sb.append(list.get(i));
+			}
+		}
+	}
+
+	private static void appendCases(StringBuilder sb, List<String> constants, String value) {
+		if (!constants.isEmpty()) {
+			for (final String constant : constants) {
+				sb.append("\t\tcase ").append(constant).append(":\n");
+			}
+			sb.append("\t\t\treturn ").append(value).append(";\n");
+		}
+	}
+
+	private static String escape(String name) {
+		return name.replace("\\", "\\\\").replace("\"", "\\\"");
+	}
+
+}
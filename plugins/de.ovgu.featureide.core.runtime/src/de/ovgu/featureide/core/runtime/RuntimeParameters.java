@@ -25,13 +25,17 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.FileSystems;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.Comparator;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.LinkedList;
+import java.util.List;
 import java.util.Vector;
 
 import org.eclipse.core.resources.IFile;
@@ -53,12 +57,20 @@ import org.eclipse.jdt.core.dom.AST;
 import org.eclipse.jdt.core.dom.ASTNode;
 import org.eclipse.jdt.core.dom.ASTParser;
 import org.eclipse.jdt.core.dom.CompilationUnit;
+import org.eclipse.jdt.core.dom.Expression;
+import org.eclipse.jdt.core.dom.FieldAccess;
+import org.eclipse.jdt.core.dom.MethodInvocation;
+import org.eclipse.jdt.core.dom.NodeFinder;
+import org.eclipse.jdt.core.dom.QualifiedName;
+import org.eclipse.jdt.core.dom.SimpleName;
+import org.eclipse.jdt.core.dom.rewrite.ASTRewrite;
 import org.eclipse.jdt.core.search.IJavaSearchScope;
 import org.eclipse.jdt.core.search.SearchEngine;
 import org.eclipse.jdt.internal.corext.callhierarchy.CallHierarchy;
 import org.eclipse.jdt.internal.corext.callhierarchy.CallLocation;
 import org.eclipse.jdt.internal.corext.callhierarchy.MethodCall;
 import org.eclipse.jdt.internal.corext.callhierarchy.MethodWrapper;
+import org.eclipse.text.edits.TextEdit;
 
 import de.ovgu.featureide.core.CorePlugin;
 import de.ovgu.featureide.core.IFeatureProject;
@@ -68,6 +80,8 @@ import de.ovgu.featureide.core.fstmodel.FSTRole;
 import de.ovgu.featureide.core.fstmodel.preprocessor.FSTDirective;
 import de.ovgu.featureide.core.fstmodel.preprocessor.FSTDirectiveCommand;
 import de.ovgu.featureide.core.runtime.activator.RuntimeCorePlugin;
+import de.ovgu.featureide.fm.core.FeatureModelAnalyzer;
+import de.ovgu.featureide.fm.core.base.IFeature;
 import de.ovgu.featureide.fm.core.configuration.Configuration;
 import de.ovgu.featureide.fm.core.configuration.SelectableFeature;
 import de.ovgu.featureide.fm.core.configuration.Selection;
@@ -92,12 +106,16 @@ public class RuntimeParameters extends ComposerExtensionClass {
 	public static final String PROPERTY_MANAGER_CLASS = "PropertyManager";
 	public static final String PROPERTY_MANAGER_PACKAGE = "properties";
 	public static final String GET_PROPERTY_METHOD = "getProperty";
+	public static final String IS_SELECTED_METHOD = "isSelected";
 	// the first entry represents the default composition mechanism
 	public static final String[] COMPOSITION_MECHANISMS = new String[] { PROPERTIES, RUN_CONFIGURATION };
 
 	// TODO this must not be static
 	static ArrayList<FeatureLocation> featureLocs = new ArrayList<FeatureLocation>();
 
+	// names of all index constants that are used in isSelected-calls
+	private final LinkedHashSet<String> indexConstants = new LinkedHashSet<>();
+
 	/**
 	 * Builds FST Model: - adds directives to the model representing each call of the getProperty()-method - if feature in code does not exist it will be marked
 	 */
@@ -374,7 +392,9 @@ public class RuntimeParameters extends ComposerExtensionClass {
 	}
 
 	/**
-	 * Every time the project is built, the config will be read and written into runtime.properties.
+	 * Every time the project is built, the config will be read and written into runtime.properties. Additionally, the PropertyManager class is generated for
+	 * the config and all calls of getProperty() with a feature name are replaced with calls of isSelected() with the feature's index constant. Constants of
+	 * features that do not exist anymore are kept, such that the code still compiles.
 	 */
 	@Override
 	public void performFullBuild(final Path config) {
@@ -428,12 +448,115 @@ public class RuntimeParameters extends ComposerExtensionClass {
 				createFile(filePropInBuild, inputStream2);
 			}
 
+			final PropertyManagerGenerator generator = createGenerator(configuration);
+			writePropertyManager(buildFolder, generator);
+			rewriteCallSites(generator);
 		} else {
 			deleteFile(fileProp);
 			deleteFile(filePropInBuild);
 		}
 	}
 
+	/**
+	 * Creates the generator for the PropertyManager class. Features that are core or dead in the feature model are folded into constants. Index constants that
+	 * are used in the code, but do not belong to any feature of the configuration, are kept as deprecated constants.
+	 *
+	 * @param configuration The current configuration.
+	 * @return The generator for the given configuration.
+	 */
+	private PropertyManagerGenerator createGenerator(final Configuration configuration) {
+		final FeatureModelAnalyzer analyzer = featureProject.getFeatureModelManager().getPersistentFormula().getAnalyzer();
+		final List<String> coreFeatures = new ArrayList<>();
+		final List<String> deadFeatures = new ArrayList<>();
+		for (final IFeature feature : analyzer.getCoreFeatures(null)) {
+			coreFeatures.add(feature.getName());
+		}
+		for (final IFeature feature : analyzer.getDeadFeatures(null)) {
+			deadFeatures.add(feature.getName());
+		}
+		return new PropertyManagerGenerator(configuration, coreFeatures, deadFeatures, indexConstants);
+	}
+
+	/**
+	 * Writes the generated PropertyManager class into the build folder. The file is only changed if its content differs from the generated source code.
+	 *
+	 * @param buildFolder The build folder of the project.
+	 * @param generator The generator for the current configuration.
+	 */
+	private void writePropertyManager(final IFolder buildFolder, final PropertyManagerGenerator generator) {
+		final IFolder propFolder = buildFolder.getFolder(PROPERTY_MANAGER_PACKAGE);
+		final IFile propFile = propFolder.getFile(PROPERTY_MANAGER_CLASS + ".java");
+		final byte[] source = generator.generate().getBytes(StandardCharsets.UTF_8);
+		try {
+			if (!propFolder.exists()) {
+				propFolder.create(true, true, new NullProgressMonitor());
+			}
+			if (propFile.exists()) {
+				if (!Arrays.equals(source, Files.readAllBytes(Paths.get(propFile.getLocationURI())))) {
+					propFile.setContents(new ByteArrayInputStream(source), IResource.FORCE, null);
+				}
+			} else {
+				createFile(propFile, new ByteArrayInputStream(source));
+				propFile.setDerived(true, null);
+			}
+		} catch (CoreException | IOException e) {
+			RuntimeCorePlugin.getDefault().logError(e);
+		}
+	}
+
+	/**
+	 * Replaces each call of the getProperty()-method that queries a feature by its name with a call of the isSelected()-method that uses the index constant of
+	 * the feature. The changes are applied to the working copy of each compilation unit, such that open editors are updated. Compilation units with unsaved
+	 * changes are skipped.
+	 *
+	 * @param generator The generator for the current configuration.
+	 */
+	private void rewriteCallSites(final PropertyManagerGenerator generator) {
+		final LinkedHashSet<IFile> classFiles = new LinkedHashSet<>();
+		for (final FeatureLocation loc : featureLocs) {
+			if (!loc.isIndexed() && (generator.getConstantName(loc.getFeatureName()) != null)) {
+				classFiles.add(loc.getClassFile());
+			}
+		}
+		for (final IFile classFile : classFiles) {
+			final ICompilationUnit compilationUnit = JavaCore.createCompilationUnitFrom(classFile);
+			try {
+				// do not interfere with the changes of an open editor
+				if (compilationUnit.hasUnsavedChanges()) {
+					continue;
+				}
+			} catch (final JavaModelException e) {
+				RuntimeCorePlugin.getDefault().logError(e);
+				continue;
+			}
+
+			final ASTParser parser = ASTParser.newParser(AST_Type);
+			parser.setSource(compilationUnit);
+			parser.setKind(ASTParser.K_COMPILATION_UNIT);
+			parser.setResolveBindings(true);
+
+			final CompilationUnit rootNode = (CompilationUnit) parser.createAST(new NullProgressMonitor());
+			final ASTRewrite rewrite = ASTRewrite.create(rootNode.getAST());
+			final PropertyCallVisitor astVisitor = new PropertyCallVisitor(generator, rewrite);
+			rootNode.accept(astVisitor);
+
+			if (astVisitor.getReplacedCalls() > 0) {
+				try {
+					final TextEdit edit = rewrite.rewriteAST();
+					compilationUnit.becomeWorkingCopy(null);
+					try {
+						compilationUnit.applyTextEdit(edit, null);
+						compilationUnit.commitWorkingCopy(false, null);
+					} finally {
+						compilationUnit.discardWorkingCopy();
+					}
+				} catch (final JavaModelException e) {
+					RuntimeCorePlugin.getDefault().logError(e);
+				}
+			}
+		}
+	}
+
 	@Override
 	public void postCompile(final IResourceDelta delta, final IFile buildFile) {}
 
@@ -457,30 +580,32 @@ public class RuntimeParameters extends ComposerExtensionClass {
 	}
 
 	/**
-	 * Looks for callers of getProperty()-method and creates FeatureLocation-object for each call.
+	 * Looks for callers of getProperty()-method and isSelected()-method and creates FeatureLocation-object for each call.
 	 */
 
 	public void setFeatureLocations() {
 
 		featureLocs.clear();
+		indexConstants.clear();
+		final Configuration configuration = featureProject.loadCurrentConfiguration();
+		// maps index constants within the code to feature names
+		final PropertyManagerGenerator generator = configuration == null ? null : createGenerator(configuration);
+
 		final IJavaProject proj = JavaCore.create(featureProject.getProject());
 		try {
 			final IType itype = proj.findType(PROPERTY_MANAGER_PACKAGE + "." + PROPERTY_MANAGER_CLASS);
-			IMethod method = null;
+			final ArrayList<IMethod> methods = new ArrayList<>();
 
 			if (itype != null) {
 				for (final IMethod m : itype.getMethods()) {
-					if (m.getElementName().equals(GET_PROPERTY_METHOD)) {
-						method = m;
+					if (m.getElementName().equals(GET_PROPERTY_METHOD) || m.getElementName().equals(IS_SELECTED_METHOD)) {
+						methods.add(m);
 					}
 				}
 			}
 
-			ArrayList<CallLocation[]> callLocs = new ArrayList<>();
-			if (method != null) {
-				callLocs = getCallersOf(method);
-			}
-
+			// each compilation unit is parsed only once
+			final HashMap<ICompilationUnit, CompilationUnit> rootNodes = new HashMap<>();
 			String featureName;
 			String className;
 			IFile classFile;
@@ -488,28 +613,55 @@ public class RuntimeParameters extends ComposerExtensionClass {
 			int startLineNum;
 			int endLineNum;
 			FSTDirectiveCommand cmd;
-			for (final CallLocation[] callLoc : callLocs) {
-				for (final CallLocation element : callLoc) {
-					// feature name = attribute of getProperty-call
+			for (final IMethod method : methods) {
+				final boolean indexed = method.getElementName().equals(IS_SELECTED_METHOD);
+				for (final CallLocation[] callLoc : getCallersOf(method)) {
+					for (final CallLocation element : callLoc) {
+						if (indexed) {
+							// feature name = feature of index constant in isSelected-call
+							final ICompilationUnit unit = element.getMember().getCompilationUnit();
+							CompilationUnit rootNode = rootNodes.get(unit);
+							if (rootNode == null) {
+								final ASTParser parser = ASTParser.newParser(AST_Type);
+								parser.setSource(unit);
+								parser.setKind(ASTParser.K_COMPILATION_UNIT);
+								rootNode = (CompilationUnit) parser.createAST(new NullProgressMonitor());
+								rootNodes.put(unit, rootNode);
+							}
+							final String constantName = getIndexConstantName(rootNode, element);
+							if (constantName == null) {
+								continue;
+							}
+							indexConstants.add(constantName);
+							featureName = generator == null ? null : generator.getFeatureName(constantName);
+							if (featureName == null) {
+								// the constant of a removed or renamed feature is marked as a not existing feature
+								featureName = constantName;
+							}
+						} else {
+							// feature name = attribute of getProperty-call
+							final String[] callTextElements = element.getCallText().split("\"");
+							featureName = callTextElements.length < 2 ? null : callTextElements[1];
+						}
 
-					final String[] callTextElements = element.getCallText().split("\"");
+						if (featureName == null) {
+							continue;
+						}
 
-					if (callTextElements.length < 2) {
-						continue;
+						className = element.getMember().getParent().getElementName();
+						classFile = (IFile) element.getMember().getCompilationUnit().getCorrespondingResource();
+						compilationUnit = element.getMember().getCompilationUnit();
+						startLineNum = element.getLineNumber();
+						endLineNum = getEndOfIf(compilationUnit, startLineNum);
+						// if the call in the start line is within an if-statement,
+						// getEndOfIf() will return the end of the latter
+						cmd = endLineNum == 1 ? FSTDirectiveCommand.CALL : FSTDirectiveCommand.IF;
+						endLineNum = endLineNum == 1 ? startLineNum : endLineNum;
+
+						final FeatureLocation loc = new FeatureLocation(featureName, startLineNum, endLineNum, classFile, className, cmd);
+						loc.setIndexed(indexed);
+						featureLocs.add(loc);
 					}
-					featureName = callTextElements[1];
-
-					className = element.getMember().getParent().getElementName();
-					classFile = (IFile) element.getMember().getCompilationUnit().getCorrespondingResource();
-					compilationUnit = element.getMember().getCompilationUnit();
-					startLineNum = element.getLineNumber();
-					endLineNum = getEndOfIf(compilationUnit, startLineNum);
-					// if the call in the start line is within an if-statement,
-					// getEndOfIf() will return the end of the latter
-					cmd = endLineNum == 1 ? FSTDirectiveCommand.CALL : FSTDirectiveCommand.IF;
-					endLineNum = endLineNum == 1 ? startLineNum : endLineNum;
-
-					featureLocs.add(new FeatureLocation(featureName, startLineNum, endLineNum, classFile, className, cmd));
 				}
 			}
 		} catch (final JavaModelException e) {
@@ -527,7 +679,6 @@ public class RuntimeParameters extends ComposerExtensionClass {
 			}
 		});
 
-		final Configuration configuration = featureProject.loadCurrentConfiguration();
 		if (configuration == null) {
 			return;
 		}
@@ -549,6 +700,33 @@ public class RuntimeParameters extends ComposerExtensionClass {
 		}
 	}
 
+	/**
+	 * Gets the name of the index constant that is passed as argument to an isSelected()-call.
+	 *
+	 * @param rootNode The AST of the compilation unit that contains the call.
+	 * @param callLocation The location of the call, e.g., PropertyManager.isSelected(PropertyManager.Hello).
+	 * @return The name of the index constant, null if the argument is not a constant.
+	 */
+	private String getIndexConstantName(final CompilationUnit rootNode, final CallLocation callLocation) {
+		ASTNode node = NodeFinder.perform(rootNode, callLocation.getStart(), callLocation.getEnd() - callLocation.getStart());
+		while ((node != null)
+			&& !((node instanceof MethodInvocation) && IS_SELECTED_METHOD.equals(((MethodInvocation) node).getName().getIdentifier()))) {
+			node = node.getParent();
+		}
+		if ((node == null) || (((MethodInvocation) node).arguments().size() != 1)) {
+			return null;
+		}
+		final Expression argument = (Expression) ((MethodInvocation) node).arguments().get(0);
+		if (argument instanceof QualifiedName) {
+			return ((QualifiedName) argument).getName().getIdentifier();
+		} else if (argument instanceof SimpleName) {
+			return ((SimpleName) argument).getIdentifier();
+		} else if (argument instanceof FieldAccess) {
+			return ((FieldAccess) argument).getName().getIdentifier();
+		}
+		return null;
+	}
+
 	/**
 	 * Creates the directive which will be added to the FSTModel and set its properties.
 	 *
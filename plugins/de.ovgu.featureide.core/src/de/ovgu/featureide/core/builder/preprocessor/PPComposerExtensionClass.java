@@ -28,7 +28,6 @@ import java.io.BufferedReader;
 import java.io.InputStreamReader;
 import java.nio.file.Path;
 import java.util.ArrayList;
-import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Deque;
@@ -44,22 +43,19 @@ import org.eclipse.core.resources.IFolder;
 import org.eclipse.core.resources.IMarker;
 import org.eclipse.core.resources.IResource;
 import org.eclipse.core.runtime.CoreException;
-import org.prop4j.And;
 import org.prop4j.Literal;
 import org.prop4j.Node;
 import org.prop4j.NodeReader;
-import org.prop4j.Not;
-import org.prop4j.SatSolver;
-import org.sat4j.specs.TimeoutException;
 
 import de.ovgu.featureide.core.CorePlugin;
 import de.ovgu.featureide.core.builder.ComposerExtensionClass;
+import de.ovgu.featureide.fm.core.analysis.PresenceConditionChecker;
 import de.ovgu.featureide.fm.core.analysis.cnf.formula.FeatureModelFormula;
+import de.ovgu.featureide.fm.core.analysis.cnf.formula.PresenceConditionCheckerCreator;
 import de.ovgu.featureide.fm.core.base.FeatureUtils;
 import de.ovgu.featureide.fm.core.base.IFeature;
 import de.ovgu.featureide.fm.core.base.IFeatureModel;
 import de.ovgu.featureide.fm.core.configuration.Configuration;
-import de.ovgu.featureide.fm.core.editing.AdvancedNodeCreator;
 import de.ovgu.featureide.fm.core.explanations.preprocessors.InvariantPresenceConditionExplanation;
 import de.ovgu.featureide.fm.core.explanations.preprocessors.InvariantPresenceConditionExplanationCreator;
 import de.ovgu.featureide.fm.core.explanations.preprocessors.PreprocessorExplanationCreatorFactory;
@@ -118,6 +114,12 @@ public abstract class PPComposerExtensionClass extends ComposerExtensionClass {
 	 */
 	protected boolean voidFeatureModel;
 
+	/**
+	 * Checks the expressions of annotations against the feature model. Obtained in {@link #prepareFullBuild(Path)} and shared until the feature model
+	 * changes.
+	 */
+	protected PresenceConditionChecker presenceConditionChecker;
+
 	/**
 	 * Preprocessor name used for messages in build markers (must set in subclass).
 	 */
@@ -211,12 +213,8 @@ public abstract class PPComposerExtensionClass extends ComposerExtensionClass {
 			patternIsConcreteFeature = Pattern.compile(concreteFeatures.substring(0, concreteFeatures.length() - 1));
 		}
 
-		// create expression of feature model
-		try {
-			voidFeatureModel = !new SatSolver(AdvancedNodeCreator.createNodes(featureModel), 1000).hasSolution();
-		} catch (final TimeoutException e) {
-			voidFeatureModel = false;
-		}
+		presenceConditionChecker = persistentFormula.getElement(new PresenceConditionCheckerCreator());
+		voidFeatureModel = presenceConditionChecker.isVoid();
 
 		featureList = Functional.toList(FeatureUtils.extractFeatureNames(featureModel.getFeatures()));
 
@@ -234,58 +232,25 @@ public abstract class PPComposerExtensionClass extends ComposerExtensionClass {
 	protected AnnotationStatus isContradictionOrTautology() {
 		final Node expression = expressionStack.peek();
 
-		Node nestedExpressions = null;
-		if (expressionStack.size() > 1) {
-			Node[] children = expressionStack.toArray(new Node[expressionStack.size()]);
-			children = Arrays.copyOfRange(children, 1, children.length); // Exclude the topmost expression because it is examined separately.
-			nestedExpressions = new And(children);
-		}
+		final List<Node> nestedExpressions = new ArrayList<>(expressionStack);
+		nestedExpressions.remove(0); // Exclude the topmost expression because it is examined separately.
 
-		try {
-			return isContradictionOrTautology(expression, AdvancedNodeCreator.createNodes(featureModel), nestedExpressions);
-		} catch (final TimeoutException e) {
-			CorePlugin.getDefault().logError(e);
+		switch (presenceConditionChecker.check(expression, nestedExpressions)) {
+		case NORMAL:
 			return AnnotationStatus.NORMAL;
-		}
-	}
-
-	private AnnotationStatus isContradictionOrTautology(Node expression, Node featureModel, Node nestedExpressions) throws TimeoutException {
-		if (voidFeatureModel) {
+		case VOID:
 			return AnnotationStatus.VOID;
-		}
-
-		/*
-		 * -SAT(expression)
-		 */
-		if (!new SatSolver(expression, 1000).hasSolution()) {
-			return AnnotationStatus.CONTRADICTION;
-		}
-
-		/*
-		 * -SAT(-expression)
-		 */
-		if (!new SatSolver(new Not(expression), 1000).hasSolution()) {
-			return AnnotationStatus.TAUTOLOGY;
-		}
-
-		final Node context = (nestedExpressions != null) ? new And(featureModel, nestedExpressions) : featureModel;
-
-		/*
-		 * -SAT(FM & nestedExpressions & expression)
-		 */
-		if (!new SatSolver(new And(context, expression), 1000).hasSolution()) {
+		case DEAD:
 			return AnnotationStatus.DEAD;
-		}
-
-		/*
-		 * TAUT(FM & nestedExpressions => expression) = -SAT(-(FM & nestedExpressions => expression)) = -SAT(-(-(FM & nestedExpressions) | expression)) =
-		 * -SAT(-(-FM | -nestedExpressions | expression)) = -SAT(FM & nestedExpressions & -expression)
-		 */
-		if (!new SatSolver(new And(context, new Not(expression)), 1000).hasSolution()) {
+		case SUPERFLUOUS:
 			return AnnotationStatus.SUPERFLUOUS;
+		case CONTRADICTION:
+			return AnnotationStatus.CONTRADICTION;
+		case TAUTOLOGY:
+			return AnnotationStatus.TAUTOLOGY;
+		default:
+			throw new IllegalStateException("Unknown presence condition status");
 		}
-
-		return AnnotationStatus.NORMAL;
 	}
 
 	/**
@@ -0,0 +1,247 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.core.signature;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+
+import org.prop4j.And;
+import org.prop4j.Node;
+
+import de.ovgu.featureide.core.signature.base.AFeatureData;
+import de.ovgu.featureide.core.signature.base.AbstractSignature;
+import de.ovgu.featureide.fm.core.analysis.cnf.CNF;
+import de.ovgu.featureide.fm.core.analysis.cnf.LiteralSet;
+import de.ovgu.featureide.fm.core.analysis.cnf.Nodes;
+import de.ovgu.featureide.fm.core.analysis.cnf.Variables;
+import de.ovgu.featureide.fm.core.analysis.cnf.analysis.CoreDeadAnalysis;
+import de.ovgu.featureide.fm.core.analysis.cnf.formula.FeatureModelFormula;
+import de.ovgu.featureide.fm.core.analysis.cnf.solver.AdvancedSatSolver;
+import de.ovgu.featureide.fm.core.analysis.cnf.solver.ISimpleSatSolver.SatResult;
+import de.ovgu.featureide.fm.core.analysis.cnf.solver.RuntimeContradictionException;
+import de.ovgu.featureide.fm.core.job.LongRunningWrapper;
+
+/**
+ * Precomputed implications between the features of a {@link ProjectSignatures} object.<br> For each feature, the index stores which concrete features are
+ * implied or excluded by the feature model when the feature is selected. Together with the feature ids of each signature as bit set, most queries of the
+ * signature filters can be answered without a sat solver.
+ *
+ * @author FeatureIDE Team
+ */
+public class FeatureImplicationIndex {
+
+	private static final int TIMEOUT = 2000;
+
+	/**
+	 * The implications of a fixed context, i.e., the feature model together with additional constraints.
+	 */
+	public static class Context {
+
+		private final ProjectSignatures projectSignatures;
+		private final Variables variables;
+		private final int[] assumptions;
+		private final AdvancedSatSolver solver;
+
+		private final BitSet impliedFeatures = new BitSet();
+		private final BitSet excludedFeatures = new BitSet();
+		private final HashMap<BitSet, Boolean> verdicts = new HashMap<>();
+		private final boolean contradiction;
+
+		private Context(ProjectSignatures projectSignatures, CNF cnf, int[] assumptions) {
+			this.projectSignatures = projectSignatures;
+			this.assumptions = assumptions;
+			variables = cnf.getVariables();
+
+			AdvancedSatSolver solver;
+			try {
+				solver = new AdvancedSatSolver(cnf);
+				solver.setTimeout(TIMEOUT);
+			} catch (final RuntimeContradictionException e) {
+				solver = null;
+			}
+			this.solver = solver;
+			contradiction = (solver == null) || (solver.hasSolution(assumptions) == SatResult.FALSE);
+
+			if (!contradiction) {
+				final CoreDeadAnalysis analysis = new CoreDeadAnalysis(solver);
+				analysis.setAssumptions(new LiteralSet(assumptions));
+				analysis.setTimeout(TIMEOUT);
+				final LiteralSet impliedLiterals = LongRunningWrapper.runMethod(analysis);
+				if (impliedLiterals != null) {
+					addImpliedLiterals(impliedLiterals.getLiterals());
+				}
+				addImpliedLiterals(assumptions);
+			}
+		}
+
+		private void addImpliedLiterals(int[] literals) {
+			for (final int literal : literals) {
+				final int id = projectSignatures.getFeatureID(variables.getName(literal));
+				if (id > -1) {
+					if (literal > 0) {
+						impliedFeatures.set(id);
+					} else {
+						excludedFeatures.set(id);
+					}
+				}
+			}
+		}
+
+		/**
+		 * @return {@code true} if the context is unsatisfiable.
+		 */
+		public boolean isContradiction() {
+			return contradiction;
+		}
+
+		/**
+		 * @param featureID the id of a concrete feature
+		 * @return {@code true} if the feature is selected in every configuration of this context.
+		 */
+		public boolean isImplied(int featureID) {
+			return contradiction || impliedFeatures.get(featureID);
+		}
+
+		/**
+		 * @param featureID the id of a concrete feature
+		 * @return {@code true} if the feature is deselected in every configuration of this context.
+		 */
+		public boolean isExcluded(int featureID) {
+			return contradiction || excludedFeatures.get(featureID);
+		}
+
+		/**
+		 * Checks whether at least one of the given features is selected in every configuration of this context.<br> The check uses the implied and excluded
+		 * features of the context and previous results. Only if these are not sufficient, a sat solver is called.
+		 *
+		 * @param featureIDs the ids of concrete features
+		 * @return {@code true} if the context implies the disjunction of the given features.
+		 */
+		public synchronized boolean impliesAny(BitSet featureIDs) {
+			if (contradiction || featureIDs.intersects(impliedFeatures)) {
+				return true;
+			}
+
+			// excluded features cannot satisfy the disjunction
+			final BitSet remainingIDs = (BitSet) featureIDs.clone();
+			remainingIDs.andNot(excludedFeatures);
+
+			// a single feature that is not implied cannot satisfy the disjunction
+			if (remainingIDs.cardinality() <= 1) {
+				return false;
+			}
+
+			final Boolean verdict = verdicts.get(remainingIDs);
+			if (verdict != null) {
+				return verdict;
+			}
+
+			final int[] literals = Arrays.copyOf(assumptions, assumptions.length + remainingIDs.cardinality());
+			int i = assumptions.length;
+			for (int id = remainingIDs.nextSetBit(0); id >= 0; id = remainingIDs.nextSetBit(id + 1)) {
+				// features that do not occur in the formula can always be deselected
+				final int variable = variables.getVariable(projectSignatures.getFeatureName(id));
+				if (variable != 0) {
+					literals[i++] = -variable;
+				}
+			}
+			switch (solver.hasSolution(Arrays.copyOf(literals, i))) {
+			case FALSE:
+				verdicts.put(remainingIDs, true);
+				return true;
+			case TRUE:
+				verdicts.put(remainingIDs, false);
+				return false;
+			case TIMEOUT:
+			default:
+				return false;
+			}
+		}
+	}
+
+	private final ProjectSignatures projectSignatures;
+	private final FeatureModelFormula formula;
+
+	private final Context[] featureContexts;
+	private final IdentityHashMap<AbstractSignature, BitSet> signatureFeatures = new IdentityHashMap<>();
+
+	FeatureImplicationIndex(ProjectSignatures projectSignatures) {
+		this.projectSignatures = projectSignatures;
+		formula = new FeatureModelFormula(projectSignatures.getFeatureModel());
+		featureContexts = new Context[projectSignatures.getFeatureCount()];
+	}
+
+	/**
+	 * Returns the context in which the given feature is selected. The context is computed once and reused for all subsequent calls.
+	 *
+	 * @param featureID the id of a concrete feature
+	 * @return the context of the feature
+	 */
+	public synchronized Context getContext(int featureID) {
+		Context context = featureContexts[featureID];
+		if (context == null) {
+			final CNF cnf = formula.getCNF();
+			context = new Context(projectSignatures, cnf, new int[] { cnf.getVariables().getVariable(projectSignatures.getFeatureName(featureID)) });
+			featureContexts[featureID] = context;
+		}
+		return context;
+	}
+
+	/**
+	 * Computes the context defined by the feature model and the given constraints. The context is not stored in the index.
+	 *
+	 * @param constraints additional constraints
+	 * @return the new context
+	 */
+	public Context createContext(Node[] constraints) {
+		final Node[] fixClauses = new Node[constraints.length + 1];
+		fixClauses[0] = formula.getCNFNode();
+		System.arraycopy(constraints, 0, fixClauses, 1, constraints.length);
+		return new Context(projectSignatures, Nodes.convert(new And(fixClauses)), new int[0]);
+	}
+
+	/**
+	 * Returns the ids of all features that contain the given signature. The bit set is computed once per signature.
+	 *
+	 * @param signature the signature
+	 * @return the feature ids as bit set, which must not be modified
+	 */
+	public synchronized BitSet getFeatureIDs(AbstractSignature signature) {
+		BitSet featureIDs = signatureFeatures.get(signature);
+		if (featureIDs == null) {
+			featureIDs = new BitSet(projectSignatures.getFeatureCount());
+			final AFeatureData[] featureData = signature.getFeatureData();
+			if (featureData != null) {
+				for (final AFeatureData data : featureData) {
+					if (data.getID() > -1) {
+						featureIDs.set(data.getID());
+					}
+				}
+				// feature data is only set once
+				signatureFeatures.put(signature, featureIDs);
+			}
+		}
+		return featureIDs;
+	}
+
+}
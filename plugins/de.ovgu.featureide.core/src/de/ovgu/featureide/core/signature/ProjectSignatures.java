@@ -123,6 +123,8 @@ public class ProjectSignatures implements Iterable<AbstractSignature> {
 
 	private final IFeatureModel featureModel;
 
+	private FeatureImplicationIndex implicationIndex = null;
+
 	private int hashCode = 0;
 	private boolean hasHashCode = false;
 
@@ -204,8 +206,21 @@ public class ProjectSignatures implements Iterable<AbstractSignature> {
 		return featureModel;
 	}
 
-	public void setSignatureArray(AbstractSignature[] signatureArray) {
+	/**
+	 * Returns the implication index for the features and signatures of this project. The index is created on first access.
+	 *
+	 * @return the implication index
+	 */
+	public synchronized FeatureImplicationIndex getImplicationIndex() {
+		if (implicationIndex == null) {
+			implicationIndex = new FeatureImplicationIndex(this);
+		}
+		return implicationIndex;
+	}
+
+	public synchronized void setSignatureArray(AbstractSignature[] signatureArray) {
 		this.signatureArray = signatureArray;
+		implicationIndex = null;
 	}
 
 	@Override
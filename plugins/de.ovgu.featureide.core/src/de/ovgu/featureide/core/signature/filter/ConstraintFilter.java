@@ -20,6 +20,7 @@
  */
 package de.ovgu.featureide.core.signature.filter;
 
+import java.util.HashMap;
 import java.util.function.Predicate;
 
 import org.prop4j.And;
@@ -27,72 +28,105 @@ import org.prop4j.Literal;
 import org.prop4j.Node;
 import org.prop4j.Not;
 import org.prop4j.Or;
-import org.prop4j.SatSolver;
 import org.sat4j.specs.TimeoutException;
 
 import de.ovgu.featureide.core.CorePlugin;
 import de.ovgu.featureide.core.signature.base.IConstrainedObject;
+import de.ovgu.featureide.fm.core.analysis.cnf.solver.NodeQuerySolver;
+import de.ovgu.featureide.fm.core.analysis.cnf.solver.SolverPool;
 
 public class ConstraintFilter implements Predicate<IConstrainedObject> {
 
-	private final SatSolver solver;
+	private final NodeQuerySolver solver;
 
 	private final boolean includeNullConstraint;
 
+	// cached results, such that the solver is called at most once per distinct literal
+	private final HashMap<Node, Boolean> constraintVerdicts = new HashMap<>();
+	private final HashMap<Node, Boolean> literalVerdicts = new HashMap<>();
+
 	public ConstraintFilter(Node... constraints) {
 		this(true, constraints);
 	}
 
 	public ConstraintFilter(boolean includeNullConstraint, Node... constraints) {
-		solver = new SatSolver(new And(constraints), 2000);
+		// reuse one solver for all queries of this filter without occupying the default pool
+		solver = new NodeQuerySolver(new And(constraints), new SolverPool(1));
+		solver.setTimeout(2000);
 		this.includeNullConstraint = includeNullConstraint;
 	}
 
 	@Override
 	public boolean test(IConstrainedObject object) {
-		Node constraint = object.getConstraint();
+		final Node constraint = object.getConstraint();
 
 		if (constraint == null) {
 			return includeNullConstraint;
 		}
 
-		constraint = new Not(constraint).toCNF();
-
-		try {
-			if ((constraint instanceof Literal)) {
-				return !solver.isSatisfiable(new Node[] { constraint });
-			} else if (constraint instanceof Or) {
-				return checkOr(constraint);
-			} else {
-				final Node[] andChildren = constraint.getChildren();
-				for (int i = 0; i < andChildren.length; i++) {
-					final Node andChild = andChildren[i];
-					if (andChild instanceof Or) {
-						if (checkOr(andChild)) {
-							return true;
-						}
-					} else {
-						if (!solver.isSatisfiable(andChild)) {
-							return true;
-						}
+		Boolean verdict = constraintVerdicts.get(constraint);
+		if (verdict == null) {
+			try {
+				verdict = check(new Not(constraint).toCNF());
+				constraintVerdicts.put(constraint, verdict);
+			} catch (final TimeoutException e) {
+				CorePlugin.getDefault().logError(e);
+				return false;
+			}
+		}
+		return verdict;
+	}
+
+	private boolean check(Node constraint) throws TimeoutException {
+		if ((constraint instanceof Literal)) {
+			return isUnsatisfiable(constraint);
+		} else if (constraint instanceof Or) {
+			return checkOr(constraint);
+		} else {
+			final Node[] andChildren = constraint.getChildren();
+			for (int i = 0; i < andChildren.length; i++) {
+				final Node andChild = andChildren[i];
+				if (andChild instanceof Or) {
+					if (checkOr(andChild)) {
+						return true;
+					}
+				} else {
+					if (isUnsatisfiable(andChild)) {
+						return true;
 					}
 				}
-				return false;
 			}
-		} catch (final TimeoutException e) {
-			CorePlugin.getDefault().logError(e);
 			return false;
 		}
-
 	}
 
 	private boolean checkOr(Node or) throws TimeoutException {
 		for (final Node orChild : or.getChildren()) {
-			if (!solver.isSatisfiable(orChild)) {
+			if (isUnsatisfiable(orChild)) {
 				return true;
 			}
 		}
 		return false;
 	}
 
+	private boolean isUnsatisfiable(Node literal) throws TimeoutException {
+		Boolean verdict = literalVerdicts.get(literal);
+		if (verdict == null) {
+			switch (solver.hasSolution(literal)) {
+			case FALSE:
+				verdict = true;
+				break;
+			case TRUE:
+				verdict = false;
+				break;
+			case TIMEOUT:
+				throw new TimeoutException();
+			default:
+				throw new AssertionError();
+			}
+			literalVerdicts.put(literal, verdict);
+		}
+		return verdict;
+	}
+
 }
@@ -20,77 +20,46 @@
  */
 package de.ovgu.featureide.core.signature.filter;
 
-import java.util.Arrays;
 import java.util.function.Predicate;
 
-import org.prop4j.And;
 import org.prop4j.Literal;
 import org.prop4j.Node;
-import org.prop4j.SatSolver;
-import org.sat4j.specs.TimeoutException;
 
-import de.ovgu.featureide.core.CorePlugin;
+import de.ovgu.featureide.core.signature.FeatureImplicationIndex;
+import de.ovgu.featureide.core.signature.FeatureImplicationIndex.Context;
 import de.ovgu.featureide.core.signature.ProjectSignatures;
-import de.ovgu.featureide.core.signature.base.AFeatureData;
 import de.ovgu.featureide.core.signature.base.AbstractSignature;
-import de.ovgu.featureide.fm.core.editing.AdvancedNodeCreator;
 
 public class ContextFilter implements Predicate<AbstractSignature> {
 
 	private final ProjectSignatures projectSignatures;
-	private final Node fmNode;
-	private final boolean[] selectedFeatures;
-	private SatSolver solver;
+	private final FeatureImplicationIndex index;
+	private Context context;
 
 	public ContextFilter(String featureName, ProjectSignatures projectSignatures) {
-		this(new Node[] { new Literal(featureName, true) }, projectSignatures);
+		this.projectSignatures = projectSignatures;
+		index = projectSignatures.getImplicationIndex();
+		init(featureName);
 	}
 
 	public ContextFilter(Node[] constraints, ProjectSignatures projectSignatures) {
 		this.projectSignatures = projectSignatures;
-		fmNode = AdvancedNodeCreator.createNodes(projectSignatures.getFeatureModel());
-		selectedFeatures = new boolean[projectSignatures.getFeatureModel().getNumberOfFeatures()];
-
+		index = projectSignatures.getImplicationIndex();
 		init(constraints);
 	}
 
 	public void init(String featureName) {
-		init(new Node[] { new Literal(featureName, true) });
+		final int id = projectSignatures.getFeatureID(featureName);
+		context = id > -1 ? index.getContext(id) : index.createContext(new Node[] { new Literal(featureName, true) });
 	}
 
 	public void init(Node[] constraints) {
-		final Node[] fixClauses = new Node[constraints.length + 1];
-		fixClauses[0] = fmNode;
-		System.arraycopy(constraints, 0, fixClauses, 1, constraints.length);
-		Arrays.fill(selectedFeatures, false);
-
-		solver = new SatSolver(new And(fixClauses), 2000);
-
-		for (final Literal literal : solver.knownValues(SatSolver.ValueType.TRUE)) {
-			final int id = projectSignatures.getFeatureID(literal.var.toString());
-			if (id > -1) {
-				selectedFeatures[id] = true;
-			}
-		}
+		context = index.createContext(constraints);
 	}
 
 	@Override
 	public boolean test(AbstractSignature signature) {
-		final AFeatureData[] ids = signature.getFeatureData();
-		final Node[] negativeLiterals = new Node[ids.length];
-		for (int i = 0; i < ids.length; ++i) {
-			final int id = ids[i].getID();
-			if (selectedFeatures[id]) {
-				return true;
-			}
-			negativeLiterals[i] = new Literal(projectSignatures.getFeatureName(id), false);
-		}
-		try {
-			return !solver.isSatisfiable(negativeLiterals);
-		} catch (final TimeoutException e) {
-			CorePlugin.getDefault().logError(e);
-			return false;
-		}
+		return context.impliesAny(index.getFeatureIDs(signature));
 	}
 
 }
@@ -84,6 +84,12 @@ public class XmlExtendedFeatureModelFormat extends XmlFeatureModelFormat impleme
 		factory = oldFormat.factory;
 	}
 
+	@Override
+	protected boolean supportsStreaming() {
+		// feature attributes are only supported by the document based implementation
+		return false;
+	}
+
 	@Override
 	protected void readDocument(Document doc, List<Problem> warnings) throws UnsupportedModelException {
 		object.reset();
@@ -295,6 +295,31 @@ public class AnalysesCollection {
 
 	}
 
+	static final class CoreDeadAnalysisWrapper extends AnalysisWrapper<LiteralSet, CoreDeadAnalysis> {
+
+		private int numberOfThreads = 1;
+
+		private CoreDeadAnalysisWrapper(Class<CoreDeadAnalysis> analysis) {
+			super(analysis);
+		}
+
+		@Override
+		protected void configureAnalysis(CNF cnf, CoreDeadAnalysis analysis) {
+			analysis.setNumberOfThreads(numberOfThreads);
+		}
+
+		public int getNumberOfThreads() {
+			return numberOfThreads;
+		}
+
+		public void setNumberOfThreads(int numberOfThreads) {
+			if (this.numberOfThreads != numberOfThreads) {
+				this.numberOfThreads = numberOfThreads;
+				reset();
+			}
+		}
+	}
+
 	static final class IndeterminesAnalzsisWrapper extends AnalysisWrapper<LiteralSet, IndeterminedAnalysis> {
 
 		private IndeterminesAnalzsisWrapper(Class<IndeterminedAnalysis> analysis) {
@@ -398,7 +423,7 @@ public class AnalysesCollection {
 	private FeatureModelFormula formula;
 	final AnalysisWrapper<Boolean, HasSolutionAnalysis> validAnalysis = new AnalysisWrapper<>(HasSolutionAnalysis.class);
 	final AnalysisWrapper<List<LiteralSet>, AtomicSetAnalysis> atomicSetAnalysis = new AnalysisWrapper<>(AtomicSetAnalysis.class);
-	final AnalysisWrapper<LiteralSet, CoreDeadAnalysis> coreDeadAnalysis = new AnalysisWrapper<>(CoreDeadAnalysis.class);
+	final CoreDeadAnalysisWrapper coreDeadAnalysis = new CoreDeadAnalysisWrapper(CoreDeadAnalysis.class);
 	final FalseOptionalAnalysisWrapper foAnalysis = new FalseOptionalAnalysisWrapper();
 	final AnalysisWrapper<LiteralSet, IndeterminedAnalysis> determinedAnalysis = new IndeterminesAnalzsisWrapper(IndeterminedAnalysis.class);
 	final ConstraintAnalysisWrapper<RemoveRedundancyAnalysis> constraintRedundancyAnalysis =
@@ -466,6 +491,7 @@ public class AnalysesCollection {
 		while (thisAnalysesIterator.hasNext()) {
 			thisAnalysesIterator.next().setEnabled(otherAnalysesIterator.next().isEnabled());
 		}
+		coreDeadAnalysis.setNumberOfThreads(otherCollection.coreDeadAnalysis.getNumberOfThreads());
 	}
 
 	/**
@@ -523,6 +549,18 @@ public class AnalysesCollection {
 		constraintAnomaliesAnalysis.setEnabled(calculateDeadConstraints);
 	}
 
+	public int getNumberOfThreads() {
+		return coreDeadAnalysis.getNumberOfThreads();
+	}
+
+	/**
+	 * Defines the number of threads that are used to find core and dead features and to explain multiple anomalies. By default, a single thread is used.
+	 */
+	public void setNumberOfThreads(int numberOfThreads) {
+		coreDeadAnalysis.setNumberOfThreads(numberOfThreads);
+		multipleAnomaliesExplanationCreator.setNumberOfThreads(numberOfThreads);
+	}
+
 	public boolean isRunCalculationAutomatically() {
 		return FeatureModelProperty.isRunCalculationAutomatically(formula.getFeatureModel());
 	}
@@ -40,8 +40,9 @@ import de.ovgu.featureide.fm.core.analysis.cnf.LiteralSet;
 import de.ovgu.featureide.fm.core.analysis.cnf.Variables;
 import de.ovgu.featureide.fm.core.analysis.cnf.analysis.CauseAnalysis.Anomalies;
 import de.ovgu.featureide.fm.core.analysis.cnf.analysis.CoreDeadAnalysis;
-import de.ovgu.featureide.fm.core.analysis.cnf.analysis.HasSolutionAnalysis;
 import de.ovgu.featureide.fm.core.analysis.cnf.formula.FeatureModelFormula;
+import de.ovgu.featureide.fm.core.analysis.cnf.formula.NodeQuerySolverCreator;
+import de.ovgu.featureide.fm.core.analysis.cnf.solver.ISimpleSatSolver.SatResult;
 import de.ovgu.featureide.fm.core.base.FeatureUtils;
 import de.ovgu.featureide.fm.core.base.IConstraint;
 import de.ovgu.featureide.fm.core.base.IFeature;
@@ -680,8 +681,7 @@ public class FeatureModelAnalyzer implements IEventListener {
 			return true;
 		}
 
-		final CNF cnf = formula.getCNF();
-		final Variables variables = cnf.getVariables();
+		final Variables variables = formula.getCNF().getVariables();
 
 		// (A1 and ... or An) => (B1 or ... or Bm)
 		// |= -A1 or ... or -An or B1 or ... or Bm
@@ -695,10 +695,7 @@ public class FeatureModelAnalyzer implements IEventListener {
 			literals[index++] = variables.getVariable(feature.getName());
 		}
 
-		final HasSolutionAnalysis analysis = new HasSolutionAnalysis(cnf);
-		analysis.setAssumptions(new LiteralSet(literals));
-
-		return LongRunningWrapper.runMethod(analysis);
+		return formula.getElement(new NodeQuerySolverCreator()).hasSolution(literals) == SatResult.TRUE;
 	}
 
 	/**
@@ -765,6 +762,25 @@ public class FeatureModelAnalyzer implements IEventListener {
 		return analysesCollection.deadFeatureExplanations.get(feature);
 	}
 
+	/**
+	 * Returns a previously created explanation why the given feature is dead. Does not create a new explanation.
+	 *
+	 * @param feature potentially dead feature; not null
+	 * @return the remembered explanation; null if there is none
+	 */
+	public DeadFeatureExplanation getCachedDeadFeatureExplanation(IFeature feature) {
+		return analysesCollection.deadFeatureExplanations.get(feature);
+	}
+
+	/**
+	 * Remembers an explanation why the given feature is dead that was created outside of this analyzer.
+	 *
+	 * @param explanation explanation for a dead feature; not null
+	 */
+	public void setDeadFeatureExplanation(DeadFeatureExplanation explanation) {
+		analysesCollection.deadFeatureExplanations.put(explanation.getSubject(), explanation);
+	}
+
 	/**
 	 * Adds an explanation why the given feature is dead.
 	 *
@@ -807,6 +823,25 @@ public class FeatureModelAnalyzer implements IEventListener {
 		return analysesCollection.falseOptionalFeatureExplanations.get(feature);
 	}
 
+	/**
+	 * Returns a previously created explanation why the given feature is false-optional. Does not create a new explanation.
+	 *
+	 * @param feature potentially false-optional feature; not null
+	 * @return the remembered explanation; null if there is none
+	 */
+	public FalseOptionalFeatureExplanation getCachedFalseOptionalFeatureExplanation(IFeature feature) {
+		return analysesCollection.falseOptionalFeatureExplanations.get(feature);
+	}
+
+	/**
+	 * Remembers an explanation why the given feature is false-optional that was created outside of this analyzer.
+	 *
+	 * @param explanation explanation for a false-optional feature; not null
+	 */
+	public void setFalseOptionalFeatureExplanation(FalseOptionalFeatureExplanation explanation) {
+		analysesCollection.falseOptionalFeatureExplanations.put(explanation.getSubject(), explanation);
+	}
+
 	/**
 	 * Adds an explanation why the given feature is false-optional.
 	 *
@@ -848,6 +883,25 @@ public class FeatureModelAnalyzer implements IEventListener {
 		return analysesCollection.redundantConstraintExplanations.get(constraint);
 	}
 
+	/**
+	 * Returns a previously created explanation why the given constraint is redundant. Does not create a new explanation.
+	 *
+	 * @param constraint potentially redundant constraint; not null
+	 * @return the remembered explanation; null if there is none
+	 */
+	public RedundantConstraintExplanation getCachedRedundantConstraintExplanation(IConstraint constraint) {
+		return analysesCollection.redundantConstraintExplanations.get(constraint);
+	}
+
+	/**
+	 * Remembers an explanation why the given constraint is redundant that was created outside of this analyzer.
+	 *
+	 * @param explanation explanation for a redundant constraint; not null
+	 */
+	public void setRedundantConstraintExplanation(RedundantConstraintExplanation explanation) {
+		analysesCollection.redundantConstraintExplanations.put(explanation.getSubject(), explanation);
+	}
+
 	/**
 	 * <p> Adds an explanation why the given constraint is redundant. </p>
 	 *
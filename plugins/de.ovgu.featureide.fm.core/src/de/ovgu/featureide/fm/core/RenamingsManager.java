@@ -109,8 +109,13 @@ public class RenamingsManager implements IEventManager, Cloneable {
 
 	public void notifyAboutRenamings() {
 		final IFeatureModelManager instance = FeatureModelManager.getInstance(model);
-		for (final Renaming renaming : renamings) {
-			instance.fireEvent(new FeatureIDEEvent(model, EventType.FEATURE_NAME_PERSISTENTLY_CHANGED, renaming.oldName, renaming.newName));
+		instance.startBatch();
+		try {
+			for (final Renaming renaming : renamings) {
+				instance.fireEvent(new FeatureIDEEvent(model, EventType.FEATURE_NAME_PERSISTENTLY_CHANGED, renaming.oldName, renaming.newName));
+			}
+		} finally {
+			instance.endBatch();
 		}
 		renamings.clear();
 	}
@@ -190,6 +195,16 @@ public class RenamingsManager implements IEventManager, Cloneable {
 		eventManager.fireEvent(event);
 	}
 
+	@Override
+	public void startBatch() {
+		eventManager.startBatch();
+	}
+
+	@Override
+	public void endBatch() {
+		eventManager.endBatch();
+	}
+
 	@Override
 	public void removeListener(IEventListener listener) {
 		eventManager.removeListener(listener);
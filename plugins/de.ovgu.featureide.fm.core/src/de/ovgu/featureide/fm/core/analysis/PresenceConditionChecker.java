@@ -0,0 +1,267 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.analysis;
+
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.prop4j.Implies;
+import org.prop4j.Literal;
+import org.prop4j.Node;
+import org.prop4j.NodeWriter;
+import org.prop4j.Not;
+import org.prop4j.explain.solvers.MutableSatSolver;
+import org.prop4j.explain.solvers.SatSolverFactory;
+
+import de.ovgu.featureide.fm.core.analysis.cnf.formula.PresenceConditionCheckerCreator;
+
+/**
+ * Checks presence conditions (e.g., of preprocessor annotations) for contradictions and tautologies with respect to a feature model.<br> <br> The feature
+ * model is encoded only once into an incremental {@link MutableSatSolver}. Each distinct expression is added to the solver as a pair of activation
+ * variables {@code p => expression} and {@code n => -expression}, such that an expression and its nested context can be checked by assuming activation
+ * variables. Results are memoized for each expression and its (unordered) context.<br> <br> Instances are thread-safe. Concurrent callers use separate
+ * solvers, such that annotations of many files can be checked in parallel. Use {@link PresenceConditionCheckerCreator} to obtain an instance that is
+ * shared until the feature model changes.
+ *
+ * @author FeatureIDE Team
+ */
+public class PresenceConditionChecker {
+
+	/**
+	 * The status of a presence condition.
+	 */
+	public enum Status {
+		/** The presence condition is satisfiable but not a tautology. */
+		NORMAL,
+		/** The feature model is void. */
+		VOID,
+		/** The presence condition is a contradiction with respect to the feature model and its context. */
+		DEAD,
+		/** The presence condition is a tautology with respect to the feature model and its context. */
+		SUPERFLUOUS,
+		/** The expression in and of itself is a contradiction. */
+		CONTRADICTION,
+		/** The expression in and of itself is a tautology. */
+		TAUTOLOGY,
+	}
+
+	/**
+	 * A variable that activates an expression (or its negation) in a solver. Compared by identity, such that it cannot clash with any feature name.
+	 */
+	private static final class ActivationVariable {
+
+		private final int id;
+		private final boolean positive;
+
+		private ActivationVariable(int id, boolean positive) {
+			this.id = id;
+			this.positive = positive;
+		}
+
+		@Override
+		public String toString() {
+			return (positive ? "__activate_" : "__activate_not_") + id;
+		}
+
+	}
+
+	/**
+	 * A pair of solvers, one containing the feature model and one containing only the activated expressions.
+	 */
+	private final class Solvers {
+
+		private final MutableSatSolver modelSolver = SatSolverFactory.getDefault().getMutableSatSolver();
+		private final MutableSatSolver expressionSolver = SatSolverFactory.getDefault().getMutableSatSolver();
+		private final Map<String, ActivationVariable[]> activationVariables = new HashMap<>();
+
+		private Solvers() {
+			modelSolver.addFormula(featureModel);
+		}
+
+		private ActivationVariable[] activate(Node expression) {
+			final String key = toKey(expression);
+			ActivationVariable[] variables = activationVariables.get(key);
+			if (variables == null) {
+				final int id = activationVariables.size();
+				variables = new ActivationVariable[] { new ActivationVariable(id, true), new ActivationVariable(id, false) };
+				final Node positive = new Implies(new Literal(variables[0]), expression.clone());
+				final Node negative = new Implies(new Literal(variables[1]), new Not(expression.clone()));
+				modelSolver.addFormulas(positive, negative);
+				expressionSolver.addFormulas(positive.clone(), negative.clone());
+				activationVariables.put(key, variables);
+			}
+			return variables;
+		}
+
+		private Status check(Node expression, Collection<? extends Node> context) {
+			final ActivationVariable[] variables = activate(expression);
+
+			/*
+			 * -SAT(expression)
+			 */
+			if (!isSatisfiable(expressionSolver, Collections.<Object, Boolean> singletonMap(variables[0], true))) {
+				return Status.CONTRADICTION;
+			}
+
+			/*
+			 * -SAT(-expression)
+			 */
+			if (!isSatisfiable(expressionSolver, Collections.<Object, Boolean> singletonMap(variables[1], true))) {
+				return Status.TAUTOLOGY;
+			}
+
+			final Map<Object, Boolean> contextAssumptions = new LinkedHashMap<>();
+			for (final Node contextExpression : context) {
+				contextAssumptions.put(activate(contextExpression)[0], true);
+			}
+
+			/*
+			 * -SAT(FM & context & expression)
+			 */
+			final Map<Object, Boolean> assumptions = new LinkedHashMap<>(contextAssumptions);
+			assumptions.put(variables[0], true);
+			if (!isSatisfiable(modelSolver, assumptions)) {
+				return Status.DEAD;
+			}
+
+			/*
+			 * -SAT(FM & context & -expression)
+			 */
+			assumptions.clear();
+			assumptions.putAll(contextAssumptions);
+			assumptions.put(variables[1], true);
+			if (!isSatisfiable(modelSolver, assumptions)) {
+				return Status.SUPERFLUOUS;
+			}
+
+			return Status.NORMAL;
+		}
+
+		private boolean isSatisfiable(MutableSatSolver solver, Map<Object, Boolean> assumptions) {
+			solver.push();
+			try {
+				solver.addAssumptions(assumptions);
+				return solver.isSatisfiable();
+			} finally {
+				solver.pop();
+			}
+		}
+
+	}
+
+	private final Node featureModel;
+	private final boolean voidFeatureModel;
+
+	private final Map<String, Status> results = new ConcurrentHashMap<>();
+	private final ArrayDeque<Solvers> idleSolvers = new ArrayDeque<>();
+
+	/**
+	 * @param featureModel the formula of the feature model
+	 */
+	public PresenceConditionChecker(Node featureModel) {
+		this.featureModel = featureModel;
+		final Solvers solvers = new Solvers();
+		voidFeatureModel = !solvers.modelSolver.isSatisfiable();
+		idleSolvers.push(solvers);
+	}
+
+	/**
+	 * @return {@code true}, if the feature model is void, {@code false} otherwise.
+	 */
+	public boolean isVoid() {
+		return voidFeatureModel;
+	}
+
+	/**
+	 * Checks the given expression within the given context.
+	 *
+	 * @param expression the expression to check
+	 * @param context the expressions of all enclosing annotations (may be empty)
+	 * @return the status of the expression
+	 */
+	public Status check(Node expression, Collection<? extends Node> context) {
+		if (voidFeatureModel) {
+			return Status.VOID;
+		}
+		final String key = toKey(expression, context);
+		Status status = results.get(key);
+		if (status == null) {
+			final Solvers solvers = leaseSolvers();
+			try {
+				status = solvers.check(expression, context);
+			} finally {
+				releaseSolvers(solvers);
+			}
+			results.put(key, status);
+		}
+		return status;
+	}
+
+	/**
+	 * @return the number of distinct checks that were memoized.
+	 */
+	public int getNumberOfCachedResults() {
+		return results.size();
+	}
+
+	private Solvers leaseSolvers() {
+		synchronized (idleSolvers) {
+			final Solvers solvers = idleSolvers.poll();
+			if (solvers != null) {
+				return solvers;
+			}
+		}
+		return new Solvers();
+	}
+
+	private void releaseSolvers(Solvers solvers) {
+		synchronized (idleSolvers) {
+			idleSolvers.push(solvers);
+		}
+	}
+
+	private static String toKey(Node expression) {
+		return expression.toString(NodeWriter.shortSymbols);
+	}
+
+	/**
+	 * The key ignores the order and duplicates of the context expressions.
+	 */
+	private static String toKey(Node expression, Collection<? extends Node> context) {
+		final StringBuilder sb = new StringBuilder(toKey(expression));
+		final TreeSet<String> contextKeys = new TreeSet<>();
+		for (final Node contextExpression : context) {
+			contextKeys.add(toKey(contextExpression));
+		}
+		for (final String contextKey : contextKeys) {
+			sb.append('\n');
+			sb.append(contextKey);
+		}
+		return sb.toString();
+	}
+
+}
@@ -71,7 +71,7 @@ public class CNF implements Serializable {
 	 */
 	public CNF(CNF oldSatInstance, boolean copyClauses) {
 		variables = oldSatInstance.variables.clone();
-		clauses = copyClauses ? new ClauseList(oldSatInstance.clauses) : new ClauseList();
+		clauses = copyClauses ? new ClauseList(oldSatInstance.getClauses()) : new ClauseList();
 	}
 
 	public void addClause(LiteralSet clause) {
@@ -112,17 +112,22 @@ public class CNF implements Serializable {
 	public CNF normalize() {
 		if (isSliced()) {
 			final SlicedVariables slicedVariables = (SlicedVariables) variables;
+			final ClauseList clauses = getClauses();
 			final ClauseList newClauses = new ClauseList(clauses.size());
 			for (final LiteralSet literalSet : clauses) {
 				newClauses.add(variables.convertToInternal(literalSet));
 			}
 			final ArrayList<String> names = new ArrayList<>(variables.size());
+			int numberOfAuxiliaryVariables = 0;
 			for (int i = 0; i < variables.intToVar.length; i++) {
 				if (slicedVariables.orgToInternal[i] != 0) {
 					names.add(variables.intToVar[i]);
+					if (variables.isAuxiliary(i)) {
+						numberOfAuxiliaryVariables++;
+					}
 				}
 			}
-			return new CNF(new Variables(names), newClauses);
+			return new CNF(new Variables(names, numberOfAuxiliaryVariables), newClauses);
 		} else {
 			return this;
 		}
@@ -141,6 +146,7 @@ public class CNF implements Serializable {
 	public int hashCode() {
 		final int prime = 31;
 		int result = 1;
+		final ClauseList clauses = getClauses();
 		result = (prime * result) + ((clauses == null) ? 0 : clauses.hashCode());
 		result = (prime * result) + ((variables == null) ? 0 : variables.hashCode());
 		return result;
@@ -155,11 +161,12 @@ public class CNF implements Serializable {
 			return false;
 		}
 		final CNF other = (CNF) obj;
+		final ClauseList clauses = getClauses();
 		if (clauses == null) {
-			if (other.clauses != null) {
+			if (other.getClauses() != null) {
 				return false;
 			}
-		} else if (!clauses.equals(other.clauses)) {
+		} else if (!clauses.equals(other.getClauses())) {
 			return false;
 		}
 		if (variables == null) {
@@ -174,10 +181,11 @@ public class CNF implements Serializable {
 
 	@Override
 	public String toString() {
-		return "CNF\n\tvariables=" + variables + "\n\tclauses=" + clauses;
+		return "CNF\n\tvariables=" + variables + "\n\tclauses=" + getClauses();
 	}
 
 	public String getClauseString() {
+		final ClauseList clauses = getClauses();
 		final StringBuilder sb = new StringBuilder();
 		for (final LiteralSet clause : clauses) {
 			sb.append("(");
@@ -214,9 +222,7 @@ public class CNF implements Serializable {
 	}
 
 	public CNF randomize(Random random) {
-		final List<String> shuffledVars = Arrays.asList(Arrays.copyOfRange(variables.intToVar, 1, variables.intToVar.length));
-		Collections.shuffle(shuffledVars, random);
-		final Variables newVariables = new Variables(shuffledVars);
+		final Variables newVariables = variables.shuffle(random);
 
 		final ClauseList adaptedClauseList = createAdaptedClauseList(newVariables);
 		Collections.shuffle(adaptedClauseList, random);
@@ -225,6 +231,7 @@ public class CNF implements Serializable {
 	}
 
 	private ClauseList createAdaptedClauseList(Variables newVariables) {
+		final ClauseList clauses = getClauses();
 		final ClauseList newClauses = new ClauseList(clauses.size());
 		for (final LiteralSet oldClause : clauses) {
 			newClauses.add(oldClause.adapt(variables, newVariables));
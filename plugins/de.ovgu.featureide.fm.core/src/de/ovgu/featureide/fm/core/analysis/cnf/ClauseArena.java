@@ -0,0 +1,399 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.analysis.cnf;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+import de.ovgu.featureide.fm.core.analysis.cnf.LiteralSet.Order;
+
+/**
+ * Stores a list of clauses in a single flat literal array.<br> The literals of clause {@code i} are located at the indices {@link #getClauseStart(int)
+ * getClauseStart(i)} (inclusive) to {@link #getClauseEnd(int) getClauseEnd(i)} (exclusive). {@link LiteralSet} objects are only created on demand (e.g.,
+ * by {@link #get(int)} or {@link #iterator()}) and are copies, not views, of the stored clauses. Compared to a {@link ClauseList}, this saves the object
+ * header, hash code, and array header of each clause.
+ *
+ * @author FeatureIDE Team
+ *
+ * @see CompactCNF
+ */
+public final class ClauseArena implements Iterable<LiteralSet>, Cloneable, Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	private int[] literals;
+	/** offsets[i] is the start of clause i, offsets[size] is the number of literals. */
+	private int[] offsets;
+	private int size;
+
+	/** The common order of all clauses in this arena. */
+	private Order order;
+
+	public ClauseArena() {
+		this(16, 64);
+	}
+
+	public ClauseArena(int clauseCapacity, int literalCapacity) {
+		literals = new int[Math.max(1, literalCapacity)];
+		offsets = new int[Math.max(1, clauseCapacity) + 1];
+		size = 0;
+		order = null;
+	}
+
+	public ClauseArena(Collection<? extends LiteralSet> clauses) {
+		this(clauses.size(), countLiterals(clauses));
+		addAll(clauses);
+	}
+
+	public ClauseArena(ClauseArena otherArena) {
+		literals = Arrays.copyOf(otherArena.literals, otherArena.getNumberOfLiterals());
+		offsets = Arrays.copyOf(otherArena.offsets, otherArena.size + 1);
+		size = otherArena.size;
+		order = otherArena.order;
+	}
+
+	/**
+	 * Creates a new arena that is backed by the given arrays.
+	 *
+	 * @param literals the literals of all clauses
+	 * @param offsets the start index of each clause in {@code literals}, followed by the number of literals (must have at least {@code size + 1} entries and
+	 *        start with 0)
+	 * @param size the number of clauses
+	 * @param order the order of the literals in each clause
+	 */
+	public ClauseArena(int[] literals, int[] offsets, int size, Order order) {
+		if ((size < 0) || (offsets.length <= size) || (offsets[0] != 0) || (offsets[size] > literals.length)) {
+			throw new IllegalArgumentException();
+		}
+		this.literals = literals;
+		this.offsets = offsets;
+		this.size = size;
+		this.order = order;
+	}
+
+	private static int countLiterals(Collection<? extends LiteralSet> clauses) {
+		int count = 0;
+		for (final LiteralSet clause : clauses) {
+			count += clause.size();
+		}
+		return count;
+	}
+
+	private void ensureCapacity(int additionalClauses, int additionalLiterals) {
+		final int requiredOffsets = size + additionalClauses + 1;
+		if (requiredOffsets > offsets.length) {
+			offsets = Arrays.copyOf(offsets, Math.max(requiredOffsets, offsets.length + (offsets.length >> 1)));
+		}
+		final int requiredLiterals = getNumberOfLiterals() + additionalLiterals;
+		if (requiredLiterals > literals.length) {
+			literals = Arrays.copyOf(literals, Math.max(requiredLiterals, literals.length + (literals.length >> 1)));
+		}
+	}
+
+	private void updateOrder(Order clauseOrder) {
+		if (size == 0) {
+			order = clauseOrder;
+		} else if (order != clauseOrder) {
+			order = Order.UNORDERED;
+		}
+	}
+
+	/**
+	 * Appends a clause with the given literals. The literals are copied.
+	 *
+	 * @param clauseLiterals the literals of the new clause
+	 */
+	public void add(int... clauseLiterals) {
+		add(clauseLiterals, Order.UNORDERED);
+	}
+
+	public void add(LiteralSet clause) {
+		add(clause.getLiterals(), clause.getOrder());
+	}
+
+	private void add(int[] clauseLiterals, Order clauseOrder) {
+		ensureCapacity(1, clauseLiterals.length);
+		updateOrder(clauseOrder);
+		final int start = offsets[size];
+		System.arraycopy(clauseLiterals, 0, literals, start, clauseLiterals.length);
+		offsets[++size] = start + clauseLiterals.length;
+	}
+
+	public void addAll(Iterable<? extends LiteralSet> clauses) {
+		for (final LiteralSet clause : clauses) {
+			add(clause);
+		}
+	}
+
+	public void addAll(ClauseArena otherArena) {
+		final int otherLiterals = otherArena.getNumberOfLiterals();
+		ensureCapacity(otherArena.size, otherLiterals);
+		if (otherArena.size > 0) {
+			updateOrder(otherArena.order);
+		}
+		final int start = getNumberOfLiterals();
+		System.arraycopy(otherArena.literals, 0, literals, start, otherLiterals);
+		for (int i = 1; i <= otherArena.size; i++) {
+			offsets[size + i] = start + otherArena.offsets[i];
+		}
+		size += otherArena.size;
+	}
+
+	/**
+	 * Removes all clauses, but keeps the allocated memory.
+	 */
+	public void clear() {
+		size = 0;
+		order = null;
+	}
+
+	/**
+	 * Releases unused memory.
+	 */
+	public void trimToSize() {
+		literals = Arrays.copyOf(literals, getNumberOfLiterals());
+		offsets = Arrays.copyOf(offsets, size + 1);
+	}
+
+	public int size() {
+		return size;
+	}
+
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	public int getNumberOfLiterals() {
+		return offsets[size];
+	}
+
+	public int getClauseStart(int clauseIndex) {
+		return offsets[clauseIndex];
+	}
+
+	public int getClauseEnd(int clauseIndex) {
+		return offsets[clauseIndex + 1];
+	}
+
+	public int getClauseLength(int clauseIndex) {
+		return offsets[clauseIndex + 1] - offsets[clauseIndex];
+	}
+
+	public int getLiteral(int literalIndex) {
+		return literals[literalIndex];
+	}
+
+	/**
+	 * Returns the backing literal array. <b>Must not be modified.</b>
+	 *
+	 * @return the literals of all clauses
+	 *
+	 * @see #getClauseStart(int)
+	 * @see #getClauseEnd(int)
+	 */
+	public int[] getLiteralArray() {
+		return literals;
+	}
+
+	/**
+	 * @param clauseIndex the index of the clause
+	 * @return a copy of the literals of the given clause.
+	 */
+	public int[] getLiterals(int clauseIndex) {
+		return Arrays.copyOfRange(literals, offsets[clauseIndex], offsets[clauseIndex + 1]);
+	}
+
+	/**
+	 * @param clauseIndex the index of the clause
+	 * @return a new {@link LiteralSet} containing a copy of the literals of the given clause.
+	 */
+	public LiteralSet get(int clauseIndex) {
+		return new LiteralSet(getLiterals(clauseIndex), getOrder(), false);
+	}
+
+	public Order getOrder() {
+		return order == null ? Order.UNORDERED : order;
+	}
+
+	/**
+	 * Creates a {@link LiteralSet} for each clause.
+	 *
+	 * @return a new clause list
+	 */
+	public ClauseList toClauseList() {
+		final ClauseList clauseList = new ClauseList(size);
+		for (int i = 0; i < size; i++) {
+			clauseList.add(get(i));
+		}
+		return clauseList;
+	}
+
+	/**
+	 * Creates a new arena with all variables replaced according to the given mapping. Literals keep their sign.
+	 *
+	 * @param variableMap maps each old variable to a new variable (index 0 is ignored)
+	 * @return a new arena
+	 */
+	public ClauseArena adapt(int[] variableMap) {
+		final int numberOfLiterals = getNumberOfLiterals();
+		final int[] newLiterals = new int[numberOfLiterals];
+		for (int i = 0; i < numberOfLiterals; i++) {
+			final int l = literals[i];
+			newLiterals[i] = l > 0 ? variableMap[l] : -variableMap[-l];
+		}
+		final Order newOrder = getOrder();
+		if (newOrder == Order.NATURAL) {
+			for (int i = 0; i < size; i++) {
+				Arrays.sort(newLiterals, offsets[i], offsets[i + 1]);
+			}
+		}
+		return new ClauseArena(newLiterals, Arrays.copyOf(offsets, size + 1), size, order);
+	}
+
+	/**
+	 * Creates a new arena with all variables adapted from the given old variables to the given new variables. Variables are matched by their names.
+	 *
+	 * @param oldVariables the variables of this arena
+	 * @param newVariables the new variables
+	 * @return a new arena
+	 *
+	 * @see LiteralSet#adapt(Variables, Variables)
+	 */
+	public ClauseArena adapt(Variables oldVariables, Variables newVariables) {
+		final int[] variableMap = new int[oldVariables.maxVariableID() + 1];
+		for (int i = 1; i < variableMap.length; i++) {
+			variableMap[i] = newVariables.getVariable(oldVariables.getName(i));
+		}
+		return adapt(variableMap);
+	}
+
+	/**
+	 * Creates a new arena with the clauses of this arena in random order. Uses the same permutation as {@link java.util.Collections#shuffle(java.util.List,
+	 * Random)} for a list of the same size.
+	 *
+	 * @param random the random instance to use
+	 * @return a new arena
+	 */
+	public ClauseArena shuffle(Random random) {
+		final int[] permutation = new int[size];
+		for (int i = 0; i < size; i++) {
+			permutation[i] = i;
+		}
+		for (int i = size; i > 1; i--) {
+			final int j = random.nextInt(i);
+			final int tmp = permutation[i - 1];
+			permutation[i - 1] = permutation[j];
+			permutation[j] = tmp;
+		}
+		final int[] newLiterals = new int[getNumberOfLiterals()];
+		final int[] newOffsets = new int[size + 1];
+		for (int i = 0; i < size; i++) {
+			final int clauseIndex = permutation[i];
+			final int start = offsets[clauseIndex];
+			final int length = offsets[clauseIndex + 1] - start;
+			System.arraycopy(literals, start, newLiterals, newOffsets[i], length);
+			newOffsets[i + 1] = newOffsets[i] + length;
+		}
+		return new ClauseArena(newLiterals, newOffsets, size, order);
+	}
+
+	@Override
+	public Iterator<LiteralSet> iterator() {
+		return new Iterator<LiteralSet>() {
+
+			private int index = 0;
+
+			@Override
+			public boolean hasNext() {
+				return index < size;
+			}
+
+			@Override
+			public LiteralSet next() {
+				if (index >= size) {
+					throw new NoSuchElementException();
+				}
+				return get(index++);
+			}
+		};
+	}
+
+	@Override
+	public ClauseArena clone() {
+		return new ClauseArena(this);
+	}
+
+	@Override
+	public int hashCode() {
+		int result = 1;
+		for (int i = 0; i < size; i++) {
+			int clauseHash = 1;
+			for (int j = offsets[i]; j < offsets[i + 1]; j++) {
+				clauseHash = (31 * clauseHash) + literals[j];
+			}
+			result = (31 * result) + clauseHash;
+		}
+		return result;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if ((obj == null) || (getClass() != obj.getClass())) {
+			return false;
+		}
+		final ClauseArena other = (ClauseArena) obj;
+		if (size != other.size) {
+			return false;
+		}
+		for (int i = 1; i <= size; i++) {
+			if (offsets[i] != other.offsets[i]) {
+				return false;
+			}
+		}
+		for (int i = 0; i < offsets[size]; i++) {
+			if (literals[i] != other.literals[i]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	@Override
+	public String toString() {
+		final StringBuilder sb = new StringBuilder("ClauseArena [");
+		for (int i = 0; i < size; i++) {
+			if (i > 0) {
+				sb.append(", ");
+			}
+			sb.append(Arrays.toString(getLiterals(i)));
+		}
+		sb.append("]");
+		return sb.toString();
+	}
+
+}
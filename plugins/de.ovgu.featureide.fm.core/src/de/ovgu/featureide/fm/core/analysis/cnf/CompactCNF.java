@@ -0,0 +1,184 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.analysis.cnf;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Random;
+
+/**
+ * Represents an instance of a satisfiability problem in CNF, which stores its clauses in a {@link ClauseArena} instead of a {@link ClauseList}.<br> <br>
+ * The arena is the only backing store of the clauses. {@link #getClauses()} returns a new list with all clauses, which does not reflect later changes of
+ * this CNF and vice versa. Clauses must be added via {@link #addClause(LiteralSet)} or {@link #addClauses(Collection)}. Thus, performance critical code
+ * should use {@link #getClauseArena()} if the given CNF is an instance of this class.
+ *
+ * @author FeatureIDE Team
+ */
+public class CompactCNF extends CNF {
+
+	private static final long serialVersionUID = 1L;
+
+	private final ClauseArena arena;
+
+	public CompactCNF(Variables mapping) {
+		this(mapping, new ClauseArena());
+	}
+
+	public CompactCNF(Variables mapping, ClauseArena arena) {
+		super(mapping);
+		this.arena = arena;
+	}
+
+	/**
+	 * Creates a compact copy of the given CNF.
+	 *
+	 * @param cnf the CNF to copy
+	 */
+	public CompactCNF(CNF cnf) {
+		super(cnf, false);
+		arena = (cnf instanceof CompactCNF) ? ((CompactCNF) cnf).getClauseArena().clone() : new ClauseArena(cnf.getClauses());
+	}
+
+	/**
+	 * @return the clauses of this CNF as arena (must not be modified directly)
+	 */
+	public ClauseArena getClauseArena() {
+		return arena;
+	}
+
+	/**
+	 * @return a new list containing all clauses of this CNF. Modifications of the list do not affect this CNF.
+	 */
+	@Override
+	public ClauseList getClauses() {
+		final ClauseList clauses = new ClauseList(arena.size());
+		for (final LiteralSet clause : arena) {
+			clauses.add(clause);
+		}
+		return clauses;
+	}
+
+	@Override
+	public void addClause(LiteralSet clause) {
+		arena.add(clause);
+	}
+
+	@Override
+	public void addClauses(Collection<LiteralSet> clauses) {
+		arena.addAll(clauses);
+	}
+
+	/**
+	 * @return a new {@link CNF} with the same variables and a clause list containing copies of all clauses.
+	 */
+	public CNF toCNF() {
+		return new CNF(variables, getClauseArena().toClauseList());
+	}
+
+	@Override
+	public CompactCNF normalize() {
+		if (isSliced()) {
+			final SlicedVariables slicedVariables = (SlicedVariables) variables;
+			final int[] variableMap = new int[variables.intToVar.length];
+			final ArrayList<String> names = new ArrayList<>(variables.size());
+			int numberOfAuxiliaryVariables = 0;
+			for (int i = 1; i < variables.intToVar.length; i++) {
+				variableMap[i] = slicedVariables.convertToInternal(i);
+				if (slicedVariables.orgToInternal[i] != 0) {
+					names.add(variables.intToVar[i]);
+					if (variables.isAuxiliary(i)) {
+						numberOfAuxiliaryVariables++;
+					}
+				}
+			}
+			return new CompactCNF(new Variables(names, numberOfAuxiliaryVariables), getClauseArena().adapt(variableMap));
+		} else {
+			return this;
+		}
+	}
+
+	@Override
+	public CompactCNF clone() {
+		return new CompactCNF(this);
+	}
+
+	@Override
+	public ClauseList adaptClauseList(Variables newVariables) {
+		final boolean validFeatureSet = Arrays.asList(newVariables.getNames()).containsAll(Arrays.asList(variables.getNames()));
+		return validFeatureSet ? getClauseArena().adapt(variables, newVariables).toClauseList() : null;
+	}
+
+	@Override
+	public CompactCNF adapt(Variables newVariables) {
+		final boolean validFeatureSet = Arrays.asList(newVariables.getNames()).containsAll(Arrays.asList(variables.getNames()));
+		return validFeatureSet ? new CompactCNF(newVariables, getClauseArena().adapt(variables, newVariables)) : null;
+	}
+
+	@Override
+	public CompactCNF randomize(Random random) {
+		final Variables newVariables = variables.shuffle(random);
+
+		return new CompactCNF(newVariables, getClauseArena().adapt(variables, newVariables).shuffle(random));
+	}
+
+	@Override
+	public int hashCode() {
+		final int prime = 31;
+		int result = 1;
+		result = (prime * result) + getClauseArena().hashCode();
+		result = (prime * result) + ((variables == null) ? 0 : variables.hashCode());
+		return result;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) {
+			return true;
+		}
+		if ((obj == null) || (getClass() != obj.getClass())) {
+			return false;
+		}
+		final CompactCNF other = (CompactCNF) obj;
+		if (!getClauseArena().equals(other.getClauseArena())) {
+			return false;
+		}
+		if (variables == null) {
+			if (other.variables != null) {
+				return false;
+			}
+		} else if (!variables.equals(other.variables)) {
+			return false;
+		}
+		return true;
+	}
+
+	@Override
+	public String toString() {
+		return "CompactCNF\n\tvariables=" + variables + "\n\tclauses=" + getClauseArena();
+	}
+
+	@Override
+	public String getClauseString() {
+		return new CNF(variables, getClauseArena().toClauseList()).getClauseString();
+	}
+
+}
@@ -0,0 +1,326 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.analysis.cnf;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.prop4j.And;
+import org.prop4j.Equals;
+import org.prop4j.Implies;
+import org.prop4j.Literal;
+import org.prop4j.Node;
+import org.prop4j.NodeWriter;
+import org.prop4j.Not;
+import org.prop4j.Or;
+
+import de.ovgu.featureide.fm.core.editing.NodeCreator;
+
+/**
+ * Transforms arbitrary propositional formulas into CNF by introducing auxiliary variables for sub-formulas (Tseitin transformation). In contrast to the
+ * distributive transformation of {@link Node#toRegularCNF()}, the size of the resulting CNF is linear in the size of the formula.<br>
+ * Formulas, whose distributive CNF is small (see {@link #setMaximumDirectClauses(int)}), are transformed without auxiliary variables.<br>
+ * <br>
+ * The transformer supports two encodings:
+ * <ul>
+ * <li>{@link Encoding#TSEITIN}: Each auxiliary variable is equivalent to its sub-formula. The resulting CNF has the same number of solutions as the original
+ * formula.</li>
+ * <li>{@link Encoding#PLAISTED_GREENBAUM}: Each auxiliary variable only implies its sub-formula (or vice versa, depending on the polarity of the
+ * sub-formula). The resulting CNF contains fewer clauses and is equisatisfiable, but may have more solutions than the original formula. All solutions
+ * projected to the original variables are still valid.</li>
+ * </ul>
+ * Auxiliary variables are appended to the original variables and marked as auxiliary in the {@link Variables} returned by {@link #getVariables()}.
+ *
+ * @author FeatureIDE Team
+ */
+public class TseitinTransformer {
+
+	public enum Encoding {
+		TSEITIN, PLAISTED_GREENBAUM
+	}
+
+	public static final String AUXILIARY_VARIABLE_PREFIX = "__aux_";
+
+	public static final int DEFAULT_MAXIMUM_DIRECT_CLAUSES = 16;
+
+	private static final int POSITIVE = 1;
+	private static final int NEGATIVE = 2;
+	private static final int BOTH = POSITIVE | NEGATIVE;
+
+	private static final String[] SUPPORTED_SYMBOLS;
+
+	static {
+		SUPPORTED_SYMBOLS = Arrays.copyOf(NodeWriter.shortSymbols, NodeWriter.shortSymbols.length);
+		SUPPORTED_SYMBOLS[6] = NodeWriter.noSymbol;
+		SUPPORTED_SYMBOLS[7] = NodeWriter.noSymbol;
+		SUPPORTED_SYMBOLS[8] = NodeWriter.noSymbol;
+	}
+
+	private final Variables variables;
+	private final Encoding encoding;
+
+	private final ClauseList clauses = new ClauseList();
+	private final List<String> auxiliaryNames = new ArrayList<>();
+
+	private int maximumDirectClauses = DEFAULT_MAXIMUM_DIRECT_CLAUSES;
+	private int auxiliaryNameCounter = 0;
+	private int trueVariable = 0;
+
+	/**
+	 * @param variables the original variables, which must contain all variables used in the transformed formulas.
+	 * @param encoding the encoding for sub-formulas
+	 */
+	public TseitinTransformer(Variables variables, Encoding encoding) {
+		this.variables = variables;
+		this.encoding = encoding;
+	}
+
+	public TseitinTransformer(Variables variables) {
+		this(variables, Encoding.PLAISTED_GREENBAUM);
+	}
+
+	public int getMaximumDirectClauses() {
+		return maximumDirectClauses;
+	}
+
+	/**
+	 * Sets the maximum number of clauses that the distributive transformation of a formula may produce without introducing auxiliary variables (default:
+	 * {@value #DEFAULT_MAXIMUM_DIRECT_CLAUSES}).
+	 *
+	 * @param maximumDirectClauses the maximum number of clauses
+	 */
+	public void setMaximumDirectClauses(int maximumDirectClauses) {
+		this.maximumDirectClauses = Math.max(0, maximumDirectClauses);
+	}
+
+	public Encoding getEncoding() {
+		return encoding;
+	}
+
+	/**
+	 * Transforms the given formula and adds the resulting clauses.
+	 *
+	 * @param node the formula
+	 * @throws IllegalArgumentException if the formula contains a variable that is not contained in the original variables.
+	 */
+	public void addNode(Node node) {
+		if (estimateClauses(node, POSITIVE) <= maximumDirectClauses) {
+			clauses.addAll(Nodes.convert(variables, node));
+		} else if (node instanceof And) {
+			for (final Node child : node.getChildren()) {
+				addNode(child);
+			}
+		} else if (node instanceof Or) {
+			final Node[] children = node.getChildren();
+			final int[] literals = new int[children.length];
+			for (int i = 0; i < children.length; i++) {
+				literals[i] = encode(children[i], POSITIVE);
+			}
+			addClause(literals);
+		} else {
+			addClause(encode(node, POSITIVE));
+		}
+	}
+
+	public void addNodes(Iterable<? extends Node> nodes) {
+		for (final Node node : nodes) {
+			addNode(node);
+		}
+	}
+
+	/**
+	 * @return all clauses created so far.
+	 */
+	public ClauseList getClauses() {
+		return clauses;
+	}
+
+	public int getNumberOfAuxiliaryVariables() {
+		return auxiliaryNames.size();
+	}
+
+	/**
+	 * @return the original variables together with all auxiliary variables created so far.
+	 */
+	public Variables getVariables() {
+		final List<String> names = new ArrayList<>(variables.size() + auxiliaryNames.size());
+		names.addAll(Arrays.asList(variables.getNames()).subList(1, variables.size() + 1));
+		names.addAll(auxiliaryNames);
+		return new Variables(names, auxiliaryNames.size());
+	}
+
+	/**
+	 * @return a {@link CNF} containing all clauses created so far.
+	 */
+	public CNF getCNF() {
+		return new CNF(getVariables(), clauses);
+	}
+
+	private long estimateClauses(Node node, int polarity) {
+		final long limit = maximumDirectClauses + 1L;
+		final Node[] children = node.getChildren();
+		if (node instanceof Literal) {
+			return 1;
+		} else if (node instanceof Not) {
+			return estimateClauses(children[0], flip(polarity));
+		} else if (node instanceof And) {
+			return (polarity == POSITIVE) ? sum(children, polarity, limit) : product(children, polarity, limit);
+		} else if (node instanceof Or) {
+			return (polarity == POSITIVE) ? product(children, polarity, limit) : sum(children, polarity, limit);
+		} else if (node instanceof Implies) {
+			final long a = estimateClauses(children[0], flip(polarity));
+			final long b = estimateClauses(children[1], polarity);
+			return Math.min(limit, (polarity == POSITIVE) ? a * b : a + b);
+		} else if (node instanceof Equals) {
+			final long aPositive = estimateClauses(children[0], POSITIVE);
+			final long aNegative = estimateClauses(children[0], NEGATIVE);
+			final long bPositive = estimateClauses(children[1], POSITIVE);
+			final long bNegative = estimateClauses(children[1], NEGATIVE);
+			return Math.min(limit, (polarity == POSITIVE) ? (aNegative * bPositive) + (aPositive * bNegative)
+				: (aPositive + bNegative) * (aNegative + bPositive));
+		} else {
+			return limit;
+		}
+	}
+
+	private long sum(Node[] children, int polarity, long limit) {
+		long sum = 0;
+		for (final Node child : children) {
+			sum = Math.min(limit, sum + estimateClauses(child, polarity));
+		}
+		return sum;
+	}
+
+	private long product(Node[] children, int polarity, long limit) {
+		long product = 1;
+		for (final Node child : children) {
+			product = Math.min(limit, product * estimateClauses(child, polarity));
+		}
+		return product;
+	}
+
+	private int encode(Node node, int polarity) {
+		if (encoding == Encoding.TSEITIN) {
+			polarity = BOTH;
+		}
+		final Node[] children = node.getChildren();
+		if (node instanceof Literal) {
+			final Literal literal = (Literal) node;
+			final int variable;
+			if (literal.var == NodeCreator.varTrue) {
+				variable = getTrueVariable();
+			} else if (literal.var == NodeCreator.varFalse) {
+				variable = -getTrueVariable();
+			} else {
+				variable = variables.getVariable(String.valueOf(literal.var));
+				if (variable == 0) {
+					throw new IllegalArgumentException(String.valueOf(literal.var));
+				}
+			}
+			return literal.positive ? variable : -variable;
+		} else if (node instanceof Not) {
+			return -encode(children[0], flip(polarity));
+		} else if (node instanceof And) {
+			final int[] literals = new int[children.length];
+			for (int i = 0; i < children.length; i++) {
+				literals[i] = encode(children[i], polarity);
+			}
+			return encodeAnd(literals, polarity);
+		} else if (node instanceof Or) {
+			final int[] literals = new int[children.length];
+			for (int i = 0; i < children.length; i++) {
+				literals[i] = -encode(children[i], polarity);
+			}
+			return -encodeAnd(literals, flip(polarity));
+		} else if (node instanceof Implies) {
+			final int a = encode(children[0], flip(polarity));
+			final int b = encode(children[1], polarity);
+			return -encodeAnd(new int[] { a, -b }, flip(polarity));
+		} else if (node instanceof Equals) {
+			final int a = encode(children[0], BOTH);
+			final int b = encode(children[1], BOTH);
+			final int x = createAuxiliaryVariable();
+			if ((polarity & POSITIVE) != 0) {
+				addClause(-x, -a, b);
+				addClause(-x, a, -b);
+			}
+			if ((polarity & NEGATIVE) != 0) {
+				addClause(x, a, b);
+				addClause(x, -a, -b);
+			}
+			return x;
+		} else {
+			return encode(node.clone().eliminateNotSupportedSymbols(SUPPORTED_SYMBOLS), polarity);
+		}
+	}
+
+	private int encodeAnd(int[] literals, int polarity) {
+		switch (literals.length) {
+		case 0:
+			return getTrueVariable();
+		case 1:
+			return literals[0];
+		default:
+			final int x = createAuxiliaryVariable();
+			if ((polarity & POSITIVE) != 0) {
+				for (final int literal : literals) {
+					addClause(-x, literal);
+				}
+			}
+			if ((polarity & NEGATIVE) != 0) {
+				final int[] clause = new int[literals.length + 1];
+				clause[0] = x;
+				for (int i = 0; i < literals.length; i++) {
+					clause[i + 1] = -literals[i];
+				}
+				addClause(clause);
+			}
+			return x;
+		}
+	}
+
+	private int getTrueVariable() {
+		if (trueVariable == 0) {
+			trueVariable = createAuxiliaryVariable();
+			addClause(trueVariable);
+		}
+		return trueVariable;
+	}
+
+	private int createAuxiliaryVariable() {
+		String name;
+		do {
+			name = AUXILIARY_VARIABLE_PREFIX + auxiliaryNameCounter++;
+		} while (variables.getVariable(name) != 0);
+		auxiliaryNames.add(name);
+		return variables.size() + auxiliaryNames.size();
+	}
+
+	private void addClause(int... literals) {
+		clauses.add(new LiteralSet(literals));
+	}
+
+	private static int flip(int polarity) {
+		return ((polarity & POSITIVE) << 1) | ((polarity & NEGATIVE) >> 1);
+	}
+
+}
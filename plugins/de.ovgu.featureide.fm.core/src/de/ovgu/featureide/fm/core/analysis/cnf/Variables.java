@@ -28,6 +28,7 @@ import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Random;
 
 import de.ovgu.featureide.fm.core.analysis.cnf.LiteralSet.Order;
 import de.ovgu.featureide.fm.core.functional.Functional;
@@ -44,12 +45,34 @@ public class Variables implements Serializable, IInternalVariables {
 	protected final String[] intToVar;
 	protected final Map<String, Integer> varToInt;
 
+	/**
+	 * The number of auxiliary variables. Auxiliary variables are always the last variables (i.e., they have the highest indices).
+	 */
+	protected final int numberOfAuxiliaryVariables;
+
 	public Variables() {
 		intToVar = new String[0];
 		varToInt = Collections.emptyMap();
+		numberOfAuxiliaryVariables = 0;
 	}
 
 	public Variables(Collection<String> varNameList) {
+		this(varNameList, 0);
+	}
+
+	/**
+	 * Creates new variables, of which the last {@code numberOfAuxiliaryVariables} variables are auxiliary variables. Auxiliary variables are introduced by
+	 * transformations, such as the {@link TseitinTransformer}, and are not part of the original formula. Analyses and configuration generators ignore
+	 * auxiliary variables in their results.
+	 *
+	 * @param varNameList the names of all variables
+	 * @param numberOfAuxiliaryVariables the number of auxiliary variables at the end of the given list
+	 */
+	public Variables(Collection<String> varNameList, int numberOfAuxiliaryVariables) {
+		if ((numberOfAuxiliaryVariables < 0) || (numberOfAuxiliaryVariables > varNameList.size())) {
+			throw new IllegalArgumentException(String.valueOf(numberOfAuxiliaryVariables));
+		}
+		this.numberOfAuxiliaryVariables = numberOfAuxiliaryVariables;
 		intToVar = new String[varNameList.size() + 1];
 		varToInt = new LinkedHashMap<>((int) (1.5 * varNameList.size()));
 
@@ -67,6 +90,7 @@ public class Variables implements Serializable, IInternalVariables {
 	protected Variables(Variables oldSatMapping) {
 		intToVar = Arrays.copyOf(oldSatMapping.intToVar, oldSatMapping.intToVar.length);
 		varToInt = new LinkedHashMap<>(oldSatMapping.varToInt);
+		numberOfAuxiliaryVariables = oldSatMapping.numberOfAuxiliaryVariables;
 	}
 
 	public List<String> convertToString(int[] literals) {
@@ -238,8 +262,100 @@ public class Variables implements Serializable, IInternalVariables {
 		return "Variables [" + Arrays.toString(intToVar) + "]";
 	}
 
+	public int getNumberOfAuxiliaryVariables() {
+		return numberOfAuxiliaryVariables;
+	}
+
+	/**
+	 * @return the number of variables that are no auxiliary variables.
+	 */
+	public int sizeWithoutAuxiliaryVariables() {
+		return maxVariableID() - numberOfAuxiliaryVariables;
+	}
+
+	/**
+	 * @param literal a literal or variable
+	 * @return whether the variable of the given literal is an auxiliary variable.
+	 *
+	 * @see #Variables(Collection, int)
+	 */
+	public boolean isAuxiliary(int literal) {
+		return Math.abs(literal) > (maxVariableID() - numberOfAuxiliaryVariables);
+	}
+
+	/**
+	 * Removes all literals of auxiliary variables from the given literal set.
+	 *
+	 * @param literalSet the literal set
+	 * @return a new literal set without auxiliary literals or the given literal set, if it does not contain any auxiliary literals.
+	 */
+	public LiteralSet removeAuxiliaryLiterals(LiteralSet literalSet) {
+		if (numberOfAuxiliaryVariables == 0) {
+			return literalSet;
+		}
+		final int[] literals = literalSet.getLiterals();
+		if (literalSet.getOrder() == Order.INDEX) {
+			final int length = Math.min(literals.length, sizeWithoutAuxiliaryVariables());
+			return length == literals.length ? literalSet : new LiteralSet(Arrays.copyOf(literals, length), Order.INDEX, false);
+		}
+		final int[] newLiterals = removeAuxiliaryLiterals(literals);
+		return newLiterals == literals ? literalSet : new LiteralSet(newLiterals, literalSet.getOrder(), false);
+	}
+
+	/**
+	 * Removes all literals of auxiliary variables from the given array.
+	 *
+	 * @param literals the literals
+	 * @return a new array without auxiliary literals or the given array, if it does not contain any auxiliary literals.
+	 */
+	public int[] removeAuxiliaryLiterals(int[] literals) {
+		if (numberOfAuxiliaryVariables == 0) {
+			return literals;
+		}
+		int count = 0;
+		for (final int literal : literals) {
+			if (!isAuxiliary(literal)) {
+				count++;
+			}
+		}
+		if (count == literals.length) {
+			return literals;
+		}
+		final int[] newLiterals = new int[count];
+		int i = 0;
+		for (final int literal : literals) {
+			if (!isAuxiliary(literal)) {
+				newLiterals[i++] = literal;
+			}
+		}
+		return newLiterals;
+	}
+
+	/**
+	 * @return a new variables object without the auxiliary variables.
+	 */
+	public Variables removeAuxiliaryVariables() {
+		return numberOfAuxiliaryVariables == 0 ? this : new Variables(Arrays.asList(intToVar).subList(1, sizeWithoutAuxiliaryVariables() + 1));
+	}
+
+	/**
+	 * Creates new variables with a random order of all variables that are no auxiliary variables. Auxiliary variables remain at the end.
+	 *
+	 * @param random the random generator used for shuffling
+	 * @return the shuffled variables
+	 */
+	public Variables shuffle(Random random) {
+		final int size = sizeWithoutAuxiliaryVariables();
+		final List<String> shuffledVars = new ArrayList<>(Arrays.asList(Arrays.copyOfRange(intToVar, 1, intToVar.length)));
+		Collections.shuffle(shuffledVars.subList(0, size), random);
+		return new Variables(shuffledVars, numberOfAuxiliaryVariables);
+	}
+
+	/**
+	 * @return all positive and negative literals of all variables, except auxiliary variables.
+	 */
 	public LiteralSet getLiterals() {
-		final int length = intToVar.length - 1;
+		final int length = intToVar.length - 1 - numberOfAuxiliaryVariables;
 		final int[] literals = new int[length << 1];
 		for (int i = 0; i < length; i++) {
 			literals[i] = i - length;
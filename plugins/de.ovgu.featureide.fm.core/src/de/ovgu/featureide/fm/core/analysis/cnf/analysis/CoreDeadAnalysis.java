@@ -20,7 +20,16 @@
  */
 package de.ovgu.featureide.fm.core.analysis.cnf.analysis;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
 
 import org.sat4j.core.VecInt;
 import org.sat4j.specs.IteratorInt;
@@ -41,6 +50,31 @@ import de.ovgu.featureide.fm.core.job.monitor.IMonitor;
  */
 public class CoreDeadAnalysis extends AVariableAnalysis<LiteralSet> {
 
+	private static final int CHUNKS_PER_THREAD = 4;
+	private static final int MIN_CHUNK_SIZE = 16;
+
+	private static ForkJoinPool pool;
+
+	/**
+	 * Returns the pool that is shared by all parallel analyses. The pool is created lazily and replaced by a larger one, if an analysis requests more
+	 * threads than the current pool provides. As each analysis submits at most as many workers as it requested threads, a larger pool does not increase
+	 * its parallelism. A replaced pool is not shut down, as other analyses may still be about to submit their workers to it. Its threads terminate when
+	 * they are idle, which releases the pool.
+	 *
+	 * @param numberOfThreads the requested number of threads
+	 * @return the shared pool
+	 */
+	private static synchronized ForkJoinPool getPool(int numberOfThreads) {
+		if ((pool == null) || (pool.getParallelism() < numberOfThreads)) {
+			pool = new ForkJoinPool(numberOfThreads);
+		}
+		return pool;
+	}
+
+	private int numberOfThreads = 1;
+	private double speedup = 1;
+	private boolean minSelection;
+
 	public CoreDeadAnalysis(ISatSolver solver) {
 		this(solver, null);
 	}
@@ -61,6 +95,9 @@ public class CoreDeadAnalysis extends AVariableAnalysis<LiteralSet> {
 
 	@Override
 	public LiteralSet analyze(IMonitor<LiteralSet> monitor) throws Exception {
+		if (numberOfThreads > 1) {
+			return analyzeParallel(monitor);
+		}
 		return analyze1(monitor);
 	}
 
@@ -96,6 +133,7 @@ public class CoreDeadAnalysis extends AVariableAnalysis<LiteralSet> {
 			for (int i = 0; i < initialAssignmentLength; i++) {
 				model1[Math.abs(solver.assignmentGet(i)) - 1] = 0;
 			}
+			removeAuxiliaryVariables(model1);
 
 			LiteralSet.resetConflicts(model1, model2);
 			solver.setSelectionStrategy(model1,
@@ -188,6 +226,105 @@ public class CoreDeadAnalysis extends AVariableAnalysis<LiteralSet> {
 
 	public LiteralSet analyze1(IMonitor<LiteralSet> monitor) throws Exception {
 		final int initialAssignmentLength = solver.getAssignmentSize();
+		final int[] model1 = findCandidates(initialAssignmentLength);
+
+		if (model1 != null) {
+			for (int i = 0; i < model1.length; i++) {
+				final int varX = model1[i];
+				if (varX != 0) {
+					solver.assignmentPush(-varX);
+					switch (solver.hasSolution()) {
+					case FALSE:
+						solver.assignmentReplaceLast(varX);
+						monitor.invoke(new LiteralSet(varX));
+						break;
+					case TIMEOUT:
+						solver.assignmentPop();
+						reportTimeout();
+						break;
+					case TRUE:
+						solver.assignmentPop();
+						LiteralSet.resetConflicts(model1, solver.getSolution());
+						solver.shuffleOrder(getRandom());
+						break;
+					}
+				}
+			}
+		}
+
+		return new LiteralSet(solver.getAssignmentArray(initialAssignmentLength, solver.getAssignmentSize()));
+	}
+
+	/**
+	 * Tests the candidate literals concurrently using {@link #getNumberOfThreads()} independent solver instances.<br> The candidates are split into chunks
+	 * of consecutive variables that are processed by a {@link ForkJoinPool}, which is shared by all analyses. Found core and dead literals are shared
+	 * between all workers as additional assumptions and each found solution excludes the conflicting candidates for all workers. Each chunk uses its own
+	 * random generator derived from {@link #getRandom()}, so the result for a fixed seed does not depend on the scheduling of the workers.
+	 *
+	 * @param monitor the monitor
+	 * @return all core and dead literals sorted by their variable index
+	 * @throws Exception if a worker fails or the analysis is canceled
+	 */
+	public LiteralSet analyzeParallel(IMonitor<LiteralSet> monitor) throws Exception {
+		final long startTime = System.nanoTime();
+		final int initialAssignmentLength = solver.getAssignmentSize();
+		final int[] model1 = findCandidates(initialAssignmentLength);
+		if (model1 == null) {
+			return new LiteralSet();
+		}
+
+		final int chunkSize = Math.max(MIN_CHUNK_SIZE, (model1.length / (numberOfThreads * CHUNKS_PER_THREAD)) + 1);
+		final int numberOfChunks = ((model1.length - 1) / chunkSize) + 1;
+		final long[] chunkSeeds = new long[numberOfChunks];
+		for (int i = 0; i < numberOfChunks; i++) {
+			chunkSeeds[i] = getRandom().nextLong();
+		}
+
+		final SharedState state = new SharedState(model1, monitor);
+		final List<Worker> workers = new ArrayList<>(numberOfThreads);
+		for (int i = 0; i < Math.min(numberOfThreads, numberOfChunks); i++) {
+			final ISatSolver workerSolver = initSolver(solver.getSatInstance());
+			workerSolver.assignmentPushAll(solver.getAssignmentArray(0, initialAssignmentLength));
+			workerSolver.setTimeout(getTimeout());
+			workerSolver.setSelectionStrategy(Arrays.copyOf(model1, model1.length), minSelection);
+			workers.add(new Worker(workerSolver, state, chunkSize, chunkSeeds));
+		}
+		monitor.setRemainingWork(numberOfChunks);
+
+		long busyTime = 0;
+		try {
+			for (final Future<Long> future : getPool(numberOfThreads).invokeAll(workers)) {
+				busyTime += future.get();
+			}
+		} catch (final ExecutionException e) {
+			final Throwable cause = e.getCause();
+			if (cause instanceof Exception) {
+				throw (Exception) cause;
+			}
+			throw new RuntimeException(cause);
+		}
+
+		final long wallTime = Math.max(1, System.nanoTime() - startTime);
+		speedup = (double) busyTime / wallTime;
+		monitor.setTaskName(String.format("Core/Dead Analysis (%d threads, speedup %.2f)", workers.size(), speedup));
+
+		if (state.timeoutOccured) {
+			reportTimeout();
+		}
+
+		return new LiteralSet(Arrays.copyOf(state.foundLiterals.toArray(), state.foundLiterals.size()));
+	}
+
+	/**
+	 * Auxiliary variables are not part of the original formula and, thus, are never reported as core or dead.
+	 */
+	private void removeAuxiliaryVariables(int[] model) {
+		for (int i = solver.getSatInstance().getVariables().sizeWithoutAuxiliaryVariables(); i < model.length; i++) {
+			model[i] = 0;
+		}
+	}
+
+	private int[] findCandidates(final int initialAssignmentLength) {
 		solver.setSelectionStrategy(SelectionStrategy.POSITIVE);
 		int[] model1 = solver.findSolution();
 
@@ -209,35 +346,140 @@ public class CoreDeadAnalysis extends AVariableAnalysis<LiteralSet> {
 			for (int i = 0; i < initialAssignmentLength; i++) {
 				model1[Math.abs(solver.assignmentGet(i)) - 1] = 0;
 			}
+			removeAuxiliaryVariables(model1);
 
 			LiteralSet.resetConflicts(model1, model2);
-			solver.setSelectionStrategy(model1,
-					model1.length > (new LiteralSet(model2, Order.INDEX, false).countNegative() + new LiteralSet(model1, Order.INDEX, false).countNegative()));
+			minSelection =
+				model1.length > (new LiteralSet(model2, Order.INDEX, false).countNegative() + new LiteralSet(model1, Order.INDEX, false).countNegative());
+			solver.setSelectionStrategy(model1, minSelection);
+		}
+		return model1;
+	}
 
-			for (int i = 0; i < model1.length; i++) {
-				final int varX = model1[i];
-				if (varX != 0) {
-					solver.assignmentPush(-varX);
-					switch (solver.hasSolution()) {
-					case FALSE:
-						solver.assignmentReplaceLast(varX);
-						monitor.invoke(new LiteralSet(varX));
-						break;
-					case TIMEOUT:
-						solver.assignmentPop();
-						reportTimeout();
-						break;
-					case TRUE:
-						solver.assignmentPop();
-						LiteralSet.resetConflicts(model1, solver.getSolution());
-						solver.shuffleOrder(getRandom());
-						break;
+	/**
+	 * State that is shared between all workers of {@link CoreDeadAnalysis#analyzeParallel(IMonitor)}.
+	 */
+	private static final class SharedState {
+
+		private final AtomicIntegerArray candidates;
+		private final VecInt foundLiterals;
+		private final AtomicInteger nextChunk = new AtomicInteger();
+		private final IMonitor<LiteralSet> monitor;
+		private volatile boolean timeoutOccured = false;
+
+		private SharedState(int[] model, IMonitor<LiteralSet> monitor) {
+			candidates = new AtomicIntegerArray(model);
+			foundLiterals = new VecInt(model.length);
+			this.monitor = monitor;
+		}
+
+		private synchronized int pushFoundLiterals(ISatSolver workerSolver, int knownLiterals) {
+			for (int i = knownLiterals; i < foundLiterals.size(); i++) {
+				workerSolver.assignmentPush(foundLiterals.get(i));
+			}
+			return foundLiterals.size();
+		}
+
+		private void addFoundLiteral(int index, int literal) {
+			candidates.set(index, 0);
+			synchronized (this) {
+				foundLiterals.push(literal);
+			}
+			synchronized (monitor) {
+				monitor.invoke(new LiteralSet(literal));
+			}
+		}
+
+		private void resetConflicts(int[] solution) {
+			for (int i = 0; i < solution.length; i++) {
+				final int x = candidates.get(i);
+				if ((x != 0) && (x != solution[i])) {
+					candidates.compareAndSet(i, x, 0);
+				}
+			}
+		}
+
+		private void worked() {
+			synchronized (monitor) {
+				monitor.worked();
+			}
+		}
+
+	}
+
+	/**
+	 * Tests the candidates of the chunks it takes from the {@link SharedState} with its own solver instance.
+	 */
+	private static final class Worker implements Callable<Long> {
+
+		private final ISatSolver workerSolver;
+		private final SharedState state;
+		private final int chunkSize;
+		private final long[] chunkSeeds;
+
+		private Worker(ISatSolver workerSolver, SharedState state, int chunkSize, long[] chunkSeeds) {
+			this.workerSolver = workerSolver;
+			this.state = state;
+			this.chunkSize = chunkSize;
+			this.chunkSeeds = chunkSeeds;
+		}
+
+		@Override
+		public Long call() throws Exception {
+			final long startTime = System.nanoTime();
+			final int length = state.candidates.length();
+			int knownLiterals = 0;
+			for (int chunk = state.nextChunk.getAndIncrement(); chunk < chunkSeeds.length; chunk = state.nextChunk.getAndIncrement()) {
+				final Random random = new Random(chunkSeeds[chunk]);
+				final int end = Math.min(length, (chunk + 1) * chunkSize);
+				for (int i = chunk * chunkSize; i < end; i++) {
+					final int varX = state.candidates.get(i);
+					if (varX != 0) {
+						state.monitor.checkCancel();
+						knownLiterals = state.pushFoundLiterals(workerSolver, knownLiterals);
+						workerSolver.assignmentPush(-varX);
+						switch (workerSolver.hasSolution()) {
+						case FALSE:
+							workerSolver.assignmentPop();
+							state.addFoundLiteral(i, varX);
+							break;
+						case TIMEOUT:
+							workerSolver.assignmentPop();
+							state.timeoutOccured = true;
+							break;
+						case TRUE:
+							workerSolver.assignmentPop();
+							state.resetConflicts(workerSolver.getSolution());
+							workerSolver.shuffleOrder(random);
+							break;
+						}
 					}
 				}
+				state.worked();
 			}
+			return System.nanoTime() - startTime;
 		}
 
-		return new LiteralSet(solver.getAssignmentArray(initialAssignmentLength, solver.getAssignmentSize()));
+	}
+
+	public int getNumberOfThreads() {
+		return numberOfThreads;
+	}
+
+	/**
+	 * Sets the number of threads used by {@link #analyze(IMonitor)}. A value greater than one enables {@link #analyzeParallel(IMonitor)}.
+	 *
+	 * @param numberOfThreads the number of threads
+	 */
+	public void setNumberOfThreads(int numberOfThreads) {
+		this.numberOfThreads = Math.max(1, numberOfThreads);
+	}
+
+	/**
+	 * @return the ratio between the accumulated busy time of all workers and the elapsed time of the last parallel run.
+	 */
+	public double getSpeedup() {
+		return speedup;
 	}
 
 }
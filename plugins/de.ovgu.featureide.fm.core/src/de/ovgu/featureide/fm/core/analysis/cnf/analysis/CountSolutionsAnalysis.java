@@ -20,21 +20,33 @@
  */
 package de.ovgu.featureide.fm.core.analysis.cnf.analysis;
 
+import java.math.BigInteger;
+
 import de.ovgu.featureide.fm.core.analysis.cnf.CNF;
 import de.ovgu.featureide.fm.core.analysis.cnf.LiteralSet;
 import de.ovgu.featureide.fm.core.analysis.cnf.LiteralSet.Order;
+import de.ovgu.featureide.fm.core.analysis.cnf.Variables;
 import de.ovgu.featureide.fm.core.analysis.cnf.solver.ISatSolver;
 import de.ovgu.featureide.fm.core.analysis.cnf.solver.ISimpleSatSolver.SatResult;
 import de.ovgu.featureide.fm.core.analysis.cnf.solver.RuntimeContradictionException;
+import de.ovgu.featureide.fm.core.analysis.cnf.solver.RuntimeTimeoutException;
+import de.ovgu.featureide.fm.core.analysis.ddnnf.DDNNF;
+import de.ovgu.featureide.fm.core.analysis.ddnnf.DDNNFBuilder;
 import de.ovgu.featureide.fm.core.job.monitor.IMonitor;
+import de.ovgu.featureide.fm.core.job.monitor.NullMonitor;
 
 /**
- * Attempts to count the number of possible solutions of a given {@link CNF}.
+ * Attempts to count the number of possible solutions of a given {@link CNF}.<br> Compiles the CNF into a {@link DDNNF} and counts the solutions under the
+ * current assignment of the solver. If the compilation exceeds the timeout, the solutions are enumerated instead.<br> If the CNF contains
+ * {@link Variables#isAuxiliary(int) auxiliary variables}, the solutions are always enumerated and only distinct assignments of the non-auxiliary
+ * variables are counted.
  *
  * @author Sebastian Krieter
  */
 public class CountSolutionsAnalysis extends AbstractAnalysis<Long> {
 
+	private boolean compiling = true;
+
 	public CountSolutionsAnalysis(ISatSolver solver) {
 		super(solver);
 	}
@@ -43,16 +55,53 @@ public class CountSolutionsAnalysis extends AbstractAnalysis<Long> {
 		super(satInstance);
 	}
 
+	/**
+	 * @param compiling whether the CNF is compiled into a {@link DDNNF} before the solutions are enumerated (default: {@code true}).
+	 */
+	public void setCompiling(boolean compiling) {
+		this.compiling = compiling;
+	}
+
+	public boolean isCompiling() {
+		return compiling;
+	}
+
+	/**
+	 * Converts an exact number of solutions to the representation used by this analysis.<br> As for a timeout, a negative value {@code -(n + 1)} indicates
+	 * that there are more than {@code n} solutions.
+	 *
+	 * @param count the number of solutions
+	 * @return the number of solutions, if it fits into a {@code long}, {@code -Long.MAX_VALUE} otherwise (i.e., more than {@code Long.MAX_VALUE - 1}
+	 *         solutions).
+	 */
+	public static long toLong(BigInteger count) {
+		return count.bitLength() < Long.SIZE ? count.longValue() : -Long.MAX_VALUE;
+	}
+
 	@Override
 	public Long analyze(IMonitor<Long> monitor) throws Exception {
+		if (!compiling || (solver.getSatInstance().getVariables().getNumberOfAuxiliaryVariables() > 0)) {
+			return enumerateSolutions();
+		}
+		final DDNNFBuilder builder = new DDNNFBuilder(solver.getSatInstance());
+		builder.setTimeout(getTimeout());
+		try {
+			final DDNNF ddnnf = builder.execute(monitor != null ? monitor.<DDNNF> subTask(1) : new NullMonitor<DDNNF>());
+			return toLong(ddnnf.countSolutions(solver.getAssignmentArray()));
+		} catch (final RuntimeTimeoutException e) {}
+		return enumerateSolutions();
+	}
+
+	private long enumerateSolutions() {
 		solver.setGlobalTimeout(true);
+		final Variables variables = solver.getSatInstance().getVariables();
 		long solutionCount = 0;
 		SatResult hasSolution = solver.hasSolution();
 		while (hasSolution == SatResult.TRUE) {
 			solutionCount++;
 			final int[] solution = solver.getSolution();
 			try {
-				solver.addClause(new LiteralSet(solution, Order.INDEX, false).negate());
+				solver.addClause(variables.removeAuxiliaryLiterals(new LiteralSet(solution, Order.INDEX, false)).negate());
 			} catch (final RuntimeContradictionException e) {
 				break;
 			}
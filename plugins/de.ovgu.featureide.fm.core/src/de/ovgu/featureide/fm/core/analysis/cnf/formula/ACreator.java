@@ -48,11 +48,28 @@ public abstract class ACreator<T> {
 		}
 	}
 
+	/**
+	 * @return the element, if it was already created, {@code null} otherwise.
+	 */
+	T getIfPresent() {
+		lock.lock();
+		try {
+			return formulaElement;
+		} finally {
+			lock.unlock();
+		}
+	}
+
 	void init(FeatureModelFormula formula) {
 		this.formula = formula;
 		lock = new ReentrantLock();
 	}
 
+	void init(FeatureModelFormula formula, T formulaElement) {
+		init(formula);
+		this.formulaElement = formulaElement;
+	}
+
 	protected abstract T create();
 
 	@Override
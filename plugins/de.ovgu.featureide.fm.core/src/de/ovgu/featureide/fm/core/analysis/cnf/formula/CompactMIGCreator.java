@@ -0,0 +1,64 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.analysis.cnf.formula;
+
+import de.ovgu.featureide.fm.core.analysis.mig.CompactMIGBuilder;
+import de.ovgu.featureide.fm.core.analysis.mig.CompactModalImplicationGraph;
+import de.ovgu.featureide.fm.core.analysis.mig.MIGBuilder;
+import de.ovgu.featureide.fm.core.job.LongRunningWrapper;
+
+/**
+ * Creates a {@link CompactModalImplicationGraph}.
+ *
+ * @author FeatureIDE Team
+ */
+public class CompactMIGCreator extends ACreator<CompactModalImplicationGraph> {
+
+	private boolean complete = false;
+	private int numberOfThreads = 1;
+
+	@Override
+	protected CompactModalImplicationGraph create() {
+		final CompactMIGBuilder builder = new CompactMIGBuilder(formula.getElement(new CNFCreator()), complete);
+		builder.setNumberOfThreads(numberOfThreads);
+		return LongRunningWrapper.runMethod(builder);
+	}
+
+	public boolean isComplete() {
+		return complete;
+	}
+
+	public void setComplete(boolean complete) {
+		this.complete = complete;
+	}
+
+	public int getNumberOfThreads() {
+		return numberOfThreads;
+	}
+
+	/**
+	 * @see MIGBuilder#setNumberOfThreads(int)
+	 */
+	public void setNumberOfThreads(int numberOfThreads) {
+		this.numberOfThreads = numberOfThreads;
+	}
+
+}
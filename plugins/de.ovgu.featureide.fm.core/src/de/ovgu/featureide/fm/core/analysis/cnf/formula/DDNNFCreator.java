@@ -0,0 +1,94 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.analysis.cnf.formula;
+
+import de.ovgu.featureide.fm.core.Logger;
+import de.ovgu.featureide.fm.core.analysis.cnf.CNF;
+import de.ovgu.featureide.fm.core.analysis.cnf.solver.RuntimeTimeoutException;
+import de.ovgu.featureide.fm.core.analysis.ddnnf.DDNNF;
+import de.ovgu.featureide.fm.core.analysis.ddnnf.DDNNFBuilder;
+import de.ovgu.featureide.fm.core.job.monitor.NullMonitor;
+
+/**
+ * Creates a {@link DDNNF} from a {@link CNF} of the feature model.<br> If a timeout is given and the compilation exceeds it, the created element is
+ * {@code null}. In this case, the compilation is not attempted again for the same formula.
+ *
+ * @author FeatureIDE Team
+ */
+public class DDNNFCreator extends ACreator<DDNNF> {
+
+	private final ACreator<CNF> cnfCreator;
+	private final long timeout;
+
+	private boolean timeoutOccurred = false;
+
+	public DDNNFCreator() {
+		this(new CNFCreator());
+	}
+
+	/**
+	 * @param cnfCreator the creator of the {@link CNF} that is compiled (e.g., {@link NoHiddenCNFCreator}).
+	 */
+	public DDNNFCreator(ACreator<CNF> cnfCreator) {
+		this(cnfCreator, 0);
+	}
+
+	/**
+	 * @param cnfCreator the creator of the {@link CNF} that is compiled (e.g., {@link NoHiddenCNFCreator}).
+	 * @param timeout the maximum compilation time in milliseconds ({@code 0} for no timeout).
+	 */
+	public DDNNFCreator(ACreator<CNF> cnfCreator, long timeout) {
+		this.cnfCreator = cnfCreator;
+		this.timeout = timeout;
+	}
+
+	@Override
+	protected DDNNF create() {
+		if (timeoutOccurred) {
+			return null;
+		}
+		final CNF cnf = formula.getElement(cnfCreator);
+		if (cnf == null) {
+			return null;
+		}
+		final DDNNFBuilder builder = new DDNNFBuilder(cnf);
+		builder.setTimeout(timeout);
+		try {
+			return builder.execute(new NullMonitor<DDNNF>());
+		} catch (final RuntimeTimeoutException e) {
+			timeoutOccurred = true;
+		} catch (final Exception e) {
+			Logger.logError(e);
+		}
+		return null;
+	}
+
+	@Override
+	public int hashCode() {
+		return (31 * ((31 * super.hashCode()) + cnfCreator.hashCode())) + Long.hashCode(timeout);
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		return super.equals(obj) && cnfCreator.equals(((DDNNFCreator) obj).cnfCreator) && (timeout == ((DDNNFCreator) obj).timeout);
+	}
+
+}
@@ -20,14 +20,25 @@
  */
 package de.ovgu.featureide.fm.core.analysis.cnf.formula;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
 
 import org.prop4j.Node;
 
 import de.ovgu.featureide.fm.core.FeatureModelAnalyzer;
 import de.ovgu.featureide.fm.core.analysis.cnf.CNF;
+import de.ovgu.featureide.fm.core.analysis.cnf.ClauseList;
+import de.ovgu.featureide.fm.core.analysis.cnf.FeatureModelCNF;
 import de.ovgu.featureide.fm.core.analysis.cnf.Variables;
+import de.ovgu.featureide.fm.core.analysis.cnf.solver.ModifiableSatSolver;
+import de.ovgu.featureide.fm.core.analysis.cnf.solver.NodeQuerySolver;
+import de.ovgu.featureide.fm.core.analysis.cnf.solver.RuntimeContradictionException;
+import de.ovgu.featureide.fm.core.analysis.cnf.solver.SolverPool;
+import de.ovgu.featureide.fm.core.analysis.mig.MIGUpdater;
+import de.ovgu.featureide.fm.core.analysis.mig.ModalImplicationGraph;
 import de.ovgu.featureide.fm.core.base.IFeatureModel;
+import de.ovgu.featureide.fm.core.base.event.FeatureIDEEvent;
 
 /**
  * Holds certain {@link ACreator elements} that can be derived from a feature model.
@@ -106,6 +117,105 @@ public class FeatureModelFormula {
 		return getElement(new FMAnalyzerCreator());
 	}
 
+	/**
+	 * Creates a formula for a modified version of the associated feature model.<br> The changes are derived from the given {@link FeatureIDEEvent events}
+	 * as a {@link FormulaDelta clause-level delta}, which is applied to the cached {@link CNF}, {@link ModalImplicationGraph}, and
+	 * {@link IncrementalSolverCreator incremental solver} of this formula. All other elements are computed on demand. If the changes cannot be expressed as a
+	 * delta, the new formula is computed from scratch.
+	 *
+	 * @param newFeatureModel the modified feature model
+	 * @param events the events that were fired while modifying the feature model
+	 * @return a formula for the given feature model
+	 */
+	public FeatureModelFormula update(IFeatureModel newFeatureModel, Collection<FeatureIDEEvent> events) {
+		final FeatureModelFormula newFormula = new FeatureModelFormula(newFeatureModel);
+
+		final CNF oldCNF = getElementIfPresent(new CNFCreator());
+		if (oldCNF == null) {
+			return newFormula;
+		}
+		final FormulaDelta delta = FormulaDelta.compute(this, newFormula, events);
+		if (delta == null) {
+			return newFormula;
+		}
+		final ClauseList newClauses = delta.apply(oldCNF.getClauses());
+		if (newClauses == null) {
+			return newFormula;
+		}
+		final CNF newCNF = FeatureModelCNF.empty(newFeatureModel, false);
+		newCNF.addClauses(newClauses);
+		newFormula.setElement(new CNFCreator(), newCNF);
+
+		final ModifiableSatSolver solver = removeElement(new IncrementalSolverCreator());
+		if ((solver != null) && delta.getRemovedClauses().isEmpty()) {
+			synchronized (solver) {
+				try {
+					solver.addClauses(delta.getAddedClauses());
+					newFormula.setElement(new IncrementalSolverCreator(), solver);
+				} catch (final RuntimeContradictionException e) {}
+			}
+		}
+
+		final ModalImplicationGraphCreator migCreator = getCreator(new ModalImplicationGraphCreator());
+		final ModalImplicationGraph oldMig = migCreator == null ? null : migCreator.getIfPresent();
+		if ((oldMig != null) && !migCreator.isComplete()) {
+			final ModalImplicationGraph newMig = new MIGUpdater(oldMig, newCNF, newFormula.getElement(new IncrementalSolverCreator()))
+					.update(delta.getAddedClauses(), delta.getRemovedClauses());
+			if (newMig != null) {
+				newFormula.setElement(new ModalImplicationGraphCreator(), newMig);
+			}
+		}
+
+		return newFormula;
+	}
+
+	@SuppressWarnings("unchecked")
+	private <C extends ACreator<?>> C getCreator(C formulaElement) {
+		synchronized (map) {
+			return (C) map.get(formulaElement);
+		}
+	}
+
+	private <T> T getElementIfPresent(ACreator<T> formulaElement) {
+		final ACreator<T> mappedFormulaElement = getCreator(formulaElement);
+		return mappedFormulaElement == null ? null : mappedFormulaElement.getIfPresent();
+	}
+
+	@SuppressWarnings("unchecked")
+	private <T> T removeElement(ACreator<T> formulaElement) {
+		final ACreator<?> mappedFormulaElement;
+		synchronized (map) {
+			mappedFormulaElement = map.remove(formulaElement);
+		}
+		return mappedFormulaElement == null ? null : (T) mappedFormulaElement.getIfPresent();
+	}
+
+	private <T> void setElement(ACreator<T> formulaElement, T element) {
+		synchronized (map) {
+			formulaElement.init(this, element);
+			map.put(formulaElement, formulaElement);
+		}
+	}
+
+	/**
+	 * Removes all idle solvers for the {@link CNF CNFs} of this formula from the {@link SolverPool#getDefault() default solver pool}. Should be called when
+	 * this formula is replaced, such that the pool does not keep the solvers of an outdated feature model.
+	 */
+	public void invalidateSolvers() {
+		final ArrayList<ACreator<?>> creators;
+		synchronized (map) {
+			creators = new ArrayList<>(map.values());
+		}
+		for (final ACreator<?> creator : creators) {
+			final Object element = creator.getIfPresent();
+			if (element instanceof CNF) {
+				SolverPool.getDefault().invalidate((CNF) element);
+			} else if (element instanceof NodeQuerySolver) {
+				((NodeQuerySolver) element).invalidateSolvers();
+			}
+		}
+	}
+
 	public void resetFormula() {
 		synchronized (map) {
 			map.clear();
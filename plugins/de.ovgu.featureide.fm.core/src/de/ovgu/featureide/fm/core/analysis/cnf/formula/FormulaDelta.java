@@ -0,0 +1,224 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.analysis.cnf.formula;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map.Entry;
+
+import org.prop4j.Node;
+
+import de.ovgu.featureide.fm.core.analysis.cnf.ClauseList;
+import de.ovgu.featureide.fm.core.analysis.cnf.LiteralSet;
+import de.ovgu.featureide.fm.core.analysis.cnf.Nodes;
+import de.ovgu.featureide.fm.core.analysis.cnf.Variables;
+import de.ovgu.featureide.fm.core.base.IConstraint;
+import de.ovgu.featureide.fm.core.base.IFeatureModel;
+import de.ovgu.featureide.fm.core.base.event.FeatureIDEEvent;
+import de.ovgu.featureide.fm.core.editing.AdvancedNodeCreator;
+import de.ovgu.featureide.fm.core.editing.AdvancedNodeCreator.CNFType;
+import de.ovgu.featureide.fm.core.editing.AdvancedNodeCreator.ModelType;
+
+/**
+ * Clause-level difference between the {@link CNFCreator CNF} of two versions of a feature model.<br> The parts of the feature model that are compared are
+ * determined by the {@link FeatureIDEEvent events} that lead from the old to the new version. Constraint events only compare the cross-tree constraints,
+ * structural events only compare the clauses of the feature tree. Events that change the set of variables or whose effect on the formula is unknown cannot
+ * be expressed as a delta.
+ *
+ * @author FeatureIDE Team
+ *
+ * @see FeatureModelFormula#update(IFeatureModel, Collection)
+ */
+public class FormulaDelta {
+
+	private final ClauseList addedClauses = new ClauseList();
+	private final ClauseList removedClauses = new ClauseList();
+
+	/**
+	 * Computes the delta between two formulas.
+	 *
+	 * @param oldFormula the formula of the old feature model
+	 * @param newFormula the formula of the new feature model
+	 * @param events the events that were fired while changing the old into the new feature model
+	 * @return the delta or {@code null}, if the changes cannot be expressed as a clause-level delta.
+	 */
+	public static FormulaDelta compute(FeatureModelFormula oldFormula, FeatureModelFormula newFormula, Collection<FeatureIDEEvent> events) {
+		boolean structureChanged = false;
+		boolean constraintsChanged = false;
+		for (final FeatureIDEEvent event : events) {
+			switch (event.getEventType()) {
+			case CONSTRAINT_ADD:
+			case CONSTRAINT_DELETE:
+			case CONSTRAINT_MODIFY:
+			case CONSTRAINT_MOVE:
+				constraintsChanged = true;
+				break;
+			case GROUP_TYPE_CHANGED:
+			case MANDATORY_CHANGED:
+			case PARENT_CHANGED:
+			case CHILDREN_CHANGED:
+			case STRUCTURE_CHANGED:
+				structureChanged = true;
+				break;
+			case ATTRIBUTE_CHANGED:
+			case FEATURE_HIDDEN_CHANGED:
+			case FEATURE_COLLAPSED_CHANGED:
+			case FEATURE_COLLAPSED_ALL_CHANGED:
+			case FEATURE_COLOR_CHANGED:
+			case FEATURE_ATTRIBUTE_CHANGED:
+			case CONFIGURABLE_ATTRIBUTE_CHANGED:
+			case CONSTRAINT_MOVE_LOCATION:
+			case LOCATION_CHANGED:
+			case LEGEND_LAYOUT_CHANGED:
+			case MODEL_LAYOUT_CHANGED:
+			case REDRAW_DIAGRAM:
+			case REFRESH_ACTIONS:
+			case FEATURE_SELECTION_CHANGED:
+			case ACTIVE_EXPLANATION_CHANGED:
+			case ACTIVE_REASON_CHANGED:
+			case DEPENDENCY_CALCULATED:
+				break;
+			default:
+				return null;
+			}
+		}
+
+		final Variables variables = oldFormula.getVariables();
+		if (!Arrays.equals(variables.getNames(), newFormula.getVariables().getNames())) {
+			return null;
+		}
+
+		final FormulaDelta delta = new FormulaDelta();
+		if (structureChanged) {
+			delta.addDifference(oldFormula.getElement(new FeatureTreeCNFCreator()).getClauses(),
+					newFormula.getElement(new FeatureTreeCNFCreator()).getClauses());
+		}
+		if (constraintsChanged && !delta.addConstraintDifference(variables, oldFormula.getFeatureModel(), newFormula.getFeatureModel())) {
+			return null;
+		}
+		return delta;
+	}
+
+	private void addDifference(List<LiteralSet> oldClauses, List<LiteralSet> newClauses) {
+		final HashMap<LiteralSet, Integer> clauseCount = new HashMap<>();
+		for (final LiteralSet clause : oldClauses) {
+			clauseCount.merge(clause, 1, Integer::sum);
+		}
+		for (final LiteralSet clause : newClauses) {
+			clauseCount.merge(clause, -1, Integer::sum);
+		}
+		for (final Entry<LiteralSet, Integer> entry : clauseCount.entrySet()) {
+			final int count = entry.getValue();
+			for (int i = 0; i < count; i++) {
+				removedClauses.add(entry.getKey());
+			}
+			for (int i = 0; i > count; i--) {
+				addedClauses.add(entry.getKey());
+			}
+		}
+	}
+
+	private boolean addConstraintDifference(Variables variables, IFeatureModel oldFeatureModel, IFeatureModel newFeatureModel) {
+		final HashMap<Node, Integer> constraintCount = new HashMap<>();
+		for (final IConstraint constraint : oldFeatureModel.getConstraints()) {
+			constraintCount.merge(constraint.getNode(), 1, Integer::sum);
+		}
+		for (final IConstraint constraint : newFeatureModel.getConstraints()) {
+			constraintCount.merge(constraint.getNode(), -1, Integer::sum);
+		}
+
+		final AdvancedNodeCreator nodeCreator = new AdvancedNodeCreator(newFeatureModel, CNFType.Regular, ModelType.OnlyConstraints, false);
+		for (final IConstraint constraint : oldFeatureModel.getConstraints()) {
+			if (constraintCount.get(constraint.getNode()) > 0) {
+				constraintCount.merge(constraint.getNode(), -1, Integer::sum);
+				if (!addClauses(removedClauses, Nodes.convert(variables, nodeCreator.createConstraintNode(constraint)))) {
+					return false;
+				}
+			}
+		}
+		for (final IConstraint constraint : newFeatureModel.getConstraints()) {
+			if (constraintCount.get(constraint.getNode()) < 0) {
+				constraintCount.merge(constraint.getNode(), 1, Integer::sum);
+				if (!addClauses(addedClauses, Nodes.convert(variables, nodeCreator.createConstraintNode(constraint)))) {
+					return false;
+				}
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * A contradictory constraint replaces the whole CNF by an empty clause, which cannot be expressed as a delta.
+	 */
+	private static boolean addClauses(ClauseList clauseList, ClauseList constraintClauses) {
+		for (final LiteralSet clause : constraintClauses) {
+			if (clause.containsLiteral(0)) {
+				return false;
+			}
+		}
+		clauseList.addAll(constraintClauses);
+		return true;
+	}
+
+	public ClauseList getAddedClauses() {
+		return addedClauses;
+	}
+
+	public ClauseList getRemovedClauses() {
+		return removedClauses;
+	}
+
+	public boolean isEmpty() {
+		return addedClauses.isEmpty() && removedClauses.isEmpty();
+	}
+
+	/**
+	 * Applies this delta to the given list of clauses. Each removed clause deletes exactly one equal clause from the list.
+	 *
+	 * @param clauses the clauses of the old formula
+	 * @return a new list containing the clauses of the new formula or {@code null}, if a removed clause is not contained in the given list.
+	 */
+	public ClauseList apply(List<LiteralSet> clauses) {
+		final HashMap<LiteralSet, Integer> removeCount = new HashMap<>();
+		for (final LiteralSet clause : removedClauses) {
+			removeCount.merge(clause, 1, Integer::sum);
+		}
+		final ClauseList newClauses = new ClauseList(clauses.size() + addedClauses.size());
+		for (final LiteralSet clause : clauses) {
+			final Integer count = removeCount.get(clause);
+			if ((count != null) && (count > 0)) {
+				removeCount.put(clause, count - 1);
+			} else {
+				newClauses.add(clause);
+			}
+		}
+		for (final Integer count : removeCount.values()) {
+			if (count > 0) {
+				return null;
+			}
+		}
+		newClauses.addAll(addedClauses);
+		return newClauses;
+	}
+
+}
@@ -0,0 +1,45 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.analysis.cnf.formula;
+
+import de.ovgu.featureide.fm.core.analysis.cnf.CNF;
+import de.ovgu.featureide.fm.core.analysis.cnf.solver.ModifiableSatSolver;
+import de.ovgu.featureide.fm.core.analysis.cnf.solver.RuntimeContradictionException;
+
+/**
+ * Creates a {@link ModifiableSatSolver} for the {@link CNF} of a feature model.<br> The solver is retained when the formula is
+ * {@link FeatureModelFormula#update(de.ovgu.featureide.fm.core.base.IFeatureModel, java.util.Collection) updated} and new clauses are added to it
+ * incrementally. Callers must synchronize on the solver instance and must not change its clauses.
+ *
+ * @author FeatureIDE Team
+ */
+public class IncrementalSolverCreator extends ACreator<ModifiableSatSolver> {
+
+	@Override
+	protected ModifiableSatSolver create() {
+		try {
+			return new ModifiableSatSolver(formula.getCNF());
+		} catch (final RuntimeContradictionException e) {
+			return null;
+		}
+	}
+
+}
@@ -32,10 +32,13 @@ import de.ovgu.featureide.fm.core.job.LongRunningWrapper;
 public class ModalImplicationGraphCreator extends ACreator<ModalImplicationGraph> {
 
 	private boolean complete = false;
+	private int numberOfThreads = 1;
 
 	@Override
 	protected ModalImplicationGraph create() {
-		return LongRunningWrapper.runMethod(new MIGBuilder(formula.getElement(new CNFCreator()), complete));
+		final MIGBuilder builder = new MIGBuilder(formula.getElement(new CNFCreator()), complete);
+		builder.setNumberOfThreads(numberOfThreads);
+		return LongRunningWrapper.runMethod(builder);
 	}
 
 	public boolean isComplete() {
@@ -46,4 +49,15 @@ public class ModalImplicationGraphCreator extends ACreator<ModalImplicationGraph
 		this.complete = complete;
 	}
 
+	public int getNumberOfThreads() {
+		return numberOfThreads;
+	}
+
+	/**
+	 * @see MIGBuilder#setNumberOfThreads(int)
+	 */
+	public void setNumberOfThreads(int numberOfThreads) {
+		this.numberOfThreads = numberOfThreads;
+	}
+
 }
@@ -0,0 +1,71 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.analysis.cnf.formula;
+
+import de.ovgu.featureide.fm.core.analysis.cnf.CNF;
+import de.ovgu.featureide.fm.core.analysis.cnf.TseitinTransformer;
+import de.ovgu.featureide.fm.core.analysis.cnf.TseitinTransformer.Encoding;
+import de.ovgu.featureide.fm.core.base.IConstraint;
+
+/**
+ * Creates a {@link CNF} using the {@link TseitinTransformer} for cross-tree constraints. Complex constraints are encoded with auxiliary variables, such
+ * that the size of the CNF is linear in the size of the constraints. The dependencies from the feature tree are encoded without auxiliary variables.
+ *
+ * @author FeatureIDE Team
+ */
+public class TseitinCNFCreator extends ACreator<CNF> {
+
+	private final Encoding encoding;
+
+	public TseitinCNFCreator() {
+		this(Encoding.PLAISTED_GREENBAUM);
+	}
+
+	public TseitinCNFCreator(Encoding encoding) {
+		this.encoding = encoding;
+	}
+
+	public Encoding getEncoding() {
+		return encoding;
+	}
+
+	@Override
+	protected CNF create() {
+		final CNF featureTreeCNF = formula.getElement(new FeatureTreeCNFCreator());
+		final TseitinTransformer transformer = new TseitinTransformer(featureTreeCNF.getVariables(), encoding);
+		transformer.getClauses().addAll(featureTreeCNF.getClauses());
+		for (final IConstraint constraint : formula.getFeatureModel().getConstraints()) {
+			transformer.addNode(constraint.getNode().clone());
+		}
+		return transformer.getCNF();
+	}
+
+	@Override
+	public int hashCode() {
+		return (31 * super.hashCode()) + encoding.hashCode();
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		return super.equals(obj) && (encoding == ((TseitinCNFCreator) obj).encoding);
+	}
+
+}
@@ -27,6 +27,7 @@ import java.util.concurrent.LinkedBlockingQueue;
 import de.ovgu.featureide.fm.core.Logger;
 import de.ovgu.featureide.fm.core.analysis.cnf.CNF;
 import de.ovgu.featureide.fm.core.analysis.cnf.LiteralSet;
+import de.ovgu.featureide.fm.core.analysis.cnf.Variables;
 import de.ovgu.featureide.fm.core.analysis.cnf.analysis.AbstractAnalysis;
 import de.ovgu.featureide.fm.core.analysis.cnf.solver.ISatSolver;
 import de.ovgu.featureide.fm.core.job.monitor.IMonitor;
@@ -75,13 +76,21 @@ public abstract class AConfigurationGenerator extends AbstractAnalysis<List<Lite
 
 	protected abstract void generate(IMonitor<List<LiteralSet>> monitor) throws Exception;
 
-	protected void addResult(LiteralSet result) {
+	/**
+	 * Adds a configuration to the result. Literals of {@link Variables#isAuxiliary(int) auxiliary variables} are removed from the configuration.
+	 *
+	 * @param result the configuration
+	 * @return the configuration that was actually added
+	 */
+	protected LiteralSet addResult(LiteralSet result) {
+		result = solver.getSatInstance().getVariables().removeAuxiliaryLiterals(result);
 		resultList.add(result);
 		try {
 			resultQueue.put(result);
 		} catch (final InterruptedException e) {
 			Logger.logError(e);
 		}
+		return result;
 	}
 
 	@Override
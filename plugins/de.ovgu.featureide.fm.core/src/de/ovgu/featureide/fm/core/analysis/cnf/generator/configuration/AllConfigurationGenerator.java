@@ -59,8 +59,7 @@ public class AllConfigurationGenerator extends AConfigurationGenerator {
 			if (solution == null) {
 				break;
 			}
-			final LiteralSet result = new LiteralSet(solution, Order.INDEX, false);
-			addResult(result);
+			final LiteralSet result = addResult(new LiteralSet(solution, Order.INDEX, false));
 			try {
 				solver.addInternalClause(result.negate());
 			} catch (final RuntimeContradictionException e) {
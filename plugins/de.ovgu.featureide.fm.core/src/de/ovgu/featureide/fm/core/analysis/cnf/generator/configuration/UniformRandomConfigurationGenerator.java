@@ -65,8 +65,7 @@ public class UniformRandomConfigurationGenerator extends ARandomConfigurationGen
 			if (solution == null) {
 				break;
 			}
-			final LiteralSet result = new LiteralSet(solution, Order.INDEX, false);
-			addResult(result);
+			final LiteralSet result = addResult(new LiteralSet(solution, Order.INDEX, false));
 			monitor.step();
 			if (!allowDuplicates) {
 				try {
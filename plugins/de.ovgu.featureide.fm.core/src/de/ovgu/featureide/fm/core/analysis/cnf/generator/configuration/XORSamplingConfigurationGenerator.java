@@ -0,0 +1,485 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.analysis.cnf.generator.configuration;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+import de.ovgu.featureide.fm.core.analysis.cnf.CNF;
+import de.ovgu.featureide.fm.core.analysis.cnf.LiteralSet;
+import de.ovgu.featureide.fm.core.analysis.cnf.LiteralSet.Order;
+import de.ovgu.featureide.fm.core.analysis.cnf.Variables;
+import de.ovgu.featureide.fm.core.analysis.cnf.solver.AdvancedSatSolver;
+import de.ovgu.featureide.fm.core.analysis.cnf.solver.RuntimeContradictionException;
+import de.ovgu.featureide.fm.core.job.monitor.IMonitor;
+
+/**
+ * Generates near-uniform random configurations for a given propositional formula by partitioning its solution space with random XOR constraints (UniGen2).
+ * <br> <br> Each sampling round adds random XOR constraints over all non-auxiliary variables to the formula, until the remaining cell contains at most
+ * {@code hiThreshold} solutions. If the cell is not too small either, its solutions are enumerated and a configuration is picked uniformly from it. Every
+ * configuration is sampled with a probability within a factor of {@code 1 + tolerance} of the uniform distribution. Formulas with few solutions are sampled
+ * exactly by enumerating all of their solutions.<br> <br> XOR constraints are simplified by Gauss-Jordan elimination and then encoded as CNF, as the SAT
+ * solver does not support them natively. Thus, this generator is intended for formulas whose solution space can be partitioned with a moderate number of
+ * XOR constraints.
+ *
+ * @author FeatureIDE Team
+ */
+public class XORSamplingConfigurationGenerator extends ARandomConfigurationGenerator {
+
+	/**
+	 * The smallest supported tolerance.
+	 */
+	public static final double MIN_TOLERANCE = 1.71;
+
+	/**
+	 * The number of consecutive rounds without a new configuration after which the generator stops.
+	 */
+	private static final int MAX_UNSUCCESSFUL_ROUNDS = 100;
+
+	private static final String XOR_VARIABLE_PREFIX = "__xor_";
+
+	/**
+	 * A sequence of random XOR constraints. Each cell uses a prefix of this sequence, such that cells of the same hash are nested.
+	 */
+	private static final class Hash {
+
+		private final Random random;
+		private final int numberOfVariables;
+		private final List<BitSet> rows = new ArrayList<>();
+		private final BitSet parities = new BitSet();
+
+		private Hash(Random random, int numberOfVariables) {
+			this.random = random;
+			this.numberOfVariables = numberOfVariables;
+		}
+
+		private void ensureRows(int numberOfRows) {
+			while (rows.size() < numberOfRows) {
+				final BitSet row = new BitSet(numberOfVariables);
+				for (int i = 0; i < numberOfVariables; i++) {
+					if (random.nextBoolean()) {
+						row.set(i);
+					}
+				}
+				parities.set(rows.size(), random.nextBoolean());
+				rows.add(row);
+			}
+		}
+
+	}
+
+	private double tolerance = 16;
+	private int samplesPerCell = 1;
+	private int numberOfThreads = 1;
+
+	private CNF cnf;
+	private int numberOfSamplingVariables;
+	private int hiThreshold;
+	private int loThreshold;
+
+	public XORSamplingConfigurationGenerator(CNF cnf, int maxNumber) {
+		super(cnf, maxNumber);
+	}
+
+	@Override
+	protected void generate(IMonitor<List<LiteralSet>> monitor) throws Exception {
+		monitor.setRemainingWork(maxSampleSize);
+		initThresholds();
+
+		final CNF satInstance = solver.getSatInstance();
+		cnf = new CNF(satInstance.normalize());
+		for (final int literal : satInstance.getVariables().convertToInternal(solver.getAssignmentArray())) {
+			cnf.addClause(new LiteralSet(literal));
+		}
+		numberOfSamplingVariables = cnf.getVariables().sizeWithoutAuxiliaryVariables();
+
+		final List<int[]> allSolutions = enumerateCell(null, 0);
+		if (allSolutions == null) {
+			return;
+		}
+		if (allSolutions.size() <= hiThreshold) {
+			sampleExactly(monitor, allSolutions);
+			return;
+		}
+
+		final int numberOfRows = estimateNumberOfRows(new Hash(getRandom(), numberOfSamplingVariables));
+		final int firstRow = Math.max(1, numberOfRows - 2);
+		final int lastRow = Math.min(numberOfSamplingVariables, numberOfRows + 1);
+
+		final HashSet<LiteralSet> sample = allowDuplicates ? null : new HashSet<>();
+		final long[] seeds = new long[numberOfThreads];
+		final List<List<int[]>> cellSamples = new ArrayList<>(Collections.nCopies(numberOfThreads, null));
+		final ForkJoinPool pool = numberOfThreads > 1 ? new ForkJoinPool(numberOfThreads) : null;
+		try {
+			int sampleSize = 0;
+			int unsuccessfulRounds = 0;
+			while (true) {
+				for (int i = 0; i < numberOfThreads; i++) {
+					seeds[i] = getRandom().nextLong();
+				}
+				if (pool == null) {
+					cellSamples.set(0, sampleCell(new Random(seeds[0]), firstRow, lastRow));
+				} else {
+					final List<Callable<Void>> tasks = new ArrayList<>(numberOfThreads);
+					for (int i = 0; i < numberOfThreads; i++) {
+						final int roundIndex = i;
+						tasks.add(() -> {
+							cellSamples.set(roundIndex, sampleCell(new Random(seeds[roundIndex]), firstRow, lastRow));
+							return null;
+						});
+					}
+					invokeAll(pool, tasks);
+				}
+
+				for (final List<int[]> cellSample : cellSamples) {
+					boolean successful = false;
+					if (cellSample != null) {
+						for (final int[] solution : cellSample) {
+							if (sampleSize >= maxSampleSize) {
+								return;
+							}
+							final LiteralSet configuration =
+								satInstance.getVariables().removeAuxiliaryLiterals(new LiteralSet(solution, Order.INDEX, false));
+							if ((sample == null) || sample.add(configuration)) {
+								addResult(configuration);
+								monitor.step();
+								sampleSize++;
+								successful = true;
+							}
+						}
+					}
+					unsuccessfulRounds = successful ? 0 : unsuccessfulRounds + 1;
+					if ((sampleSize >= maxSampleSize) || (unsuccessfulRounds >= MAX_UNSUCCESSFUL_ROUNDS)) {
+						return;
+					}
+				}
+			}
+		} finally {
+			if (pool != null) {
+				pool.shutdownNow();
+			}
+			cnf = null;
+		}
+	}
+
+	private void initThresholds() {
+		// Solve tolerance = (1 + kappa) * (2.23 + 0.48 / (1 - kappa)^2) - 1 for kappa in (0, 1)
+		double lower = 0;
+		double upper = 1;
+		for (int i = 0; i < 64; i++) {
+			final double kappa = (lower + upper) / 2;
+			if ((((1 + kappa) * (2.23 + (0.48 / ((1 - kappa) * (1 - kappa))))) - 1) < tolerance) {
+				lower = kappa;
+			} else {
+				upper = kappa;
+			}
+		}
+		final double kappa = lower;
+		final int pivot = (int) Math.ceil(3 * Math.sqrt(Math.E) * (1 + (1 / kappa)) * (1 + (1 / kappa)));
+		hiThreshold = (int) (1 + ((1 + kappa) * pivot));
+		loThreshold = Math.max(1, (int) (pivot / (1 + kappa)));
+	}
+
+	private void sampleExactly(IMonitor<List<LiteralSet>> monitor, List<int[]> allSolutions) throws Exception {
+		final Variables variables = solver.getSatInstance().getVariables();
+		if (allowDuplicates) {
+			for (int i = 0; i < maxSampleSize; i++) {
+				final int[] solution = allSolutions.get(getRandom().nextInt(allSolutions.size()));
+				addResult(variables.removeAuxiliaryLiterals(new LiteralSet(solution, Order.INDEX, false)));
+				monitor.step();
+			}
+		} else {
+			Collections.shuffle(allSolutions, getRandom());
+			final int sampleSize = Math.min(maxSampleSize, allSolutions.size());
+			for (int i = 0; i < sampleSize; i++) {
+				addResult(variables.removeAuxiliaryLiterals(new LiteralSet(allSolutions.get(i), Order.INDEX, false)));
+				monitor.step();
+			}
+		}
+	}
+
+	/**
+	 * Determines the smallest number of XOR constraints of the given hash, for which the corresponding cell contains at most {@code hiThreshold} solutions.
+	 */
+	private int estimateNumberOfRows(Hash hash) {
+		int lower = 0;
+		int upper = 1;
+		while (!isSmallCell(hash, upper)) {
+			if (upper == numberOfSamplingVariables) {
+				return upper;
+			}
+			lower = upper;
+			upper = Math.min(2 * upper, numberOfSamplingVariables);
+		}
+		while ((upper - lower) > 1) {
+			final int middle = (lower + upper) >>> 1;
+			if (isSmallCell(hash, middle)) {
+				upper = middle;
+			} else {
+				lower = middle;
+			}
+		}
+		return upper;
+	}
+
+	private boolean isSmallCell(Hash hash, int numberOfRows) {
+		hash.ensureRows(numberOfRows);
+		final List<int[]> cell = enumerateCell(hash, numberOfRows);
+		return (cell != null) && (cell.size() <= hiThreshold);
+	}
+
+	/**
+	 * Performs one sampling round with a new random hash.
+	 *
+	 * @return the configurations picked from a cell of suitable size or {@code null}, if the round failed.
+	 */
+	private List<int[]> sampleCell(Random random, int firstRow, int lastRow) {
+		final Hash hash = new Hash(random, numberOfSamplingVariables);
+		hash.ensureRows(lastRow);
+		for (int numberOfRows = firstRow; numberOfRows <= lastRow; numberOfRows++) {
+			final List<int[]> cell = enumerateCell(hash, numberOfRows);
+			if (cell == null) {
+				return null;
+			}
+			if (cell.size() <= hiThreshold) {
+				// Cells of the same hash are nested, so adding further constraints cannot lead to a larger cell
+				if (cell.size() < loThreshold) {
+					return null;
+				}
+				Collections.shuffle(cell, random);
+				return cell.subList(0, Math.min(cell.size(), Math.min(samplesPerCell, loThreshold)));
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Enumerates the solutions within a cell up to {@code hiThreshold + 1} solutions. Solutions are distinct with regard to non-auxiliary variables.
+	 *
+	 * @param hash the hash or {@code null} for the entire solution space
+	 * @param numberOfRows the number of XOR constraints of the hash that define the cell
+	 * @return the solutions of the cell or {@code null}, if a timeout occurred.
+	 */
+	private List<int[]> enumerateCell(Hash hash, int numberOfRows) {
+		final CNF cellCNF = createCellCNF(hash, numberOfRows);
+		final List<int[]> solutions = new ArrayList<>();
+		if (cellCNF == null) {
+			return solutions;
+		}
+		final int numberOfVariables = cnf.getVariables().size();
+		final AdvancedSatSolver cellSolver;
+		try {
+			cellSolver = new AdvancedSatSolver(cellCNF);
+		} catch (final RuntimeContradictionException e) {
+			return solutions;
+		}
+		while (solutions.size() <= hiThreshold) {
+			switch (cellSolver.hasSolution()) {
+			case FALSE:
+				return solutions;
+			case TIMEOUT:
+				reportTimeout();
+				return null;
+			case TRUE:
+				final int[] solution = Arrays.copyOf(cellSolver.getSolution(), numberOfVariables);
+				solutions.add(solution);
+				final int[] blockingClause = new int[numberOfSamplingVariables];
+				for (int i = 0; i < blockingClause.length; i++) {
+					blockingClause[i] = -solution[i];
+				}
+				try {
+					cellSolver.addClause(new LiteralSet(blockingClause, Order.INDEX, false));
+				} catch (final RuntimeContradictionException e) {
+					return solutions;
+				}
+				break;
+			default:
+				throw new AssertionError();
+			}
+		}
+		return solutions;
+	}
+
+	/**
+	 * Creates a CNF that contains the first {@code numberOfRows} XOR constraints of the given hash in addition to the original clauses. The XOR constraints are
+	 * reduced by Gauss-Jordan elimination before they are encoded with additional auxiliary variables.
+	 *
+	 * @return the CNF for the cell or {@code null}, if the XOR constraints are inconsistent.
+	 */
+	private CNF createCellCNF(Hash hash, int numberOfRows) {
+		if ((hash == null) || (numberOfRows == 0)) {
+			return cnf;
+		}
+		final BitSet[] rows = new BitSet[numberOfRows];
+		final boolean[] parities = new boolean[numberOfRows];
+		for (int i = 0; i < numberOfRows; i++) {
+			rows[i] = (BitSet) hash.rows.get(i).clone();
+			parities[i] = hash.parities.get(i);
+		}
+
+		int rank = 0;
+		for (int i = 0; i < numberOfRows; i++) {
+			final BitSet row = rows[i];
+			final int pivot = row.nextSetBit(0);
+			if (pivot < 0) {
+				if (parities[i]) {
+					return null;
+				}
+				continue;
+			}
+			for (int j = 0; j < numberOfRows; j++) {
+				if ((j != i) && rows[j].get(pivot)) {
+					rows[j].xor(row);
+					parities[j] ^= parities[i];
+				}
+			}
+			rows[rank] = row;
+			parities[rank] = parities[i];
+			rank++;
+		}
+
+		final Variables variables = cnf.getVariables();
+		final int numberOfVariables = variables.size();
+		final List<LiteralSet> xorClauses = new ArrayList<>();
+		int lastVariable = numberOfVariables;
+		for (int i = 0; i < rank; i++) {
+			lastVariable = encodeXOR(rows[i], parities[i], lastVariable, xorClauses);
+		}
+
+		final List<String> names = new ArrayList<>(lastVariable);
+		names.addAll(Arrays.asList(variables.getNames()).subList(1, numberOfVariables + 1));
+		for (int i = numberOfVariables + 1; i <= lastVariable; i++) {
+			names.add(XOR_VARIABLE_PREFIX + i);
+		}
+		final CNF cellCNF = new CNF(new Variables(names, variables.getNumberOfAuxiliaryVariables() + (lastVariable - numberOfVariables)), cnf.getClauses());
+		cellCNF.addClauses(xorClauses);
+		return cellCNF;
+	}
+
+	/**
+	 * Encodes a XOR constraint as a chain of XOR constraints with at most four variables each, which are linked by new auxiliary variables.
+	 *
+	 * @return the index of the last auxiliary variable
+	 */
+	private static int encodeXOR(BitSet row, boolean parity, int lastVariable, List<LiteralSet> clauses) {
+		final int[] chunk = new int[4];
+		int chunkSize = 0;
+		int remaining = row.cardinality();
+		for (int i = row.nextSetBit(0); i >= 0; i = row.nextSetBit(i + 1)) {
+			chunk[chunkSize++] = i + 1;
+			remaining--;
+			if ((chunkSize == 3) && (remaining > 1)) {
+				chunk[chunkSize++] = ++lastVariable;
+				encodeSmallXOR(chunk, chunkSize, false, clauses);
+				chunk[0] = lastVariable;
+				chunkSize = 1;
+			}
+		}
+		encodeSmallXOR(chunk, chunkSize, parity, clauses);
+		return lastVariable;
+	}
+
+	/**
+	 * Adds one clause for each assignment of the given variables that violates the XOR constraint.
+	 */
+	private static void encodeSmallXOR(int[] variables, int size, boolean parity, List<LiteralSet> clauses) {
+		for (int assignment = 0; assignment < (1 << size); assignment++) {
+			if (((Integer.bitCount(assignment) & 1) == 1) != parity) {
+				final int[] clause = new int[size];
+				for (int i = 0; i < size; i++) {
+					clause[i] = ((assignment & (1 << i)) != 0) ? -variables[i] : variables[i];
+				}
+				clauses.add(new LiteralSet(clause));
+			}
+		}
+	}
+
+	private static void invokeAll(ForkJoinPool pool, List<Callable<Void>> tasks) throws Exception {
+		try {
+			for (final Future<Void> future : pool.invokeAll(tasks)) {
+				future.get();
+			}
+		} catch (final ExecutionException e) {
+			final Throwable cause = e.getCause();
+			if (cause instanceof Exception) {
+				throw (Exception) cause;
+			}
+			throw new RuntimeException(cause);
+		}
+	}
+
+	public double getTolerance() {
+		return tolerance;
+	}
+
+	/**
+	 * Sets the tolerance of the sampling distribution. Each configuration is sampled with a probability between {@code 1 / ((1 + tolerance) * |solutions|)}
+	 * and {@code (1 + tolerance) / |solutions|}. Smaller values lead to larger cells and, thus, to more solver calls per round.
+	 *
+	 * @param tolerance the tolerance (default: 16)
+	 *
+	 * @throws IllegalArgumentException if the tolerance is not greater than {@link #MIN_TOLERANCE}
+	 */
+	public void setTolerance(double tolerance) {
+		if (!(tolerance > MIN_TOLERANCE)) {
+			throw new IllegalArgumentException("Tolerance must be greater than " + MIN_TOLERANCE + ": " + tolerance);
+		}
+		this.tolerance = tolerance;
+	}
+
+	public int getSamplesPerCell() {
+		return samplesPerCell;
+	}
+
+	/**
+	 * Sets the number of configurations that are picked from each cell. Picking more than one configuration per cell reduces the cost per configuration, but
+	 * configurations from the same round are not independent of each other. The number is bounded by the lower threshold of the cell size.
+	 *
+	 * @param samplesPerCell the number of configurations per cell (default: 1)
+	 */
+	public void setSamplesPerCell(int samplesPerCell) {
+		this.samplesPerCell = Math.max(1, samplesPerCell);
+	}
+
+	public int getNumberOfThreads() {
+		return numberOfThreads;
+	}
+
+	/**
+	 * Sets the number of threads that are used to perform sampling rounds in parallel. Each round uses its own random generator, which is seeded from this
+	 * generator's random generator in a fixed order. Thus, the resulting sample does not depend on the number of threads.
+	 *
+	 * @param numberOfThreads the number of threads (default: 1)
+	 */
+	public void setNumberOfThreads(int numberOfThreads) {
+		this.numberOfThreads = Math.max(1, numberOfThreads);
+	}
+
+}
@@ -27,6 +27,10 @@ import java.util.Comparator;
 import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
 
 import de.ovgu.featureide.fm.core.analysis.cnf.CNF;
 import de.ovgu.featureide.fm.core.analysis.cnf.ClauseList;
@@ -126,8 +130,12 @@ public class TWiseConfigurationGenerator extends AConfigurationGenerator impleme
 		return TWiseCombiner.convertExpressions(expressions);
 	}
 
+	/** Number of combinations per thread that are checked for coverage at once in parallel mode. */
+	private static final int COVERAGE_BATCH_SIZE_PER_THREAD = 256;
+
 	// TODO Variation Point: Iterations of removing low-contributing Configurations
 	private int iterations = 5;
+	private int numberOfThreads = 1;
 
 	protected TWiseConfigurationUtil util;
 	protected TWiseCombiner combiner;
@@ -267,7 +275,7 @@ public class TWiseConfigurationGenerator extends AConfigurationGenerator impleme
 		return index;
 	}
 
-	private void buildCombinations(IMonitor<List<LiteralSet>> monitor) {
+	private void buildCombinations(IMonitor<List<LiteralSet>> monitor) throws Exception {
 		// TODO Variation Point: Cover Strategies
 		final List<? extends ICoverStrategy> phaseList = Arrays.asList(//
 				new CoverAll(this) //
@@ -299,34 +307,17 @@ public class TWiseConfigurationGenerator extends AConfigurationGenerator impleme
 				count = coveredCount;
 				phaseCount++;
 				ICoverStrategy phase = phaseList.get(0);
-				while (true) {
-					monitor.checkCancel();
-					final ClauseList combinedCondition = it.get();
-					if (combinedCondition == null) {
-						break;
-					}
-					if (combinedCondition.isEmpty()) {
-						invalidCount++;
-					} else {
-						final CombinationStatus covered = phase.cover(combinedCondition);
-						switch (covered) {
-						case NOT_COVERED:
-							combinationListUncovered.add(combinedCondition);
-							break;
-						case COVERED:
-							coveredCount++;
-							combinedCondition.clear();
-							break;
-						case INVALID:
-							invalidCount++;
-							combinedCondition.clear();
-							break;
-						default:
-							combinedCondition.clear();
+				if (numberOfThreads > 1) {
+					coverParallel(monitor, it, phase, combinationListUncovered);
+				} else {
+					while (true) {
+						monitor.checkCancel();
+						final ClauseList combinedCondition = it.get();
+						if (combinedCondition == null) {
 							break;
 						}
+						coverCombination(phase, combinedCondition, combinationListUncovered);
 					}
-					count++;
 				}
 
 				int coveredIndex = -1;
@@ -366,6 +357,115 @@ public class TWiseConfigurationGenerator extends AConfigurationGenerator impleme
 		}
 	}
 
+	private void coverCombination(ICoverStrategy phase, ClauseList combinedCondition, List<ClauseList> combinationListUncovered) {
+		if (combinedCondition.isEmpty()) {
+			invalidCount++;
+		} else {
+			final CombinationStatus covered = phase.cover(combinedCondition);
+			switch (covered) {
+			case NOT_COVERED:
+				combinationListUncovered.add(combinedCondition);
+				break;
+			case COVERED:
+				coveredCount++;
+				combinedCondition.clear();
+				break;
+			case INVALID:
+				invalidCount++;
+				combinedCondition.clear();
+				break;
+			default:
+				combinedCondition.clear();
+				break;
+			}
+		}
+		count++;
+	}
+
+	/**
+	 * Processes the combinations in batches. For each batch, all worker threads first check which combinations are already covered by the current
+	 * configurations (read-only). Afterwards, the remaining combinations are processed sequentially in their original order. As configurations only gain
+	 * literals while covering a batch, a combination that is covered at the start of a batch is still covered when it is processed. Thus, the result is
+	 * the same as in sequential mode.
+	 */
+	private void coverParallel(IMonitor<List<LiteralSet>> monitor, ICombinationSupplier<ClauseList> it, ICoverStrategy phase,
+			List<ClauseList> combinationListUncovered) throws Exception {
+		final int batchSize = COVERAGE_BATCH_SIZE_PER_THREAD * numberOfThreads;
+		final ClauseList[] batch = new ClauseList[batchSize];
+		final boolean[] covered = new boolean[batchSize];
+
+		final ForkJoinPool pool = new ForkJoinPool(numberOfThreads);
+		try {
+			int batchLength = batchSize;
+			while (batchLength == batchSize) {
+				monitor.checkCancel();
+				batchLength = 0;
+				for (ClauseList combinedCondition = it.get(); combinedCondition != null; combinedCondition = it.get()) {
+					batch[batchLength++] = combinedCondition;
+					if (batchLength == batchSize) {
+						break;
+					}
+				}
+
+				final int length = batchLength;
+				final List<Callable<Void>> tasks = new ArrayList<>(numberOfThreads);
+				for (int i = 0; i < numberOfThreads; i++) {
+					final int workerIndex = i;
+					tasks.add(() -> {
+						for (int j = workerIndex; j < length; j += numberOfThreads) {
+							final ClauseList combinedCondition = batch[j];
+							covered[j] = !combinedCondition.isEmpty() && isCovered(combinedCondition);
+						}
+						return null;
+					});
+				}
+				invokeAll(pool, tasks);
+
+				for (int j = 0; j < length; j++) {
+					final ClauseList combinedCondition = batch[j];
+					if (covered[j]) {
+						coveredCount++;
+						combinedCondition.clear();
+						count++;
+					} else {
+						coverCombination(phase, combinedCondition, combinationListUncovered);
+					}
+					batch[j] = null;
+				}
+			}
+		} finally {
+			pool.shutdownNow();
+		}
+	}
+
+	private static void invokeAll(ForkJoinPool pool, List<Callable<Void>> tasks) throws Exception {
+		try {
+			for (final Future<Void> future : pool.invokeAll(tasks)) {
+				future.get();
+			}
+		} catch (final ExecutionException e) {
+			final Throwable cause = e.getCause();
+			if (cause instanceof Exception) {
+				throw (Exception) cause;
+			}
+			throw new RuntimeException(cause);
+		}
+	}
+
+	public int getNumberOfThreads() {
+		return numberOfThreads;
+	}
+
+	/**
+	 * Sets the number of threads that are used to check whether combinations are already covered by the current sample. The resulting sample does not
+	 * depend on the number of threads.
+	 *
+	 * @param numberOfThreads the number of threads (default: 1)
+	 */
+	public void setNumberOfThreads(int numberOfThreads) {
+		this.numberOfThreads = Math.max(1, numberOfThreads);
+	}
+
 	public int getIterations() {
 		return iterations;
 	}
@@ -124,6 +124,27 @@ public class AdvancedSatSolver extends SimpleSatSolver implements ISatSolver {
 		}
 	}
 
+	/**
+	 * Restores the state of this solver after its creation, while keeping its learned clauses.
+	 * Clears the assignment and resets selection strategy, variable order, solution list, and timeout.
+	 *
+	 * @return {@code true} if the solver could be reset, {@code false} if clauses were added that cannot be removed.
+	 */
+	public boolean restoreInitialState() {
+		if (modified) {
+			return false;
+		}
+		assignment.clear();
+		useSolutionList(0);
+		globalTimeout = false;
+		setOrderFix();
+		if (!contradiction) {
+			configureSolver(solver);
+			setSelectionStrategy(SelectionStrategy.ORG);
+		}
+		return true;
+	}
+
 	@Override
 	public int[] findSolution() {
 		return hasSolution() == SatResult.TRUE ? solver.model() : null;
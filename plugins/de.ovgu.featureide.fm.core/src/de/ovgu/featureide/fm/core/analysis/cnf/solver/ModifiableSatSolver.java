@@ -27,6 +27,7 @@ import org.sat4j.minisat.core.Solver;
 import org.sat4j.specs.IConstr;
 
 import de.ovgu.featureide.fm.core.analysis.cnf.CNF;
+import de.ovgu.featureide.fm.core.analysis.cnf.ClauseArena;
 import de.ovgu.featureide.fm.core.analysis.cnf.LiteralSet;
 
 /**
@@ -36,12 +37,17 @@ import de.ovgu.featureide.fm.core.analysis.cnf.LiteralSet;
  */
 public class ModifiableSatSolver extends AdvancedSatSolver {
 
+	private final int initialNumberOfClauses;
+	private boolean removedSingleClause = false;
+
 	public ModifiableSatSolver(AdvancedSatSolver oldSolver) {
 		super(oldSolver);
+		initialNumberOfClauses = constrList.size();
 	}
 
 	public ModifiableSatSolver(CNF satInstance) {
 		super(satInstance);
+		initialNumberOfClauses = constrList.size();
 	}
 
 	@Override
@@ -60,6 +66,22 @@ public class ModifiableSatSolver extends AdvancedSatSolver {
 		return newConstrs;
 	}
 
+	@Override
+	protected List<IConstr> addClauses(Solver<?> solver, ClauseArena arena, boolean internal) throws RuntimeContradictionException {
+		final ArrayList<IConstr> newConstrs = new ArrayList<>(arena.size());
+
+		try {
+			for (int i = 0; i < arena.size(); i++) {
+				newConstrs.add(addClause(solver, getArenaClause(arena, i, internal)));
+			}
+		} catch (final RuntimeContradictionException e) {
+			removeLastClauses(newConstrs.size());
+			throw e;
+		}
+
+		return newConstrs;
+	}
+
 	@Override
 	protected IConstr addClause(Solver<?> solver, int[] mainClause) throws RuntimeContradictionException {
 		final IConstr constr = super.addClause(solver, mainClause);
@@ -73,6 +95,7 @@ public class ModifiableSatSolver extends AdvancedSatSolver {
 			return;
 		}
 		if (constr != null) {
+			removedSingleClause = true;
 			try {
 				solver.removeConstr(constr);
 			} catch (final Exception e) {
@@ -99,6 +122,22 @@ public class ModifiableSatSolver extends AdvancedSatSolver {
 		}
 	}
 
+	/**
+	 * {@inheritDoc}<br> <br> Additionally removes all clauses that were added after the creation of this solver.
+	 */
+	@Override
+	public boolean restoreInitialState() {
+		if (removedSingleClause) {
+			return false;
+		}
+		final int numberOfAddedClauses = constrList.size() - initialNumberOfClauses;
+		if (numberOfAddedClauses > 0) {
+			removeLastClauses(numberOfAddedClauses);
+		}
+		modified = false;
+		return super.restoreInitialState();
+	}
+
 	@Override
 	protected void configureSolver(Solver<?> solver) {
 		solver.setTimeoutMs(1000);
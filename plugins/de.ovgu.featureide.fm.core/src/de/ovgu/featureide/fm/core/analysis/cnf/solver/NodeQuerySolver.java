@@ -0,0 +1,336 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.analysis.cnf.solver;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.prop4j.Node;
+import org.prop4j.Not;
+
+import de.ovgu.featureide.fm.core.analysis.cnf.CNF;
+import de.ovgu.featureide.fm.core.analysis.cnf.LiteralSet;
+import de.ovgu.featureide.fm.core.analysis.cnf.LiteralSet.Order;
+import de.ovgu.featureide.fm.core.analysis.cnf.Nodes;
+import de.ovgu.featureide.fm.core.analysis.cnf.TseitinTransformer;
+import de.ovgu.featureide.fm.core.analysis.cnf.Variables;
+import de.ovgu.featureide.fm.core.analysis.cnf.solver.ISimpleSatSolver.SatResult;
+import de.ovgu.featureide.fm.core.editing.NodeCreator;
+
+/**
+ * Answers satisfiability and implication queries given as {@link Node propositional formulas} with respect to a fixed base formula (e.g., a feature
+ * model).<br> <br> The base formula is converted into a {@link CNF} only once. Each distinct query is translated once against the {@link Variables} of this
+ * CNF and the translation is cached. Unit clauses of a query are passed to the solver as assumptions, the remaining clauses are added temporarily to a
+ * {@link ModifiableSatSolver}. Variables that do not occur in the base formula and sub-formulas whose conjunctive normal form would be large are handled by
+ * a {@link CNF} that extends the base formula with new variables (see {@link TseitinTransformer}).<br> <br> Instances are thread-safe. Solvers are leased
+ * from a {@link SolverPool} for each query, such that the base formula is not loaded again. Solvers for queries that consist only of assumptions also keep
+ * their learned clauses. Solvers for queries with additional clauses lose their learned clauses when they are released (see
+ * {@link ModifiableSatSolver#restoreInitialState()}). Short-lived instances should use their own pool (see {@link #NodeQuerySolver(CNF, SolverPool)}), such
+ * that they do not evict the solvers of other formulas from the {@link SolverPool#getDefault() default pool}. Use
+ * {@link de.ovgu.featureide.fm.core.analysis.cnf.formula.NodeQuerySolverCreator NodeQuerySolverCreator} to obtain an instance for a feature model.
+ *
+ * @author FeatureIDE Team
+ */
+public class NodeQuerySolver {
+
+	public static final int DEFAULT_TIMEOUT = 10_000;
+
+	/**
+	 * The translation of a query.
+	 */
+	private static final class Query {
+
+		private static final Query CONTRADICTION = new Query(null, null, null);
+
+		/**
+		 * Literals that must hold (over the variables of the base formula or of {@link #extendedCNF}).
+		 */
+		private final int[] assumptions;
+		/**
+		 * Clauses that must be added to the base formula (may be empty).
+		 */
+		private final List<LiteralSet> clauses;
+		/**
+		 * The base formula together with all clauses of the query, if the query requires new variables ({@code null} otherwise).
+		 */
+		private final CNF extendedCNF;
+
+		private Query(int[] assumptions, List<LiteralSet> clauses, CNF extendedCNF) {
+			this.assumptions = assumptions;
+			this.clauses = clauses;
+			this.extendedCNF = extendedCNF;
+		}
+
+	}
+
+	private final CNF cnf;
+	private final Variables variables;
+	private final SolverPool solverPool;
+
+	private final Map<Node, Query> queries = new ConcurrentHashMap<>();
+
+	private int timeout = DEFAULT_TIMEOUT;
+
+	/**
+	 * @param cnf the base formula
+	 */
+	public NodeQuerySolver(CNF cnf) {
+		this(cnf, SolverPool.getDefault());
+	}
+
+	/**
+	 * @param cnf the base formula
+	 * @param solverPool the pool from which solvers are leased
+	 */
+	public NodeQuerySolver(CNF cnf, SolverPool solverPool) {
+		this.cnf = cnf;
+		this.solverPool = solverPool;
+		variables = cnf.getVariables();
+	}
+
+	/**
+	 * @param node the base formula, which is converted into conjunctive normal form
+	 */
+	public NodeQuerySolver(Node node) {
+		this(Nodes.convert(node));
+	}
+
+	/**
+	 * @param node the base formula, which is converted into conjunctive normal form
+	 * @param solverPool the pool from which solvers are leased
+	 */
+	public NodeQuerySolver(Node node, SolverPool solverPool) {
+		this(Nodes.convert(node), solverPool);
+	}
+
+	public CNF getCNF() {
+		return cnf;
+	}
+
+	public Variables getVariables() {
+		return variables;
+	}
+
+	public int getTimeout() {
+		return timeout;
+	}
+
+	/**
+	 * @param timeout the timeout for each query in milliseconds (default: {@value #DEFAULT_TIMEOUT})
+	 */
+	public void setTimeout(int timeout) {
+		this.timeout = timeout;
+	}
+
+	/**
+	 * Checks whether the base formula is satisfiable.
+	 *
+	 * @return the result of the check
+	 */
+	public SatResult hasSolution() {
+		return hasSolution(new int[0]);
+	}
+
+	/**
+	 * Checks whether the base formula is satisfiable under the given assumptions.
+	 *
+	 * @param assumptions literals over the {@link #getVariables() variables} of the base formula
+	 * @return the result of the check
+	 */
+	public SatResult hasSolution(int... assumptions) {
+		return solve(new Query(assumptions, null, null), null);
+	}
+
+	/**
+	 * Checks whether the conjunction of the base formula and the given query is satisfiable.
+	 *
+	 * @param query the query
+	 * @return the result of the check
+	 */
+	public SatResult hasSolution(Node query) {
+		return solve(getQuery(query), null);
+	}
+
+	/**
+	 * Checks whether the base formula implies the given query, i.e., whether the conjunction of the base formula and the negated query is unsatisfiable.
+	 *
+	 * @param query the query
+	 * @return {@link SatResult#TRUE} if the query is implied, {@link SatResult#FALSE} if it is not implied, and {@link SatResult#TIMEOUT} if a timeout
+	 *         occurred
+	 */
+	public SatResult isImplied(Node query) {
+		switch (hasSolution(new Not(query))) {
+		case FALSE:
+			return SatResult.TRUE;
+		case TRUE:
+			return SatResult.FALSE;
+		case TIMEOUT:
+			return SatResult.TIMEOUT;
+		default:
+			throw new AssertionError();
+		}
+	}
+
+	/**
+	 * Computes a solution for the conjunction of the base formula and the given query.
+	 *
+	 * @param query the query
+	 * @return a solution over the {@link #getVariables() variables} of the base formula or {@code null}, if there is no solution or a timeout occurred.
+	 */
+	public LiteralSet findSolution(Node query) {
+		final int[][] solution = new int[1][];
+		if (solve(getQuery(query), solution) == SatResult.TRUE) {
+			return new LiteralSet(Arrays.copyOf(solution[0], variables.size()), Order.INDEX, false);
+		}
+		return null;
+	}
+
+	/**
+	 * @return the number of distinct queries that were translated and cached.
+	 */
+	public int getNumberOfCachedQueries() {
+		return queries.size();
+	}
+
+	/**
+	 * Removes all idle solvers for the base formula and the translated queries from the solver pool of this instance.
+	 */
+	public void invalidateSolvers() {
+		solverPool.invalidate(cnf);
+		for (final Query query : queries.values()) {
+			if (query.extendedCNF != null) {
+				solverPool.invalidate(query.extendedCNF);
+			}
+		}
+	}
+
+	private Query getQuery(Node query) {
+		Query translation = queries.get(query);
+		if (translation == null) {
+			translation = translate(query);
+			queries.put(query.clone(), translation);
+		}
+		return translation;
+	}
+
+	private Query translate(Node query) {
+		final LinkedHashSet<String> newVariableNames = new LinkedHashSet<>();
+		for (final Object var : Nodes.getDistinctVariableObjects(query)) {
+			if ((var != NodeCreator.varTrue) && (var != NodeCreator.varFalse) && (variables.getVariable(String.valueOf(var)) == 0)) {
+				newVariableNames.add(String.valueOf(var));
+			}
+		}
+		final Variables queryVariables;
+		if (newVariableNames.isEmpty()) {
+			queryVariables = variables;
+		} else {
+			final List<String> names = new ArrayList<>(variables.size() + newVariableNames.size());
+			names.addAll(Arrays.asList(variables.getNames()).subList(1, variables.size() + 1));
+			names.addAll(newVariableNames);
+			queryVariables = new Variables(names);
+		}
+
+		final TseitinTransformer transformer = new TseitinTransformer(queryVariables);
+		transformer.addNode(query);
+
+		final List<LiteralSet> clauses = new ArrayList<>();
+		final LinkedHashSet<Integer> units = new LinkedHashSet<>();
+		for (final LiteralSet clause : transformer.getClauses()) {
+			final int[] literals = clause.getLiterals();
+			if ((literals.length == 0) || ((literals.length == 1) && (literals[0] == 0))) {
+				return Query.CONTRADICTION;
+			} else if (literals.length == 1) {
+				if (units.contains(-literals[0])) {
+					return Query.CONTRADICTION;
+				}
+				units.add(literals[0]);
+			} else {
+				clauses.add(clause);
+			}
+		}
+
+		if (clauses.isEmpty() && (transformer.getNumberOfAuxiliaryVariables() == 0)) {
+			// Variables that only occur in unit clauses of the query are not constrained by the base formula
+			units.removeIf(literal -> Math.abs(literal) > variables.size());
+			return new Query(toArray(units), clauses, null);
+		} else if ((transformer.getNumberOfAuxiliaryVariables() == 0) && newVariableNames.isEmpty()) {
+			return new Query(toArray(units), clauses, null);
+		} else {
+			final CNF extendedCNF = new CNF(transformer.getVariables());
+			extendedCNF.addClauses(cnf.getClauses());
+			extendedCNF.addClauses(clauses);
+			return new Query(toArray(units), null, extendedCNF);
+		}
+	}
+
+	private static int[] toArray(LinkedHashSet<Integer> literals) {
+		final int[] array = new int[literals.size()];
+		int i = 0;
+		for (final Integer literal : literals) {
+			array[i++] = literal;
+		}
+		return array;
+	}
+
+	/**
+	 * @param solution an array with a single element, in which the solution is stored, or {@code null}, if no solution is required
+	 */
+	private SatResult solve(Query query, int[][] solution) {
+		if (query == Query.CONTRADICTION) {
+			return SatResult.FALSE;
+		}
+		final boolean addClauses = (query.clauses != null) && !query.clauses.isEmpty();
+		final AdvancedSatSolver solver;
+		try {
+			if (query.extendedCNF != null) {
+				solver = solverPool.leaseSolver(query.extendedCNF);
+			} else if (addClauses) {
+				solver = solverPool.leaseModifiableSolver(cnf);
+			} else {
+				solver = solverPool.leaseSolver(cnf);
+			}
+		} catch (final RuntimeContradictionException e) {
+			return SatResult.FALSE;
+		}
+		try {
+			solver.setTimeout(timeout);
+			if (addClauses) {
+				try {
+					solver.addClauses(query.clauses);
+				} catch (final RuntimeContradictionException e) {
+					return SatResult.FALSE;
+				}
+			}
+			final SatResult result = solver.hasSolution(query.assumptions);
+			if ((result == SatResult.TRUE) && (solution != null)) {
+				solution[0] = solver.getSolution();
+			}
+			return result;
+		} finally {
+			solverPool.release(solver);
+		}
+	}
+
+}
@@ -32,6 +32,8 @@ import org.sat4j.specs.IConstr;
 import org.sat4j.specs.TimeoutException;
 
 import de.ovgu.featureide.fm.core.analysis.cnf.CNF;
+import de.ovgu.featureide.fm.core.analysis.cnf.ClauseArena;
+import de.ovgu.featureide.fm.core.analysis.cnf.CompactCNF;
 import de.ovgu.featureide.fm.core.analysis.cnf.IInternalVariables;
 import de.ovgu.featureide.fm.core.analysis.cnf.LiteralSet;
 
@@ -51,6 +53,11 @@ public class SimpleSatSolver implements ISimpleSatSolver {
 
 	protected final boolean contradiction;
 
+	/**
+	 * Whether clauses were added to this solver after its creation.
+	 */
+	protected boolean modified = false;
+
 	public SimpleSatSolver(CNF satInstance) {
 		this(satInstance, satInstance.getInternalVariables());
 	}
@@ -76,11 +83,13 @@ public class SimpleSatSolver implements ISimpleSatSolver {
 
 	@Override
 	public IConstr addClause(LiteralSet mainClause) throws RuntimeContradictionException {
+		modified = true;
 		return addClause(solver, internalMapping.convertToInternal(mainClause.getLiterals()));
 	}
 
 	@Override
 	public IConstr addInternalClause(LiteralSet mainClause) throws RuntimeContradictionException {
+		modified = true;
 		return addClause(solver, mainClause.getLiterals());
 	}
 
@@ -98,11 +107,13 @@ public class SimpleSatSolver implements ISimpleSatSolver {
 
 	@Override
 	public List<IConstr> addClauses(Iterable<? extends LiteralSet> clauses) throws RuntimeContradictionException {
+		modified = true;
 		return addClauses(solver, clauses, false);
 	}
 
 	@Override
 	public List<IConstr> addInternalClauses(Iterable<? extends LiteralSet> clauses) throws RuntimeContradictionException {
+		modified = true;
 		return addClauses(solver, clauses, true);
 	}
 
@@ -114,6 +125,22 @@ public class SimpleSatSolver implements ISimpleSatSolver {
 		return constrList;
 	}
 
+	/**
+	 * Adds all clauses of the given arena without creating a {@link LiteralSet} for each clause.
+	 */
+	protected List<IConstr> addClauses(Solver<?> solver, ClauseArena arena, boolean internal) throws RuntimeContradictionException {
+		final ArrayList<IConstr> constrList = new ArrayList<>(arena.size());
+		for (int i = 0; i < arena.size(); i++) {
+			constrList.add(addClause(solver, getArenaClause(arena, i, internal)));
+		}
+		return constrList;
+	}
+
+	protected final int[] getArenaClause(ClauseArena arena, int clauseIndex, boolean internal) {
+		final int[] literals = arena.getLiterals(clauseIndex);
+		return internal ? literals : internalMapping.convertToInternal(literals);
+	}
+
 	@Override
 	public SimpleSatSolver clone() {
 		if (this.getClass() == SimpleSatSolver.class) {
@@ -257,10 +284,18 @@ public class SimpleSatSolver implements ISimpleSatSolver {
 	 */
 	protected void initSolver(Solver<?> solver) throws RuntimeContradictionException {
 		final int size = satInstance.getVariables().size();
-		final List<LiteralSet> clauses = satInstance.getClauses();
-		if (!clauses.isEmpty()) {
-			solver.setExpectedNumberOfClauses(clauses.size() + 1);
-			addClauses(solver, clauses, false);
+		if (satInstance instanceof CompactCNF) {
+			final ClauseArena arena = ((CompactCNF) satInstance).getClauseArena();
+			if (!arena.isEmpty()) {
+				solver.setExpectedNumberOfClauses(arena.size() + 1);
+				addClauses(solver, arena, false);
+			}
+		} else {
+			final List<LiteralSet> clauses = satInstance.getClauses();
+			if (!clauses.isEmpty()) {
+				solver.setExpectedNumberOfClauses(clauses.size() + 1);
+				addClauses(solver, clauses, false);
+			}
 		}
 		if (size > 0) {
 			final VecInt pseudoClause = new VecInt(size + 1);
@@ -0,0 +1,212 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.analysis.cnf.solver;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map.Entry;
+import java.util.function.Function;
+
+import de.ovgu.featureide.fm.core.analysis.cnf.CNF;
+
+/**
+ * Keeps warm {@link AdvancedSatSolver} and {@link ModifiableSatSolver} instances for reuse.
+ * Solvers are associated with the identity of the {@link CNF} they were created from and keep their learned clauses between leases.
+ * A leased solver must be passed back via {@link #release(AdvancedSatSolver)}, which resets its state (see {@link AdvancedSatSolver#restoreInitialState()}).
+ * The number of idle solvers is bounded; if the bound is exceeded, solvers of the least recently used CNF are evicted first.
+ *
+ * @author FeatureIDE Team
+ */
+public class SolverPool {
+
+	public static final int DEFAULT_MAXIMUM_SIZE = 32;
+
+	private static final SolverPool defaultPool = new SolverPool(DEFAULT_MAXIMUM_SIZE);
+
+	public static SolverPool getDefault() {
+		return defaultPool;
+	}
+
+	private static final class Key {
+
+		private final CNF satInstance;
+		private final Class<?> solverClass;
+
+		private Key(CNF satInstance, Class<?> solverClass) {
+			this.satInstance = satInstance;
+			this.solverClass = solverClass;
+		}
+
+		@Override
+		public int hashCode() {
+			return (31 * System.identityHashCode(satInstance)) + solverClass.hashCode();
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj) {
+				return true;
+			}
+			if ((obj == null) || (getClass() != obj.getClass())) {
+				return false;
+			}
+			final Key other = (Key) obj;
+			return (satInstance == other.satInstance) && (solverClass == other.solverClass);
+		}
+
+	}
+
+	private final LinkedHashMap<Key, ArrayDeque<AdvancedSatSolver>> idleSolvers = new LinkedHashMap<>(16, 0.75f, true);
+
+	private final int maximumSize;
+	private int size = 0;
+
+	/**
+	 * @param maximumSize the maximum number of idle solvers kept by this pool.
+	 */
+	public SolverPool(int maximumSize) {
+		if (maximumSize < 0) {
+			throw new IllegalArgumentException("Maximum size must not be negative: " + maximumSize);
+		}
+		this.maximumSize = maximumSize;
+	}
+
+	/**
+	 * Returns an idle {@link AdvancedSatSolver} for the given CNF or creates a new one.
+	 *
+	 * @param satInstance the CNF
+	 * @return a solver with an empty assignment
+	 *
+	 * @throws RuntimeContradictionException if a new solver is created and the CNF contains an empty clause
+	 */
+	public AdvancedSatSolver leaseSolver(CNF satInstance) throws RuntimeContradictionException {
+		return lease(satInstance, AdvancedSatSolver.class, AdvancedSatSolver::new);
+	}
+
+	/**
+	 * Returns an idle {@link ModifiableSatSolver} for the given CNF or creates a new one.
+	 *
+	 * @param satInstance the CNF
+	 * @return a solver with an empty assignment
+	 *
+	 * @throws RuntimeContradictionException if a new solver is created and the CNF contains an empty clause
+	 */
+	public ModifiableSatSolver leaseModifiableSolver(CNF satInstance) throws RuntimeContradictionException {
+		return lease(satInstance, ModifiableSatSolver.class, ModifiableSatSolver::new);
+	}
+
+	private <T extends AdvancedSatSolver> T lease(CNF satInstance, Class<T> solverClass, Function<CNF, T> factory) {
+		synchronized (idleSolvers) {
+			final ArrayDeque<AdvancedSatSolver> solvers = idleSolvers.get(new Key(satInstance, solverClass));
+			if (solvers != null) {
+				final AdvancedSatSolver solver = solvers.pollLast();
+				if (solvers.isEmpty()) {
+					idleSolvers.remove(new Key(satInstance, solverClass));
+				}
+				size--;
+				return solverClass.cast(solver);
+			}
+		}
+		return factory.apply(satInstance);
+	}
+
+	/**
+	 * Resets the given solver and returns it to this pool.
+	 * Solvers that cannot be reset or are not of type {@link AdvancedSatSolver} or {@link ModifiableSatSolver} are discarded.
+	 *
+	 * @param solver the solver that was leased before (may be {@code null})
+	 * @return {@code true} if the solver was added to this pool, {@code false} otherwise.
+	 */
+	public boolean release(AdvancedSatSolver solver) {
+		if ((solver == null) || (maximumSize == 0)) {
+			return false;
+		}
+		final Class<?> solverClass = solver.getClass();
+		if ((solverClass != AdvancedSatSolver.class) && (solverClass != ModifiableSatSolver.class)) {
+			return false;
+		}
+		if (!solver.restoreInitialState()) {
+			return false;
+		}
+		synchronized (idleSolvers) {
+			idleSolvers.computeIfAbsent(new Key(solver.getSatInstance(), solverClass), k -> new ArrayDeque<>()).addLast(solver);
+			size++;
+			evict();
+		}
+		return true;
+	}
+
+	private void evict() {
+		final Iterator<Entry<Key, ArrayDeque<AdvancedSatSolver>>> iterator = idleSolvers.entrySet().iterator();
+		while ((size > maximumSize) && iterator.hasNext()) {
+			final ArrayDeque<AdvancedSatSolver> solvers = iterator.next().getValue();
+			while ((size > maximumSize) && !solvers.isEmpty()) {
+				solvers.pollFirst();
+				size--;
+			}
+			if (solvers.isEmpty()) {
+				iterator.remove();
+			}
+		}
+	}
+
+	/**
+	 * Removes all idle solvers for the given CNF.
+	 *
+	 * @param satInstance the CNF
+	 */
+	public void invalidate(CNF satInstance) {
+		synchronized (idleSolvers) {
+			for (final Iterator<Entry<Key, ArrayDeque<AdvancedSatSolver>>> iterator = idleSolvers.entrySet().iterator(); iterator.hasNext();) {
+				final Entry<Key, ArrayDeque<AdvancedSatSolver>> entry = iterator.next();
+				if (entry.getKey().satInstance == satInstance) {
+					size -= entry.getValue().size();
+					iterator.remove();
+				}
+			}
+		}
+	}
+
+	/**
+	 * Removes all idle solvers.
+	 */
+	public void clear() {
+		synchronized (idleSolvers) {
+			idleSolvers.clear();
+			size = 0;
+		}
+	}
+
+	/**
+	 * @return the number of idle solvers in this pool.
+	 */
+	public int size() {
+		synchronized (idleSolvers) {
+			return size;
+		}
+	}
+
+	public int getMaximumSize() {
+		return maximumSize;
+	}
+
+}
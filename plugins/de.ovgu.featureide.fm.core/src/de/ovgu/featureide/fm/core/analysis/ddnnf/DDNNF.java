@@ -0,0 +1,242 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.analysis.ddnnf;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+
+import de.ovgu.featureide.fm.core.analysis.cnf.CNF;
+import de.ovgu.featureide.fm.core.analysis.cnf.IInternalVariables;
+import de.ovgu.featureide.fm.core.analysis.cnf.LiteralSet;
+
+/**
+ * Smooth, deterministic, decomposable negation normal form (sd-DNNF) of a {@link CNF}.<br> The circuit is stored in flat arrays in topological order (children
+ * always have a smaller id than their parents). All queries run in time linear in the size of the circuit.
+ *
+ * @author FeatureIDE Team
+ *
+ * @see DDNNFBuilder
+ */
+public class DDNNF {
+
+	public static final byte FALSE = 0;
+	public static final byte TRUE = 1;
+	public static final byte LITERAL = 2;
+	public static final byte AND = 3;
+	public static final byte OR = 4;
+
+	private final CNF satInstance;
+	private final IInternalVariables internalMapping;
+	private final int numberOfVariables;
+
+	private final byte[] types;
+	private final int[] values;
+	private final int[] childrenStart;
+	private final int[] children;
+	private final int root;
+
+	DDNNF(CNF satInstance, int numberOfVariables, byte[] types, int[] values, int[] childrenStart, int[] children, int root) {
+		this.satInstance = satInstance;
+		internalMapping = satInstance.getInternalVariables();
+		this.numberOfVariables = numberOfVariables;
+		this.types = types;
+		this.values = values;
+		this.childrenStart = childrenStart;
+		this.children = children;
+		this.root = root;
+	}
+
+	public CNF getSatInstance() {
+		return satInstance;
+	}
+
+	public int getNumberOfNodes() {
+		return types.length;
+	}
+
+	public int getNumberOfEdges() {
+		return children.length;
+	}
+
+	public boolean isSatisfiable() {
+		return types[root] != FALSE;
+	}
+
+	/**
+	 * @return the number of solutions of the compiled formula.
+	 */
+	public BigInteger countSolutions() {
+		return countSolutions(new int[0]);
+	}
+
+	/**
+	 * @param assumptions literals that must hold in every counted solution
+	 * @return the number of solutions of the compiled formula that satisfy all given assumptions.
+	 */
+	public BigInteger countSolutions(LiteralSet assumptions) {
+		return countSolutions(assumptions.getLiterals());
+	}
+
+	/**
+	 * @param assumptions literals that must hold in every counted solution
+	 * @return the number of solutions of the compiled formula that satisfy all given assumptions.
+	 */
+	public BigInteger countSolutions(int... assumptions) {
+		final boolean[] blocked = getBlockedLiterals(assumptions);
+		return blocked == null ? BigInteger.ZERO : computeCounts(blocked)[root];
+	}
+
+	/**
+	 * Computes for each variable the number of solutions in which it is selected.
+	 *
+	 * @param assumptions literals that must hold in every counted solution
+	 * @return an array containing the number of solutions per variable (indexed by the variable id of the {@link #getSatInstance() CNF}). Entries of variables
+	 *         that are not part of the compiled formula are {@code null}.
+	 */
+	public BigInteger[] getCommonality(int... assumptions) {
+		final BigInteger[] commonality = new BigInteger[satInstance.getVariables().maxVariableID() + 1];
+		final boolean[] blocked = getBlockedLiterals(assumptions);
+		final BigInteger[] derivatives;
+		if (blocked == null) {
+			derivatives = null;
+		} else {
+			derivatives = computeDerivatives(computeCounts(blocked));
+		}
+
+		final int[] literalNodes = new int[(numberOfVariables << 1) + 1];
+		Arrays.fill(literalNodes, -1);
+		for (int i = 0; i < types.length; i++) {
+			if (types[i] == LITERAL) {
+				literalNodes[values[i] + numberOfVariables] = i;
+			}
+		}
+		for (int var = 1; var <= numberOfVariables; var++) {
+			final int node = literalNodes[var + numberOfVariables];
+			final BigInteger count = ((derivatives == null) || (node < 0) || blocked[var + numberOfVariables]) //
+				? BigInteger.ZERO //
+				: derivatives[node];
+			commonality[Math.abs(internalMapping.convertToOriginal(var))] = count;
+		}
+		return commonality;
+	}
+
+	private boolean[] getBlockedLiterals(int[] assumptions) {
+		final boolean[] blocked = new boolean[(numberOfVariables << 1) + 1];
+		for (final int orgLiteral : assumptions) {
+			final int literal = internalMapping.convertToInternal(orgLiteral);
+			if (literal != 0) {
+				if (blocked[literal + numberOfVariables]) {
+					return null;
+				}
+				blocked[-literal + numberOfVariables] = true;
+			}
+		}
+		return blocked;
+	}
+
+	private BigInteger[] computeCounts(boolean[] blocked) {
+		final BigInteger[] counts = new BigInteger[types.length];
+		for (int i = 0; i < types.length; i++) {
+			switch (types[i]) {
+			case FALSE:
+				counts[i] = BigInteger.ZERO;
+				break;
+			case TRUE:
+				counts[i] = BigInteger.ONE;
+				break;
+			case LITERAL:
+				counts[i] = blocked[values[i] + numberOfVariables] ? BigInteger.ZERO : BigInteger.ONE;
+				break;
+			case AND: {
+				BigInteger count = BigInteger.ONE;
+				for (int j = childrenStart[i]; j < childrenStart[i + 1]; j++) {
+					count = count.multiply(counts[children[j]]);
+					if (count.signum() == 0) {
+						break;
+					}
+				}
+				counts[i] = count;
+				break;
+			}
+			case OR: {
+				BigInteger count = BigInteger.ZERO;
+				for (int j = childrenStart[i]; j < childrenStart[i + 1]; j++) {
+					count = count.add(counts[children[j]]);
+				}
+				counts[i] = count;
+				break;
+			}
+			default:
+				throw new AssertionError(types[i]);
+			}
+		}
+		return counts;
+	}
+
+	/**
+	 * Computes the partial derivatives of the root count with respect to each node. For a smooth and deterministic circuit, the derivative of a literal node
+	 * equals the number of solutions containing this literal.
+	 */
+	private BigInteger[] computeDerivatives(BigInteger[] counts) {
+		final BigInteger[] derivatives = new BigInteger[types.length];
+		Arrays.fill(derivatives, BigInteger.ZERO);
+		derivatives[root] = BigInteger.ONE;
+		for (int i = root; i >= 0; i--) {
+			final BigInteger derivative = derivatives[i];
+			if (derivative.signum() == 0) {
+				continue;
+			}
+			final int start = childrenStart[i];
+			final int end = childrenStart[i + 1];
+			switch (types[i]) {
+			case OR:
+				for (int j = start; j < end; j++) {
+					derivatives[children[j]] = derivatives[children[j]].add(derivative);
+				}
+				break;
+			case AND: {
+				final int size = end - start;
+				final BigInteger[] suffix = new BigInteger[size + 1];
+				suffix[size] = BigInteger.ONE;
+				for (int j = size - 1; j >= 0; j--) {
+					suffix[j] = suffix[j + 1].multiply(counts[children[start + j]]);
+				}
+				BigInteger prefix = derivative;
+				for (int j = 0; j < size; j++) {
+					final int child = children[start + j];
+					derivatives[child] = derivatives[child].add(prefix.multiply(suffix[j + 1]));
+					prefix = prefix.multiply(counts[child]);
+				}
+				break;
+			}
+			default:
+				break;
+			}
+		}
+		return derivatives;
+	}
+
+	@Override
+	public String toString() {
+		return "DDNNF [nodes=" + getNumberOfNodes() + ", edges=" + getNumberOfEdges() + "]";
+	}
+
+}
@@ -0,0 +1,504 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.analysis.ddnnf;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+
+import org.sat4j.core.VecInt;
+
+import de.ovgu.featureide.fm.core.analysis.cnf.CNF;
+import de.ovgu.featureide.fm.core.analysis.cnf.IInternalVariables;
+import de.ovgu.featureide.fm.core.analysis.cnf.LiteralSet;
+import de.ovgu.featureide.fm.core.analysis.cnf.solver.RuntimeTimeoutException;
+import de.ovgu.featureide.fm.core.job.LongRunningMethod;
+import de.ovgu.featureide.fm.core.job.monitor.IMonitor;
+
+/**
+ * Compiles a {@link CNF} into a {@link DDNNF}.<br> Uses an exhaustive DPLL search with unit propagation, decomposition into independent components, and
+ * component caching. The trace of the search forms the resulting circuit (decision nodes become deterministic OR nodes and components become decomposable AND
+ * nodes).
+ *
+ * @author FeatureIDE Team
+ */
+public class DDNNFBuilder implements LongRunningMethod<DDNNF> {
+
+	private static final int FALSE_NODE = 0;
+	private static final int TRUE_NODE = 1;
+
+	private static final class Component {
+
+		private final int[] key;
+		private final int hashCode;
+
+		private Component(int[] variables, int[] clauses) {
+			key = new int[variables.length + clauses.length + 1];
+			key[0] = variables.length;
+			System.arraycopy(variables, 0, key, 1, variables.length);
+			System.arraycopy(clauses, 0, key, variables.length + 1, clauses.length);
+			hashCode = Arrays.hashCode(key);
+		}
+
+		@Override
+		public int hashCode() {
+			return hashCode;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			return (this == obj) || ((obj instanceof Component) && Arrays.equals(key, ((Component) obj).key));
+		}
+
+	}
+
+	private final CNF satInstance;
+
+	private final HashMap<Component, Integer> cache = new HashMap<>();
+
+	private final VecInt nodeTypes = new VecInt();
+	private final VecInt nodeValues = new VecInt();
+	private final VecInt nodeChildrenStart = new VecInt();
+	private final VecInt nodeChildren = new VecInt();
+
+	private final VecInt trail = new VecInt();
+
+	private int numberOfVariables;
+	private int[][] clauses;
+	private int[][] occurrences;
+	private byte[] values;
+	private int[] satisfiedCount;
+	private int[] falsifiedCount;
+
+	private int[] literalNodes;
+	private int[] freeVariableNodes;
+
+	private int[] unionFind;
+	private int[] componentIndex;
+	private int[] score;
+
+	private IMonitor<DDNNF> monitor;
+	private long timeout = 0;
+	private long deadline;
+
+	public DDNNFBuilder(CNF satInstance) {
+		this.satInstance = satInstance;
+	}
+
+	/**
+	 * @param timeout the maximum compilation time in milliseconds ({@code 0} for no timeout).
+	 */
+	public void setTimeout(long timeout) {
+		this.timeout = timeout;
+	}
+
+	public long getTimeout() {
+		return timeout;
+	}
+
+	@Override
+	public DDNNF execute(IMonitor<DDNNF> monitor) throws Exception {
+		this.monitor = monitor;
+		deadline = timeout > 0 ? System.currentTimeMillis() + timeout : Long.MAX_VALUE;
+		init();
+
+		final int root = compileRoot();
+
+		final int size = nodeTypes.size();
+		final byte[] types = new byte[size];
+		for (int i = 0; i < size; i++) {
+			types[i] = (byte) nodeTypes.get(i);
+		}
+		nodeChildrenStart.push(nodeChildren.size());
+		return new DDNNF(satInstance, numberOfVariables, types, toArray(nodeValues), toArray(nodeChildrenStart), toArray(nodeChildren), root);
+	}
+
+	private void init() {
+		final IInternalVariables internalMapping = satInstance.getInternalVariables();
+		numberOfVariables = internalMapping.size();
+		values = new byte[numberOfVariables + 1];
+		unionFind = new int[numberOfVariables + 1];
+		componentIndex = new int[numberOfVariables + 1];
+		score = new int[numberOfVariables + 1];
+		Arrays.fill(componentIndex, -1);
+		literalNodes = new int[(numberOfVariables << 1) + 1];
+		freeVariableNodes = new int[numberOfVariables + 1];
+
+		final List<LiteralSet> clauseList = satInstance.getClauses();
+		clauses = new int[clauseList.size()][];
+		final int[] occurrenceCount = new int[(numberOfVariables << 1) + 1];
+		int clauseCount = 0;
+		clauseLoop: for (final LiteralSet clause : clauseList) {
+			final int[] literals = internalMapping.convertToInternal(clause.getLiterals()).clone();
+			Arrays.sort(literals);
+			int size = 0;
+			for (int i = 0; i < literals.length; i++) {
+				final int literal = literals[i];
+				if ((size == 0) || (literals[size - 1] != literal)) {
+					if (Arrays.binarySearch(literals, -literal) >= 0) {
+						continue clauseLoop;
+					}
+					literals[size++] = literal;
+				}
+			}
+			final int[] cleanLiterals = Arrays.copyOf(literals, size);
+			for (final int literal : cleanLiterals) {
+				occurrenceCount[literal + numberOfVariables]++;
+			}
+			clauses[clauseCount++] = cleanLiterals;
+		}
+		clauses = Arrays.copyOf(clauses, clauseCount);
+		satisfiedCount = new int[clauseCount];
+		falsifiedCount = new int[clauseCount];
+
+		occurrences = new int[(numberOfVariables << 1) + 1][];
+		for (int i = 0; i < occurrences.length; i++) {
+			occurrences[i] = new int[occurrenceCount[i]];
+		}
+		Arrays.fill(occurrenceCount, 0);
+		for (int i = 0; i < clauseCount; i++) {
+			for (final int literal : clauses[i]) {
+				final int index = literal + numberOfVariables;
+				occurrences[index][occurrenceCount[index]++] = i;
+			}
+		}
+
+		addNode(DDNNF.FALSE, 0);
+		addNode(DDNNF.TRUE, 0);
+	}
+
+	private int compileRoot() {
+		for (final int[] clause : clauses) {
+			if (clause.length == 0) {
+				return FALSE_NODE;
+			}
+		}
+		for (final int[] clause : clauses) {
+			if ((clause.length == 1) && !propagate(clause[0])) {
+				return FALSE_NODE;
+			}
+		}
+		final int[] variables = new int[numberOfVariables];
+		for (int i = 0; i < variables.length; i++) {
+			variables[i] = i + 1;
+		}
+		final int[] clauseIndices = new int[clauses.length];
+		for (int i = 0; i < clauseIndices.length; i++) {
+			clauseIndices[i] = i;
+		}
+		return compileAssignment(variables, clauseIndices, 0);
+	}
+
+	/**
+	 * Compiles a connected component of unsatisfied clauses.
+	 *
+	 * @param variables the (sorted) unassigned variables of the component
+	 * @param clauseIndices the (sorted) indices of the unsatisfied clauses of the component
+	 * @return the id of the compiled node
+	 */
+	private int compileComponent(int[] variables, int[] clauseIndices) {
+		final Component component = new Component(variables, clauseIndices);
+		final Integer cachedNode = cache.get(component);
+		if (cachedNode != null) {
+			return cachedNode;
+		}
+		checkTimeout();
+
+		final int decisionVariable = selectVariable(variables, clauseIndices);
+		final int positiveNode = compileBranch(decisionVariable, variables, clauseIndices);
+		final int negativeNode = compileBranch(-decisionVariable, variables, clauseIndices);
+
+		final int node;
+		if (positiveNode == FALSE_NODE) {
+			node = negativeNode;
+		} else if (negativeNode == FALSE_NODE) {
+			node = positiveNode;
+		} else {
+			node = addNode(DDNNF.OR, 0, positiveNode, negativeNode);
+		}
+		cache.put(component, node);
+		return node;
+	}
+
+	private int compileBranch(int decisionLiteral, int[] variables, int[] clauseIndices) {
+		final int trailStart = trail.size();
+		final int node = propagate(decisionLiteral) ? compileAssignment(variables, clauseIndices, trailStart) : FALSE_NODE;
+		undo(trailStart);
+		return node;
+	}
+
+	/**
+	 * Builds an AND node from all literals assigned since {@code trailStart}, all variables that became free, and all independent sub-components of the
+	 * remaining clauses.
+	 */
+	private int compileAssignment(int[] variables, int[] clauseIndices, int trailStart) {
+		int activeClauseCount = 0;
+		final int[] activeClauses = new int[clauseIndices.length];
+		for (final int clauseIndex : clauseIndices) {
+			if (satisfiedCount[clauseIndex] == 0) {
+				activeClauses[activeClauseCount++] = clauseIndex;
+			}
+		}
+
+		for (final int variable : variables) {
+			unionFind[variable] = variable;
+		}
+		for (int i = 0; i < activeClauseCount; i++) {
+			int first = 0;
+			for (final int literal : clauses[activeClauses[i]]) {
+				final int variable = Math.abs(literal);
+				if (values[variable] == 0) {
+					score[variable] = 1;
+					if (first == 0) {
+						first = find(variable);
+					} else {
+						final int other = find(variable);
+						if (other != first) {
+							unionFind[other] = first;
+						}
+					}
+				}
+			}
+		}
+
+		final VecInt children = new VecInt(trail.size() - trailStart + 1);
+		for (int i = trailStart; i < trail.size(); i++) {
+			children.push(getLiteralNode(trail.get(i)));
+		}
+
+		// group variables and clauses by component
+		int componentCount = 0;
+		final VecInt componentVariableCounts = new VecInt();
+		for (final int variable : variables) {
+			if (values[variable] == 0) {
+				if (score[variable] == 0) {
+					children.push(getFreeVariableNode(variable));
+				} else {
+					final int root = find(variable);
+					if (componentIndex[root] < 0) {
+						componentIndex[root] = componentCount++;
+						componentVariableCounts.push(0);
+					}
+					final int index = componentIndex[root];
+					componentVariableCounts.set(index, componentVariableCounts.get(index) + 1);
+				}
+			}
+		}
+		if (componentCount > 0) {
+			final int[][] componentVariables = new int[componentCount][];
+			final int[][] componentClauses = new int[componentCount][];
+			final int[] componentClauseCounts = new int[componentCount];
+			for (int i = 0; i < componentCount; i++) {
+				componentVariables[i] = new int[componentVariableCounts.get(i)];
+			}
+			for (int i = 0; i < activeClauseCount; i++) {
+				componentClauseCounts[componentIndex[getClauseRoot(activeClauses[i])]]++;
+			}
+			for (int i = 0; i < componentCount; i++) {
+				componentClauses[i] = new int[componentClauseCounts[i]];
+			}
+			Arrays.fill(componentClauseCounts, 0);
+			for (int i = 0; i < activeClauseCount; i++) {
+				final int index = componentIndex[getClauseRoot(activeClauses[i])];
+				componentClauses[index][componentClauseCounts[index]++] = activeClauses[i];
+			}
+			final int[] componentVariableIndex = new int[componentCount];
+			for (final int variable : variables) {
+				if ((values[variable] == 0) && (score[variable] != 0)) {
+					final int index = componentIndex[find(variable)];
+					componentVariables[index][componentVariableIndex[index]++] = variable;
+				}
+			}
+			resetScratch(variables);
+
+			for (int i = 0; i < componentCount; i++) {
+				final int componentNode = compileComponent(componentVariables[i], componentClauses[i]);
+				if (componentNode == FALSE_NODE) {
+					return FALSE_NODE;
+				}
+				children.push(componentNode);
+			}
+		} else {
+			resetScratch(variables);
+		}
+
+		switch (children.size()) {
+		case 0:
+			return TRUE_NODE;
+		case 1:
+			return children.get(0);
+		default:
+			return addNode(DDNNF.AND, 0, toArray(children));
+		}
+	}
+
+	private int getClauseRoot(int clauseIndex) {
+		for (final int literal : clauses[clauseIndex]) {
+			final int variable = Math.abs(literal);
+			if (values[variable] == 0) {
+				return find(variable);
+			}
+		}
+		throw new AssertionError();
+	}
+
+	private void resetScratch(int[] variables) {
+		for (final int variable : variables) {
+			score[variable] = 0;
+			componentIndex[variable] = -1;
+		}
+	}
+
+	private int find(int variable) {
+		int root = variable;
+		while (unionFind[root] != root) {
+			root = unionFind[root];
+		}
+		while (unionFind[variable] != root) {
+			final int next = unionFind[variable];
+			unionFind[variable] = root;
+			variable = next;
+		}
+		return root;
+	}
+
+	/**
+	 * Selects the variable with the most occurrences in the given clauses (ties are broken by the smallest variable id).
+	 */
+	private int selectVariable(int[] variables, int[] clauseIndices) {
+		for (final int clauseIndex : clauseIndices) {
+			for (final int literal : clauses[clauseIndex]) {
+				final int variable = Math.abs(literal);
+				if (values[variable] == 0) {
+					score[variable]++;
+				}
+			}
+		}
+		int bestVariable = variables[0];
+		int bestScore = -1;
+		for (final int variable : variables) {
+			if (score[variable] > bestScore) {
+				bestScore = score[variable];
+				bestVariable = variable;
+			}
+			score[variable] = 0;
+		}
+		return bestVariable;
+	}
+
+	private boolean propagate(int literal) {
+		final int variable = Math.abs(literal);
+		if (values[variable] != 0) {
+			return (values[variable] > 0) == (literal > 0);
+		}
+		int index = trail.size();
+		assign(literal);
+		for (; index < trail.size(); index++) {
+			for (final int clauseIndex : occurrences[numberOfVariables - trail.get(index)]) {
+				if (satisfiedCount[clauseIndex] == 0) {
+					final int[] clause = clauses[clauseIndex];
+					switch (clause.length - falsifiedCount[clauseIndex]) {
+					case 0:
+						return false;
+					case 1:
+						for (final int unitLiteral : clause) {
+							if (values[Math.abs(unitLiteral)] == 0) {
+								assign(unitLiteral);
+								break;
+							}
+						}
+						break;
+					default:
+						break;
+					}
+				}
+			}
+		}
+		return true;
+	}
+
+	private void assign(int literal) {
+		values[Math.abs(literal)] = (byte) (literal > 0 ? 1 : -1);
+		trail.push(literal);
+		for (final int clauseIndex : occurrences[literal + numberOfVariables]) {
+			satisfiedCount[clauseIndex]++;
+		}
+		for (final int clauseIndex : occurrences[numberOfVariables - literal]) {
+			falsifiedCount[clauseIndex]++;
+		}
+	}
+
+	private void undo(int trailStart) {
+		while (trail.size() > trailStart) {
+			final int literal = trail.last();
+			trail.pop();
+			values[Math.abs(literal)] = 0;
+			for (final int clauseIndex : occurrences[literal + numberOfVariables]) {
+				satisfiedCount[clauseIndex]--;
+			}
+			for (final int clauseIndex : occurrences[numberOfVariables - literal]) {
+				falsifiedCount[clauseIndex]--;
+			}
+		}
+	}
+
+	private void checkTimeout() {
+		monitor.checkCancel();
+		if (System.currentTimeMillis() > deadline) {
+			throw new RuntimeTimeoutException();
+		}
+	}
+
+	private int getLiteralNode(int literal) {
+		final int index = literal + numberOfVariables;
+		int node = literalNodes[index];
+		if (node == 0) {
+			node = addNode(DDNNF.LITERAL, literal);
+			literalNodes[index] = node;
+		}
+		return node;
+	}
+
+	private int getFreeVariableNode(int variable) {
+		int node = freeVariableNodes[variable];
+		if (node == 0) {
+			node = addNode(DDNNF.OR, 0, getLiteralNode(variable), getLiteralNode(-variable));
+			freeVariableNodes[variable] = node;
+		}
+		return node;
+	}
+
+	private static int[] toArray(VecInt vector) {
+		return Arrays.copyOf(vector.toArray(), vector.size());
+	}
+
+	private int addNode(byte type, int value, int... children) {
+		final int id = nodeTypes.size();
+		nodeTypes.push(type);
+		nodeValues.push(value);
+		nodeChildrenStart.push(nodeChildren.size());
+		for (final int child : children) {
+			nodeChildren.push(child);
+		}
+		return id;
+	}
+
+}
@@ -22,15 +22,88 @@ package de.ovgu.featureide.fm.core.analysis.mig;
 
 abstract class ATraverser implements ITraverser {
 
+	protected static final byte CLAUSE_NONE = 0, CLAUSE_OPEN = 1, CLAUSE_CLOSED = 2;
+
 	protected final boolean[] dfsMark;
-	protected final ModalImplicationGraph mig;
+	protected final CompactModalImplicationGraph graph;
+
+	/**
+	 * State of each complex clause within the current traversal.
+	 */
+	protected final byte[] clauseState;
+	/**
+	 * Indices of all complex clauses that were reached within the current traversal (in the order they were reached).
+	 */
+	protected final int[] openClauses;
+	protected int openClauseCount = 0;
 
 	protected Visitor<?> visitor = null;
 	protected int[] currentConfiguration = null;
 
 	public ATraverser(ModalImplicationGraph mig) {
-		this.mig = mig;
-		dfsMark = new boolean[mig.getAdjList().size()];
+		this(mig.getCompactGraph());
+	}
+
+	public ATraverser(CompactModalImplicationGraph graph) {
+		this.graph = graph;
+		dfsMark = new boolean[graph.getNumberOfVertices()];
+		clauseState = new byte[graph.getNumberOfComplexClauses()];
+		openClauses = new int[graph.getNumberOfComplexClauses()];
+	}
+
+	protected final void resetClauses() {
+		for (int i = 0; i < openClauseCount; i++) {
+			clauseState[openClauses[i]] = CLAUSE_NONE;
+		}
+		openClauseCount = 0;
+	}
+
+	/**
+	 * Marks all complex clauses of the given vertex as open, if they were not reached before.
+	 *
+	 * @param vertexIndex the index of the vertex
+	 * @return the number of newly reached clauses
+	 */
+	protected final int addComplexClauses(int vertexIndex) {
+		int added = 0;
+		final int end = graph.getComplexClausesEnd(vertexIndex);
+		for (int position = graph.getComplexClausesBegin(vertexIndex); position < end; position++) {
+			final int clauseIndex = graph.getComplexClause(position);
+			if (clauseState[clauseIndex] == CLAUSE_NONE) {
+				clauseState[clauseIndex] = CLAUSE_OPEN;
+				openClauses[openClauseCount++] = clauseIndex;
+				added++;
+			}
+		}
+		return added;
+	}
+
+	/**
+	 * Checks the given open clause against the current configuration and closes it, if it is satisfied or has at most one unassigned literal left.
+	 *
+	 * @param clauseIndex the index of an open clause
+	 * @return the remaining unassigned literal if the clause became a unit clause, {@code 0} otherwise.
+	 */
+	protected final int checkClause(int clauseIndex) {
+		int unassignedCount = 0;
+		int unassignedLiteral = 0;
+		final int end = graph.getClauseEnd(clauseIndex);
+		for (int position = graph.getClauseBegin(clauseIndex); position < end; position++) {
+			final int literal = graph.getClauseLiteral(position);
+			final int value = currentConfiguration[Math.abs(literal) - 1];
+			if (value == 0) {
+				unassignedCount++;
+				unassignedLiteral = literal;
+			} else if (value == literal) {
+				clauseState[clauseIndex] = CLAUSE_CLOSED;
+				return 0;
+			}
+		}
+		if (unassignedCount <= 1) {
+			clauseState[clauseIndex] = CLAUSE_CLOSED;
+			return unassignedLiteral;
+		}
+		return 0;
 	}
 
 	@Override
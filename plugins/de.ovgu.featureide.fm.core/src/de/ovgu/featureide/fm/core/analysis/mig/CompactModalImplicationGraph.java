@@ -0,0 +1,320 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.analysis.mig;
+
+import java.nio.IntBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import de.ovgu.featureide.fm.core.analysis.cnf.LiteralSet;
+
+/**
+ * Immutable, compressed sparse row representation of a {@link ModalImplicationGraph}.<br> All edges are stored in flat integer buffers. For each vertex
+ * (i.e., literal), an offset buffer contains the start position of its edges within the corresponding edge buffer. The literals of all complex clauses are
+ * stored in a single packed pool. The buffers are either backed by arrays or by a memory-mapped file (see
+ * {@link de.ovgu.featureide.fm.core.io.CompactMIGFormat}).<br> <br> Vertices are indexed in the same way as in {@link ModalImplicationGraph#getAdjList()}
+ * (see {@link #getVertexIndex(int)}).
+ *
+ * @author FeatureIDE Team
+ */
+public class CompactModalImplicationGraph {
+
+	private final int numberOfVariables;
+
+	private final IntBuffer status;
+	private final IntBuffer strongOffsets;
+	private final IntBuffer strongEdges;
+	private final IntBuffer complexOffsets;
+	private final IntBuffer complexEdges;
+	private final IntBuffer clauseOffsets;
+	private final IntBuffer clauseLiterals;
+
+	/**
+	 * Creates a new graph from the given buffers. The buffers must not be modified afterwards.
+	 *
+	 * @param numberOfVariables the number of variables
+	 * @param status for each variable, {@code 1} if it is core, {@code -1} if it is dead, and {@code 0} otherwise
+	 * @param strongOffsets for each vertex, the start position of its strong edges (length: {@code 2 * numberOfVariables + 1})
+	 * @param strongEdges the target literals of all strong edges
+	 * @param complexOffsets for each vertex, the start position of its complex clause indices (length: {@code 2 * numberOfVariables + 1})
+	 * @param complexEdges the indices of the complex clauses containing the complementary literal of each vertex
+	 * @param clauseOffsets for each complex clause, the start position of its literals (length: number of complex clauses {@code + 1})
+	 * @param clauseLiterals the literals of all complex clauses
+	 */
+	public CompactModalImplicationGraph(int numberOfVariables, IntBuffer status, IntBuffer strongOffsets, IntBuffer strongEdges, IntBuffer complexOffsets,
+			IntBuffer complexEdges, IntBuffer clauseOffsets, IntBuffer clauseLiterals) {
+		final int numberOfVertices = numberOfVariables << 1;
+		if ((status.limit() != numberOfVariables) || (strongOffsets.limit() != (numberOfVertices + 1))
+			|| (complexOffsets.limit() != (numberOfVertices + 1)) || (clauseOffsets.limit() < 1)
+			|| (strongOffsets.get(numberOfVertices) != strongEdges.limit()) || (complexOffsets.get(numberOfVertices) != complexEdges.limit())
+			|| (clauseOffsets.get(clauseOffsets.limit() - 1) != clauseLiterals.limit())) {
+			throw new IllegalArgumentException("Inconsistent buffer sizes");
+		}
+		this.numberOfVariables = numberOfVariables;
+		this.status = status;
+		this.strongOffsets = strongOffsets;
+		this.strongEdges = strongEdges;
+		this.complexOffsets = complexOffsets;
+		this.complexEdges = complexEdges;
+		this.clauseOffsets = clauseOffsets;
+		this.clauseLiterals = clauseLiterals;
+	}
+
+	CompactModalImplicationGraph(int numberOfVariables, int[] status, int[] strongOffsets, int[] strongEdges, int[] complexOffsets, int[] complexEdges,
+			int[] clauseOffsets, int[] clauseLiterals) {
+		this(numberOfVariables, IntBuffer.wrap(status), IntBuffer.wrap(strongOffsets), IntBuffer.wrap(strongEdges), IntBuffer.wrap(complexOffsets),
+				IntBuffer.wrap(complexEdges), IntBuffer.wrap(clauseOffsets), IntBuffer.wrap(clauseLiterals));
+	}
+
+	/**
+	 * Creates a compact representation of the given graph.
+	 *
+	 * @param mig the graph
+	 * @return a new compact graph
+	 */
+	public static CompactModalImplicationGraph of(ModalImplicationGraph mig) {
+		final List<Vertex> adjList = mig.adjList;
+		final int numberOfVertices = adjList.size();
+		final int numberOfVariables = numberOfVertices >> 1;
+
+		final int[] status = new int[numberOfVariables];
+		final int[] strongOffsets = new int[numberOfVertices + 1];
+		final int[] complexOffsets = new int[numberOfVertices + 1];
+		for (int i = 0; i < numberOfVertices; i++) {
+			final Vertex vertex = adjList.get(i);
+			if (vertex.isCore()) {
+				status[i >> 1] = vertex.getVar() > 0 ? 1 : -1;
+			}
+			strongOffsets[i + 1] = strongOffsets[i] + vertex.getStrongEdges().length;
+			complexOffsets[i + 1] = complexOffsets[i] + vertex.getComplexClauses().length;
+		}
+		final int[] strongEdges = new int[strongOffsets[numberOfVertices]];
+		final int[] complexEdges = new int[complexOffsets[numberOfVertices]];
+		for (int i = 0; i < numberOfVertices; i++) {
+			final Vertex vertex = adjList.get(i);
+			System.arraycopy(vertex.getStrongEdges(), 0, strongEdges, strongOffsets[i], vertex.getStrongEdges().length);
+			System.arraycopy(vertex.getComplexClauses(), 0, complexEdges, complexOffsets[i], vertex.getComplexClauses().length);
+		}
+
+		final List<LiteralSet> complexClauses = mig.complexClauses;
+		final int[] clauseOffsets = new int[complexClauses.size() + 1];
+		for (int i = 0; i < complexClauses.size(); i++) {
+			clauseOffsets[i + 1] = clauseOffsets[i] + complexClauses.get(i).size();
+		}
+		final int[] clauseLiterals = new int[clauseOffsets[complexClauses.size()]];
+		for (int i = 0; i < complexClauses.size(); i++) {
+			final int[] literals = complexClauses.get(i).getLiterals();
+			System.arraycopy(literals, 0, clauseLiterals, clauseOffsets[i], literals.length);
+		}
+
+		return new CompactModalImplicationGraph(numberOfVariables, status, strongOffsets, strongEdges, complexOffsets, complexEdges, clauseOffsets,
+				clauseLiterals);
+	}
+
+	/**
+	 * Creates a mutable {@link ModalImplicationGraph} with the same content as this graph.
+	 *
+	 * @return a new graph
+	 */
+	public ModalImplicationGraph toModalImplicationGraph() {
+		final int numberOfVertices = getNumberOfVertices();
+		final ModalImplicationGraph mig = new ModalImplicationGraph(numberOfVertices);
+		for (int i = 0; i < numberOfVertices; i++) {
+			final int literal = getLiteral(i);
+			final Vertex vertex = new Vertex(literal);
+			vertex.setId(i);
+			vertex.setCore(isCore(literal));
+			vertex.setDead(isDead(literal));
+			vertex.setStrongEdges(copy(strongEdges, strongOffsets.get(i), strongOffsets.get(i + 1)));
+			vertex.setComplexClauses(copy(complexEdges, complexOffsets.get(i), complexOffsets.get(i + 1)));
+			mig.adjList.add(vertex);
+		}
+		final int numberOfComplexClauses = getNumberOfComplexClauses();
+		final ArrayList<LiteralSet> complexClauses = new ArrayList<>(numberOfComplexClauses);
+		for (int i = 0; i < numberOfComplexClauses; i++) {
+			complexClauses.add(new LiteralSet(copy(clauseLiterals, clauseOffsets.get(i), clauseOffsets.get(i + 1))));
+		}
+		mig.complexClauses.addAll(complexClauses);
+		return mig;
+	}
+
+	private static int[] copy(IntBuffer buffer, int begin, int end) {
+		final int[] array = new int[end - begin];
+		for (int i = begin; i < end; i++) {
+			array[i - begin] = buffer.get(i);
+		}
+		return array;
+	}
+
+	/**
+	 * Returns the index of the vertex for the given literal.
+	 *
+	 * @param literal the literal
+	 * @return the vertex index
+	 */
+	public static int getVertexIndex(int literal) {
+		return ((Math.abs(literal) - 1) << 1) + (literal < 0 ? 0 : 1);
+	}
+
+	/**
+	 * Returns the literal of the vertex with the given index.
+	 *
+	 * @param vertexIndex the vertex index
+	 * @return the literal
+	 */
+	public static int getLiteral(int vertexIndex) {
+		final int var = (vertexIndex >> 1) + 1;
+		return (vertexIndex & 1) == 0 ? -var : var;
+	}
+
+	public int getNumberOfVariables() {
+		return numberOfVariables;
+	}
+
+	public int getNumberOfVertices() {
+		return numberOfVariables << 1;
+	}
+
+	public int getNumberOfStrongEdges() {
+		return strongEdges.limit();
+	}
+
+	public int getNumberOfComplexEdges() {
+		return complexEdges.limit();
+	}
+
+	public int getNumberOfComplexClauses() {
+		return clauseOffsets.limit() - 1;
+	}
+
+	public int getNumberOfClauseLiterals() {
+		return clauseLiterals.limit();
+	}
+
+	/**
+	 * @param literal the literal
+	 * @return {@code true} if the literal is contained in every solution, {@code false} otherwise.
+	 */
+	public boolean isCore(int literal) {
+		return (status.get(Math.abs(literal) - 1) * literal) > 0;
+	}
+
+	/**
+	 * @param literal the literal
+	 * @return {@code true} if the literal is not contained in any solution, {@code false} otherwise.
+	 */
+	public boolean isDead(int literal) {
+		return (status.get(Math.abs(literal) - 1) * literal) < 0;
+	}
+
+	public int getStrongEdgesBegin(int vertexIndex) {
+		return strongOffsets.get(vertexIndex);
+	}
+
+	public int getStrongEdgesEnd(int vertexIndex) {
+		return strongOffsets.get(vertexIndex + 1);
+	}
+
+	/**
+	 * @param position a position between {@link #getStrongEdgesBegin(int)} and {@link #getStrongEdgesEnd(int)} of a vertex
+	 * @return the literal that is implied by the literal of the vertex
+	 */
+	public int getStrongEdge(int position) {
+		return strongEdges.get(position);
+	}
+
+	public int getComplexClausesBegin(int vertexIndex) {
+		return complexOffsets.get(vertexIndex);
+	}
+
+	public int getComplexClausesEnd(int vertexIndex) {
+		return complexOffsets.get(vertexIndex + 1);
+	}
+
+	/**
+	 * @param position a position between {@link #getComplexClausesBegin(int)} and {@link #getComplexClausesEnd(int)} of a vertex
+	 * @return the index of a complex clause that contains the complementary literal of the vertex
+	 */
+	public int getComplexClause(int position) {
+		return complexEdges.get(position);
+	}
+
+	public int getClauseBegin(int clauseIndex) {
+		return clauseOffsets.get(clauseIndex);
+	}
+
+	public int getClauseEnd(int clauseIndex) {
+		return clauseOffsets.get(clauseIndex + 1);
+	}
+
+	/**
+	 * @param position a position between {@link #getClauseBegin(int)} and {@link #getClauseEnd(int)} of a complex clause
+	 * @return the literal at the given position
+	 */
+	public int getClauseLiteral(int position) {
+		return clauseLiterals.get(position);
+	}
+
+	/**
+	 * @return a read-only view of the variable status buffer (see {@link #CompactModalImplicationGraph(int, IntBuffer, IntBuffer, IntBuffer, IntBuffer,
+	 *         IntBuffer, IntBuffer, IntBuffer) constructor}).
+	 */
+	public IntBuffer getStatus() {
+		return view(status);
+	}
+
+	public IntBuffer getStrongOffsets() {
+		return view(strongOffsets);
+	}
+
+	public IntBuffer getStrongEdges() {
+		return view(strongEdges);
+	}
+
+	public IntBuffer getComplexOffsets() {
+		return view(complexOffsets);
+	}
+
+	public IntBuffer getComplexEdges() {
+		return view(complexEdges);
+	}
+
+	public IntBuffer getClauseOffsets() {
+		return view(clauseOffsets);
+	}
+
+	public IntBuffer getClauseLiterals() {
+		return view(clauseLiterals);
+	}
+
+	private static IntBuffer view(IntBuffer buffer) {
+		final IntBuffer view = buffer.asReadOnlyBuffer();
+		view.rewind();
+		return view;
+	}
+
+	@Override
+	public String toString() {
+		return "CompactModalImplicationGraph [variables=" + numberOfVariables + ", strongEdges=" + getNumberOfStrongEdges() + ", complexClauses="
+			+ getNumberOfComplexClauses() + "]";
+	}
+
+}
@@ -30,16 +30,26 @@ import java.util.List;
 import java.util.ListIterator;
 import java.util.Random;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 
+import org.sat4j.core.VecInt;
 import org.sat4j.specs.ContradictionException;
 
 import de.ovgu.featureide.fm.core.analysis.cnf.CNF;
+import de.ovgu.featureide.fm.core.analysis.cnf.ClauseArena;
+import de.ovgu.featureide.fm.core.analysis.cnf.CompactCNF;
 import de.ovgu.featureide.fm.core.analysis.cnf.LiteralSet;
+import de.ovgu.featureide.fm.core.analysis.cnf.analysis.CoreDeadAnalysis;
 import de.ovgu.featureide.fm.core.analysis.cnf.solver.AdvancedSatSolver;
 import de.ovgu.featureide.fm.core.analysis.cnf.solver.ISatSolver;
 import de.ovgu.featureide.fm.core.analysis.cnf.solver.ISatSolver.SelectionStrategy;
 import de.ovgu.featureide.fm.core.analysis.cnf.solver.ISimpleSatSolver.SatResult;
 import de.ovgu.featureide.fm.core.job.LongRunningMethod;
+import de.ovgu.featureide.fm.core.job.LongRunningWrapper;
 import de.ovgu.featureide.fm.core.job.monitor.IMonitor;
 
 /**
@@ -68,6 +78,18 @@ public class MIGBuilder implements LongRunningMethod<ModalImplicationGraph>, IEd
 		}
 	};
 
+	/**
+	 * Number of clauses per thread that are checked for redundancy in one batch.
+	 */
+	private static final int REDUNDANCY_BATCH_SIZE_PER_THREAD = 32;
+
+	/**
+	 * Number of solutions that are remembered by each worker to skip unnecessary sat calls.
+	 */
+	private static final int SOLUTION_LIST_SIZE = 64;
+
+	private static final int SOLVER_TIMEOUT = 10_000;
+
 	private final Set<LiteralSet> cleanClauseSet = new HashSet<>();
 	private final List<LiteralSet> newClauseList = new ArrayList<>();
 	private final ArrayDeque<Integer> dfsStack = new ArrayDeque<>();
@@ -82,6 +104,8 @@ public class MIGBuilder implements LongRunningMethod<ModalImplicationGraph>, IEd
 
 	protected Random random = new Random(112358);
 
+	private int numberOfThreads = 1;
+
 	public MIGBuilder(CNF satInstance, boolean detectStrong) {
 		this.satInstance = satInstance;
 		this.detectStrong = detectStrong;
@@ -93,9 +117,25 @@ public class MIGBuilder implements LongRunningMethod<ModalImplicationGraph>, IEd
 
 	@Override
 	public ModalImplicationGraph execute(IMonitor<ModalImplicationGraph> monitor) throws Exception {
+		if (!build(monitor)) {
+			return null;
+		}
+		transformToAdjList();
+		monitor.step();
+
+		return mig;
+	}
+
+	/**
+	 * Computes all edges of the graph and stores them in the adjacency matrix.
+	 *
+	 * @param monitor the monitor
+	 * @return {@code true} if the formula is satisfiable, {@code false} otherwise.
+	 */
+	boolean build(IMonitor<?> monitor) throws Exception {
 		monitor.setRemainingWork(5 + (detectStrong ? 3 : 0));
 		if (!init()) {
-			return null;
+			return false;
 		}
 		monitor.step();
 
@@ -106,21 +146,106 @@ public class MIGBuilder implements LongRunningMethod<ModalImplicationGraph>, IEd
 			dfsWeak();
 			monitor.step();
 
-			dfsDetectStrongEdges();
+			if (numberOfThreads > 1) {
+				detectStrongEdgesParallel();
+			} else {
+				dfsDetectStrongEdges();
+			}
 			monitor.step();
 		}
-		cleanClauseList();
+		if (numberOfThreads > 1) {
+			cleanClauseListParallel();
+		} else {
+			cleanClauseList();
+		}
 		monitor.step();
 
 		readdEdges();
 		monitor.step();
 		dfsStrong();
 		monitor.step();
+		return true;
+	}
 
-		transformToAdjList();
-		monitor.step();
+	/**
+	 * Creates a {@link CompactModalImplicationGraph} directly from the adjacency matrix without creating {@link Vertex} objects.
+	 * Must be called after {@link #build(IMonitor)}.
+	 */
+	CompactModalImplicationGraph transformToCompact() {
+		final int numberOfVertices = numberOfVariables << 1;
+		final int[] status = new int[numberOfVariables];
+		for (int i = 0; i < numberOfVariables; i++) {
+			status[i] = adjMatrix.getCore(i);
+		}
 
-		return mig;
+		// Strong edges
+		final int[] strongOffsets = new int[numberOfVertices + 1];
+		for (int i = 0; i < numberOfVariables; i++) {
+			int negCount = 0;
+			int posCount = 0;
+			for (int j = 0; j < numberOfVariables; j++) {
+				final byte relation = adjMatrix.getEdge(i, j);
+				if ((relation & (EDGE_00 | EDGE_01)) != 0) {
+					negCount++;
+				}
+				if ((relation & (EDGE_10 | EDGE_11)) != 0) {
+					posCount++;
+				}
+			}
+			strongOffsets[(i << 1) + 1] = strongOffsets[i << 1] + negCount;
+			strongOffsets[(i << 1) + 2] = strongOffsets[(i << 1) + 1] + posCount;
+		}
+		final int[] strongEdges = new int[strongOffsets[numberOfVertices]];
+		for (int i = 0; i < numberOfVariables; i++) {
+			int negPosition = strongOffsets[i << 1];
+			int posPosition = strongOffsets[(i << 1) + 1];
+			for (int j = 0; j < numberOfVariables; j++) {
+				final byte relation = adjMatrix.getEdge(i, j);
+				if ((relation & EDGE_00) != 0) {
+					strongEdges[negPosition++] = -(j + 1);
+				} else if ((relation & EDGE_01) != 0) {
+					strongEdges[negPosition++] = (j + 1);
+				}
+				if ((relation & EDGE_10) != 0) {
+					strongEdges[posPosition++] = -(j + 1);
+				} else if ((relation & EDGE_11) != 0) {
+					strongEdges[posPosition++] = (j + 1);
+				}
+			}
+		}
+
+		// Complex clauses (the clause list is sorted by length)
+		final List<LiteralSet> clauseList = adjMatrix.getClauseList();
+		int firstComplexClause = 0;
+		while ((firstComplexClause < clauseList.size()) && (clauseList.get(firstComplexClause).size() < 3)) {
+			firstComplexClause++;
+		}
+		final int numberOfComplexClauses = clauseList.size() - firstComplexClause;
+		final int[] clauseOffsets = new int[numberOfComplexClauses + 1];
+		final int[] complexOffsets = new int[numberOfVertices + 1];
+		for (int i = 0; i < numberOfComplexClauses; i++) {
+			final int[] literals = clauseList.get(firstComplexClause + i).getLiterals();
+			clauseOffsets[i + 1] = clauseOffsets[i] + literals.length;
+			for (final int literal : literals) {
+				complexOffsets[CompactModalImplicationGraph.getVertexIndex(-literal) + 1]++;
+			}
+		}
+		for (int i = 0; i < numberOfVertices; i++) {
+			complexOffsets[i + 1] += complexOffsets[i];
+		}
+		final int[] clauseLiterals = new int[clauseOffsets[numberOfComplexClauses]];
+		final int[] complexEdges = new int[complexOffsets[numberOfVertices]];
+		final int[] complexPositions = Arrays.copyOf(complexOffsets, numberOfVertices);
+		for (int i = 0; i < numberOfComplexClauses; i++) {
+			final int[] literals = clauseList.get(firstComplexClause + i).getLiterals();
+			System.arraycopy(literals, 0, clauseLiterals, clauseOffsets[i], literals.length);
+			for (final int literal : literals) {
+				complexEdges[complexPositions[CompactModalImplicationGraph.getVertexIndex(-literal)]++] = i;
+			}
+		}
+
+		return new CompactModalImplicationGraph(numberOfVariables, status, strongOffsets, strongEdges, complexOffsets, complexEdges, clauseOffsets,
+				clauseLiterals);
 	}
 
 	private void transformToAdjList() {
@@ -228,7 +353,7 @@ public class MIGBuilder implements LongRunningMethod<ModalImplicationGraph>, IEd
 //		solver.initSolutionList(1000);
 		solver.setSelectionStrategy(SelectionStrategy.POSITIVE);
 
-		final boolean satisfiable = getCoreFeatures();
+		final boolean satisfiable = numberOfThreads > 1 ? getCoreFeaturesParallel() : getCoreFeatures();
 		if (satisfiable) {
 			initEdges();
 		}
@@ -260,50 +385,259 @@ public class MIGBuilder implements LongRunningMethod<ModalImplicationGraph>, IEd
 		newClauseList.clear();
 	}
 
+	/**
+	 * Parallel version of {@link #cleanClauseList()}.<br> The sorted clauses are processed in consecutive batches. Within a batch, each clause is checked
+	 * against all clauses that were kept in the previous batches, using one solver per thread. Thus, the result does not depend on the scheduling of the
+	 * threads. Clauses that are only redundant with respect to other clauses of the same batch are kept.
+	 */
+	private void cleanClauseListParallel() throws Exception {
+		Collections.sort(newClauseList, lengthComparator);
+
+		int firstComplexClause = 0;
+		while ((firstComplexClause < newClauseList.size()) && (newClauseList.get(firstComplexClause).size() < 3)) {
+			adjMatrix.clauseList.add(newClauseList.get(firstComplexClause++));
+		}
+		final List<LiteralSet> complexClauses = newClauseList.subList(firstComplexClause, newClauseList.size());
+		final int batchSize = REDUNDANCY_BATCH_SIZE_PER_THREAD * numberOfThreads;
+		final int numberOfWorkers = Math.min(numberOfThreads, (complexClauses.size() / REDUNDANCY_BATCH_SIZE_PER_THREAD) + 1);
+
+		final AdvancedSatSolver[] workerSolvers = new AdvancedSatSolver[numberOfWorkers];
+		final int[] addedClauses = new int[numberOfWorkers];
+		final boolean[] redundant = new boolean[complexClauses.size()];
+
+		final ForkJoinPool pool = new ForkJoinPool(numberOfWorkers);
+		try {
+			for (int batchStart = 0; batchStart < complexClauses.size(); batchStart += batchSize) {
+				final int batchEnd = Math.min(complexClauses.size(), batchStart + batchSize);
+				final int batchStartIndex = batchStart;
+				final List<Callable<Void>> tasks = new ArrayList<>(numberOfWorkers);
+				for (int i = 0; i < numberOfWorkers; i++) {
+					final int workerIndex = i;
+					tasks.add(() -> {
+						AdvancedSatSolver workerSolver = workerSolvers[workerIndex];
+						if (workerSolver == null) {
+							workerSolver = new AdvancedSatSolver(new CNF(satInstance, false));
+							workerSolver.addClauses(adjMatrix.clauseList);
+							workerSolvers[workerIndex] = workerSolver;
+						} else {
+							for (int j = addedClauses[workerIndex]; j < batchStartIndex; j++) {
+								if (!redundant[j]) {
+									workerSolver.addClause(complexClauses.get(j));
+								}
+							}
+						}
+						addedClauses[workerIndex] = batchStartIndex;
+						for (int j = batchStartIndex + workerIndex; j < batchEnd; j += numberOfWorkers) {
+							redundant[j] = isRedundant(workerSolver, complexClauses.get(j));
+						}
+						return null;
+					});
+				}
+				invokeAll(pool, tasks);
+			}
+		} finally {
+			pool.shutdownNow();
+		}
+
+		for (int i = 0; i < complexClauses.size(); i++) {
+			if (!redundant[i]) {
+				adjMatrix.clauseList.add(complexClauses.get(i));
+			}
+		}
+		newClauseList.clear();
+	}
+
+	/**
+	 * Parallel version of {@link #dfsDetectStrongEdges()}.<br> Each literal is tested independently against all candidate literals of higher variables,
+	 * which are connected by a weak edge. The literals are distributed dynamically over one solver per thread. The found implications are merged into the
+	 * adjacency matrix in the order of the literals afterwards, so the result does not depend on the scheduling of the threads. Transitive implications
+	 * are added later by {@link #dfsStrong()}.
+	 */
+	private void detectStrongEdgesParallel() throws Exception {
+		final int numberOfLiterals = numberOfVariables << 1;
+		final int[][] impliedLiterals = new int[numberOfLiterals][];
+		final AtomicInteger nextLiteral = new AtomicInteger();
+		final int[] coreLiterals = solver.getAssignmentArray();
+
+		final List<Callable<Void>> tasks = new ArrayList<>(numberOfThreads);
+		for (int i = 0; i < numberOfThreads; i++) {
+			final long seed = random.nextLong();
+			tasks.add(() -> {
+				final AdvancedSatSolver workerSolver = new AdvancedSatSolver(satInstance);
+				workerSolver.setTimeout(SOLVER_TIMEOUT);
+				workerSolver.assignmentPushAll(coreLiterals);
+				workerSolver.useSolutionList(SOLUTION_LIST_SIZE);
+				final Random workerRandom = new Random(seed);
+				for (int literalIndex = nextLiteral.getAndIncrement(); literalIndex < numberOfLiterals; literalIndex = nextLiteral.getAndIncrement()) {
+					final int var = (literalIndex >> 1) + 1;
+					impliedLiterals[literalIndex] = getImpliedLiterals(workerSolver, workerRandom, (literalIndex & 1) == 0 ? -var : var);
+				}
+				return null;
+			});
+		}
+		final ForkJoinPool pool = new ForkJoinPool(numberOfThreads);
+		try {
+			invokeAll(pool, tasks);
+		} finally {
+			pool.shutdownNow();
+		}
+
+		for (int literalIndex = 0; literalIndex < numberOfLiterals; literalIndex++) {
+			final int var = (literalIndex >> 1) + 1;
+			final int mx0 = (literalIndex & 1) == 0 ? -var : var;
+			for (final int my1 : impliedLiterals[literalIndex]) {
+				if (addStrongRelation(-mx0, my1)) {
+					addClause(-mx0, my1);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Computes all literals of higher variables that are implied by the given literal and connected to it by a weak edge.<br> Only reads the adjacency
+	 * matrix, so it can be called concurrently.
+	 */
+	private int[] getImpliedLiterals(AdvancedSatSolver workerSolver, Random workerRandom, int mx1) {
+		final int i = Math.abs(mx1) - 1;
+		if (adjMatrix.core[i] != 0) {
+			return new int[0];
+		}
+		final boolean positive = mx1 > 0;
+		final VecInt implied = new VecInt();
+
+		workerSolver.assignmentPush(mx1);
+		try {
+			int[] xModel1 = null;
+			for (final int[] solution : workerSolver.getSolutionList()) {
+				if (mx1 == solution[i]) {
+					xModel1 = solution;
+					break;
+				}
+			}
+			if (xModel1 == null) {
+				xModel1 = workerSolver.findSolution();
+				if (xModel1 == null) {
+					return new int[0];
+				}
+			}
+
+			int c = 0;
+			final int rowIndex = i * adjMatrix.getNumVariables();
+			inner1: for (int j = i + 1; j < xModel1.length; j++) {
+				final byte b = adjMatrix.edges[rowIndex + j];
+				if ((adjMatrix.core[j] == 0) && ((positive && ((b & EDGE_WEAK_POSITIVE) != 0)) || (!positive && ((b & EDGE_WEAK_NEGATIVE) != 0)))) {
+					final int my1 = xModel1[j];
+					for (final int[] solution : workerSolver.getSolutionList()) {
+						if ((mx1 == solution[i]) && (my1 != solution[j])) {
+							continue inner1;
+						}
+					}
+
+					workerSolver.assignmentPush(-my1);
+					workerSolver.setSelectionStrategy(((c++ % 2) != 0) ? SelectionStrategy.POSITIVE : SelectionStrategy.NEGATIVE);
+					switch (workerSolver.hasSolution()) {
+					case FALSE:
+						implied.push(my1);
+						break;
+					case TIMEOUT:
+						break;
+					case TRUE:
+						workerSolver.shuffleOrder(workerRandom);
+						break;
+					}
+					workerSolver.assignmentPop();
+				}
+			}
+		} finally {
+			workerSolver.assignmentPop();
+		}
+		return Arrays.copyOf(implied.toArray(), implied.size());
+	}
+
+	private static void invokeAll(ForkJoinPool pool, List<Callable<Void>> tasks) throws Exception {
+		try {
+			for (final Future<Void> future : pool.invokeAll(tasks)) {
+				future.get();
+			}
+		} catch (final ExecutionException e) {
+			final Throwable cause = e.getCause();
+			if (cause instanceof Exception) {
+				throw (Exception) cause;
+			}
+			throw new RuntimeException(cause);
+		}
+	}
+
+	public int getNumberOfThreads() {
+		return numberOfThreads;
+	}
+
+	/**
+	 * Sets the number of threads that are used to compute core and dead features, to detect strong edges, and to remove redundant clauses. If the number
+	 * of threads is greater than one, redundant clauses are removed in batches, which may keep some redundant clauses that the sequential algorithm would
+	 * remove.
+	 *
+	 * @param numberOfThreads the number of threads (default: 1)
+	 */
+	public void setNumberOfThreads(int numberOfThreads) {
+		this.numberOfThreads = Math.max(1, numberOfThreads);
+	}
+
 	private final boolean isRedundant(ISatSolver solver, LiteralSet curClause) {
 		return solver.hasSolution(curClause.negate()) == SatResult.FALSE;
 	}
 
 	private void initEdges() {
-		outer: for (final LiteralSet clause : solver.getSatInstance().getClauses()) {
-			final int[] literals = clause.getLiterals();
-			final HashSet<Integer> literalSet = new HashSet<>(literals.length << 1);
-
-			// Sort out dead and core features
-			int childrenCount = clause.size();
-			for (int i = 0; i < childrenCount; i++) {
-				final int var = literals[i];
-				final int coreB = var * adjMatrix.core[Math.abs(var) - 1];
-				if (coreB > 0) {
-					// Clause is satisfied
-					continue outer;
-				} else if (coreB < 0) {
-					// Current literal is unsatisfied (dead or core feature)
-					if (childrenCount <= 2) {
-						continue outer;
-					}
-					childrenCount--;
-					// Switch literals (faster than deletion within an
-					// array)
-					literals[i] = literals[childrenCount];
-					literals[childrenCount] = var;
-					i--;
+		if (satInstance instanceof CompactCNF) {
+			// Avoid creating a literal set for each clause
+			final ClauseArena arena = ((CompactCNF) satInstance).getClauseArena();
+			for (int i = 0; i < arena.size(); i++) {
+				initEdges(arena.getLiterals(i));
+			}
+		} else {
+			for (final LiteralSet clause : satInstance.getClauses()) {
+				initEdges(clause.getLiterals());
+			}
+		}
+	}
+
+	private void initEdges(final int[] literals) {
+		final HashSet<Integer> literalSet = new HashSet<>(literals.length << 1);
+
+		// Sort out dead and core features
+		int childrenCount = literals.length;
+		for (int i = 0; i < childrenCount; i++) {
+			final int var = literals[i];
+			final int coreB = var * adjMatrix.core[Math.abs(var) - 1];
+			if (coreB > 0) {
+				// Clause is satisfied
+				return;
+			} else if (coreB < 0) {
+				// Current literal is unsatisfied (dead or core feature)
+				if (childrenCount <= 2) {
+					return;
+				}
+				childrenCount--;
+				// Switch literals (faster than deletion within an
+				// array)
+				literals[i] = literals[childrenCount];
+				literals[childrenCount] = var;
+				i--;
+			} else {
+				if (literalSet.contains(-var)) {
+					return;
 				} else {
-					if (literalSet.contains(-var)) {
-						continue outer;
-					} else {
-						literalSet.add(var);
-					}
+					literalSet.add(var);
 				}
 			}
-			final int[] literalArray = new int[literalSet.size()];
-			int i = 0;
-			for (final int lit : literalSet) {
-				literalArray[i++] = lit;
-			}
-			addClause(literalArray);
-			addRelation(literalArray);
 		}
+		final int[] literalArray = new int[literalSet.size()];
+		int i = 0;
+		for (final int lit : literalSet) {
+			literalArray[i++] = lit;
+		}
+		addClause(literalArray);
+		addRelation(literalArray);
 	}
 
 	private void addRelation(final int[] newLiterals) {
@@ -480,6 +814,27 @@ public class MIGBuilder implements LongRunningMethod<ModalImplicationGraph>, IEd
 		dfsStack.removeLast();
 	}
 
+	private boolean getCoreFeaturesParallel() {
+		if (solver.hasSolution() != SatResult.TRUE) {
+			return false;
+		}
+		final CoreDeadAnalysis analysis = new CoreDeadAnalysis(solver);
+		analysis.setNumberOfThreads(numberOfThreads);
+		analysis.setTimeout(SOLVER_TIMEOUT);
+		analysis.setThrowTimeoutException(false);
+		final LiteralSet coreDeadFeatures = LongRunningWrapper.runMethod(analysis);
+		solver.setTimeout(SOLVER_TIMEOUT);
+		solver.setSelectionStrategy(SelectionStrategy.POSITIVE);
+		if (coreDeadFeatures != null) {
+			for (final int literal : coreDeadFeatures.getLiterals()) {
+				addClause(literal);
+				adjMatrix.core[Math.abs(literal) - 1] = (byte) Math.signum(literal);
+				solver.assignmentPush(literal);
+			}
+		}
+		return true;
+	}
+
 	private boolean getCoreFeatures() {
 		// satisfiable?
 		final int[] firstSolution = solver.findSolution();
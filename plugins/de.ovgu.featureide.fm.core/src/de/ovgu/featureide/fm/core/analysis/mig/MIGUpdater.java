@@ -0,0 +1,277 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.analysis.mig;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+
+import org.sat4j.core.VecInt;
+
+import de.ovgu.featureide.fm.core.analysis.cnf.CNF;
+import de.ovgu.featureide.fm.core.analysis.cnf.LiteralSet;
+import de.ovgu.featureide.fm.core.analysis.cnf.analysis.CoreDeadAnalysis;
+import de.ovgu.featureide.fm.core.analysis.cnf.solver.ISatSolver;
+import de.ovgu.featureide.fm.core.analysis.cnf.solver.ISimpleSatSolver.SatResult;
+import de.ovgu.featureide.fm.core.job.LongRunningWrapper;
+
+/**
+ * Derives a {@link ModalImplicationGraph} for a modified {@link CNF} from the graph of the original CNF, instead of building it from scratch.<br> The given
+ * graph is not modified. Clauses are applied to a copy of the graph via {@link ModalImplicationGraph#addClause(LiteralSet)} and
+ * {@link ModalImplicationGraph#removeClause(LiteralSet)}. Afterwards, the transitive hull of the strong edges is restored. Changes that cannot be expressed
+ * this way (i.e., removing a strong edge or losing a core or dead feature) require a rebuild with the {@link MIGBuilder}.
+ *
+ * @author FeatureIDE Team
+ */
+public class MIGUpdater {
+
+	private final ModalImplicationGraph oldMig;
+	private final CNF newSatInstance;
+	private final ISatSolver newSolver;
+	private final int numberOfVariables;
+
+	/**
+	 * @param oldMig the graph of the original CNF (built with {@link MIGBuilder} without strong edge detection)
+	 * @param newSatInstance the modified CNF
+	 * @param newSolver a solver containing exactly the clauses of the modified CNF
+	 */
+	public MIGUpdater(ModalImplicationGraph oldMig, CNF newSatInstance, ISatSolver newSolver) {
+		this.oldMig = oldMig;
+		this.newSatInstance = newSatInstance;
+		this.newSolver = newSolver;
+		numberOfVariables = newSatInstance.getVariables().size();
+	}
+
+	/**
+	 * @param addedClauses the clauses that were added to the original CNF
+	 * @param removedClauses the clauses that were removed from the original CNF
+	 * @return the updated graph or {@code null}, if the changes cannot be expressed incrementally
+	 */
+	public ModalImplicationGraph update(List<LiteralSet> addedClauses, List<LiteralSet> removedClauses) {
+		if (oldMig.adjList.size() != (numberOfVariables << 1)) {
+			return null;
+		}
+
+		final int[] oldCore = getCore(oldMig);
+		final int[] newCore = getCore();
+		if (newCore == null) {
+			return null;
+		}
+		boolean newlyFixed = false;
+		for (int i = 0; i < numberOfVariables; i++) {
+			if (oldCore[i] != 0) {
+				if (oldCore[i] != newCore[i]) {
+					return null;
+				}
+			} else if (newCore[i] != 0) {
+				newlyFixed = true;
+			}
+		}
+
+		final ModalImplicationGraph mig = copy(oldMig);
+		final HashSet<LiteralSet> complexClauses = new HashSet<>(mig.complexClauses);
+
+		boolean removedComplexClause = false;
+		for (final LiteralSet clause : removedClauses) {
+			final LiteralSet reducedClause = reduce(clause, oldCore);
+			if ((reducedClause != null) && (reducedClause.size() > 1)) {
+				if (reducedClause.size() == 2) {
+					return null;
+				}
+				if (complexClauses.remove(reducedClause)) {
+					mig.removeClause(reducedClause);
+					removedComplexClause = true;
+				}
+			}
+		}
+
+		if (removedComplexClause || newlyFixed) {
+			// Restore complex clauses that were considered redundant and reduce clauses that contain new core or dead features
+			for (final LiteralSet clause : newSatInstance.getClauses()) {
+				final LiteralSet newReducedClause = reduce(clause, newCore);
+				if (newlyFixed) {
+					final LiteralSet oldReducedClause = reduce(clause, oldCore);
+					if ((oldReducedClause != null) && !oldReducedClause.equals(newReducedClause) && complexClauses.remove(oldReducedClause)) {
+						mig.removeClause(oldReducedClause);
+					}
+				}
+				addClause(mig, complexClauses, newReducedClause);
+			}
+		} else {
+			for (final LiteralSet clause : addedClauses) {
+				addClause(mig, complexClauses, reduce(clause, newCore));
+			}
+		}
+
+		for (int var = 1; var <= numberOfVariables; var++) {
+			final Vertex negVertex = mig.getVertex(-var);
+			final Vertex posVertex = mig.getVertex(var);
+			negVertex.setCore(newCore[var - 1] < 0);
+			negVertex.setDead(newCore[var - 1] > 0);
+			posVertex.setCore(newCore[var - 1] > 0);
+			posVertex.setDead(newCore[var - 1] < 0);
+		}
+		buildStrongHull(mig, newCore);
+
+		return mig;
+	}
+
+	private void addClause(ModalImplicationGraph mig, HashSet<LiteralSet> complexClauses, LiteralSet reducedClause) {
+		if (reducedClause != null) {
+			switch (reducedClause.size()) {
+			case 0:
+			case 1:
+				break;
+			case 2:
+				final int[] literals = reducedClause.getLiterals();
+				final Vertex vertex0 = mig.getVertex(-literals[0]);
+				if (!contains(vertex0.getStrongEdges(), literals[1])) {
+					mig.addClause(reducedClause);
+				}
+				break;
+			default:
+				if (complexClauses.add(reducedClause)) {
+					mig.addClause(reducedClause);
+				}
+				break;
+			}
+		}
+	}
+
+	/**
+	 * Computes the transitive hull of all strong edges. Edges from or to core and dead features are removed.
+	 */
+	private void buildStrongHull(ModalImplicationGraph mig, int[] core) {
+		final int[][] strongEdges = new int[mig.adjList.size()][];
+		final boolean[] marked = new boolean[mig.adjList.size()];
+		final ArrayDeque<Vertex> stack = new ArrayDeque<>();
+		final VecInt reachedLiterals = new VecInt();
+		for (final Vertex vertex : mig.adjList) {
+			if (core[Math.abs(vertex.getVar()) - 1] != 0) {
+				strongEdges[vertex.getId()] = new int[0];
+				continue;
+			}
+			Arrays.fill(marked, false);
+			reachedLiterals.clear();
+			marked[vertex.getId()] = true;
+			stack.push(vertex);
+			while (!stack.isEmpty()) {
+				for (final int literal : stack.pop().getStrongEdges()) {
+					if (core[Math.abs(literal) - 1] == 0) {
+						final Vertex nextVertex = mig.getVertex(literal);
+						if (!marked[nextVertex.getId()]) {
+							marked[nextVertex.getId()] = true;
+							reachedLiterals.push(literal);
+							stack.push(nextVertex);
+						}
+					}
+				}
+			}
+			final int[] edges = Arrays.copyOf(reachedLiterals.toArray(), reachedLiterals.size());
+			Arrays.sort(edges);
+			strongEdges[vertex.getId()] = edges;
+		}
+		for (final Vertex vertex : mig.adjList) {
+			vertex.setStrongEdges(strongEdges[vertex.getId()]);
+		}
+	}
+
+	/**
+	 * @return the core and dead features of the modified CNF or {@code null}, if the CNF is not satisfiable.
+	 */
+	private int[] getCore() {
+		final LiteralSet coreDead;
+		synchronized (newSolver) {
+			if (newSolver.hasSolution() != SatResult.TRUE) {
+				return null;
+			}
+			coreDead = LongRunningWrapper.runMethod(new CoreDeadAnalysis(newSolver));
+		}
+		if (coreDead == null) {
+			return null;
+		}
+		final int[] core = new int[numberOfVariables];
+		for (final int literal : coreDead.getLiterals()) {
+			core[Math.abs(literal) - 1] = literal;
+		}
+		return core;
+	}
+
+	private int[] getCore(ModalImplicationGraph mig) {
+		final int[] core = new int[numberOfVariables];
+		for (int var = 1; var <= numberOfVariables; var++) {
+			final Vertex posVertex = mig.getVertex(var);
+			if (posVertex.isCore()) {
+				core[var - 1] = var;
+			} else if (posVertex.isDead()) {
+				core[var - 1] = -var;
+			}
+		}
+		return core;
+	}
+
+	/**
+	 * Removes all literals of core and dead features from a clause in the same way as {@link MIGBuilder}.
+	 *
+	 * @return the reduced clause or {@code null}, if the clause is satisfied by a core or dead feature or is a tautology.
+	 */
+	private LiteralSet reduce(LiteralSet clause, int[] core) {
+		final VecInt literals = new VecInt(clause.size());
+		for (final int literal : clause.getLiterals()) {
+			final int coreLiteral = core[Math.abs(literal) - 1];
+			if (coreLiteral == literal) {
+				return null;
+			} else if ((coreLiteral == 0) && !literals.contains(literal)) {
+				if (literals.contains(-literal)) {
+					return null;
+				}
+				literals.push(literal);
+			}
+		}
+		return new LiteralSet(Arrays.copyOf(literals.toArray(), literals.size()));
+	}
+
+	private static boolean contains(int[] array, int value) {
+		for (final int element : array) {
+			if (element == value) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static ModalImplicationGraph copy(ModalImplicationGraph mig) {
+		final ModalImplicationGraph newMig = new ModalImplicationGraph(mig.adjList.size());
+		for (final Vertex vertex : mig.adjList) {
+			final Vertex newVertex = new Vertex(vertex.getVar());
+			newVertex.setId(vertex.getId());
+			newVertex.setCore(vertex.isCore());
+			newVertex.setDead(vertex.isDead());
+			newVertex.setStrongEdges(Arrays.copyOf(vertex.getStrongEdges(), vertex.getStrongEdges().length));
+			newVertex.setComplexClauses(Arrays.copyOf(vertex.getComplexClauses(), vertex.getComplexClauses().length));
+			newMig.adjList.add(newVertex);
+		}
+		newMig.complexClauses.addAll(mig.complexClauses);
+		return newMig;
+	}
+
+}
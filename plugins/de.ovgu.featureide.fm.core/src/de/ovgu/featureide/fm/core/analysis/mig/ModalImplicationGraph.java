@@ -47,6 +47,8 @@ public class ModalImplicationGraph implements IEdgeTypes, Serializable {
 	final List<Vertex> adjList;
 	final List<LiteralSet> complexClauses = new ArrayList<>(0);
 
+	private transient volatile CompactModalImplicationGraph compactGraph = null;
+
 	public ModalImplicationGraph() {
 		adjList = new ArrayList<>(0);
 	}
@@ -58,6 +60,23 @@ public class ModalImplicationGraph implements IEdgeTypes, Serializable {
 	public void copyValues(ModalImplicationGraph other) {
 		adjList.addAll(other.adjList);
 		complexClauses.addAll(other.complexClauses);
+		compactGraph = null;
+	}
+
+	/**
+	 * Returns a {@link CompactModalImplicationGraph compact} representation of this graph, which is used by the traversers. The representation is created on
+	 * the first call and discarded by {@link #addClause(LiteralSet)} and {@link #removeClause(LiteralSet)}.<br> <b>Note:</b> Changes that are made directly
+	 * to the {@link Vertex vertices} are not reflected by a previously created representation.
+	 *
+	 * @return the compact representation of this graph
+	 */
+	public CompactModalImplicationGraph getCompactGraph() {
+		CompactModalImplicationGraph graph = compactGraph;
+		if (graph == null) {
+			graph = CompactModalImplicationGraph.of(this);
+			compactGraph = graph;
+		}
+		return graph;
 	}
 
 	public Traverser traverse() {
@@ -77,6 +96,7 @@ public class ModalImplicationGraph implements IEdgeTypes, Serializable {
 	}
 
 	public void addClause(LiteralSet clause) {
+		compactGraph = null;
 		final int[] literals = clause.getLiterals();
 		switch (clause.size()) {
 		case 0:
@@ -106,36 +126,97 @@ public class ModalImplicationGraph implements IEdgeTypes, Serializable {
 		}
 	}
 
-	public void removeClause(LiteralSet clause) {
+	/**
+	 * Reverts the changes of {@link #addClause(LiteralSet)} for the given clause.<br> Complex clauses are removed by moving the last complex clause to the
+	 * index of the removed one, so the indices of other complex clauses may change.
+	 *
+	 * @param clause the clause to remove
+	 * @return {@code true} if the graph contained the clause, {@code false} otherwise
+	 */
+	public boolean removeClause(LiteralSet clause) {
+		compactGraph = null;
 		final int[] literals = clause.getLiterals();
 		switch (clause.size()) {
 		case 0:
 			throw new RuntimeContradictionException();
 		case 1: {
-			final int literal = literals[0];
-			final Vertex vertex = getVertex(literal);
-			vertex.setCore(literal > 0);
-			vertex.setDead(literal < 0);
-			break;
+			final Vertex vertex = getVertex(literals[0]);
+			final boolean contained = vertex.isCore() || vertex.isDead();
+			vertex.setCore(false);
+			vertex.setDead(false);
+			return contained;
 		}
 		case 2: {
 			final Vertex vertex0 = getVertex(-literals[0]);
 			final Vertex vertex1 = getVertex(-literals[1]);
-			addStrongEdge(vertex0, -vertex1.getVar());
-			addStrongEdge(vertex1, -vertex0.getVar());
-			break;
+			final boolean contained = removeStrongEdge(vertex0, -vertex1.getVar());
+			return removeStrongEdge(vertex1, -vertex0.getVar()) && contained;
 		}
 		default: {
-			final int newClauseIndex = complexClauses.size();
-			complexClauses.add(clause);
+			final int clauseIndex = complexClauses.indexOf(clause);
+			if (clauseIndex < 0) {
+				return false;
+			}
 			for (final int literal : literals) {
-				addWeakEdge(getVertex(-literal), newClauseIndex);
+				removeWeakEdge(getVertex(-literal), clauseIndex);
 			}
-			break;
+			final int lastClauseIndex = complexClauses.size() - 1;
+			final LiteralSet lastClause = complexClauses.remove(lastClauseIndex);
+			if (clauseIndex != lastClauseIndex) {
+				complexClauses.set(clauseIndex, lastClause);
+				for (final int literal : lastClause.getLiterals()) {
+					replaceWeakEdge(getVertex(-literal), lastClauseIndex, clauseIndex);
+				}
+			}
+			return true;
 		}
 		}
 	}
 
+	private boolean removeWeakEdge(final Vertex vertex, final int index) {
+		final int[] oldComplexClauses = vertex.getComplexClauses();
+		final int position = indexOf(oldComplexClauses, index);
+		if (position < 0) {
+			return false;
+		}
+		vertex.setComplexClauses(remove(oldComplexClauses, position));
+		return true;
+	}
+
+	private void replaceWeakEdge(final Vertex vertex, final int oldIndex, final int newIndex) {
+		final int[] complexClauses = vertex.getComplexClauses();
+		final int position = indexOf(complexClauses, oldIndex);
+		if (position >= 0) {
+			complexClauses[position] = newIndex;
+		}
+	}
+
+	private boolean removeStrongEdge(final Vertex vertex, final int edge) {
+		final int[] oldStrongEdges = vertex.getStrongEdges();
+		final int position = indexOf(oldStrongEdges, edge);
+		if (position < 0) {
+			return false;
+		}
+		vertex.setStrongEdges(remove(oldStrongEdges, position));
+		return true;
+	}
+
+	private static int indexOf(final int[] array, final int value) {
+		for (int i = 0; i < array.length; i++) {
+			if (array[i] == value) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	private static int[] remove(final int[] array, final int position) {
+		final int[] newArray = new int[array.length - 1];
+		System.arraycopy(array, 0, newArray, 0, position);
+		System.arraycopy(array, position + 1, newArray, position, newArray.length - position);
+		return newArray;
+	}
+
 	private void addWeakEdge(final Vertex vertex, final int index) {
 		final int[] oldComplexClauses = vertex.getComplexClauses();
 		final int[] newComplexClauses = Arrays.copyOf(oldComplexClauses, oldComplexClauses.length + 1);
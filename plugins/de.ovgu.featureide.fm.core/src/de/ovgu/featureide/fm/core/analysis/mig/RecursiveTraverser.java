@@ -22,17 +22,16 @@ package de.ovgu.featureide.fm.core.analysis.mig;
 
 import java.util.Arrays;
 
-import org.sat4j.core.VecInt;
-import org.sat4j.specs.IteratorInt;
-
-import de.ovgu.featureide.fm.core.analysis.cnf.LiteralSet;
-
 public class RecursiveTraverser extends ATraverser {
 
 	public RecursiveTraverser(ModalImplicationGraph mig) {
 		super(mig);
 	}
 
+	public RecursiveTraverser(CompactModalImplicationGraph graph) {
+		super(graph);
+	}
+
 	@Override
 	public void setModel(int[] model) {
 		super.setModel(model);
@@ -54,10 +53,12 @@ public class RecursiveTraverser extends ATraverser {
 	}
 
 	private void traverseStrongRec(int curLiteral) {
-		final Vertex vertex = mig.getVertex(curLiteral);
+		final int vertexIndex = CompactModalImplicationGraph.getVertexIndex(curLiteral);
 
 		// Strong Edges
-		for (final int strongEdge : vertex.getStrongEdges()) {
+		final int strongEnd = graph.getStrongEdgesEnd(vertexIndex);
+		for (int position = graph.getStrongEdgesBegin(vertexIndex); position < strongEnd; position++) {
+			final int strongEdge = graph.getStrongEdge(position);
 			final int modelIndex = Math.abs(strongEdge) - 1;
 			if (currentConfiguration[modelIndex] == 0) {
 				currentConfiguration[modelIndex] = strongEdge;
@@ -66,38 +67,10 @@ public class RecursiveTraverser extends ATraverser {
 		}
 
 		// Weak Edges
-		final int[] complexClauses = vertex.getComplexClauses();
-		final VecInt v = new VecInt();
-		outerLoop: for (int i = 0; i < complexClauses.length; i++) {
-			final LiteralSet clause = mig.getComplexClauses().get(complexClauses[i]);
-
-			v.clear();
-			final int[] literals = clause.getLiterals();
-			for (int j = 0; j < literals.length; j++) {
-				final int literal = literals[j];
-				if (literal == -curLiteral) {
-					continue;
-				}
-				final int value = currentConfiguration[Math.abs(literal) - 1];
-
-				if (value == 0) {
-					// add literal to list
-					if (v.size() >= 1) {
-						continue outerLoop;
-					}
-					v.push(literal);
-				} else {
-					if (value == literal) {
-						// Clause is satisfied
-						continue outerLoop;
-					} else {
-						// Do nothing
-					}
-				}
-			}
-
-			if (v.size() == 1) {
-				final int literal = v.get(0);
+		final int complexEnd = graph.getComplexClausesEnd(vertexIndex);
+		for (int position = graph.getComplexClausesBegin(vertexIndex); position < complexEnd; position++) {
+			final int literal = getUnitLiteral(graph.getComplexClause(position), curLiteral);
+			if (literal != 0) {
 				final int modelIndex = Math.abs(literal) - 1;
 				if (currentConfiguration[modelIndex] == 0) {
 					currentConfiguration[modelIndex] = literal;
@@ -109,7 +82,7 @@ public class RecursiveTraverser extends ATraverser {
 	}
 
 	private void traverse(boolean strongPath, int curLiteral) {
-		final Vertex vertex = mig.getVertex(curLiteral);
+		final int vertexIndex = CompactModalImplicationGraph.getVertexIndex(curLiteral);
 
 		if (strongPath) {
 			final int modelIndex = Math.abs(curLiteral) - 1;
@@ -119,63 +92,78 @@ public class RecursiveTraverser extends ATraverser {
 			}
 		}
 
-		if (!dfsMark[vertex.getId()]) {
-			dfsMark[vertex.getId()] = true;
+		if (!dfsMark[vertexIndex]) {
+			dfsMark[vertexIndex] = true;
 			if (!strongPath) {
 				visitor.visitWeak(curLiteral);
 			}
 
 			// Strong Edges
-			for (final int strongEdge : vertex.getStrongEdges()) {
+			final int strongEnd = graph.getStrongEdgesEnd(vertexIndex);
+			for (int position = graph.getStrongEdgesBegin(vertexIndex); position < strongEnd; position++) {
+				final int strongEdge = graph.getStrongEdge(position);
 				if (currentConfiguration[Math.abs(strongEdge) - 1] == 0) {
 					traverse(strongPath, strongEdge);
 				}
 			}
 
-			final int[] complexClauses = vertex.getComplexClauses();
-
 			// Weak Edges
-			final VecInt v = new VecInt();
-			outerLoop: for (int i = 0; i < complexClauses.length; i++) {
-				final LiteralSet clause = mig.getComplexClauses().get(complexClauses[i]);
-
-				v.clear();
-				final int[] literals = clause.getLiterals();
-				for (int j = 0; j < literals.length; j++) {
-					final int literal = literals[j];
-					if (literal == -curLiteral) {
-						continue;
+			final int complexEnd = graph.getComplexClausesEnd(vertexIndex);
+			for (int position = graph.getComplexClausesBegin(vertexIndex); position < complexEnd; position++) {
+				final int clauseIndex = graph.getComplexClause(position);
+				final int unitLiteral = getUnitLiteral(clauseIndex, curLiteral);
+				if (unitLiteral != 0) {
+					if (currentConfiguration[Math.abs(unitLiteral) - 1] == 0) {
+						traverse(strongPath, unitLiteral);
 					}
-					final int value = currentConfiguration[Math.abs(literal) - 1];
-
-					if (value == 0) {
-						// add literal to list
-						v.push(literal);
-					} else {
-						if (value == literal) {
-							// Clause is satisfied
-							continue outerLoop;
-						} else {
-							// Do nothing
+				} else if (!isSatisfied(clauseIndex)) {
+					final int clauseEnd = graph.getClauseEnd(clauseIndex);
+					for (int literalPosition = graph.getClauseBegin(clauseIndex); literalPosition < clauseEnd; literalPosition++) {
+						final int literal = graph.getClauseLiteral(literalPosition);
+						if ((literal != -curLiteral) && (currentConfiguration[Math.abs(literal) - 1] == 0)) {
+							traverse(false, literal);
 						}
 					}
 				}
+			}
+		}
+	}
 
-				if (v.size() == 1) {
-					final int literal = v.get(0);
-					if (currentConfiguration[Math.abs(literal) - 1] == 0) {
-						traverse(strongPath, literal);
-					}
-				} else {
-					for (final IteratorInt iterator = v.iterator(); iterator.hasNext();) {
-						final int literal = iterator.next();
-						if (currentConfiguration[Math.abs(literal) - 1] == 0) {
-							traverse(false, literal);
-						}
+	/**
+	 * Returns the only unassigned literal of the given clause (ignoring the complement of the current literal).
+	 *
+	 * @return the unit literal or {@code 0}, if the clause is satisfied or contains more or less than one unassigned literal.
+	 */
+	private int getUnitLiteral(int clauseIndex, int curLiteral) {
+		int unitLiteral = 0;
+		final int end = graph.getClauseEnd(clauseIndex);
+		for (int position = graph.getClauseBegin(clauseIndex); position < end; position++) {
+			final int literal = graph.getClauseLiteral(position);
+			if (literal != -curLiteral) {
+				final int value = currentConfiguration[Math.abs(literal) - 1];
+				if (value == 0) {
+					if (unitLiteral != 0) {
+						return 0;
 					}
+					unitLiteral = literal;
+				} else if (value == literal) {
+					// Clause is satisfied
+					return 0;
 				}
 			}
 		}
+		return unitLiteral;
+	}
+
+	private boolean isSatisfied(int clauseIndex) {
+		final int end = graph.getClauseEnd(clauseIndex);
+		for (int position = graph.getClauseBegin(clauseIndex); position < end; position++) {
+			final int literal = graph.getClauseLiteral(position);
+			if (currentConfiguration[Math.abs(literal) - 1] == literal) {
+				return true;
+			}
+		}
+		return false;
 	}
 
 }
@@ -21,127 +21,126 @@
 package de.ovgu.featureide.fm.core.analysis.mig;
 
 import java.util.Arrays;
-import java.util.HashMap;
-import java.util.Iterator;
-import java.util.LinkedList;
-import java.util.List;
-import java.util.Map.Entry;
 
-import org.sat4j.core.VecInt;
-import org.sat4j.specs.IteratorInt;
-
-import de.ovgu.featureide.fm.core.analysis.cnf.LiteralSet;
 import de.ovgu.featureide.fm.core.analysis.mig.Visitor.VisitResult;
 
 public class TransitiveTraverser extends ATraverser {
 
+	private final int[] literalStack;
+
 	public TransitiveTraverser(ModalImplicationGraph mig) {
 		super(mig);
+		literalStack = new int[graph.getNumberOfVariables()];
+	}
+
+	public TransitiveTraverser(CompactModalImplicationGraph graph) {
+		super(graph);
+		literalStack = new int[graph.getNumberOfVariables()];
 	}
 
 	@Override
 	public void traverse(int... curLiterals) {
-		final HashMap<Integer, VecInt> complexClauseMap = new HashMap<>();
 		Arrays.fill(dfsMark, false);
-
-		traverseStrong(complexClauseMap, curLiterals);
-		mainLoop: while (true) {
-			for (final Iterator<Entry<Integer, VecInt>> entryIterator = complexClauseMap.entrySet().iterator(); entryIterator.hasNext();) {
-				final Entry<Integer, VecInt> entry = entryIterator.next();
-				final VecInt v = entry.getValue();
-				if (v != null) {
-					for (final IteratorInt iterator = v.iterator(); iterator.hasNext();) {
-						final int literal = iterator.next();
-						if (currentConfiguration[Math.abs(literal) - 1] == 0) {
-							final Vertex vertex = mig.getVertex(literal);
-							if (!dfsMark[vertex.getId()]) {
-								dfsMark[vertex.getId()] = true;
-								boolean changed = false;
-								final VisitResult visitWeakResult = visitor.visitWeak(literal);
-								switch (visitWeakResult) {
-								case Cancel:
-									return;
-								case Continue:
-									changed |= addComplexClauses(complexClauseMap, vertex) > 0;
-									break;
-								case Select:
-									changed |= attemptStrongSelect(literal, complexClauseMap);
-									break;
-								case Skip:
-									break;
-								default:
-									throw new AssertionError(visitWeakResult);
-								}
-								changed |= processComplexClauses(complexClauseMap);
-								if (changed) {
-									continue mainLoop;
-								}
-							}
+		traverseStrong(curLiterals);
+
+		for (int i = 0; i < openClauseCount; i++) {
+			final int clauseIndex = openClauses[i];
+			final int end = graph.getClauseEnd(clauseIndex);
+			for (int position = graph.getClauseBegin(clauseIndex); (position < end) && (clauseState[clauseIndex] == CLAUSE_OPEN); position++) {
+				final int literal = graph.getClauseLiteral(position);
+				if (currentConfiguration[Math.abs(literal) - 1] == 0) {
+					final int vertexIndex = CompactModalImplicationGraph.getVertexIndex(literal);
+					if (!dfsMark[vertexIndex]) {
+						dfsMark[vertexIndex] = true;
+						final VisitResult visitWeakResult = visitor.visitWeak(literal);
+						switch (visitWeakResult) {
+						case Cancel:
+							return;
+						case Continue:
+							addComplexClauses(vertexIndex);
+							break;
+						case Select:
+							attemptStrongSelect(literal);
+							break;
+						case Skip:
+							break;
+						default:
+							throw new AssertionError(visitWeakResult);
 						}
+						processComplexClauses();
 					}
 				}
 			}
-			break;
 		}
 	}
 
 	@Override
 	public void traverseStrong(int... curLiterals) {
-		traverseStrong(new HashMap<Integer, VecInt>(), curLiterals);
-	}
-
-	private void traverseStrong(final HashMap<Integer, VecInt> complexClauseMap, int... curLiterals) {
+		resetClauses();
 		boolean changed = false;
 		for (final int curLiteral : curLiterals) {
-			changed |= attemptStrongSelect(curLiteral, complexClauseMap);
+			changed |= attemptStrongSelect(curLiteral);
 		}
 		if (changed) {
-			processComplexClauses(complexClauseMap);
+			processComplexClauses();
 		}
 	}
 
-	private boolean processComplexClauses(final HashMap<Integer, VecInt> complexClauseMap) {
+	private boolean processComplexClauses() {
 		boolean changedInLoop, changed = false;
 		do {
 			changedInLoop = false;
-			final List<VecInt> unitClauses = new LinkedList<>();
-			for (final Entry<Integer, VecInt> entry : complexClauseMap.entrySet()) {
-				final VecInt v = entry.getValue();
-				if (v != null) {
-					for (int j = v.size() - 1; j >= 0; j--) {
-						final int literal = v.get(j);
-						final int value = currentConfiguration[Math.abs(literal) - 1];
-						if (value != 0) {
-							if (value == literal) {
-								entry.setValue(null);
-							} else {
-								v.delete(j);
-							}
-							changed = true;
-						}
-					}
-
-					if (v.size() == 1) {
-						entry.setValue(null);
-						unitClauses.add(v);
+			for (int i = 0; i < openClauseCount; i++) {
+				final int clauseIndex = openClauses[i];
+				if (clauseState[clauseIndex] == CLAUSE_OPEN) {
+					final int unitLiteral = checkClause(clauseIndex);
+					if (unitLiteral != 0) {
+						changedInLoop |= attemptStrongSelect(unitLiteral);
 					}
 				}
 			}
-
-			for (final VecInt v : unitClauses) {
-				changedInLoop |= attemptStrongSelect(v.get(0), complexClauseMap);
-			}
 			changed |= changedInLoop;
 		} while (changedInLoop);
 		return changed;
 	}
 
-	private boolean attemptStrongSelect(final int curLiteral, final HashMap<Integer, VecInt> complexClauseMap) {
-		final int modelIndex = Math.abs(curLiteral) - 1;
+	/**
+	 * Selects the given literal and all literals that are reachable via strong edges (depth-first, using a preallocated stack).
+	 */
+	private boolean attemptStrongSelect(final int curLiteral) {
+		if (currentConfiguration[Math.abs(curLiteral) - 1] != 0) {
+			return false;
+		}
+		if (!select(curLiteral)) {
+			return true;
+		}
+		int stackSize = 0;
+		literalStack[stackSize++] = curLiteral;
+		while (stackSize > 0) {
+			final int literal = literalStack[--stackSize];
+			final int vertexIndex = CompactModalImplicationGraph.getVertexIndex(literal);
+			addComplexClauses(vertexIndex);
+			for (int position = graph.getStrongEdgesEnd(vertexIndex) - 1; position >= graph.getStrongEdgesBegin(vertexIndex); position--) {
+				final int strongEdge = graph.getStrongEdge(position);
+				if (select(strongEdge)) {
+					literalStack[stackSize++] = strongEdge;
+				}
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Assigns the given literal if its variable is undefined.
+	 *
+	 * @return {@code true} if the literal was assigned and its edges should be followed, {@code false} otherwise.
+	 */
+	private boolean select(final int literal) {
+		final int modelIndex = Math.abs(literal) - 1;
 		if (currentConfiguration[modelIndex] == 0) {
-			currentConfiguration[modelIndex] = curLiteral;
+			currentConfiguration[modelIndex] = literal;
 
-			final VisitResult visitStrongResult = visitor.visitStrong(curLiteral);
+			final VisitResult visitStrongResult = visitor.visitStrong(literal);
 			switch (visitStrongResult) {
 			case Cancel:
 				// TODO
@@ -150,39 +149,12 @@ public class TransitiveTraverser extends ATraverser {
 				return false;
 			case Select:
 			case Continue:
-				break;
+				return true;
 			default:
 				throw new AssertionError(visitStrongResult);
 			}
-			final Vertex curVertex = mig.getVertex(curLiteral);
-			if (complexClauseMap != null) {
-				addComplexClauses(complexClauseMap, curVertex);
-			}
-			for (final int strongEdge : curVertex.getStrongEdges()) {
-				attemptStrongSelect(strongEdge, complexClauseMap);
-			}
-			if (complexClauseMap != null) {
-				return false;
-			}
-			return true;
 		}
 		return false;
 	}
 
-	private int addComplexClauses(final HashMap<Integer, VecInt> complexClauseMap, final Vertex vertex) {
-		int added = 0;
-		final int[] complexClauses = vertex.getComplexClauses();
-		for (int i = 0; i < complexClauses.length; i++) {
-			final Integer index = complexClauses[i];
-			if (!complexClauseMap.containsKey(index)) {
-				final LiteralSet clause = mig.getComplexClauses().get(index);
-				if (clause != null) {
-					complexClauseMap.putIfAbsent(index, new VecInt(Arrays.copyOf(clause.getLiterals(), clause.size())));
-					added++;
-				}
-			}
-		}
-		return added;
-	}
-
 }
@@ -21,141 +21,110 @@
 package de.ovgu.featureide.fm.core.analysis.mig;
 
 import java.util.Arrays;
-import java.util.HashMap;
-import java.util.Iterator;
-import java.util.LinkedList;
-import java.util.List;
-import java.util.Map.Entry;
 
-import org.sat4j.core.VecInt;
-import org.sat4j.specs.IteratorInt;
-
-import de.ovgu.featureide.fm.core.analysis.cnf.LiteralSet;
 import de.ovgu.featureide.fm.core.analysis.mig.Visitor.VisitResult;
 
 public class Traverser extends ATraverser {
 
-	private static class CancelException extends Exception {
-		private static final long serialVersionUID = 4872529212110156314L;
-	}
+	private boolean canceled = false;
 
 	public Traverser(ModalImplicationGraph mig) {
 		super(mig);
 	}
 
-	@Override
-	public void traverse(int... curLiterals) {
-		try {
-			traverseAll(curLiterals);
-		} catch (final CancelException e) {}
+	public Traverser(CompactModalImplicationGraph graph) {
+		super(graph);
 	}
 
-	private void traverseAll(int... curLiterals) throws CancelException {
-		final HashMap<Integer, VecInt> openClauseMap = new HashMap<>();
+	@Override
+	public void traverse(int... curLiterals) {
 		Arrays.fill(dfsMark, false);
-
-		traverseStrong(openClauseMap, curLiterals);
-		mainLoop: while (true) {
-			for (final Iterator<Entry<Integer, VecInt>> openClauseIterator = openClauseMap.entrySet().iterator(); openClauseIterator.hasNext();) {
-				final VecInt openClause = openClauseIterator.next().getValue();
-				if (openClause != null) {
-					for (final IteratorInt literalIterator = openClause.iterator(); literalIterator.hasNext();) {
-						final int literal = literalIterator.next();
-						if (currentConfiguration[getIndex(literal)] == 0) {
-							final Vertex vertex = mig.getVertex(literal);
-							if (!dfsMark[vertex.getId()]) {
-								dfsMark[vertex.getId()] = true;
-								boolean changed = false;
-								final VisitResult visitWeakResult = visitor.visitWeak(literal);
-								switch (visitWeakResult) {
-								case Cancel:
-									return;
-								case Continue:
-									changed |= addComplexClauses(openClauseMap, vertex) > 0;
-									break;
-								case Select:
-									changed |= attemptStrongSelect(literal, openClauseMap);
-									break;
-								case Skip:
-									break;
-								default:
-									throw new AssertionError(visitWeakResult);
-								}
-								changed |= processComplexClauses(openClauseMap);
-								if (changed) {
-									continue mainLoop;
-								}
-							}
+		traverseStrongInternal(curLiterals);
+
+		for (int i = 0; (i < openClauseCount) && !canceled; i++) {
+			final int clauseIndex = openClauses[i];
+			final int end = graph.getClauseEnd(clauseIndex);
+			for (int position = graph.getClauseBegin(clauseIndex); (position < end) && (clauseState[clauseIndex] == CLAUSE_OPEN); position++) {
+				final int literal = graph.getClauseLiteral(position);
+				if (currentConfiguration[Math.abs(literal) - 1] == 0) {
+					final int vertexIndex = CompactModalImplicationGraph.getVertexIndex(literal);
+					if (!dfsMark[vertexIndex]) {
+						dfsMark[vertexIndex] = true;
+						final VisitResult visitWeakResult = visitor.visitWeak(literal);
+						switch (visitWeakResult) {
+						case Cancel:
+							return;
+						case Continue:
+							addComplexClauses(vertexIndex);
+							break;
+						case Select:
+							attemptStrongSelect(literal);
+							break;
+						case Skip:
+							break;
+						default:
+							throw new AssertionError(visitWeakResult);
+						}
+						processComplexClauses();
+						if (canceled) {
+							return;
 						}
 					}
 				}
 			}
-			break;
 		}
 	}
 
 	@Override
 	public void traverseStrong(int... curLiterals) {
-		try {
-			traverseStrong(new HashMap<Integer, VecInt>(), curLiterals);
-		} catch (final CancelException e) {}
+		traverseStrongInternal(curLiterals);
 	}
 
-	private void traverseStrong(final HashMap<Integer, VecInt> complexClauseMap, int... curLiterals) throws CancelException {
+	private void traverseStrongInternal(int... curLiterals) {
+		canceled = false;
+		resetClauses();
 		boolean changed = false;
 		for (final int curLiteral : curLiterals) {
-			changed |= attemptStrongSelect(curLiteral, complexClauseMap);
+			changed |= attemptStrongSelect(curLiteral);
+			if (canceled) {
+				return;
+			}
 		}
 		if (changed) {
-			processComplexClauses(complexClauseMap);
+			processComplexClauses();
 		}
 	}
 
-	private boolean processComplexClauses(final HashMap<Integer, VecInt> complexClauseMap) throws CancelException {
+	private boolean processComplexClauses() {
 		boolean changedInLoop, changed = false;
 		do {
 			changedInLoop = false;
-			final List<VecInt> unitClauses = new LinkedList<>();
-			for (final Entry<Integer, VecInt> entry : complexClauseMap.entrySet()) {
-				final VecInt v = entry.getValue();
-				if (v != null) {
-					for (int j = v.size() - 1; j >= 0; j--) {
-						final int literal = v.get(j);
-						final int value = currentConfiguration[getIndex(literal)];
-						if (value != 0) {
-							if (value == literal) {
-								entry.setValue(null);
-							} else {
-								v.delete(j);
-							}
-							changed = true;
+			for (int i = 0; i < openClauseCount; i++) {
+				final int clauseIndex = openClauses[i];
+				if (clauseState[clauseIndex] == CLAUSE_OPEN) {
+					final int unitLiteral = checkClause(clauseIndex);
+					if (unitLiteral != 0) {
+						changedInLoop |= attemptStrongSelect(unitLiteral);
+						if (canceled) {
+							return true;
 						}
 					}
-
-					if (v.size() == 1) {
-						entry.setValue(null);
-						unitClauses.add(v);
-					}
 				}
 			}
-
-			for (final VecInt v : unitClauses) {
-				changedInLoop |= attemptStrongSelect(v.get(0), complexClauseMap);
-			}
 			changed |= changedInLoop;
 		} while (changedInLoop);
 		return changed;
 	}
 
-	private boolean attemptStrongSelect(final int curLiteral, final HashMap<Integer, VecInt> complexClauseMap) throws CancelException {
-		final int modelIndex = getIndex(curLiteral);
-		final int currentVariableSelection = currentConfiguration[modelIndex];
-		if (currentVariableSelection == 0) {
+	private boolean attemptStrongSelect(final int curLiteral) {
+		final int modelIndex = Math.abs(curLiteral) - 1;
+		if (currentConfiguration[modelIndex] == 0) {
 			currentConfiguration[modelIndex] = curLiteral;
 			VisitResult visitStrongResult = visitor.visitStrong(curLiteral);
 			switch (visitStrongResult) {
 			case Cancel:
-				throw new CancelException();
+				canceled = true;
+				return true;
 			case Skip:
 				return true;
 			case Select:
@@ -165,22 +134,25 @@ public class Traverser extends ATraverser {
 				throw new AssertionError(visitStrongResult);
 			}
 
-			final Vertex curVertex = mig.getVertex(curLiteral);
-			addComplexClauses(complexClauseMap, curVertex);
+			final int curVertexIndex = CompactModalImplicationGraph.getVertexIndex(curLiteral);
+			addComplexClauses(curVertexIndex);
 
-			for (final int strongVertex : curVertex.getStrongEdges()) {
-				final int strongVertexIndex = getIndex(strongVertex);
+			final int end = graph.getStrongEdgesEnd(curVertexIndex);
+			for (int position = graph.getStrongEdgesBegin(curVertexIndex); position < end; position++) {
+				final int strongVertex = graph.getStrongEdge(position);
+				final int strongVertexIndex = Math.abs(strongVertex) - 1;
 				if (currentConfiguration[strongVertexIndex] == 0) {
 					currentConfiguration[strongVertexIndex] = strongVertex;
 					visitStrongResult = visitor.visitStrong(strongVertex);
 					switch (visitStrongResult) {
 					case Cancel:
-						throw new CancelException();
+						canceled = true;
+						return true;
 					case Skip:
 						break;
 					case Select:
 					case Continue:
-						addComplexClauses(complexClauseMap, mig.getVertex(strongVertex));
+						addComplexClauses(CompactModalImplicationGraph.getVertexIndex(strongVertex));
 						break;
 					default:
 						throw new AssertionError(visitStrongResult);
@@ -188,127 +160,8 @@ public class Traverser extends ATraverser {
 				}
 			}
 			return true;
-		} else if (currentVariableSelection != curLiteral) {
-			// TODO
-
 		}
 		return false;
 	}
 
-	private int getIndex(final int literal) {
-		return Math.abs(literal) - 1;
-	}
-
-	private int addComplexClauses(final HashMap<Integer, VecInt> complexClauseMap, final Vertex vertex) {
-		int added = 0;
-		final int[] complexClauses = vertex.getComplexClauses();
-		for (int i = 0; i < complexClauses.length; i++) {
-			final Integer index = complexClauses[i];
-			if (!complexClauseMap.containsKey(index)) {
-				final LiteralSet clause = mig.getComplexClauses().get(index);
-				complexClauseMap.put(index, new VecInt(Arrays.copyOf(clause.getLiterals(), clause.size())));
-				added++;
-			}
-		}
-		return added;
-	}
-
-//	@Override
-//	public void traverseAll(int... curLiterals) {
-//		final HashMap<Integer, VecInt> openClauseMap = new HashMap<>();
-//		Arrays.fill(dfsMark, false);
-//
-//		traverseStrong(openClauseMap, curLiterals);
-//		mainLoop: while (true) {
-//			for (final Iterator<Entry<Integer, VecInt>> openClauseIterator = openClauseMap.entrySet().iterator(); openClauseIterator.hasNext();) {
-//				final VecInt openClause = openClauseIterator.next().getValue();
-//				if (openClause != null) {
-//					for (final IteratorInt literalIterator = openClause.iterator(); literalIterator.hasNext();) {
-//						final int literal = literalIterator.next();
-//						if (currentConfiguration[getIndex(literal)] == 0) {
-//							final Vertex vertex = mig.getVertex(literal);
-//							if (!dfsMark[vertex.getId()]) {
-//								dfsMark[vertex.getId()] = true;
-//								boolean changed = false;
-//								if (visitor.visitWeak(literal)) {
-//									changed |= attemptStrongSelect(literal, openClauseMap);
-//								} else {
-//									changed |= addComplexClauses(openClauseMap, vertex) > 0;
-//								}
-//								changed |= processComplexClauses(openClauseMap);
-//								if (changed) {
-//									continue mainLoop;
-//								}
-//							}
-//						}
-//					}
-//				}
-//			}
-//			break;
-//		}
-//	}
-//
-//	private boolean processComplexClauses(final HashMap<Integer, VecInt> complexClauseMap) {
-//		boolean changedInLoop, changed = false;
-//		do {
-//			changedInLoop = false;
-//			final List<VecInt> unitClauses = new LinkedList<>();
-//			for (final Entry<Integer, VecInt> entry : complexClauseMap.entrySet()) {
-//				final VecInt v = entry.getValue();
-//				if (v != null) {
-//					for (int j = v.size() - 1; j >= 0; j--) {
-//						final int literal = v.get(j);
-//						final int value = currentConfiguration[getIndex(literal)];
-//						if (value != 0) {
-//							if (value == literal) {
-//								entry.setValue(null);
-//							} else {
-//								v.delete(j);
-//							}
-//							changed = true;
-//						}
-//					}
-//
-//					if (v.size() == 1) {
-//						entry.setValue(null);
-//						unitClauses.add(v);
-//					}
-//				}
-//			}
-//
-//			for (final VecInt v : unitClauses) {
-//				changedInLoop |= attemptStrongSelect2(v.get(0), complexClauseMap);
-//			}
-//			changed |= changedInLoop;
-//		} while (changedInLoop);
-//		return changed;
-//	}
-//
-//	private boolean attemptStrongSelect(final int curLiteral, final HashMap<Integer, VecInt> complexClauseMap) {
-//		final int modelIndex = getIndex(curLiteral);
-//		if (currentConfiguration[modelIndex] == 0) {
-//			currentConfiguration[modelIndex] = curLiteral;
-//			visitor.visitStrong(curLiteral);
-//			final Vertex curVertex = mig.getVertex(curLiteral);
-//			if (complexClauseMap != null) {
-//				addComplexClauses(complexClauseMap, curVertex);
-//			}
-//			for (final int strongVertex : curVertex.getStrongEdges()) {
-//				final int strongVertexIndex = getIndex(strongVertex);
-//				if (currentConfiguration[strongVertexIndex] == 0) {
-//					currentConfiguration[strongVertexIndex] = strongVertex;
-//					visitor.visitStrong(strongVertex);
-//					if (complexClauseMap != null) {
-//						addComplexClauses(complexClauseMap, mig.getVertex(strongVertex));
-//					}
-//				}
-//			}
-//			if (complexClauseMap != null) {
-//				return false;
-//			}
-//			return true;
-//		}
-//		return false;
-//	}
-
 }
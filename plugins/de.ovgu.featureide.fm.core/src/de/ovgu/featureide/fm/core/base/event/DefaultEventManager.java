@@ -22,20 +22,72 @@ package de.ovgu.featureide.fm.core.base.event;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import de.ovgu.featureide.fm.core.Logger;
 
 /**
- * Default implementation of {@link IEventManager}.
+ * Default implementation of {@link IEventManager}.<br> Supports batches of events (see {@link #startBatch()}), in which events with the same source and type
+ * are coalesced and delivered once when the batch ends. Listeners that implement {@link IAsynchronousEventListener} are notified on a dedicated dispatcher
+ * thread.
  *
  * @author Sebastian Krieter
  */
 public class DefaultEventManager implements IEventManager, IEventListener {
 
+	private static final class EventKey {
+
+		private final Object source;
+		private final FeatureIDEEvent.EventType eventType;
+
+		public EventKey(FeatureIDEEvent event) {
+			source = event.getSource();
+			eventType = event.getEventType();
+		}
+
+		@Override
+		public int hashCode() {
+			return (31 * System.identityHashCode(source)) + Objects.hashCode(eventType);
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj) {
+				return true;
+			}
+			if ((obj == null) || (getClass() != obj.getClass())) {
+				return false;
+			}
+			final EventKey other = (EventKey) obj;
+			return (source == other.source) && (eventType == other.eventType);
+		}
+
+	}
+
+	private static ExecutorService asynchronousExecutor;
+
+	private static synchronized ExecutorService getAsynchronousExecutor() {
+		if (asynchronousExecutor == null) {
+			asynchronousExecutor = Executors.newSingleThreadExecutor(runnable -> {
+				final Thread thread = new Thread(runnable, "FeatureIDE Event Dispatcher");
+				thread.setDaemon(true);
+				return thread;
+			});
+		}
+		return asynchronousExecutor;
+	}
+
 	protected final List<IEventListener> listenerList = new LinkedList<>();
 
+	private final List<FeatureIDEEvent> pendingEvents = new ArrayList<>();
+	private final HashMap<EventKey, Integer> lastPendingEventIndex = new HashMap<>();
+	private int batchDepth = 0;
+
 	@Override
 	public void addListener(IEventListener listener) {
 		synchronized (this) {
@@ -54,12 +106,92 @@ public class DefaultEventManager implements IEventManager, IEventListener {
 
 	@Override
 	public void fireEvent(FeatureIDEEvent event) {
-		ArrayList<IEventListener> tempList;
 		synchronized (this) {
-			tempList = new ArrayList<>(listenerList);
+			if (batchDepth > 0) {
+				addPendingEvent(event);
+				return;
+			}
 		}
-		for (final IEventListener listener : tempList) {
-			callListener(event, listener);
+		deliverEvents(Collections.singletonList(event));
+	}
+
+	/**
+	 * {@inheritDoc}<br> <br> A batch applies to all events fired by this manager, regardless of the thread that fires them.
+	 */
+	@Override
+	public void startBatch() {
+		synchronized (this) {
+			batchDepth++;
+		}
+	}
+
+	@Override
+	public void endBatch() {
+		final List<FeatureIDEEvent> events;
+		synchronized (this) {
+			if (batchDepth == 0) {
+				throw new IllegalStateException("No batch of events was started.");
+			}
+			if ((--batchDepth > 0) || pendingEvents.isEmpty()) {
+				return;
+			}
+			events = new ArrayList<>(pendingEvents);
+			pendingEvents.clear();
+			lastPendingEventIndex.clear();
+		}
+		deliverEvents(events);
+	}
+
+	/**
+	 * Adds an event to the current batch. The event is merged with the last pending event of the same source and type, if both are plain
+	 * {@link FeatureIDEEvent FeatureIDEEvents} and the new event either repeats the pending event or continues it (i.e., its old value is the new value of the
+	 * pending event). Events of other classes, such as {@link FeatureModelOperationEvent}, are never merged.
+	 *
+	 * @param event the event to add
+	 */
+	private void addPendingEvent(FeatureIDEEvent event) {
+		final EventKey key = new EventKey(event);
+		final Integer index = lastPendingEventIndex.get(key);
+		if ((index != null) && (event.getClass() == FeatureIDEEvent.class)) {
+			final FeatureIDEEvent pendingEvent = pendingEvents.get(index);
+			if (pendingEvent.getClass() == FeatureIDEEvent.class) {
+				if (Objects.equals(pendingEvent.getOldValue(), event.getOldValue()) && Objects.equals(pendingEvent.getNewValue(), event.getNewValue())) {
+					return;
+				}
+				if (Objects.equals(pendingEvent.getNewValue(), event.getOldValue())) {
+					pendingEvents.set(index,
+							new FeatureIDEEvent(pendingEvent.getSource(), pendingEvent.getEventType(), pendingEvent.getOldValue(), event.getNewValue()));
+					return;
+				}
+			}
+		}
+		lastPendingEventIndex.put(key, pendingEvents.size());
+		pendingEvents.add(event);
+	}
+
+	private void deliverEvents(List<FeatureIDEEvent> events) {
+		final List<IEventListener> synchronousListeners = new ArrayList<>();
+		final List<IEventListener> asynchronousListeners = new ArrayList<>();
+		synchronized (this) {
+			for (final IEventListener listener : listenerList) {
+				if (listener instanceof IAsynchronousEventListener) {
+					asynchronousListeners.add(listener);
+				} else {
+					synchronousListeners.add(listener);
+				}
+			}
+		}
+		if (!asynchronousListeners.isEmpty()) {
+			getAsynchronousExecutor().execute(() -> callListeners(events, asynchronousListeners));
+		}
+		callListeners(events, synchronousListeners);
+	}
+
+	private void callListeners(List<FeatureIDEEvent> events, List<IEventListener> listeners) {
+		for (final FeatureIDEEvent event : events) {
+			for (final IEventListener listener : listeners) {
+				callListener(event, listener);
+			}
 		}
 	}
 
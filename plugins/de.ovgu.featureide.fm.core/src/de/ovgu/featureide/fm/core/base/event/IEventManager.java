@@ -37,4 +37,16 @@ public interface IEventManager {
 
 	List<IEventListener> getListeners();
 
+	/**
+	 * Starts a batch of events. Until the corresponding call of {@link #endBatch()}, fired events are collected and coalesced instead of being delivered
+	 * immediately. Batches can be nested, the collected events are delivered when the outermost batch ends.<br> By default, events are always delivered
+	 * immediately.
+	 */
+	default void startBatch() {}
+
+	/**
+	 * Ends a batch of events that was started with {@link #startBatch()}.
+	 */
+	default void endBatch() {}
+
 }
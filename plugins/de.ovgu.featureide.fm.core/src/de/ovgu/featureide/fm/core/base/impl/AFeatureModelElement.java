@@ -99,6 +99,16 @@ public abstract class AFeatureModelElement implements IFeatureModelElement {
 		eventManager.fireEvent(event);
 	}
 
+	@Override
+	public final void startBatch() {
+		eventManager.startBatch();
+	}
+
+	@Override
+	public final void endBatch() {
+		eventManager.endBatch();
+	}
+
 	@Override
 	public final int hashCode() {
 		return (int) (37 * id);
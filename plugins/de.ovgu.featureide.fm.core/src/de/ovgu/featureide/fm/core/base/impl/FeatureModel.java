@@ -269,6 +269,16 @@ public class FeatureModel implements IFeatureModel {
 		eventManager.fireEvent(event);
 	}
 
+	@Override
+	public final void startBatch() {
+		eventManager.startBatch();
+	}
+
+	@Override
+	public final void endBatch() {
+		eventManager.endBatch();
+	}
+
 	protected void fireEvent(final EventType action) {
 		fireEvent(new FeatureIDEEvent(this, action, Boolean.FALSE, Boolean.TRUE));
 	}
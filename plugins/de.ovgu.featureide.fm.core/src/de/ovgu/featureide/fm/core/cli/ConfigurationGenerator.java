@@ -36,13 +36,16 @@ import de.ovgu.featureide.fm.core.analysis.cnf.generator.configuration.IConfigur
 import de.ovgu.featureide.fm.core.analysis.cnf.generator.configuration.PairWiseConfigurationGenerator;
 import de.ovgu.featureide.fm.core.analysis.cnf.generator.configuration.RandomConfigurationGenerator;
 import de.ovgu.featureide.fm.core.analysis.cnf.generator.configuration.SPLCAToolConfigurationGenerator;
+import de.ovgu.featureide.fm.core.analysis.cnf.generator.configuration.XORSamplingConfigurationGenerator;
 import de.ovgu.featureide.fm.core.analysis.cnf.generator.configuration.twise.TWiseConfigurationGenerator;
 import de.ovgu.featureide.fm.core.base.IFeatureModel;
 import de.ovgu.featureide.fm.core.io.ProblemList;
 import de.ovgu.featureide.fm.core.io.csv.ConfigurationListFormat;
+import de.ovgu.featureide.fm.core.io.dimacs.DIMACSFormatCNF;
 import de.ovgu.featureide.fm.core.io.expression.ExpressionGroupFormat;
 import de.ovgu.featureide.fm.core.io.manager.FeatureModelManager;
 import de.ovgu.featureide.fm.core.io.manager.FileHandler;
+import de.ovgu.featureide.fm.core.io.manager.SimpleFileHandler;
 import de.ovgu.featureide.fm.core.job.LongRunningWrapper;
 import de.ovgu.featureide.fm.core.job.monitor.ConsoleMonitor;
 
@@ -64,6 +67,8 @@ public class ConfigurationGenerator extends ACLIFunction {
 	private int t;
 	private int m;
 	private int limit;
+	private int threads;
+	private Double tolerance;
 
 	@Override
 	public String getId() {
@@ -84,11 +89,7 @@ public class ConfigurationGenerator extends ACLIFunction {
 			throw new IllegalArgumentException("No algorithm specified!");
 		}
 
-		final FileHandler<IFeatureModel> fileHandler = FeatureModelManager.getFileHandler(fmFile);
-		if (fileHandler.getLastProblems().containsError()) {
-			throw new IllegalArgumentException(fileHandler.getLastProblems().getErrors().get(0).error);
-		}
-		final CNF cnf = new FeatureModelFormula(fileHandler.getObject()).getCNF();
+		final CNF cnf = loadCNF();
 
 		final ArrayList<List<ClauseList>> expressionGroups;
 		if (expressionFile != null) {
@@ -134,6 +135,7 @@ public class ConfigurationGenerator extends ACLIFunction {
 			}
 			final TWiseConfigurationGenerator yasa = (TWiseConfigurationGenerator) generator;
 			yasa.setIterations(m);
+			yasa.setNumberOfThreads(threads);
 			if (initialSampleFile != null) {
 				yasa.setInitialSample(initialSample.getSolutions());
 				yasa.setAllowInitialSolutionModify(allowInitialSolutionModify);
@@ -146,6 +148,15 @@ public class ConfigurationGenerator extends ACLIFunction {
 			generator = new RandomConfigurationGenerator(cnf, limit);
 			break;
 		}
+		case "uniform": {
+			final XORSamplingConfigurationGenerator uniform = new XORSamplingConfigurationGenerator(cnf, limit);
+			if (tolerance != null) {
+				uniform.setTolerance(tolerance);
+			}
+			uniform.setNumberOfThreads(threads);
+			generator = uniform;
+			break;
+		}
 		case "all": {
 			generator = new AllConfigurationGenerator(cnf, limit);
 			break;
@@ -157,6 +168,25 @@ public class ConfigurationGenerator extends ACLIFunction {
 		FileHandler.save(outputFile, new SolutionList(cnf.getVariables(), result), new ConfigurationListFormat());
 	}
 
+	private CNF loadCNF() {
+		final DIMACSFormatCNF dimacsFormat = new DIMACSFormatCNF();
+		if (dimacsFormat.getSuffix().equals(SimpleFileHandler.getFileExtension(fmFile))) {
+			// Read DIMACS files directly into a CNF, without creating a feature model
+			final CNF cnf = new CNF();
+			final ProblemList lastProblems = dimacsFormat.read(cnf, fmFile);
+			if (lastProblems.containsError()) {
+				throw new IllegalArgumentException(lastProblems.getErrors().get(0).error);
+			}
+			return cnf;
+		} else {
+			final FileHandler<IFeatureModel> fileHandler = FeatureModelManager.getFileHandler(fmFile);
+			if (fileHandler.getLastProblems().containsError()) {
+				throw new IllegalArgumentException(fileHandler.getLastProblems().getErrors().get(0).error);
+			}
+			return new FeatureModelFormula(fileHandler.getObject()).getCNF();
+		}
+	}
+
 	private void resetArguments() {
 		algorithm = null;
 		outputFile = null;
@@ -169,6 +199,8 @@ public class ConfigurationGenerator extends ACLIFunction {
 		t = 0;
 		m = 1;
 		limit = Integer.MAX_VALUE;
+		threads = 1;
+		tolerance = null;
 	}
 
 	private void parseArguments(List<String> args) {
@@ -221,6 +253,14 @@ public class ConfigurationGenerator extends ACLIFunction {
 					t = Integer.parseInt(getArgValue(iterator, arg));
 					break;
 				}
+				case "tolerance": {
+					tolerance = Double.parseDouble(getArgValue(iterator, arg));
+					break;
+				}
+				case "threads": {
+					threads = Integer.parseInt(getArgValue(iterator, arg));
+					break;
+				}
 				default: {
 					throw new IllegalArgumentException(arg);
 				}
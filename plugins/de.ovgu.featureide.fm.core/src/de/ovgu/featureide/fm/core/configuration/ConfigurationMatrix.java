@@ -20,7 +20,6 @@
  */
 package de.ovgu.featureide.fm.core.configuration;
 
-import java.io.IOException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
@@ -28,12 +27,15 @@ import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
 
+import de.ovgu.featureide.fm.core.analysis.cnf.Variables;
 import de.ovgu.featureide.fm.core.analysis.cnf.formula.FeatureModelFormula;
+import de.ovgu.featureide.fm.core.configuration.io.CompactConfiguration;
+import de.ovgu.featureide.fm.core.configuration.io.ConfigurationIndex;
 import de.ovgu.featureide.fm.core.configuration.io.ConfigurationLoader;
-import de.ovgu.featureide.fm.core.configuration.io.IConfigurationLoaderCallback;
 
 /**
- * Reads all configuration file from a certain folder and saves their content in form of a selection matrix.
+ * Reads all configuration file from a certain folder and saves their content in form of a selection matrix.<br> <br> The content of all configuration
+ * files is stored in an {@link ConfigurationIndex index} within the folder, such that only changed files have to be parsed again.
  *
  * @author Paul Maximilan Bittner
  * @author Sebastian Krieter
@@ -41,8 +43,10 @@ import de.ovgu.featureide.fm.core.configuration.io.IConfigurationLoaderCallback;
  */
 public class ConfigurationMatrix {
 
-	private final List<Config> configurationMatrix;
-	private final ConfigurationLoader loader;
+	public static final String INDEX_FILE_NAME = "configurations.index";
+
+	private final List<CompactConfiguration> configurationMatrix = new ArrayList<>();
+	private final ConfigurationLoader loader = new ConfigurationLoader();
 	private final FeatureModelFormula featureModel;
 	private final Path path;
 
@@ -55,55 +59,16 @@ public class ConfigurationMatrix {
 	public ConfigurationMatrix(FeatureModelFormula featureModel, Path path) {
 		this.featureModel = featureModel;
 		this.path = path;
-		configurationMatrix = new ArrayList<>();
-		loader = new ConfigurationLoader(new IConfigurationLoaderCallback() {
-
-			@Override
-			public void onLoadingStarted() {
-				configurationMatrix.clear();
-			}
-
-			@Override
-			public void onLoadingError(IOException exception) {}
-
-			@Override
-			public void onConfigurationLoaded(Configuration configuration, Path path) {
-				configurationMatrix.add(createConfig(configuration));
-			}
-
-			@Override
-			public void onLoadingFinished() {
-				// TODO Auto-generated method stub
-
-			}
-		});
 	}
 
 	public void readConfigurations() {
-		loader.loadConfigurations(featureModel, path);
+		readConfigurations(null);
 	}
 
 	public void readConfigurations(String excludeFile) {
-		loader.loadConfigurations(featureModel, path, excludeFile);
-	}
-
-	private Config createConfig(Configuration configuration) {
-		final Collection<SelectableFeature> features = configuration.getFeatures();
-		final byte[] configArray = new byte[features.size()];
-		int i = 0;
-		for (final SelectableFeature feature : features) {
-			switch (feature.getSelection()) {
-			case SELECTED:
-				configArray[i++] = 1;
-				break;
-			case UNDEFINED:
-			case UNSELECTED:
-			default:
-				configArray[i++] = 0;
-				break;
-			}
-		}
-		return new Config(configArray);
+		final ConfigurationIndex index = new ConfigurationIndex(path.resolve(".featureide").resolve(INDEX_FILE_NAME), path, featureModel.getVariables());
+		configurationMatrix.clear();
+		configurationMatrix.addAll(loader.loadCompactConfigurations(featureModel, path, excludeFile, index));
 	}
 
 	public double[] getRec() {
@@ -115,17 +80,32 @@ public class ConfigurationMatrix {
 			return;
 		}
 
-		final Config curConfig = createConfig(configuration);
+		final Variables variables = featureModel.getVariables();
+		final Collection<SelectableFeature> features = configuration.getFeatures();
+		final int[] featureVariables = new int[features.size()];
+		final boolean[] curConfig = new boolean[features.size()];
+		{
+			int i = 0;
+			for (final SelectableFeature feature : features) {
+				featureVariables[i] = variables.getVariable(feature.getName());
+				curConfig[i++] = feature.getSelection() == Selection.SELECTED;
+			}
+		}
 
-		rec = new double[configurationMatrix.get(0).configArray.length];
+		rec = new double[featureVariables.length];
 		Arrays.fill(rec, 0);
 
 		final int[] w = new int[configurationMatrix.size()];
 		int wSum = 0;
 		{
 			int j = 0;
-			for (final Config config : configurationMatrix) {
-				final int delta = curConfig.getDelta(config);
+			for (final CompactConfiguration config : configurationMatrix) {
+				int delta = 0;
+				for (int i = 0; i < featureVariables.length; i++) {
+					if (config.isSelected(featureVariables[i]) == curConfig[i]) {
+						delta++;
+					}
+				}
 				w[j++] = delta;
 				wSum += delta;
 			}
@@ -134,33 +114,16 @@ public class ConfigurationMatrix {
 		for (int i = 0; i < rec.length; i++) {
 			int fSum = 0;
 			for (int j = 0; j < w.length; j++) {
-				fSum += configurationMatrix.get(j).configArray[i] * w[j];
+				if (configurationMatrix.get(j).isSelected(featureVariables[i])) {
+					fSum += w[j];
+				}
 			}
 			double recValue = ((double) fSum) / wSum;
-			if (curConfig.configArray[i] == 1) {
+			if (curConfig[i]) {
 				recValue = 1 - recValue;
 			}
 			rec[i] = recValue;
 		}
 	}
 
-	private static class Config {
-
-		private final byte[] configArray;
-
-		public Config(byte[] configArray) {
-			this.configArray = configArray;
-		}
-
-		public int getDelta(Config otherConfig) {
-			int count = 0;
-			for (int i = 0; i < configArray.length; i++) {
-				if (configArray[i] == otherConfig.configArray[i]) {
-					count++;
-				}
-			}
-			return count;
-		}
-
-	}
 }
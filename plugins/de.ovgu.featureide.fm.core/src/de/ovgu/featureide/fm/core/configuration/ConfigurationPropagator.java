@@ -20,6 +20,7 @@
  */
 package de.ovgu.featureide.fm.core.configuration;
 
+import java.math.BigInteger;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
@@ -32,8 +33,12 @@ import org.sat4j.specs.TimeoutException;
 import de.ovgu.featureide.fm.core.Logger;
 import de.ovgu.featureide.fm.core.analysis.cnf.CNF;
 import de.ovgu.featureide.fm.core.analysis.cnf.LiteralSet;
+import de.ovgu.featureide.fm.core.analysis.cnf.Variables;
 import de.ovgu.featureide.fm.core.analysis.cnf.analysis.CoreDeadAnalysis;
 import de.ovgu.featureide.fm.core.analysis.cnf.analysis.CountSolutionsAnalysis;
+import de.ovgu.featureide.fm.core.analysis.cnf.formula.ACreator;
+import de.ovgu.featureide.fm.core.analysis.cnf.formula.CNFCreator;
+import de.ovgu.featureide.fm.core.analysis.cnf.formula.DDNNFCreator;
 import de.ovgu.featureide.fm.core.analysis.cnf.formula.FeatureModelFormula;
 import de.ovgu.featureide.fm.core.analysis.cnf.formula.NoAbstractCNFCreator;
 import de.ovgu.featureide.fm.core.analysis.cnf.formula.NoAbstractNoHiddenCNFCreator;
@@ -44,7 +49,10 @@ import de.ovgu.featureide.fm.core.analysis.cnf.generator.configuration.OneWiseCo
 import de.ovgu.featureide.fm.core.analysis.cnf.solver.AdvancedSatSolver;
 import de.ovgu.featureide.fm.core.analysis.cnf.solver.ISatSolver.SelectionStrategy;
 import de.ovgu.featureide.fm.core.analysis.cnf.solver.ISimpleSatSolver.SatResult;
+import de.ovgu.featureide.fm.core.analysis.cnf.solver.ModifiableSatSolver;
 import de.ovgu.featureide.fm.core.analysis.cnf.solver.RuntimeContradictionException;
+import de.ovgu.featureide.fm.core.analysis.cnf.solver.SolverPool;
+import de.ovgu.featureide.fm.core.analysis.ddnnf.DDNNF;
 import de.ovgu.featureide.fm.core.job.LongRunningMethod;
 import de.ovgu.featureide.fm.core.job.LongRunningWrapper;
 import de.ovgu.featureide.fm.core.job.monitor.IMonitor;
@@ -76,15 +84,19 @@ public class ConfigurationPropagator implements IConfigurationPropagator {
 				return false;
 			}
 
-			final SatResult satResult = solver.hasSolution();
-			switch (satResult) {
-			case FALSE:
-			case TIMEOUT:
-				return false;
-			case TRUE:
-				return true;
-			default:
-				throw new AssertionError(satResult);
+			try {
+				final SatResult satResult = solver.hasSolution();
+				switch (satResult) {
+				case FALSE:
+				case TIMEOUT:
+					return false;
+				case TRUE:
+					return true;
+				default:
+					throw new AssertionError(satResult);
+				}
+			} finally {
+				releaseSolver(solver);
 			}
 		}
 	}
@@ -105,18 +117,22 @@ public class ConfigurationPropagator implements IConfigurationPropagator {
 				return null;
 			}
 
-			final SatResult satResult = solver.hasSolution();
-			switch (satResult) {
-			case FALSE:
-			case TIMEOUT:
-				final int[] contradictoryAssignment = solver.getContradictoryAssignment();
-				for (final int i : contradictoryAssignment) {
-					configuration.setManual(solver.getSatInstance().getVariables().getName(i), Selection.UNDEFINED);
+			try {
+				final SatResult satResult = solver.hasSolution();
+				switch (satResult) {
+				case FALSE:
+				case TIMEOUT:
+					final int[] contradictoryAssignment = solver.getContradictoryAssignment();
+					for (final int i : contradictoryAssignment) {
+						configuration.setManual(solver.getSatInstance().getVariables().getName(i), Selection.UNDEFINED);
+					}
+				case TRUE:
+					return null;
+				default:
+					throw new AssertionError(satResult);
 				}
-			case TRUE:
-				return null;
-			default:
-				throw new AssertionError(satResult);
+			} finally {
+				releaseSolver(solver);
 			}
 		}
 	}
@@ -143,15 +159,19 @@ public class ConfigurationPropagator implements IConfigurationPropagator {
 				return false;
 			}
 
-			solver.setSelectionStrategy(selectionStrategy);
-			final int[] solution = solver.findSolution();
-			if (solution != null) {
-				for (final int i : solution) {
-					configuration.setManual(solver.getSatInstance().getVariables().getName(i), i > 0 ? Selection.SELECTED : Selection.UNSELECTED);
+			try {
+				solver.setSelectionStrategy(selectionStrategy);
+				final int[] solution = solver.findSolution();
+				if (solution != null) {
+					for (final int i : solution) {
+						configuration.setManual(solver.getSatInstance().getVariables().getName(i), i > 0 ? Selection.SELECTED : Selection.UNSELECTED);
+					}
+					return true;
+				} else {
+					return false;
 				}
-				return true;
-			} else {
-				return false;
+			} finally {
+				releaseSolver(solver);
 			}
 		}
 	}
@@ -169,12 +189,56 @@ public class ConfigurationPropagator implements IConfigurationPropagator {
 			if (formula == null) {
 				return 0L;
 			}
+			final BigInteger count = LongRunningWrapper.runMethod(new CountSolutionsExactMethod(timeout));
+			if (count != null) {
+				return CountSolutionsAnalysis.toLong(count);
+			}
 			final AdvancedSatSolver solver = getSolverForCurrentConfiguration(false, false);
 			if (solver == null) {
 				return 0L;
 			}
-			solver.setTimeout(timeout);
-			return new CountSolutionsAnalysis(solver).analyze(monitor);
+			try {
+				solver.setTimeout(timeout);
+				final CountSolutionsAnalysis analysis = new CountSolutionsAnalysis(solver);
+				analysis.setTimeout(timeout);
+				// the same formula was already compiled above
+				analysis.setCompiling(false);
+				return analysis.analyze(monitor);
+			} finally {
+				releaseSolver(solver);
+			}
+		}
+
+	}
+
+	/**
+	 * Counts the exact number of possible solutions using the {@link DDNNF compiled formula} of the feature model.
+	 */
+	public class CountSolutionsExactMethod implements LongRunningMethod<BigInteger> {
+
+		private final int timeout;
+
+		public CountSolutionsExactMethod() {
+			this(0);
+		}
+
+		/**
+		 * @param timeout the maximum compilation time in milliseconds ({@code 0} for no timeout).
+		 */
+		public CountSolutionsExactMethod(int timeout) {
+			this.timeout = timeout;
+		}
+
+		@Override
+		public BigInteger execute(IMonitor<BigInteger> monitor) throws Exception {
+			if (formula == null) {
+				return BigInteger.ZERO;
+			}
+			final DDNNF ddnnf = formula.getElement(new DDNNFCreator(getCNFCreator(false), timeout));
+			if (ddnnf == null) {
+				return null;
+			}
+			return ddnnf.countSolutions(getAssumptionsForCurrentConfiguration(ddnnf.getSatInstance(), false, false));
 		}
 
 	}
@@ -290,9 +354,13 @@ public class ConfigurationPropagator implements IConfigurationPropagator {
 			if (solver == null) {
 				return resultList;
 			}
-			final List<LiteralSet> result = new AllConfigurationGenerator(solver, max).analyze(monitor.subTask(1));
-			for (final LiteralSet is : result) {
-				resultList.add(solver.getSatInstance().getVariables().convertToString(is));
+			try {
+				final List<LiteralSet> result = new AllConfigurationGenerator(solver, max).analyze(monitor.subTask(1));
+				for (final LiteralSet is : result) {
+					resultList.add(solver.getSatInstance().getVariables().convertToString(is));
+				}
+			} finally {
+				releaseSolver(solver);
 			}
 
 			return resultList;
@@ -323,8 +391,8 @@ public class ConfigurationPropagator implements IConfigurationPropagator {
 			} else {
 				clausesWithoutHidden = formula.getElement(new NoAbstractNoHiddenCNFCreator());
 			}
-			final OneWiseConfigurationGenerator oneWiseConfigurationGenerator =
-				new OneWiseConfigurationGenerator(getSolverForCurrentConfiguration(false, false));
+			final AdvancedSatSolver solver = getSolverForCurrentConfiguration(false, false);
+			final OneWiseConfigurationGenerator oneWiseConfigurationGenerator = new OneWiseConfigurationGenerator(solver);
 			oneWiseConfigurationGenerator.setCoverMode(selection ? CoverStrategy.POSITIVE : CoverStrategy.NEGATIVE);
 			final int[] featureArray = new int[features.size()];
 			int index = 0;
@@ -334,7 +402,12 @@ public class ConfigurationPropagator implements IConfigurationPropagator {
 			oneWiseConfigurationGenerator.setFeatures(featureArray);
 
 			final List<List<String>> solutionList = new ArrayList<>();
-			final List<LiteralSet> solutions = LongRunningWrapper.runMethod(oneWiseConfigurationGenerator, workMonitor.subTask(1));
+			final List<LiteralSet> solutions;
+			try {
+				solutions = LongRunningWrapper.runMethod(oneWiseConfigurationGenerator, workMonitor.subTask(1));
+			} finally {
+				releaseSolver(solver);
+			}
 			if (solutions == null) {
 				return solutionList;
 			}
@@ -388,13 +461,30 @@ public class ConfigurationPropagator implements IConfigurationPropagator {
 			workMonitor.setRemainingWork(manualLiterals.size() + 1);
 			Collections.reverse(manualLiterals);
 
-			final CoreDeadAnalysis analysis = new CoreDeadAnalysis(rootNode);
 			final int[] intLiterals = new int[manualLiterals.size()];
 			for (int i = 0; i < intLiterals.length; i++) {
 				intLiterals[i] = manualLiterals.get(i);
 			}
-			analysis.setAssumptions(new LiteralSet(intLiterals));
-			final LiteralSet impliedFeatures = LongRunningWrapper.runMethod(analysis, workMonitor.subTask(1));
+			final LiteralSet impliedFeatures;
+			final boolean useSession = (session != null) && (session.getFormula() == formula);
+			if (useSession) {
+				final LiteralSet impliedLiterals = session.setDecisions(intLiterals);
+				impliedFeatures = impliedLiterals == null ? null : impliedLiterals.removeAll(intLiterals);
+				workMonitor.worked();
+			} else {
+				final ModifiableSatSolver analysisSolver = getModifiableSolver(rootNode);
+				if (analysisSolver == null) {
+					impliedFeatures = null;
+				} else {
+					try {
+						final CoreDeadAnalysis analysis = new CoreDeadAnalysis(analysisSolver);
+						analysis.setAssumptions(new LiteralSet(intLiterals));
+						impliedFeatures = LongRunningWrapper.runMethod(analysis, workMonitor.subTask(1));
+					} finally {
+						releaseSolver(analysisSolver);
+					}
+				}
+			}
 
 			// if there is a contradiction within the configuration
 			if (impliedFeatures == null) {
@@ -424,42 +514,65 @@ public class ConfigurationPropagator implements IConfigurationPropagator {
 			}
 			workMonitor.invoke(updateFeatures);
 
-			if (redundantManual) {
-				final AdvancedSatSolver solver = getSolver(true);
-				if (solver == null) {
-					return result;
-				}
-				for (final int feature : intLiterals) {
-					solver.assignmentPush(feature);
-				}
-
+			if (redundantManual && useSession && includeAbstractFeatures) {
 				int literalCount = intLiterals.length;
-				for (int i = 0; i < solver.getAssignmentSize(); i++) {
+				for (int i = 0; i < literalCount; i++) {
 					final int oLiteral = intLiterals[i];
 					final SelectableFeature feature = configuration.getSelectableFeature(rootNode.getVariables().getName(oLiteral));
 					if (feature != null) {
-						solver.assignmentSet(i, -oLiteral);
-						final SatResult satResult = solver.hasSolution();
-						switch (satResult) {
-						case FALSE:
+						final int[] otherLiterals = new int[literalCount - 1];
+						System.arraycopy(intLiterals, 0, otherLiterals, 0, i);
+						System.arraycopy(intLiterals, i + 1, otherLiterals, i, literalCount - i - 1);
+						if (session.isImplied(oLiteral, otherLiterals)) {
 							configuration.setAutomatic(feature, oLiteral > 0 ? Selection.SELECTED : Selection.UNSELECTED);
-							result.add(feature);
-							workMonitor.invoke(Arrays.asList(feature));
 							intLiterals[i] = intLiterals[--literalCount];
-							solver.assignmentDelete(i--);
-							break;
-						case TIMEOUT:
-						case TRUE:
-							solver.assignmentSet(i, oLiteral);
-							result.add(feature);
-							workMonitor.invoke(Arrays.asList(feature));
-							break;
-						default:
-							throw new AssertionError(satResult);
+							i--;
 						}
+						result.add(feature);
+						workMonitor.invoke(Arrays.asList(feature));
 					}
 					workMonitor.worked();
 				}
+			} else if (redundantManual) {
+				final AdvancedSatSolver solver = getSolver(true);
+				if (solver == null) {
+					return result;
+				}
+				try {
+					for (final int feature : intLiterals) {
+						solver.assignmentPush(feature);
+					}
+
+					int literalCount = intLiterals.length;
+					for (int i = 0; i < solver.getAssignmentSize(); i++) {
+						final int oLiteral = intLiterals[i];
+						final SelectableFeature feature = configuration.getSelectableFeature(rootNode.getVariables().getName(oLiteral));
+						if (feature != null) {
+							solver.assignmentSet(i, -oLiteral);
+							final SatResult satResult = solver.hasSolution();
+							switch (satResult) {
+							case FALSE:
+								configuration.setAutomatic(feature, oLiteral > 0 ? Selection.SELECTED : Selection.UNSELECTED);
+								result.add(feature);
+								workMonitor.invoke(Arrays.asList(feature));
+								intLiterals[i] = intLiterals[--literalCount];
+								solver.assignmentDelete(i--);
+								break;
+							case TIMEOUT:
+							case TRUE:
+								solver.assignmentSet(i, oLiteral);
+								result.add(feature);
+								workMonitor.invoke(Arrays.asList(feature));
+								break;
+							default:
+								throw new AssertionError(satResult);
+							}
+						}
+						workMonitor.worked();
+					}
+				} finally {
+					releaseSolver(solver);
+				}
 			}
 			return result;
 		}
@@ -504,6 +617,10 @@ public class ConfigurationPropagator implements IConfigurationPropagator {
 
 	protected boolean includeAbstractFeatures = true;
 
+	protected SolverPool solverPool = SolverPool.getDefault();
+
+	protected ConfigurationSession session = null;
+
 	/**
 	 * This method creates a clone of the given {@link ConfigurationPropagator}
 	 *
@@ -513,6 +630,8 @@ public class ConfigurationPropagator implements IConfigurationPropagator {
 		formula = oldPropagator.formula;
 		this.configuration = configuration;
 		includeAbstractFeatures = oldPropagator.includeAbstractFeatures;
+		solverPool = oldPropagator.solverPool;
+		session = oldPropagator.session;
 	}
 
 	public ConfigurationPropagator(FeatureModelFormula formula, Configuration configuration) {
@@ -535,35 +654,41 @@ public class ConfigurationPropagator implements IConfigurationPropagator {
 		if (solver == null) {
 			return null;
 		}
+		solver.assignmentPushAll(getAssumptionsForCurrentConfiguration(solver.getSatInstance(), deselectUndefinedFeatures, includeHiddenFeatures));
+		return solver;
+	}
+
+	protected int[] getAssumptionsForCurrentConfiguration(CNF satInstance, boolean deselectUndefinedFeatures, boolean includeHiddenFeatures) {
+		final Variables variables = satInstance.getVariables();
+		final int[] assumptions = new int[configuration.getFeatures().size()];
+		int index = 0;
 		for (final SelectableFeature feature : configuration.getFeatures()) {
 			if ((deselectUndefinedFeatures || (feature.getSelection() != Selection.UNDEFINED))
 				&& (includeAbstractFeatures || feature.getFeature().getStructure().isConcrete())
 				&& (includeHiddenFeatures || !feature.getFeature().getStructure().hasHiddenParent())) {
-				solver.assignmentPush(
-						solver.getSatInstance().getVariables().getVariable(feature.getFeature().getName(), feature.getSelection() == Selection.SELECTED));
+				assumptions[index++] = variables.getVariable(feature.getFeature().getName(), feature.getSelection() == Selection.SELECTED);
 			}
 		}
-		return solver;
+		return Arrays.copyOf(assumptions, index);
 	}
 
-	protected AdvancedSatSolver getSolver(boolean includeHiddenFeatures) {
-		final CNF satInstance;
+	protected ACreator<CNF> getCNFCreator(boolean includeHiddenFeatures) {
 		if (includeAbstractFeatures) {
-			if (includeHiddenFeatures) {
-				satInstance = formula.getCNF();
-			} else {
-				satInstance = formula.getElement(new NoHiddenCNFCreator());
-			}
+			return includeHiddenFeatures ? new CNFCreator() : new NoHiddenCNFCreator();
 		} else {
-			if (includeHiddenFeatures) {
-				satInstance = formula.getElement(new NoAbstractCNFCreator());
-			} else {
-				satInstance = formula.getElement(new NoAbstractNoHiddenCNFCreator());
-			}
+			return includeHiddenFeatures ? new NoAbstractCNFCreator() : new NoAbstractNoHiddenCNFCreator();
 		}
+	}
+
+	/**
+	 * Leases a solver for the given feature model from the {@link #getSolverPool() solver pool}.
+	 * The solver must be passed back via {@link #releaseSolver(AdvancedSatSolver)}.
+	 */
+	protected AdvancedSatSolver getSolver(boolean includeHiddenFeatures) {
+		final CNF satInstance = formula.getElement(getCNFCreator(includeHiddenFeatures));
 		try {
 			if (satInstance != null) {
-				return new AdvancedSatSolver(satInstance);
+				return solverPool.leaseSolver(satInstance);
 			}
 		} catch (final RuntimeContradictionException e) {
 			Logger.logError(e);
@@ -571,6 +696,40 @@ public class ConfigurationPropagator implements IConfigurationPropagator {
 		return null;
 	}
 
+	protected ModifiableSatSolver getModifiableSolver(CNF satInstance) {
+		try {
+			return solverPool.leaseModifiableSolver(satInstance);
+		} catch (final RuntimeContradictionException e) {
+			return null;
+		}
+	}
+
+	protected void releaseSolver(AdvancedSatSolver solver) {
+		solverPool.release(solver);
+	}
+
+	public SolverPool getSolverPool() {
+		return solverPool;
+	}
+
+	public void setSolverPool(SolverPool solverPool) {
+		this.solverPool = solverPool;
+	}
+
+	public ConfigurationSession getSession() {
+		return session;
+	}
+
+	/**
+	 * Sets a {@link ConfigurationSession} that is used to update the automatic selections incrementally. The session is only used if it belongs to the same
+	 * formula as this propagator.
+	 *
+	 * @param session the session or {@code null}
+	 */
+	public void setSession(ConfigurationSession session) {
+		this.session = session;
+	}
+
 	@Override
 	public LongRunningMethod<Boolean> canBeValid() {
 		return new IsValidMethod(false, true);
@@ -627,6 +786,27 @@ public class ConfigurationPropagator implements IConfigurationPropagator {
 		return new CountSolutionsMethod(timeout);
 	}
 
+	/**
+	 * Counts the exact number of possible solutions.
+	 *
+	 * @return The number of solutions or {@code null}, if the feature model could not be compiled.
+	 */
+	@Override
+	public CountSolutionsExactMethod countSolutions() {
+		return new CountSolutionsExactMethod();
+	}
+
+	/**
+	 * Counts the exact number of possible solutions.
+	 *
+	 * @param timeout The maximum compilation time in milliseconds.
+	 * @return The number of solutions or {@code null}, if the feature model could not be compiled in time.
+	 */
+	@Override
+	public CountSolutionsExactMethod countSolutions(int timeout) {
+		return new CountSolutionsExactMethod(timeout);
+	}
+
 	@Override
 	public UpdateMethod update(boolean redundantManual, List<SelectableFeature> featureOrder) {
 		return new UpdateMethod(redundantManual, featureOrder);
@@ -0,0 +1,610 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.configuration;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.sat4j.core.VecInt;
+
+import de.ovgu.featureide.fm.core.analysis.cnf.CNF;
+import de.ovgu.featureide.fm.core.analysis.cnf.LiteralSet;
+import de.ovgu.featureide.fm.core.analysis.cnf.formula.FeatureModelFormula;
+import de.ovgu.featureide.fm.core.analysis.cnf.formula.ModalImplicationGraphCreator;
+import de.ovgu.featureide.fm.core.analysis.cnf.solver.AdvancedSatSolver;
+import de.ovgu.featureide.fm.core.analysis.cnf.solver.ISatSolver.SelectionStrategy;
+import de.ovgu.featureide.fm.core.analysis.cnf.solver.RuntimeContradictionException;
+import de.ovgu.featureide.fm.core.analysis.mig.CollectingVisitor;
+import de.ovgu.featureide.fm.core.analysis.mig.ModalImplicationGraph;
+import de.ovgu.featureide.fm.core.analysis.mig.Traverser;
+
+/**
+ * Long-lived state of an interactive configuration process for one {@link FeatureModelFormula}.<br> Keeps the values of all variables that are implied by
+ * the current decisions (manually selected or deselected features) and updates them incrementally after each decision. For this, the session uses one warm
+ * solver, the {@link ModalImplicationGraph} of the formula, and previously found solutions (witnesses). For each literal, the session remembers one witness
+ * that contains it. Literals that are strongly implied according to the implication graph are set without the solver. A witness that contradicts a new
+ * decision is repaired by setting all implied values and greedily satisfying violated clauses. An open variable is only checked with the solver if one of its
+ * literals has no witness that is consistent with the current decisions. Removing a decision restores the values from before the decision and replays all
+ * later decisions.
+ *
+ * @author FeatureIDE Team
+ */
+public class ConfigurationSession {
+
+	private static final int MAX_REPAIR_CHANGES = 1 << 12;
+
+	/**
+	 * A solution of the formula, stored as bit set of the selected variables.
+	 */
+	private static final class Witness {
+
+		private final long[] selected;
+
+		/**
+		 * Caches whether this witness is consistent with the decisions of the session at the given modification count.
+		 */
+		private int modificationCount = -1;
+		private boolean consistent;
+
+		private Witness(int[] solution) {
+			selected = new long[(solution.length >>> 6) + 1];
+			for (final int literal : solution) {
+				if (literal > 0) {
+					selected[(literal - 1) >>> 6] |= 1L << (literal - 1);
+				}
+			}
+		}
+
+		private Witness(Witness witness) {
+			selected = Arrays.copyOf(witness.selected, witness.selected.length);
+		}
+
+		private void set(int literal) {
+			final int index = Math.abs(literal) - 1;
+			if (literal > 0) {
+				selected[index >>> 6] |= 1L << index;
+			} else {
+				selected[index >>> 6] &= ~(1L << index);
+			}
+		}
+
+		private boolean contains(int literal) {
+			final int index = Math.abs(literal) - 1;
+			return ((selected[index >>> 6] & (1L << index)) != 0) == (literal > 0);
+		}
+
+		private boolean containsAny(int[] literals) {
+			for (final int literal : literals) {
+				if (contains(literal)) {
+					return true;
+				}
+			}
+			return false;
+		}
+
+		private boolean containsAll(int[] literals, int length) {
+			for (int i = 0; i < length; i++) {
+				if (!contains(literals[i])) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+	}
+
+	private final FeatureModelFormula formula;
+
+	private CNF cnf;
+	/**
+	 * For each literal, the indices of all clauses that contain the literal (see {@link #getIndex(int)}).
+	 */
+	private int[][] clauseOccurrences;
+	private AdvancedSatSolver solver;
+	private Traverser traverser;
+
+	private boolean initialized = false;
+	private boolean contradiction = false;
+
+	/**
+	 * Implied value of each variable (the literal or 0 if the variable is open).
+	 */
+	private int[] values;
+	/**
+	 * For each literal, a witness that contains the literal (see {@link #getIndex(int)}).
+	 */
+	private Witness[] witnesses;
+
+	private final VecInt decisions = new VecInt();
+	/**
+	 * For each decision, the values before the decision was made.
+	 */
+	private final List<int[]> snapshots = new ArrayList<>();
+	private int modificationCount = 0;
+
+	private long satCallCount = 0;
+
+	public ConfigurationSession(FeatureModelFormula formula) {
+		this.formula = formula;
+	}
+
+	public FeatureModelFormula getFormula() {
+		return formula;
+	}
+
+	/**
+	 * @return the number of satisfiability queries that were answered by the solver so far
+	 */
+	public synchronized long getSatCallCount() {
+		return satCallCount;
+	}
+
+	/**
+	 * @return {@code true} if the formula itself is not satisfiable
+	 */
+	public synchronized boolean isContradiction() {
+		init();
+		return contradiction;
+	}
+
+	/**
+	 * @return the current decisions in the order they were made
+	 */
+	public synchronized LiteralSet getDecisions() {
+		return new LiteralSet(Arrays.copyOf(decisions.toArray(), decisions.size()));
+	}
+
+	/**
+	 * @return all literals that are implied by the current decisions (including the decisions), or {@code null} if the formula is not satisfiable
+	 */
+	public synchronized LiteralSet getImpliedLiterals() {
+		init();
+		if (contradiction) {
+			return null;
+		}
+		final int[] literals = new int[values.length];
+		int count = 0;
+		for (final int value : values) {
+			if (value != 0) {
+				literals[count++] = value;
+			}
+		}
+		return new LiteralSet(Arrays.copyOf(literals, count));
+	}
+
+	/**
+	 * Adds a decision.
+	 *
+	 * @param literal the literal of the selected (positive) or deselected (negative) variable
+	 * @return all literals that are implied after the decision, or {@code null} if the decision contradicts the current state (the decision is not added)
+	 */
+	public synchronized LiteralSet select(int literal) {
+		init();
+		if (contradiction || !addDecision(literal)) {
+			return null;
+		}
+		return getImpliedLiterals();
+	}
+
+	/**
+	 * Removes a decision.
+	 *
+	 * @param literal the literal of a previous decision
+	 * @return all literals that are implied after the decision was removed, or {@code null} if the formula is not satisfiable
+	 */
+	public synchronized LiteralSet unselect(int literal) {
+		init();
+		if (contradiction) {
+			return null;
+		}
+		final int index = decisions.indexOf(literal);
+		if (index >= 0) {
+			final Set<Integer> remainingDecisions = new HashSet<>();
+			for (int i = index + 1; i < decisions.size(); i++) {
+				remainingDecisions.add(decisions.get(i));
+			}
+			backtrack(index, remainingDecisions);
+		}
+		return getImpliedLiterals();
+	}
+
+	/**
+	 * Replaces all current decisions with the given ones. Decisions that remain are not recomputed.
+	 *
+	 * @param literals the new decisions
+	 * @return all literals that are implied by the new decisions, or {@code null} if the decisions are contradicting each other or the formula is not
+	 *         satisfiable (in this case, the session keeps a consistent subset of the decisions)
+	 */
+	public synchronized LiteralSet setDecisions(int... literals) {
+		init();
+		if (contradiction) {
+			return null;
+		}
+		final Set<Integer> newDecisions = new HashSet<>(literals.length << 1);
+		for (final int literal : literals) {
+			newDecisions.add(literal);
+		}
+		for (int i = 0; i < decisions.size(); i++) {
+			if (!newDecisions.contains(decisions.get(i))) {
+				backtrack(i, newDecisions);
+				break;
+			}
+		}
+		boolean consistent = true;
+		for (final int literal : literals) {
+			consistent &= addDecision(literal);
+		}
+		return consistent ? getImpliedLiterals() : null;
+	}
+
+	/**
+	 * Checks whether a literal is implied by the given assumptions, which do not have to match the current decisions.
+	 *
+	 * @param literal the literal to check
+	 * @param assumptions the assumptions
+	 * @return {@code true} if every solution that satisfies the assumptions also satisfies the literal
+	 */
+	public synchronized boolean isImplied(int literal, int... assumptions) {
+		init();
+		if (contradiction) {
+			return true;
+		}
+		final Witness witness = witnesses[getIndex(-literal)];
+		if ((witness != null) && witness.containsAll(assumptions, assumptions.length)) {
+			return false;
+		}
+		solver.assignmentClear(0);
+		solver.assignmentPushAll(assumptions);
+		solver.assignmentPush(-literal);
+		satCallCount++;
+		switch (solver.hasSolution()) {
+		case FALSE:
+			return true;
+		case TRUE:
+			addWitness(new Witness(solver.getSolution()));
+			return false;
+		case TIMEOUT:
+			return false;
+		default:
+			throw new AssertionError();
+		}
+	}
+
+	private void init() {
+		if (initialized) {
+			return;
+		}
+		initialized = true;
+		cnf = formula.getCNF();
+		final int numberOfVariables = cnf.getVariables().size();
+		values = new int[numberOfVariables];
+		witnesses = new Witness[numberOfVariables << 1];
+		try {
+			solver = new AdvancedSatSolver(cnf);
+		} catch (final RuntimeContradictionException e) {
+			contradiction = true;
+			return;
+		}
+		traverser = formula.getElement(new ModalImplicationGraphCreator()).traverse();
+		initClauseOccurrences(numberOfVariables);
+
+		solver.setSelectionStrategy(SelectionStrategy.POSITIVE);
+		final int[] firstSolution = solver.findSolution();
+		if (firstSolution == null) {
+			contradiction = true;
+			return;
+		}
+		addWitness(firstSolution);
+		solver.setSelectionStrategy(SelectionStrategy.NEGATIVE);
+		addWitness(solver.findSolution());
+
+		// every literal could be core
+		final VecInt candidates = new VecInt(numberOfVariables);
+		for (int i = 0; i < numberOfVariables; i++) {
+			candidates.push(firstSolution[i]);
+		}
+		propagate(candidates);
+	}
+
+	private boolean addDecision(int literal) {
+		final int index = Math.abs(literal) - 1;
+		if (values[index] == -literal) {
+			return false;
+		}
+		if (decisions.contains(literal)) {
+			return true;
+		}
+		snapshots.add(Arrays.copyOf(values, values.length));
+		decisions.push(literal);
+		modificationCount++;
+		if (values[index] == 0) {
+			final CollectingVisitor visitor = new CollectingVisitor();
+			traverser.setVisitor(visitor);
+			traverser.setModel(Arrays.copyOf(values, values.length));
+			traverser.traverseStrong(literal);
+
+			final VecInt strongLiterals = visitor.getResult()[0];
+			for (int i = 0; i < strongLiterals.size(); i++) {
+				final int strongLiteral = strongLiterals.get(i);
+				values[Math.abs(strongLiteral) - 1] = strongLiteral;
+			}
+
+			// the weak edges of the implication graph do not cover all implications, thus every open variable is a candidate
+			final int[] impliedLiterals = getImpliedLiterals().getLiterals();
+			final Map<Witness, Witness> repairedWitnesses = new IdentityHashMap<>();
+			final VecInt candidates = new VecInt(values.length << 1);
+			for (int i = 0; i < values.length; i++) {
+				if (values[i] == 0) {
+					final int variable = i + 1;
+					if (!hasWitness(-variable, impliedLiterals, repairedWitnesses)) {
+						candidates.push(variable);
+					}
+					if (!hasWitness(variable, impliedLiterals, repairedWitnesses)) {
+						candidates.push(-variable);
+					}
+				}
+			}
+			propagate(candidates);
+		}
+		return true;
+	}
+
+	/**
+	 * Restores the values before the decision at the given index and replays all later decisions that are contained in the given set.
+	 */
+	private void backtrack(int index, Set<Integer> remainingDecisions) {
+		final int[] laterDecisions = Arrays.copyOfRange(decisions.toArray(), index + 1, decisions.size());
+		values = snapshots.get(index);
+		for (int i = snapshots.size() - 1; i >= index; i--) {
+			snapshots.remove(i);
+		}
+		decisions.shrinkTo(index);
+		modificationCount++;
+		for (final int literal : laterDecisions) {
+			if (remainingDecisions.contains(literal)) {
+				addDecision(literal);
+			}
+		}
+	}
+
+	/**
+	 * Checks for each candidate literal whether it is implied by the current decisions. Candidates that are contradicted by a witness are skipped.
+	 */
+	private void propagate(VecInt candidates) {
+		updateSelectionStrategy();
+		solver.assignmentClear(0);
+		for (final int value : values) {
+			if (value != 0) {
+				solver.assignmentPush(value);
+			}
+		}
+		for (int i = 0; i < candidates.size(); i++) {
+			final int literal = candidates.get(i);
+			final int index = Math.abs(literal) - 1;
+			if ((values[index] != 0) || hasWitness(-literal)) {
+				continue;
+			}
+			solver.assignmentPush(-literal);
+			satCallCount++;
+			switch (solver.hasSolution()) {
+			case FALSE:
+				solver.assignmentReplaceLast(literal);
+				values[index] = literal;
+				final CollectingVisitor visitor = new CollectingVisitor();
+				traverser.setVisitor(visitor);
+				traverser.setModel(Arrays.copyOf(values, values.length));
+				traverser.traverseStrong(literal);
+				final VecInt strongLiterals = visitor.getResult()[0];
+				for (int j = 0; j < strongLiterals.size(); j++) {
+					final int strongLiteral = strongLiterals.get(j);
+					final int strongIndex = Math.abs(strongLiteral) - 1;
+					if (values[strongIndex] == 0) {
+						values[strongIndex] = strongLiteral;
+						solver.assignmentPush(strongLiteral);
+					}
+				}
+				break;
+			case TRUE:
+				solver.assignmentPop();
+				addWitness(solver.getSolution());
+				updateSelectionStrategy();
+				break;
+			case TIMEOUT:
+				solver.assignmentPop();
+				break;
+			default:
+				throw new AssertionError();
+			}
+		}
+	}
+
+	/**
+	 * Lets the solver prefer values that are not contained in any witness, such that each new solution refutes as many candidates as possible.
+	 */
+	private void updateSelectionStrategy() {
+		final int[] preferredValues = new int[values.length];
+		for (int i = 0; i < values.length; i++) {
+			if (values[i] == 0) {
+				final int variable = i + 1;
+				if (!hasWitness(-variable)) {
+					preferredValues[i] = variable;
+				} else if (!hasWitness(variable)) {
+					preferredValues[i] = -variable;
+				}
+			}
+		}
+		solver.setSelectionStrategy(preferredValues, true);
+	}
+
+	private static int getIndex(int literal) {
+		return ((Math.abs(literal) - 1) << 1) + (literal > 0 ? 1 : 0);
+	}
+
+	/**
+	 * @return {@code true} if there is a witness that contains the given literal and is consistent with the current decisions
+	 */
+	private boolean hasWitness(int literal) {
+		final Witness witness = witnesses[getIndex(literal)];
+		return (witness != null) && isConsistent(witness);
+	}
+
+	/**
+	 * Like {@link #hasWitness(int)}, but tries to repair an inconsistent witness first.
+	 *
+	 * @param impliedLiterals all implied literals
+	 * @param repairedWitnesses the already repaired witnesses (the value is the witness itself, if it could not be repaired)
+	 */
+	private boolean hasWitness(int literal, int[] impliedLiterals, Map<Witness, Witness> repairedWitnesses) {
+		final int index = getIndex(literal);
+		final Witness witness = witnesses[index];
+		if (witness == null) {
+			return false;
+		}
+		if (isConsistent(witness)) {
+			return true;
+		}
+		Witness repairedWitness = repairedWitnesses.get(witness);
+		if (repairedWitness == null) {
+			repairedWitness = repair(witness, impliedLiterals);
+			if (repairedWitness == null) {
+				repairedWitness = witness;
+			}
+			repairedWitnesses.put(witness, repairedWitness);
+		}
+		if ((repairedWitness != witness) && repairedWitness.contains(literal)) {
+			witnesses[index] = repairedWitness;
+			return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Sets all implied literals in a copy of the given witness. Clauses that are violated by this are satisfied by greedily setting another open literal of
+	 * the clause.
+	 *
+	 * @return the modified witness, or {@code null} if it could not be repaired
+	 */
+	private Witness repair(Witness witness, int[] impliedLiterals) {
+		final Witness repairedWitness = new Witness(witness);
+		final VecInt changedLiterals = new VecInt();
+		for (final int literal : impliedLiterals) {
+			if (!witness.contains(literal)) {
+				repairedWitness.set(literal);
+				changedLiterals.push(literal);
+			}
+		}
+		// only clauses that contain the complement of a changed literal can be violated
+		final Set<Integer> changedVariables = new HashSet<>();
+		final List<LiteralSet> clauses = cnf.getClauses();
+		for (int i = 0; i < changedLiterals.size(); i++) {
+			for (final int clauseIndex : clauseOccurrences[getIndex(-changedLiterals.get(i))]) {
+				final int[] clause = clauses.get(clauseIndex).getLiterals();
+				if (!repairedWitness.containsAny(clause)) {
+					if (changedLiterals.size() >= MAX_REPAIR_CHANGES) {
+						return null;
+					}
+					final int literal = getRepairLiteral(clause, changedVariables);
+					if (literal == 0) {
+						return null;
+					}
+					repairedWitness.set(literal);
+					changedLiterals.push(literal);
+				}
+			}
+		}
+		repairedWitness.consistent = true;
+		repairedWitness.modificationCount = modificationCount;
+		return repairedWitness;
+	}
+
+	/**
+	 * @return a literal of the clause whose variable is neither implied nor was changed before, or 0 if there is no such literal
+	 */
+	private int getRepairLiteral(int[] clause, Set<Integer> changedVariables) {
+		for (final int literal : clause) {
+			final int variable = Math.abs(literal);
+			if ((values[variable - 1] == 0) && changedVariables.add(variable)) {
+				return literal;
+			}
+		}
+		return 0;
+	}
+
+	private void initClauseOccurrences(int numberOfVariables) {
+		final int[] counts = new int[numberOfVariables << 1];
+		for (final LiteralSet clause : cnf.getClauses()) {
+			for (final int literal : clause.getLiterals()) {
+				counts[getIndex(literal)]++;
+			}
+		}
+		clauseOccurrences = new int[counts.length][];
+		for (int i = 0; i < counts.length; i++) {
+			clauseOccurrences[i] = new int[counts[i]];
+			counts[i] = 0;
+		}
+		int clauseIndex = 0;
+		for (final LiteralSet clause : cnf.getClauses()) {
+			for (final int literal : clause.getLiterals()) {
+				final int index = getIndex(literal);
+				clauseOccurrences[index][counts[index]++] = clauseIndex;
+			}
+			clauseIndex++;
+		}
+	}
+
+	private boolean isConsistent(Witness witness) {
+		if (witness.modificationCount != modificationCount) {
+			witness.consistent = witness.containsAll(decisions.toArray(), decisions.size());
+			witness.modificationCount = modificationCount;
+		}
+		return witness.consistent;
+	}
+
+	/**
+	 * Adds a solution that is consistent with the current decisions.
+	 */
+	private void addWitness(int[] solution) {
+		final Witness witness = new Witness(solution);
+		witness.consistent = true;
+		witness.modificationCount = modificationCount;
+		addWitness(witness);
+	}
+
+	/**
+	 * Uses the given witness for all of its literals that do not have a consistent witness yet.
+	 */
+	private void addWitness(Witness witness) {
+		for (int i = 0; i < values.length; i++) {
+			final int variable = i + 1;
+			final int index = getIndex(witness.contains(variable) ? variable : -variable);
+			final Witness oldWitness = witnesses[index];
+			if ((oldWitness == null) || !isConsistent(oldWitness)) {
+				witnesses[index] = witness;
+			}
+		}
+	}
+
+}
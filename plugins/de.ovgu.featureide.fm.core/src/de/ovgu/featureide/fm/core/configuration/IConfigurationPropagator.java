@@ -20,6 +20,7 @@
  */
 package de.ovgu.featureide.fm.core.configuration;
 
+import java.math.BigInteger;
 import java.util.Collection;
 import java.util.List;
 
@@ -59,6 +60,21 @@ public interface IConfigurationPropagator {
 	 */
 	LongRunningMethod<Long> number(int timeout);
 
+	/**
+	 * Counts the exact number of possible solutions.
+	 *
+	 * @return the number of solutions or {@code null}, if the number could not be computed
+	 */
+	LongRunningMethod<BigInteger> countSolutions();
+
+	/**
+	 * Counts the exact number of possible solutions.
+	 *
+	 * @param timeout the timeout in milliseconds
+	 * @return the number of solutions or {@code null}, if the number could not be computed in time
+	 */
+	LongRunningMethod<BigInteger> countSolutions(int timeout);
+
 	LongRunningMethod<Collection<SelectableFeature>> update(boolean redundantManual, List<SelectableFeature> featureOrder);
 
 	LongRunningMethod<Collection<SelectableFeature>> update(boolean redundantManual);
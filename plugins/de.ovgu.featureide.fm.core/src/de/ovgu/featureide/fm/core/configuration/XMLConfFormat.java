@@ -23,6 +23,9 @@ package de.ovgu.featureide.fm.core.configuration;
 import java.util.List;
 import java.util.regex.Pattern;
 
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
 import org.w3c.dom.Document;
 import org.w3c.dom.Element;
 import org.w3c.dom.NamedNodeMap;
@@ -36,6 +39,7 @@ import de.ovgu.featureide.fm.core.io.Problem;
 import de.ovgu.featureide.fm.core.io.UnsupportedModelException;
 import de.ovgu.featureide.fm.core.io.xml.AXMLFormat;
 import de.ovgu.featureide.fm.core.io.xml.PositionalXMLHandler;
+import de.ovgu.featureide.fm.core.io.xml.PrettyXMLStreamWriter;
 import de.ovgu.featureide.fm.core.localization.StringTable;
 
 /**
@@ -116,6 +120,81 @@ public class XMLConfFormat extends AXMLFormat<Configuration> implements IConfigu
 		}
 	}
 
+	@Override
+	protected boolean supportsStreaming() {
+		return true;
+	}
+
+	@Override
+	protected void readStream(XMLStreamReader reader, List<Problem> warnings) throws XMLStreamException, UnsupportedModelException {
+		object.reset();
+		final IFeatureModel featureModel = object.getFeatureModel();
+		final RenamingsManager renamingsManager = featureModel == null ? null : featureModel.getRenamingsManager();
+
+		if (reader.nextTag() != XMLStreamReader.START_ELEMENT) {
+			warnings.add(new Problem("No root element specified", 1, Problem.Severity.ERROR));
+			return;
+		}
+		if (!reader.getLocalName().equals(CONFIGURATION)) {
+			warnings.add(new Problem("Root element must be <configuration>", 1, Problem.Severity.ERROR));
+			return;
+		}
+		while (nextElement(reader)) {
+			if (reader.getLocalName().equals(NODE_FEATURE)) {
+				final int lineNumber = getLineNumber(reader);
+				final String featureName = reader.getAttributeValue(null, ATTRIBUTE_NAME);
+				if (featureName == null) {
+					warnings.add(new Problem("No feature name specified", lineNumber, Problem.Severity.ERROR));
+				} else {
+					final SelectableFeature selectablefeature = object.getSelectableFeature(
+							renamingsManager == null ? featureName : renamingsManager.getNewName(featureName), object.getFeatureModel() == null);
+					if (selectablefeature == null) {
+						warnings.add(new Problem("Invalid feature name: " + featureName, lineNumber, Problem.Severity.WARNING));
+					} else {
+						final String manual = reader.getAttributeValue(null, ATTRIBUTE_MANUAL);
+						if (manual != null) {
+							selectablefeature.setManual(getSelection(manual, null, warnings));
+						}
+						final String automatic = reader.getAttributeValue(null, ATTRIBUTE_AUTOMATIC);
+						if (automatic != null) {
+							selectablefeature.setAutomatic(getSelection(automatic, null, warnings));
+						}
+						for (int i = 0; i < reader.getAttributeCount(); i++) {
+							final String attributeName = reader.getAttributeLocalName(i);
+							switch (attributeName) {
+							case ATTRIBUTE_NAME:
+							case ATTRIBUTE_MANUAL:
+							case ATTRIBUTE_AUTOMATIC:
+								break;
+							default:
+								warnings.add(new Problem("Unknown attribute: " + attributeName, lineNumber, Problem.Severity.WARNING));
+								break;
+							}
+						}
+					}
+				}
+			}
+			skipElement(reader);
+		}
+	}
+
+	@Override
+	protected void writeStream(PrettyXMLStreamWriter writer) throws XMLStreamException {
+		writer.writeStartElement(CONFIGURATION);
+		for (final SelectableFeature feature : object.getFeatures()) {
+			writer.writeStartElement(NODE_FEATURE);
+			writer.writeAttribute(ATTRIBUTE_NAME, feature.getName());
+			if (feature.getManual() != Selection.UNDEFINED) {
+				writer.writeAttribute(ATTRIBUTE_MANUAL, getSelectionString(feature.getManual()));
+			}
+			if (feature.getAutomatic() != Selection.UNDEFINED) {
+				writer.writeAttribute(ATTRIBUTE_AUTOMATIC, getSelectionString(feature.getAutomatic()));
+			}
+			writer.writeEndElement();
+		}
+		writer.writeEndElement();
+	}
+
 	protected void createWarning(final String message, Element element, List<Problem> warnings) {
 		final Object lineNumber = element.getUserData(PositionalXMLHandler.LINE_NUMBER_KEY_NAME);
 		warnings.add(new Problem(message, (lineNumber instanceof Integer) ? (int) lineNumber : 1, Problem.Severity.WARNING));
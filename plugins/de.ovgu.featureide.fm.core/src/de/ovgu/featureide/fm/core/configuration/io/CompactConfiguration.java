@@ -0,0 +1,184 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.configuration.io;
+
+import java.nio.file.Path;
+import java.util.BitSet;
+
+import de.ovgu.featureide.fm.core.analysis.cnf.LiteralSet;
+import de.ovgu.featureide.fm.core.analysis.cnf.Variables;
+import de.ovgu.featureide.fm.core.analysis.cnf.formula.FeatureModelFormula;
+import de.ovgu.featureide.fm.core.configuration.Configuration;
+import de.ovgu.featureide.fm.core.configuration.SelectableFeature;
+import de.ovgu.featureide.fm.core.configuration.Selection;
+import de.ovgu.featureide.fm.core.io.manager.ConfigurationManager;
+import de.ovgu.featureide.fm.core.io.manager.FileHandler;
+
+/**
+ * Stores the selection of each feature of a configuration file as two bit sets, which are indexed by the variables of the feature model. A complete
+ * {@link Configuration} is only created on demand by {@link #toConfiguration(FeatureModelFormula)}.
+ *
+ * @author FeatureIDE Team
+ */
+public class CompactConfiguration {
+
+	private final Path path;
+	private final Variables variables;
+	private final BitSet selected;
+	private final BitSet unselected;
+
+	private final long lastModified;
+	private final long size;
+
+	public CompactConfiguration(Path path, Variables variables, BitSet selected, BitSet unselected, long lastModified, long size) {
+		this.path = path;
+		this.variables = variables;
+		this.selected = selected;
+		this.unselected = unselected;
+		this.lastModified = lastModified;
+		this.size = size;
+	}
+
+	/**
+	 * Creates a compact representation of the given configuration.
+	 *
+	 * @param configuration the configuration, which may or may not be based on a feature model
+	 * @param variables the variables of the feature model
+	 * @param path the path of the configuration file
+	 * @param lastModified the modification time of the configuration file
+	 * @param size the size of the configuration file
+	 * @return the compact configuration
+	 */
+	public static CompactConfiguration fromConfiguration(Configuration configuration, Variables variables, Path path, long lastModified, long size) {
+		final BitSet selected = new BitSet(variables.size() + 1);
+		final BitSet unselected = new BitSet(variables.size() + 1);
+		for (final SelectableFeature feature : configuration.getFeatures()) {
+			final int variable = variables.getVariable(feature.getName());
+			if (variable > 0) {
+				switch (feature.getSelection()) {
+				case SELECTED:
+					selected.set(variable);
+					break;
+				case UNSELECTED:
+					unselected.set(variable);
+					break;
+				case UNDEFINED:
+				default:
+					break;
+				}
+			}
+		}
+		return new CompactConfiguration(path, variables, selected, unselected, lastModified, size);
+	}
+
+	public Path getPath() {
+		return path;
+	}
+
+	/**
+	 * @return the file name of the configuration without its extension
+	 */
+	public String getName() {
+		final String fileName = path.getFileName().toString();
+		final int extensionIndex = fileName.lastIndexOf('.');
+		return (extensionIndex > 0) ? fileName.substring(0, extensionIndex) : fileName;
+	}
+
+	public Variables getVariables() {
+		return variables;
+	}
+
+	public long getLastModified() {
+		return lastModified;
+	}
+
+	public long getSize() {
+		return size;
+	}
+
+	BitSet getSelected() {
+		return selected;
+	}
+
+	BitSet getUnselected() {
+		return unselected;
+	}
+
+	public Selection getSelection(int variable) {
+		if (selected.get(variable)) {
+			return Selection.SELECTED;
+		} else if (unselected.get(variable)) {
+			return Selection.UNSELECTED;
+		} else {
+			return Selection.UNDEFINED;
+		}
+	}
+
+	public Selection getSelection(String featureName) {
+		return getSelection(variables.getVariable(featureName));
+	}
+
+	public boolean isSelected(int variable) {
+		return selected.get(variable);
+	}
+
+	public int countSelected() {
+		return selected.cardinality();
+	}
+
+	/**
+	 * @return a literal set containing a positive literal for each selected feature and a negative literal for each unselected feature
+	 */
+	public LiteralSet getLiterals() {
+		final int[] literals = new int[selected.cardinality() + unselected.cardinality()];
+		int i = 0;
+		for (int variable = 1; variable < (variables.size() + 1); variable++) {
+			if (selected.get(variable)) {
+				literals[i++] = variable;
+			} else if (unselected.get(variable)) {
+				literals[i++] = -variable;
+			}
+		}
+		return new LiteralSet(literals);
+	}
+
+	/**
+	 * Reads the configuration file again and returns the complete configuration.
+	 *
+	 * @param featureModel the feature model of the configuration
+	 * @return the configuration or {@code null} if the file could not be read
+	 */
+	public Configuration toConfiguration(FeatureModelFormula featureModel) {
+		final FileHandler<Configuration> fileHandler = ConfigurationManager.getFileHandler(path);
+		if (fileHandler.getLastProblems().containsError()) {
+			return null;
+		}
+		final Configuration configuration = fileHandler.getObject();
+		configuration.updateFeatures(featureModel);
+		return configuration;
+	}
+
+	@Override
+	public String toString() {
+		return getName() + ": " + variables.convertToString(getLiterals(), true, true, true);
+	}
+
+}
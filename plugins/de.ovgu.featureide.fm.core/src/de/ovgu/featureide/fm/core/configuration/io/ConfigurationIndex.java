@@ -0,0 +1,199 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.configuration.io;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import de.ovgu.featureide.fm.core.Logger;
+import de.ovgu.featureide.fm.core.analysis.cnf.Variables;
+import de.ovgu.featureide.fm.core.io.FileSystem;
+
+/**
+ * Stores the compact representation of all configurations within a directory together with the modification time and size of their files. A
+ * configuration file only has to be parsed again, if its modification time or size changed.<br> <br> The index is only valid for the variables it was
+ * created with. If the variables of the feature model change, all entries are discarded.
+ *
+ * @author FeatureIDE Team
+ */
+public class ConfigurationIndex {
+
+	private static final String VERSION = "FeatureIDE configuration index 1";
+	private static final char SEPARATOR = '\t';
+	private static final char LINE_SEPARATOR = '\n';
+
+	private final Path indexFile;
+	private final Path directory;
+	private final Variables variables;
+
+	private final Map<String, CompactConfiguration> oldEntries = new ConcurrentHashMap<>();
+	private final Map<String, CompactConfiguration> newEntries = new ConcurrentHashMap<>();
+
+	/**
+	 * @param indexFile the file to store the index in
+	 * @param directory the directory containing the configurations
+	 * @param variables the variables of the current feature model
+	 */
+	public ConfigurationIndex(Path indexFile, Path directory, Variables variables) {
+		this.indexFile = indexFile;
+		this.directory = directory;
+		this.variables = variables;
+	}
+
+	public Path getIndexFile() {
+		return indexFile;
+	}
+
+	/**
+	 * Reads the index file, if it exists and was created for the same variables.
+	 */
+	public void load() {
+		oldEntries.clear();
+		newEntries.clear();
+		if (!Files.isReadable(indexFile)) {
+			return;
+		}
+		try (BufferedReader reader = Files.newBufferedReader(indexFile, StandardCharsets.UTF_8)) {
+			if (!VERSION.equals(reader.readLine())) {
+				return;
+			}
+			final int numberOfVariables = Integer.parseInt(reader.readLine());
+			final String[] names = new String[numberOfVariables + 1];
+			for (int i = 1; i < names.length; i++) {
+				names[i] = reader.readLine();
+			}
+			if (!Arrays.equals(Arrays.copyOfRange(names, 1, names.length),
+					Arrays.copyOfRange(variables.getNames(), 1, variables.getNames().length))) {
+				return;
+			}
+			for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+				final String[] fields = line.split(String.valueOf(SEPARATOR), 5);
+				final String key = fields[4];
+				oldEntries.put(key, new CompactConfiguration(directory.resolve(key), variables, parseBitSet(fields[2]), parseBitSet(fields[3]),
+						Long.parseLong(fields[0]), Long.parseLong(fields[1])));
+			}
+		} catch (IOException | RuntimeException e) {
+			Logger.logWarning("Could not read configuration index " + indexFile + ": " + e.getMessage());
+			oldEntries.clear();
+		}
+	}
+
+	/**
+	 * Returns the stored configuration for the given file, if the file did not change since it was stored.
+	 *
+	 * @param file the configuration file
+	 * @param lastModified the current modification time of the file
+	 * @param size the current size of the file
+	 * @return the stored configuration or {@code null} if there is no valid entry
+	 */
+	public CompactConfiguration get(Path file, long lastModified, long size) {
+		final String key = getKey(file);
+		final CompactConfiguration configuration = oldEntries.get(key);
+		if ((configuration != null) && (configuration.getLastModified() == lastModified) && (configuration.getSize() == size)) {
+			newEntries.put(key, configuration);
+			return configuration;
+		}
+		return null;
+	}
+
+	/**
+	 * Adds a configuration to the index.
+	 *
+	 * @param configuration the configuration
+	 */
+	public void put(CompactConfiguration configuration) {
+		newEntries.put(getKey(configuration.getPath()), configuration);
+	}
+
+	/**
+	 * Writes all configurations that were requested or added since the index was {@link #load() loaded} to the index file.
+	 */
+	public void save() {
+		final StringBuilder sb = new StringBuilder();
+		sb.append(VERSION);
+		sb.append(LINE_SEPARATOR);
+		final String[] names = variables.getNames();
+		sb.append(names.length - 1);
+		sb.append(LINE_SEPARATOR);
+		for (int i = 1; i < names.length; i++) {
+			sb.append(names[i]);
+			sb.append(LINE_SEPARATOR);
+		}
+		for (final Map.Entry<String, CompactConfiguration> entry : newEntries.entrySet()) {
+			final CompactConfiguration configuration = entry.getValue();
+			sb.append(configuration.getLastModified());
+			sb.append(SEPARATOR);
+			sb.append(configuration.getSize());
+			sb.append(SEPARATOR);
+			sb.append(toString(configuration.getSelected()));
+			sb.append(SEPARATOR);
+			sb.append(toString(configuration.getUnselected()));
+			sb.append(SEPARATOR);
+			sb.append(entry.getKey());
+			sb.append(LINE_SEPARATOR);
+		}
+		try {
+			final Path parent = indexFile.getParent();
+			if ((parent != null) && !FileSystem.exists(parent)) {
+				FileSystem.mkDir(parent);
+			}
+			FileSystem.write(indexFile, sb.toString());
+		} catch (final IOException e) {
+			Logger.logError(e);
+		}
+	}
+
+	private String getKey(Path file) {
+		return directory.relativize(file).toString().replace('\\', '/');
+	}
+
+	private static String toString(BitSet bitSet) {
+		final StringBuilder sb = new StringBuilder();
+		for (final long word : bitSet.toLongArray()) {
+			sb.append(Long.toHexString(word));
+			sb.append(',');
+		}
+		if (sb.length() > 0) {
+			sb.setLength(sb.length() - 1);
+		}
+		return sb.toString();
+	}
+
+	private static BitSet parseBitSet(String text) {
+		if (text.isEmpty()) {
+			return new BitSet();
+		}
+		final String[] words = text.split(",");
+		final long[] longs = new long[words.length];
+		for (int i = 0; i < words.length; i++) {
+			longs[i] = Long.parseUnsignedLong(words[i], 16);
+		}
+		return BitSet.valueOf(longs);
+	}
+
+}
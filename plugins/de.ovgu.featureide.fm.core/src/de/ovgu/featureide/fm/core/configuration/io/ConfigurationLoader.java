@@ -30,8 +30,15 @@ import java.nio.file.attribute.BasicFileAttributes;
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.ObjIntConsumer;
 
 import de.ovgu.featureide.fm.core.Logger;
+import de.ovgu.featureide.fm.core.analysis.cnf.Variables;
 import de.ovgu.featureide.fm.core.analysis.cnf.formula.FeatureModelFormula;
 import de.ovgu.featureide.fm.core.configuration.Configuration;
 import de.ovgu.featureide.fm.core.configuration.FeatureIDEFormat;
@@ -39,7 +46,9 @@ import de.ovgu.featureide.fm.core.io.manager.ConfigurationManager;
 import de.ovgu.featureide.fm.core.io.manager.FileHandler;
 
 /**
- * This class loads all configurations of a given IFeatureModel.
+ * This class loads all configurations of a given IFeatureModel.<br> <br> Configuration files can be parsed concurrently by
+ * {@link #setNumberOfThreads(int) multiple threads}. The callback is always notified by the calling thread in the order in which the files were found.
+ * Files within {@code .featureide} folders are never loaded.
  *
  * @author Paul Maximilian Bittner
  * @author Antje Moench
@@ -47,8 +56,12 @@ import de.ovgu.featureide.fm.core.io.manager.FileHandler;
  */
 public class ConfigurationLoader {
 
+	private static final String EXTRA_FOLDER_NAME = ".featureide";
+
 	private final IConfigurationLoaderCallback callback;
 
+	private int numberOfThreads = 1;
+
 	public ConfigurationLoader() {
 		this(null);
 	}
@@ -71,35 +84,29 @@ public class ConfigurationLoader {
 
 	public List<Configuration> loadConfigurations(final FeatureModelFormula featureModel, Path path, final String excludeFile) {
 		final List<Configuration> configs = new ArrayList<>();
-		final HashSet<String> configurationNames = new HashSet<>();
 
 		if (callback != null) {
 			callback.onLoadingStarted();
 		}
 
 		try {
-			Files.walkFileTree(path, new SimpleFileVisitor<Path>() {
-
-				@Override
-				public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
-					final String fileName = file.getFileName().toString();
-					if (!fileName.equals(excludeFile) && !fileName.endsWith("." + new FeatureIDEFormat().getSuffix()) && Files.isReadable(file)
-						&& Files.isRegularFile(file)) {
-						final int extensionIndex = fileName.lastIndexOf('.');
-						final String configurationName = (extensionIndex > 0) ? fileName.substring(0, extensionIndex) : fileName;
-						if (configurationNames.add(configurationName)) {
-							final FileHandler<Configuration> fileHandler = ConfigurationManager.getFileHandler(file);
-							if (!fileHandler.getLastProblems().containsError()) {
-								final Configuration currentConfiguration = fileHandler.getObject();
-								currentConfiguration.updateFeatures(featureModel);
-								configs.add(currentConfiguration);
-								if (callback != null) {
-									callback.onConfigurationLoaded(currentConfiguration, file);
-								}
-							}
-						}
+			final List<Path> files = findConfigurationFiles(path, excludeFile, null);
+			final List<Callable<Configuration>> tasks = new ArrayList<>(files.size());
+			for (final Path file : files) {
+				tasks.add(() -> {
+					final Configuration configuration = readConfiguration(file);
+					if (configuration != null) {
+						configuration.updateFeatures(featureModel);
+					}
+					return configuration;
+				});
+			}
+			execute(tasks, (currentConfiguration, i) -> {
+				if (currentConfiguration != null) {
+					configs.add(currentConfiguration);
+					if (callback != null) {
+						callback.onConfigurationLoaded(currentConfiguration, files.get(i));
 					}
-					return super.visitFile(file, attrs);
 				}
 			});
 		} catch (final IOException e) {
@@ -116,4 +123,149 @@ public class ConfigurationLoader {
 		return configs;
 	}
 
+	/**
+	 * Loads all configurations within the given directory in their {@link CompactConfiguration compact representation}. The callback is not notified.
+	 *
+	 * @param featureModel the feature model of the configurations
+	 * @param path the directory containing the configurations
+	 * @param excludeFile the name of a file that should not be loaded (may be {@code null})
+	 * @param index an index of previously loaded configurations, which is updated and saved (may be {@code null})
+	 * @return the list of configurations
+	 */
+	public List<CompactConfiguration> loadCompactConfigurations(FeatureModelFormula featureModel, Path path, String excludeFile,
+			ConfigurationIndex index) {
+		final Variables variables = featureModel.getVariables();
+		if (index != null) {
+			index.load();
+		}
+		try {
+			final List<Path> files = findConfigurationFiles(path, excludeFile, index == null ? null : index.getIndexFile());
+			final List<Callable<CompactConfiguration>> tasks = new ArrayList<>(files.size());
+			for (final Path file : files) {
+				tasks.add(() -> {
+					final BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+					final long lastModified = attributes.lastModifiedTime().toMillis();
+					final long size = attributes.size();
+					CompactConfiguration compactConfiguration = index == null ? null : index.get(file, lastModified, size);
+					if (compactConfiguration == null) {
+						final Configuration configuration = readConfiguration(file);
+						if (configuration != null) {
+							compactConfiguration = CompactConfiguration.fromConfiguration(configuration, variables, file, lastModified, size);
+							if (index != null) {
+								index.put(compactConfiguration);
+							}
+						}
+					}
+					return compactConfiguration;
+				});
+			}
+			final List<CompactConfiguration> configurations = new ArrayList<>(files.size());
+			execute(tasks, (configuration, i) -> {
+				if (configuration != null) {
+					configurations.add(configuration);
+				}
+			});
+			if (index != null) {
+				index.save();
+			}
+			return configurations;
+		} catch (final IOException e) {
+			Logger.logError(e);
+			return new ArrayList<>();
+		}
+	}
+
+	private List<Path> findConfigurationFiles(Path path, final String excludeFile, final Path indexFile) throws IOException {
+		final List<Path> files = new ArrayList<>();
+		final HashSet<String> configurationNames = new HashSet<>();
+		final String featureIDESuffix = "." + new FeatureIDEFormat().getSuffix();
+		Files.walkFileTree(path, new SimpleFileVisitor<Path>() {
+
+			@Override
+			public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException {
+				// contains additional information, such as the configuration index
+				if ((dir.getFileName() != null) && EXTRA_FOLDER_NAME.equals(dir.getFileName().toString())) {
+					return FileVisitResult.SKIP_SUBTREE;
+				}
+				return super.preVisitDirectory(dir, attrs);
+			}
+
+			@Override
+			public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+				final String fileName = file.getFileName().toString();
+				if (!fileName.equals(excludeFile) && !fileName.endsWith(featureIDESuffix) && !file.equals(indexFile) && Files.isReadable(file)
+					&& Files.isRegularFile(file)) {
+					final int extensionIndex = fileName.lastIndexOf('.');
+					final String configurationName = (extensionIndex > 0) ? fileName.substring(0, extensionIndex) : fileName;
+					if (configurationNames.add(configurationName)) {
+						files.add(file);
+					}
+				}
+				return super.visitFile(file, attrs);
+			}
+		});
+		return files;
+	}
+
+	private static Configuration readConfiguration(Path file) {
+		final FileHandler<Configuration> fileHandler = ConfigurationManager.getFileHandler(file);
+		return fileHandler.getLastProblems().containsError() ? null : fileHandler.getObject();
+	}
+
+	/**
+	 * Executes the given tasks and passes their results to the consumer in the order of the tasks. The consumer is always called by the calling thread.
+	 */
+	private <T> void execute(List<Callable<T>> tasks, ObjIntConsumer<T> consumer) throws IOException {
+		if ((numberOfThreads <= 1) || (tasks.size() <= 1)) {
+			for (int i = 0; i < tasks.size(); i++) {
+				try {
+					consumer.accept(tasks.get(i).call(), i);
+				} catch (IOException | RuntimeException e) {
+					throw e;
+				} catch (final Exception e) {
+					throw new RuntimeException(e);
+				}
+			}
+			return;
+		}
+
+		final ExecutorService pool = Executors.newFixedThreadPool(Math.min(numberOfThreads, tasks.size()));
+		try {
+			final List<Future<T>> futures = new ArrayList<>(tasks.size());
+			for (final Callable<T> task : tasks) {
+				futures.add(pool.submit(task));
+			}
+			for (int i = 0; i < futures.size(); i++) {
+				consumer.accept(futures.get(i).get(), i);
+			}
+		} catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IOException(e);
+		} catch (final ExecutionException e) {
+			final Throwable cause = e.getCause();
+			if (cause instanceof IOException) {
+				throw (IOException) cause;
+			} else if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			}
+			throw new RuntimeException(cause);
+		} finally {
+			pool.shutdownNow();
+		}
+	}
+
+	public int getNumberOfThreads() {
+		return numberOfThreads;
+	}
+
+	/**
+	 * Sets the number of threads that parse configuration files. Values less than or equal to {@code 1} load all files in the calling thread (default:
+	 * {@code 1}).
+	 *
+	 * @param numberOfThreads the number of threads
+	 */
+	public void setNumberOfThreads(int numberOfThreads) {
+		this.numberOfThreads = numberOfThreads;
+	}
+
 }
@@ -27,10 +27,13 @@ import org.prop4j.Literal;
 import org.prop4j.Node;
 import org.prop4j.Not;
 import org.prop4j.Or;
-import org.prop4j.SatSolver;
 import org.sat4j.specs.TimeoutException;
 
+import de.ovgu.featureide.fm.core.analysis.cnf.LiteralSet;
 import de.ovgu.featureide.fm.core.analysis.cnf.formula.FeatureModelFormula;
+import de.ovgu.featureide.fm.core.analysis.cnf.solver.ISimpleSatSolver.SatResult;
+import de.ovgu.featureide.fm.core.analysis.cnf.solver.NodeQuerySolver;
+import de.ovgu.featureide.fm.core.analysis.cnf.solver.SolverPool;
 import de.ovgu.featureide.fm.core.base.IFeatureModel;
 import de.ovgu.featureide.fm.core.configuration.Configuration;
 import de.ovgu.featureide.fm.core.configuration.DefaultFormat;
@@ -45,17 +48,15 @@ public class ExampleCalculator {
 
 	private final IFeatureModel fm;
 
-	private Node a;
-
 	private Node[] bChildren;
 
 	private LinkedList<Integer> bSatisfiable;
 
 	private int bIndex;
 
-	private SatSolver solver;
+	private NodeQuerySolver solver;
 
-	private SatSolver exampleSolver = null;
+	private Node exampleQuery = null;
 
 	private String lastSolution = null;
 
@@ -67,9 +68,9 @@ public class ExampleCalculator {
 	}
 
 	public void setLeft(Node a) {
-		a = a.toRegularCNF();
-		this.a = a;
-		solver = new SatSolver(a, timeout);
+		// reuse one solver for all queries of this comparison without occupying the default pool
+		solver = new NodeQuerySolver(a.toRegularCNF(), new SolverPool(1));
+		solver.setTimeout((int) Math.min(timeout, Integer.MAX_VALUE));
 	}
 
 	public void setRight(Node b) {
@@ -96,19 +97,19 @@ public class ExampleCalculator {
 
 	// might return some examples multiple times
 	public Configuration nextExample() throws TimeoutException {
-		if (exampleSolver == null) {
+		if (exampleQuery == null) {
 			if (bSatisfiable.isEmpty() && !findSatisfiable(true)) {
 				return null;
 			}
 			final Node child = bChildren[bSatisfiable.removeFirst()];
-			exampleSolver = new SatSolver(new And(a, new Not(child.clone())), timeout);
+			exampleQuery = new Not(child.clone());
 		}
-		final String solution = exampleSolver.getSolution();
+		final String solution = getSolution(exampleQuery);
 		if (solution == null) {
 			return null;
 		}
 		if (solution.equals(lastSolution)) {
-			exampleSolver = null;
+			exampleQuery = null;
 			return nextExample();
 		}
 		final Configuration configuration = new Configuration(new FeatureModelFormula(fm));
@@ -130,7 +131,7 @@ public class ExampleCalculator {
 			for (final Node node : list) {
 				((Literal) node).positive ^= true;
 			}
-			if (solver.isSatisfiable(list)) {
+			if (isSatisfiable(new And(list))) {
 				childIsSatisfiable();
 				if (stopEarly) {
 					return true;
@@ -141,4 +142,35 @@ public class ExampleCalculator {
 		return sat;
 	}
 
+	private boolean isSatisfiable(Node query) throws TimeoutException {
+		switch (solver.hasSolution(query)) {
+		case TRUE:
+			return true;
+		case FALSE:
+			return false;
+		case TIMEOUT:
+			throw new TimeoutException();
+		default:
+			throw new AssertionError();
+		}
+	}
+
+	/**
+	 * @return the selected features of a solution for the given query, one per line, or {@code null} if there is no solution.
+	 */
+	private String getSolution(Node query) throws TimeoutException {
+		final LiteralSet solution = solver.findSolution(query);
+		if (solution == null) {
+			// distinguish between unsatisfiable queries and timeouts
+			isSatisfiable(query);
+			return null;
+		}
+		final StringBuilder out = new StringBuilder();
+		for (final String name : solver.getVariables().convertToString(solution, true, false)) {
+			out.append(name);
+			out.append('\n');
+		}
+		return out.toString();
+	}
+
 }
@@ -30,11 +30,11 @@ import java.util.Set;
 import org.prop4j.And;
 import org.prop4j.Literal;
 import org.prop4j.Node;
-import org.prop4j.Not;
-import org.prop4j.SatSolver;
 import org.sat4j.specs.TimeoutException;
 
 import de.ovgu.featureide.fm.core.Logger;
+import de.ovgu.featureide.fm.core.analysis.cnf.solver.NodeQuerySolver;
+import de.ovgu.featureide.fm.core.analysis.cnf.solver.SolverPool;
 import de.ovgu.featureide.fm.core.base.IFeature;
 import de.ovgu.featureide.fm.core.base.IFeatureModel;
 import de.ovgu.featureide.fm.core.configuration.Configuration;
@@ -214,9 +214,19 @@ public class ModelComparator {
 		}
 
 		if (!strategy.contains(Strategy.SingleTesting)) {
-			final Node node = new And(a.clone(), new Not(b.clone()));
-			final SatSolver solver = new SatSolver(node, timeout);
-			return !solver.hasSolution();
+			// the solver is only used for a single query, so there is no point in pooling
+			final NodeQuerySolver solver = new NodeQuerySolver(a, new SolverPool(0));
+			solver.setTimeout((int) Math.min(timeout, Integer.MAX_VALUE));
+			switch (solver.isImplied(b)) {
+			case TRUE:
+				return true;
+			case FALSE:
+				return false;
+			case TIMEOUT:
+				throw new TimeoutException();
+			default:
+				throw new AssertionError();
+			}
 		}
 
 		example.setLeft(a);
@@ -49,4 +49,12 @@ public interface FeatureModelExplanationCreator<S, E extends FeatureModelExplana
 	 * @param fm the feature model context
 	 */
 	public void setFeatureModel(IFeatureModel fm);
+
+	/**
+	 * Returns a copy of this creator for the same feature model, which can be used concurrently to this one. Data that is expensive to create and not modified
+	 * while explaining, such as the CNF of the feature model, is created once and shared with the copy.
+	 *
+	 * @return a copy of this creator
+	 */
+	public FeatureModelExplanationCreator<S, E> copy();
 }
@@ -20,9 +20,12 @@
  */
 package de.ovgu.featureide.fm.core.explanations.fm;
 
+import java.util.function.Consumer;
+
 import de.ovgu.featureide.fm.core.analysis.ConstraintProperties.ConstraintStatus;
 import de.ovgu.featureide.fm.core.analysis.FeatureProperties.FeatureStatus;
 import de.ovgu.featureide.fm.core.base.IFeatureModel;
+import de.ovgu.featureide.fm.core.base.IFeatureModelElement;
 
 /**
  * {@link MultipleAnomaliesExplanationCreator} provides an interface for creators of {@link MultipleAnomaliesExplanation}s.
@@ -38,4 +41,33 @@ public interface MultipleAnomaliesExplanationCreator extends FeatureModelExplana
 	 * @param constraintStatuses - {@link ConstraintStatus}[]
 	 */
 	void setAnomalyTypes(FeatureStatus[] featureStatuses, ConstraintStatus[] constraintStatuses);
+
+	/**
+	 * Sets the number of threads used to explain independent anomalies concurrently.
+	 *
+	 * @param numberOfThreads the number of threads; at least 1 (default: 1)
+	 */
+	void setNumberOfThreads(int numberOfThreads);
+
+	/**
+	 * Sets the time budget for explaining all anomalies. If it is exceeded, the combined explanation only contains the explanations found so far.
+	 *
+	 * @param timeout the timeout in milliseconds; 0 for no timeout
+	 */
+	void setTimeout(long timeout);
+
+	/**
+	 * Limits the combined explanation to the given number of explanations with the least reasons.
+	 *
+	 * @param maximumExplanationCount the maximum number of explanations; 0 for no limit
+	 */
+	void setMaximumExplanationCount(int maximumExplanationCount);
+
+	/**
+	 * Sets a listener that receives each single explanation as soon as it is found. The listener is called on the thread that requested the combined
+	 * explanation.
+	 *
+	 * @param explanationListener the listener; may be {@code null}
+	 */
+	void setExplanationListener(Consumer<FeatureModelExplanation<? extends IFeatureModelElement>> explanationListener);
 }
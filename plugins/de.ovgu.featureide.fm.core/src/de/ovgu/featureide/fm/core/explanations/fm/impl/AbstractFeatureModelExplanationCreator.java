@@ -73,6 +73,33 @@ public abstract class AbstractFeatureModelExplanationCreator<S, E extends Featur
 		setOracle(null);
 	}
 
+	/**
+	 * {@inheritDoc}
+	 *
+	 * <p> Creates the CNF and the trace model of this instance first, so that the copy can share them. The copy receives the oracle returned by
+	 * {@link #copyOracle()}. </p>
+	 */
+	@SuppressWarnings("unchecked")
+	@Override
+	public AbstractFeatureModelExplanationCreator<S, E, O> copy() {
+		if (fm != null) {
+			getCnf();
+			getTraceModel();
+		}
+		final AbstractFeatureModelExplanationCreator<S, E, O> copy = (AbstractFeatureModelExplanationCreator<S, E, O>) clone();
+		copy.setOracle(fm != null ? copyOracle() : null);
+		return copy;
+	}
+
+	/**
+	 * Returns the oracle for a {@link #copy() copy} of this instance. By default, the copy creates its own oracle when needed.
+	 *
+	 * @return a copy of the oracle or {@code null} if the copy should create its own oracle
+	 */
+	protected O copyOracle() {
+		return null;
+	}
+
 	/**
 	 * Returns the node creator. Creates it first if necessary.
 	 *
@@ -21,6 +21,7 @@
 package de.ovgu.featureide.fm.core.explanations.fm.impl.composite;
 
 import java.util.Collection;
+import java.util.List;
 
 import de.ovgu.featureide.fm.core.base.IFeatureModel;
 import de.ovgu.featureide.fm.core.explanations.fm.FeatureModelExplanation;
@@ -61,4 +62,15 @@ public abstract class CompositeFeatureModelExplanationCreator<S, E extends Featu
 			composite.setFeatureModel(fm);
 		}
 	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public CompositeFeatureModelExplanationCreator<S, E, C> copy() {
+		final CompositeFeatureModelExplanationCreator<S, E, C> copy = (CompositeFeatureModelExplanationCreator<S, E, C>) clone();
+		final List<C> composites = copy.getComposites();
+		for (int i = 0; i < composites.size(); i++) {
+			composites.set(i, (C) composites.get(i).copy());
+		}
+		return copy;
+	}
 }
@@ -21,10 +21,13 @@
 package de.ovgu.featureide.fm.core.explanations.fm.impl.composite;
 
 import java.util.Collection;
+import java.util.function.Consumer;
 
 import de.ovgu.featureide.fm.core.analysis.ConstraintProperties.ConstraintStatus;
 import de.ovgu.featureide.fm.core.analysis.FeatureProperties.FeatureStatus;
 import de.ovgu.featureide.fm.core.base.IFeatureModel;
+import de.ovgu.featureide.fm.core.base.IFeatureModelElement;
+import de.ovgu.featureide.fm.core.explanations.fm.FeatureModelExplanation;
 import de.ovgu.featureide.fm.core.explanations.fm.MultipleAnomaliesExplanation;
 import de.ovgu.featureide.fm.core.explanations.fm.MultipleAnomaliesExplanationCreator;
 
@@ -56,4 +59,24 @@ public class CompositeMultipleAnomaliesExplanationCreator
 	public void setAnomalyTypes(FeatureStatus[] featureStatuses, ConstraintStatus[] constraintStatuses) {
 		getComposites().forEach(creator -> creator.setAnomalyTypes(featureStatuses, constraintStatuses));
 	}
+
+	@Override
+	public void setNumberOfThreads(int numberOfThreads) {
+		getComposites().forEach(creator -> creator.setNumberOfThreads(numberOfThreads));
+	}
+
+	@Override
+	public void setTimeout(long timeout) {
+		getComposites().forEach(creator -> creator.setTimeout(timeout));
+	}
+
+	@Override
+	public void setMaximumExplanationCount(int maximumExplanationCount) {
+		getComposites().forEach(creator -> creator.setMaximumExplanationCount(maximumExplanationCount));
+	}
+
+	@Override
+	public void setExplanationListener(Consumer<FeatureModelExplanation<? extends IFeatureModelElement>> explanationListener) {
+		getComposites().forEach(creator -> creator.setExplanationListener(explanationListener));
+	}
 }
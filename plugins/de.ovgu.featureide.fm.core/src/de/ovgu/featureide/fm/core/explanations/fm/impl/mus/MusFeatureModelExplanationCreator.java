@@ -22,6 +22,7 @@ package de.ovgu.featureide.fm.core.explanations.fm.impl.mus;
 
 import org.prop4j.explain.solvers.MusExtractor;
 import org.prop4j.explain.solvers.SatSolverFactory;
+import org.prop4j.explain.solvers.impl.ltms.Ltms;
 
 import de.ovgu.featureide.fm.core.explanations.fm.FeatureModelExplanation;
 import de.ovgu.featureide.fm.core.explanations.fm.FeatureModelExplanationCreator;
@@ -61,6 +62,17 @@ public abstract class MusFeatureModelExplanationCreator<S, E extends FeatureMode
 		return solverFactory;
 	}
 
+	/**
+	 * {@inheritDoc}
+	 *
+	 * <p> An {@link Ltms LTMS} is cloned, which is cheaper than creating a new one from the CNF. </p>
+	 */
+	@Override
+	protected MusExtractor copyOracle() {
+		final MusExtractor oracle = getOracle();
+		return (oracle instanceof Ltms) ? ((Ltms) oracle).clone() : null;
+	}
+
 	@Override
 	protected MusExtractor createOracle() {
 		final MusExtractor oracle = getSatSolverFactory().getMusExtractor();
@@ -22,12 +22,28 @@ package de.ovgu.featureide.fm.core.explanations.fm.impl.mus;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Comparator;
 import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 
 import org.prop4j.explain.solvers.SatSolverFactory;
 
 import de.ovgu.featureide.fm.core.FeatureModelAnalyzer;
+import de.ovgu.featureide.fm.core.Logger;
 import de.ovgu.featureide.fm.core.analysis.ConstraintProperties.ConstraintStatus;
 import de.ovgu.featureide.fm.core.analysis.FeatureProperties;
 import de.ovgu.featureide.fm.core.analysis.FeatureProperties.FeatureStatus;
@@ -35,19 +51,56 @@ import de.ovgu.featureide.fm.core.base.IConstraint;
 import de.ovgu.featureide.fm.core.base.IFeature;
 import de.ovgu.featureide.fm.core.base.IFeatureModel;
 import de.ovgu.featureide.fm.core.base.IFeatureModelElement;
+import de.ovgu.featureide.fm.core.explanations.fm.DeadFeatureExplanation;
+import de.ovgu.featureide.fm.core.explanations.fm.FalseOptionalFeatureExplanation;
 import de.ovgu.featureide.fm.core.explanations.fm.FeatureModelExplanation;
+import de.ovgu.featureide.fm.core.explanations.fm.FeatureModelExplanationCreator;
+import de.ovgu.featureide.fm.core.explanations.fm.FeatureModelExplanationCreatorFactory;
 import de.ovgu.featureide.fm.core.explanations.fm.MultipleAnomaliesExplanation;
 import de.ovgu.featureide.fm.core.explanations.fm.MultipleAnomaliesExplanationCreator;
+import de.ovgu.featureide.fm.core.explanations.fm.RedundantConstraintExplanation;
 import de.ovgu.featureide.fm.core.io.manager.FeatureModelManager;
 
 /**
- * {@link MusMultipleAnomaliesExplanationCreator} creates combined {@link MultipleAnomaliesExplanation}s for all previously calculated anomalies.
+ * {@link MusMultipleAnomaliesExplanationCreator} creates combined {@link MultipleAnomaliesExplanation}s for all previously calculated anomalies. The single
+ * anomalies are independent of each other and can be explained concurrently. Explanations are shared with the {@link FeatureModelAnalyzer}: remembered
+ * explanations are reused and new explanations are remembered by the analyzer.
  *
  * @author Benedikt Jutz
  */
 public class MusMultipleAnomaliesExplanationCreator extends MusFeatureModelExplanationCreator<IFeatureModel, MultipleAnomaliesExplanation>
 		implements MultipleAnomaliesExplanationCreator {
 
+	/**
+	 * Explains anomalies of one type. Holds a pool of copies of an explanation creator, such that each creator is only used by one thread at a time. All copies
+	 * share the CNF of the first creator.
+	 *
+	 * @param <S> subject
+	 * @param <E> explanation
+	 */
+	private static class AnomalyExplainer<S extends IFeatureModelElement, E extends FeatureModelExplanation<S>> {
+
+		private final BlockingQueue<FeatureModelExplanationCreator<S, E>> creators;
+
+		public AnomalyExplainer(FeatureModelExplanationCreator<S, E> creator, int numberOfCreators) {
+			creators = new ArrayBlockingQueue<>(numberOfCreators);
+			creators.add(creator);
+			for (int i = 1; i < numberOfCreators; i++) {
+				creators.add(creator.copy());
+			}
+		}
+
+		public FeatureModelExplanation<? extends IFeatureModelElement> explain(S subject) throws InterruptedException {
+			final FeatureModelExplanationCreator<S, E> creator = creators.take();
+			try {
+				creator.setSubject(subject);
+				return creator.getExplanation();
+			} finally {
+				creators.add(creator);
+			}
+		}
+	}
+
 	/**
 	 * <code>featureStatuses</code> contains the single feature anomaly types to find explanations for.
 	 */
@@ -57,6 +110,11 @@ public class MusMultipleAnomaliesExplanationCreator extends MusFeatureModelExpla
 	 */
 	private final EnumSet<ConstraintStatus> constraintStatuses = EnumSet.noneOf(ConstraintStatus.class);
 
+	private int numberOfThreads = 1;
+	private long timeout = 0;
+	private int maximumExplanationCount = 0;
+	private Consumer<FeatureModelExplanation<? extends IFeatureModelElement>> explanationListener = null;
+
 	/**
 	 * Creates a new {@link MusMultipleAnomaliesExplanationCreator} with the given <code>satSolverFactory</code>.
 	 *
@@ -78,8 +136,45 @@ public class MusMultipleAnomaliesExplanationCreator extends MusFeatureModelExpla
 		}
 	}
 
+	@Override
+	public void setNumberOfThreads(int numberOfThreads) {
+		this.numberOfThreads = Math.max(1, numberOfThreads);
+	}
+
+	@Override
+	public void setTimeout(long timeout) {
+		this.timeout = Math.max(0, timeout);
+	}
+
+	@Override
+	public void setMaximumExplanationCount(int maximumExplanationCount) {
+		this.maximumExplanationCount = Math.max(0, maximumExplanationCount);
+	}
+
+	@Override
+	public void setExplanationListener(Consumer<FeatureModelExplanation<? extends IFeatureModelElement>> explanationListener) {
+		this.explanationListener = explanationListener;
+	}
+
 	/**
-	 * Looks up current dead, false-optional and redundancy explanations, then combines them to a single one and returns it.
+	 * Returns a copy with the same settings. The copy does not need any CNF, as the single anomalies are explained by separate creators.
+	 */
+	@Override
+	public MusMultipleAnomaliesExplanationCreator copy() {
+		final MusMultipleAnomaliesExplanationCreator copy = new MusMultipleAnomaliesExplanationCreator(getSatSolverFactory());
+		copy.setFeatureModel(getFeatureModel());
+		copy.featureStatuses.addAll(featureStatuses);
+		copy.constraintStatuses.addAll(constraintStatuses);
+		copy.numberOfThreads = numberOfThreads;
+		copy.timeout = timeout;
+		copy.maximumExplanationCount = maximumExplanationCount;
+		copy.explanationListener = explanationListener;
+		return copy;
+	}
+
+	/**
+	 * Looks up current dead, false-optional and redundancy explanations, then combines them to a single one and returns it. The single explanations are
+	 * created concurrently and passed to the explanation listener as soon as they are found.
 	 *
 	 * @see de.ovgu.featureide.fm.core.explanations.impl.AbstractExplanationCreator#getExplanation()
 	 */
@@ -89,39 +184,195 @@ public class MusMultipleAnomaliesExplanationCreator extends MusFeatureModelExpla
 		final Collection<IFeature> features = featureModel.getFeatures();
 		final FeatureModelAnalyzer analyzer = FeatureModelManager.getInstance(featureModel).getVariableFormula().getAnalyzer();
 
-		// List explanations to combine. Calculate their maximum number, then query what statuses we are looking for.
-		final List<FeatureModelExplanation<? extends IFeatureModelElement>> exps =
-			new ArrayList<>((featureStatuses.size() * features.size()) + (constraintStatuses.size() * featureModel.getConstraintCount()));
+		// Query what statuses we are looking for.
 		final boolean lookForDeadFeatures = featureStatuses.contains(FeatureStatus.DEAD);
 		final boolean lookForFalseOptionalFeatures = featureStatuses.contains(FeatureStatus.FALSE_OPTIONAL);
 		final boolean lookForRedundantConstraints = constraintStatuses.contains(ConstraintStatus.REDUNDANT);
 
-		// Find explanations for dead and/or false-optional features, if desired by the user.
+		// Collect the anomalies to explain, if desired by the user. Only anomalies without a remembered explanation need to be explained.
+		final List<IFeature> deadFeatures = new ArrayList<>();
+		final List<IFeature> falseOptionalFeatures = new ArrayList<>();
+		final List<IConstraint> redundantConstraints = new ArrayList<>();
+		final Map<IFeatureModelElement, FeatureModelExplanation<? extends IFeatureModelElement>> deadFeatureExplanations = new HashMap<>();
+		final Map<IFeatureModelElement, FeatureModelExplanation<? extends IFeatureModelElement>> falseOptionalFeatureExplanations = new HashMap<>();
+		final Map<IFeatureModelElement, FeatureModelExplanation<? extends IFeatureModelElement>> redundantConstraintExplanations = new HashMap<>();
 		if (lookForDeadFeatures || lookForFalseOptionalFeatures) {
 			for (final IFeature feature : features) {
 				final FeatureProperties properties = analyzer.getFeatureProperties(feature);
 				if (lookForDeadFeatures && properties.hasStatus(FeatureStatus.DEAD)) {
-					exps.add(analyzer.getDeadFeatureExplanation(featureModel, feature));
+					deadFeatures.add(feature);
+					addCachedExplanation(deadFeatureExplanations, feature, analyzer.getCachedDeadFeatureExplanation(feature));
 				}
 				if (lookForFalseOptionalFeatures && properties.hasStatus(FeatureStatus.FALSE_OPTIONAL)) {
-					exps.add(analyzer.getFalseOptionalFeatureExplanation(featureModel, feature));
+					falseOptionalFeatures.add(feature);
+					addCachedExplanation(falseOptionalFeatureExplanations, feature, analyzer.getCachedFalseOptionalFeatureExplanation(feature));
 				}
 			}
 		}
-		// Find explanations for redundant constraints, if desired by the user.
 		if (lookForRedundantConstraints) {
 			for (final IConstraint constraint : featureModel.getConstraints()) {
 				if (analyzer.getConstraintProperties(constraint).hasStatus(ConstraintStatus.REDUNDANT)) {
-					exps.add(analyzer.getRedundantConstraintExplanation(featureModel, constraint));
+					redundantConstraints.add(constraint);
+					addCachedExplanation(redundantConstraintExplanations, constraint, analyzer.getCachedRedundantConstraintExplanation(constraint));
 				}
 			}
 		}
 
+		// Each type of anomaly is explained by its own pool of creators.
+		final FeatureModelExplanationCreatorFactory factory = FeatureModelExplanationCreatorFactory.getDefault();
+		final int missingDeadFeatureExplanations = deadFeatures.size() - deadFeatureExplanations.size();
+		final int missingFalseOptionalFeatureExplanations = falseOptionalFeatures.size() - falseOptionalFeatureExplanations.size();
+		final int missingRedundantConstraintExplanations = redundantConstraints.size() - redundantConstraintExplanations.size();
+		final AnomalyExplainer<IFeature, ?> deadFeatureExplainer = missingDeadFeatureExplanations == 0 ? null
+			: createExplainer(factory.getDeadFeatureExplanationCreator(), missingDeadFeatureExplanations);
+		final AnomalyExplainer<IFeature, ?> falseOptionalFeatureExplainer = missingFalseOptionalFeatureExplanations == 0 ? null
+			: createExplainer(factory.getFalseOptionalFeatureExplanationCreator(), missingFalseOptionalFeatureExplanations);
+		final AnomalyExplainer<IConstraint, ?> redundantConstraintExplainer = missingRedundantConstraintExplanations == 0 ? null
+			: createExplainer(factory.getRedundantConstraintExplanationCreator(), missingRedundantConstraintExplanations);
+
+		// Create one task per anomaly, keeping the order of features and constraints.
+		final List<Callable<FeatureModelExplanation<? extends IFeatureModelElement>>> tasks =
+			new ArrayList<>(deadFeatures.size() + falseOptionalFeatures.size() + redundantConstraints.size());
+		if (lookForDeadFeatures || lookForFalseOptionalFeatures) {
+			final Set<IFeature> deadFeatureSet = new HashSet<>(deadFeatures);
+			final Set<IFeature> falseOptionalFeatureSet = new HashSet<>(falseOptionalFeatures);
+			for (final IFeature feature : features) {
+				if (deadFeatureSet.contains(feature)) {
+					tasks.add(createTask(deadFeatureExplanations, deadFeatureExplainer, feature));
+				}
+				if (falseOptionalFeatureSet.contains(feature)) {
+					tasks.add(createTask(falseOptionalFeatureExplanations, falseOptionalFeatureExplainer, feature));
+				}
+			}
+		}
+		for (final IConstraint constraint : redundantConstraints) {
+			tasks.add(createTask(redundantConstraintExplanations, redundantConstraintExplainer, constraint));
+		}
+
+		final List<FeatureModelExplanation<? extends IFeatureModelElement>> allExplanations = explain(tasks);
+
+		// Remember new explanations in the analyzer. The analyzer is only accessed by the calling thread.
+		for (final FeatureModelExplanation<? extends IFeatureModelElement> explanation : allExplanations) {
+			if (explanation instanceof DeadFeatureExplanation) {
+				analyzer.setDeadFeatureExplanation((DeadFeatureExplanation) explanation);
+			} else if (explanation instanceof FalseOptionalFeatureExplanation) {
+				analyzer.setFalseOptionalFeatureExplanation((FalseOptionalFeatureExplanation) explanation);
+			} else if (explanation instanceof RedundantConstraintExplanation) {
+				analyzer.setRedundantConstraintExplanation((RedundantConstraintExplanation) explanation);
+			}
+		}
+		final List<FeatureModelExplanation<? extends IFeatureModelElement>> explanations = selectExplanations(allExplanations);
+
 		// Only return an explanation if there actually exist anomalies.
-		if (exps.isEmpty()) {
+		if (explanations.isEmpty()) {
 			return null;
 		}
-		return new MultipleAnomaliesExplanation(featureModel, exps);
+		return new MultipleAnomaliesExplanation(featureModel, explanations);
+	}
+
+	private static void addCachedExplanation(Map<IFeatureModelElement, FeatureModelExplanation<? extends IFeatureModelElement>> explanations,
+			IFeatureModelElement subject, FeatureModelExplanation<? extends IFeatureModelElement> explanation) {
+		if (explanation != null) {
+			explanations.put(subject, explanation);
+		}
+	}
+
+	private static <S extends IFeatureModelElement> Callable<FeatureModelExplanation<? extends IFeatureModelElement>> createTask(
+			Map<IFeatureModelElement, FeatureModelExplanation<? extends IFeatureModelElement>> cachedExplanations, AnomalyExplainer<S, ?> explainer,
+			S subject) {
+		final FeatureModelExplanation<? extends IFeatureModelElement> cachedExplanation = cachedExplanations.get(subject);
+		return cachedExplanation != null ? () -> cachedExplanation : () -> explainer.explain(subject);
+	}
+
+	private <S extends IFeatureModelElement, E extends FeatureModelExplanation<S>> AnomalyExplainer<S, E> createExplainer(
+			FeatureModelExplanationCreator<S, E> creator, int numberOfAnomalies) {
+		creator.setFeatureModel(getFeatureModel());
+		return new AnomalyExplainer<>(creator, Math.min(numberOfThreads, numberOfAnomalies));
+	}
+
+	/**
+	 * Runs the given tasks concurrently until all are finished or the timeout is exceeded. Passes each explanation to the listener as soon as it is found.
+	 *
+	 * @param tasks the tasks to run
+	 * @return the explanations of all finished tasks in the order of the tasks ({@code null} for tasks that did not finish or did not find an explanation)
+	 */
+	private List<FeatureModelExplanation<? extends IFeatureModelElement>> explain(
+			List<Callable<FeatureModelExplanation<? extends IFeatureModelElement>>> tasks) {
+		final List<FeatureModelExplanation<? extends IFeatureModelElement>> explanations = new ArrayList<>(tasks.size());
+		if (tasks.isEmpty()) {
+			return explanations;
+		}
+		final List<Future<FeatureModelExplanation<? extends IFeatureModelElement>>> futures = new ArrayList<>(tasks.size());
+		final ExecutorService executor = Executors.newFixedThreadPool(Math.min(numberOfThreads, tasks.size()), runnable -> {
+			final Thread thread = new Thread(runnable, "FeatureIDE Explanation Worker");
+			thread.setDaemon(true);
+			return thread;
+		});
+		try {
+			final ExecutorCompletionService<FeatureModelExplanation<? extends IFeatureModelElement>> completionService =
+				new ExecutorCompletionService<>(executor);
+			for (final Callable<FeatureModelExplanation<? extends IFeatureModelElement>> task : tasks) {
+				futures.add(completionService.submit(task));
+			}
+			final long deadline = System.currentTimeMillis() + timeout;
+			for (int i = 0; i < tasks.size(); i++) {
+				final Future<FeatureModelExplanation<? extends IFeatureModelElement>> future;
+				if (timeout > 0) {
+					future = completionService.poll(deadline - System.currentTimeMillis(), TimeUnit.MILLISECONDS);
+					if (future == null) {
+						break;
+					}
+				} else {
+					future = completionService.take();
+				}
+				final FeatureModelExplanation<? extends IFeatureModelElement> explanation = getResult(future);
+				if ((explanation != null) && (explanationListener != null)) {
+					explanationListener.accept(explanation);
+				}
+			}
+		} catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} finally {
+			executor.shutdownNow();
+		}
+		for (final Future<FeatureModelExplanation<? extends IFeatureModelElement>> future : futures) {
+			explanations.add(future.isDone() ? getResult(future) : null);
+		}
+		return explanations;
+	}
+
+	private FeatureModelExplanation<? extends IFeatureModelElement> getResult(Future<FeatureModelExplanation<? extends IFeatureModelElement>> future) {
+		try {
+			return future.isCancelled() ? null : future.get();
+		} catch (final ExecutionException e) {
+			Logger.logError(e.getCause());
+			return null;
+		} catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return null;
+		}
+	}
+
+	/**
+	 * Removes missing explanations and, if a maximum number of explanations is set, keeps only the explanations with the least reasons.
+	 *
+	 * @param explanations the explanations in the order of the anomalies
+	 * @return the selected explanations in the order of the anomalies
+	 */
+	private List<FeatureModelExplanation<? extends IFeatureModelElement>> selectExplanations(
+			List<FeatureModelExplanation<? extends IFeatureModelElement>> explanations) {
+		final List<FeatureModelExplanation<? extends IFeatureModelElement>> selectedExplanations = new ArrayList<>(explanations.size());
+		for (final FeatureModelExplanation<? extends IFeatureModelElement> explanation : explanations) {
+			if (explanation != null) {
+				selectedExplanations.add(explanation);
+			}
+		}
+		if ((maximumExplanationCount > 0) && (selectedExplanations.size() > maximumExplanationCount)) {
+			final List<FeatureModelExplanation<? extends IFeatureModelElement>> shortestExplanations = new ArrayList<>(selectedExplanations);
+			shortestExplanations.sort(Comparator.comparingInt(FeatureModelExplanation::getReasonCount));
+			selectedExplanations.retainAll(shortestExplanations.subList(0, maximumExplanationCount));
+		}
+		return selectedExplanations;
 	}
 
 	@Override
@@ -84,6 +84,18 @@ public class MusRedundantConstraintExplanationCreator extends MusFeatureModelExp
 		return getOracle().addFormula(constraintNode);
 	}
 
+	/**
+	 * {@inheritDoc}
+	 *
+	 * <p> The oracle and the trace model are modified while explaining. Therefore, the copy creates its own ones. </p>
+	 */
+	@Override
+	public MusRedundantConstraintExplanationCreator copy() {
+		final MusRedundantConstraintExplanationCreator copy = (MusRedundantConstraintExplanationCreator) clone();
+		copy.setFeatureModel(getFeatureModel());
+		return copy;
+	}
+
 	@Override
 	public RedundantConstraintExplanation getExplanation() throws IllegalStateException {
 		final RedundantConstraintExplanation explanation;
@@ -37,7 +37,7 @@ import de.ovgu.featureide.fm.core.explanations.Reason;
  * @param <O> oracle
  * @author Timo G&uuml;nther
  */
-public abstract class AbstractExplanationCreator<S, E extends Explanation<S>, O> implements ExplanationCreator<S, E> {
+public abstract class AbstractExplanationCreator<S, E extends Explanation<S>, O> implements ExplanationCreator<S, E>, Cloneable {
 
 	/** The subject with an attribute to be explained. */
 	private S subject;
@@ -75,6 +75,21 @@ public abstract class AbstractExplanationCreator<S, E extends Explanation<S>, O>
 		this.oracle = oracle;
 	}
 
+	/**
+	 * Returns a shallow copy of this instance. The copy shares the subject and the oracle with this instance.
+	 *
+	 * @return a shallow copy of this instance
+	 */
+	@SuppressWarnings("unchecked")
+	@Override
+	protected AbstractExplanationCreator<S, E, O> clone() {
+		try {
+			return (AbstractExplanationCreator<S, E, O>) super.clone();
+		} catch (final CloneNotSupportedException e) {
+			throw new AssertionError(e);
+		}
+	}
+
 	/**
 	 * Returns a new oracle.
 	 *
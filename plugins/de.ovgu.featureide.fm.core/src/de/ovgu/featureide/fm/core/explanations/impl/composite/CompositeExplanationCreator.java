@@ -40,10 +40,10 @@ import de.ovgu.featureide.fm.core.explanations.ExplanationCreator;
  * @param <C> composite
  * @author Timo G&uuml;nther
  */
-public abstract class CompositeExplanationCreator<S, E extends Explanation<S>, C extends ExplanationCreator<S, E>> implements ExplanationCreator<S, E> {
+public abstract class CompositeExplanationCreator<S, E extends Explanation<S>, C extends ExplanationCreator<S, E>> implements ExplanationCreator<S, E>, Cloneable {
 
 	/** The explanation creators this composes. */
-	private final List<C> composites;
+	private List<C> composites;
 
 	/**
 	 * Constructs a new instance of this class.
@@ -63,6 +63,23 @@ public abstract class CompositeExplanationCreator<S, E extends Explanation<S>, C
 		return composites;
 	}
 
+	/**
+	 * Returns a copy of this instance with its own list of composites. The composites themselves are shared with this instance.
+	 *
+	 * @return a copy of this instance
+	 */
+	@SuppressWarnings("unchecked")
+	@Override
+	protected CompositeExplanationCreator<S, E, C> clone() {
+		try {
+			final CompositeExplanationCreator<S, E, C> copy = (CompositeExplanationCreator<S, E, C>) super.clone();
+			copy.composites = new ArrayList<>(composites);
+			return copy;
+		} catch (final CloneNotSupportedException e) {
+			throw new AssertionError(e);
+		}
+	}
+
 	@Override
 	public S getSubject() {
 		for (final C composite : getComposites()) {
@@ -0,0 +1,157 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.io;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import de.ovgu.featureide.fm.core.analysis.mig.CompactModalImplicationGraph;
+
+/**
+ * Reads / Writes a {@link CompactModalImplicationGraph} in a binary format.<br> <br> In contrast to the text-based {@link IPersistentFormat formats}, a
+ * file in this format is not parsed when it is read, but memory-mapped. Thus, the graph is usable immediately and its content is loaded lazily by the
+ * operating system.<br> <br> The file consists of a header of {@value #HEADER_SIZE} integers (magic number, version, number of variables, number of strong
+ * edges, number of complex edges, number of complex clauses, number of clause literals, and a reserved field), followed by the buffers of the graph in the
+ * order status, strong offsets, strong edges, complex offsets, complex edges, clause offsets, and clause literals. All integers are stored in big-endian
+ * byte order.
+ *
+ * @author FeatureIDE Team
+ */
+public final class CompactMIGFormat {
+
+	public static final String FILE_EXTENSION = "cmig";
+
+	public static final int MAGIC_NUMBER = 0x434D4947;
+	public static final int VERSION = 1;
+
+	private static final int HEADER_SIZE = 8;
+
+	private CompactMIGFormat() {}
+
+	/**
+	 * Writes the given graph to a file.
+	 *
+	 * @param graph the graph
+	 * @param path the path of the file
+	 * @throws IOException if the file cannot be written
+	 */
+	public static void write(CompactModalImplicationGraph graph, Path path) throws IOException {
+		final IntBuffer[] sections = getSections(graph);
+		long size = HEADER_SIZE;
+		for (final IntBuffer section : sections) {
+			size += section.remaining();
+		}
+		size *= Integer.BYTES;
+
+		try (FileChannel channel =
+			FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING)) {
+			final MappedByteBuffer byteBuffer = channel.map(MapMode.READ_WRITE, 0, size);
+			final IntBuffer intBuffer = byteBuffer.order(ByteOrder.BIG_ENDIAN).asIntBuffer();
+			intBuffer.put(MAGIC_NUMBER);
+			intBuffer.put(VERSION);
+			intBuffer.put(graph.getNumberOfVariables());
+			intBuffer.put(graph.getNumberOfStrongEdges());
+			intBuffer.put(graph.getNumberOfComplexEdges());
+			intBuffer.put(graph.getNumberOfComplexClauses());
+			intBuffer.put(graph.getNumberOfClauseLiterals());
+			intBuffer.put(0);
+			for (final IntBuffer section : sections) {
+				intBuffer.put(section);
+			}
+			byteBuffer.force();
+		}
+	}
+
+	/**
+	 * Memory-maps a file containing a graph. The file must not be modified while the returned graph is in use.
+	 *
+	 * @param path the path of the file
+	 * @return the graph
+	 * @throws IOException if the file cannot be read or is not in the expected format
+	 */
+	public static CompactModalImplicationGraph read(Path path) throws IOException {
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+			final long size = channel.size();
+			if ((size < (HEADER_SIZE * Integer.BYTES)) || ((size % Integer.BYTES) != 0)) {
+				throw new IOException("Invalid file size: " + size);
+			}
+			final ByteBuffer byteBuffer = channel.map(MapMode.READ_ONLY, 0, size).order(ByteOrder.BIG_ENDIAN);
+			final IntBuffer intBuffer = byteBuffer.asIntBuffer();
+
+			if (intBuffer.get() != MAGIC_NUMBER) {
+				throw new IOException("Not a compact modal implication graph: " + path);
+			}
+			final int version = intBuffer.get();
+			if (version != VERSION) {
+				throw new IOException("Unsupported version: " + version);
+			}
+			final int numberOfVariables = intBuffer.get();
+			final int numberOfStrongEdges = intBuffer.get();
+			final int numberOfComplexEdges = intBuffer.get();
+			final int numberOfComplexClauses = intBuffer.get();
+			final int numberOfClauseLiterals = intBuffer.get();
+			intBuffer.get();
+
+			final long expectedSize = ((long) HEADER_SIZE + numberOfVariables + (2L * ((2L * numberOfVariables) + 1)) + numberOfStrongEdges
+				+ numberOfComplexEdges + numberOfComplexClauses + 1 + numberOfClauseLiterals) * Integer.BYTES;
+			if ((numberOfVariables < 0) || (numberOfStrongEdges < 0) || (numberOfComplexEdges < 0) || (numberOfComplexClauses < 0)
+				|| (numberOfClauseLiterals < 0) || (expectedSize != size)) {
+				throw new IOException("Corrupt file: " + path);
+			}
+
+			final int numberOfOffsets = (2 * numberOfVariables) + 1;
+			try {
+				return new CompactModalImplicationGraph(numberOfVariables, //
+						slice(intBuffer, numberOfVariables), //
+						slice(intBuffer, numberOfOffsets), //
+						slice(intBuffer, numberOfStrongEdges), //
+						slice(intBuffer, numberOfOffsets), //
+						slice(intBuffer, numberOfComplexEdges), //
+						slice(intBuffer, numberOfComplexClauses + 1), //
+						slice(intBuffer, numberOfClauseLiterals));
+			} catch (final IllegalArgumentException e) {
+				throw new IOException("Corrupt file: " + path, e);
+			}
+		}
+	}
+
+	private static IntBuffer slice(IntBuffer buffer, int length) {
+		final int position = buffer.position();
+		buffer.limit(position + length);
+		final IntBuffer slice = buffer.slice();
+		buffer.limit(buffer.capacity());
+		buffer.position(position + length);
+		return slice;
+	}
+
+	private static IntBuffer[] getSections(CompactModalImplicationGraph graph) {
+		return new IntBuffer[] { graph.getStatus(), graph.getStrongOffsets(), graph.getStrongEdges(), graph.getComplexOffsets(), graph.getComplexEdges(),
+			graph.getClauseOffsets(), graph.getClauseLiterals() };
+	}
+
+}
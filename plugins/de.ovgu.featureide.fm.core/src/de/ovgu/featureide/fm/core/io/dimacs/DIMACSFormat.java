@@ -20,18 +20,19 @@
  */
 package de.ovgu.featureide.fm.core.io.dimacs;
 
-import java.io.IOException;
-import java.io.StringReader;
 import java.text.ParseException;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 
 import org.prop4j.And;
+import org.prop4j.Literal;
 import org.prop4j.Node;
+import org.prop4j.Or;
 
 import de.ovgu.featureide.fm.core.PluginID;
 import de.ovgu.featureide.fm.core.analysis.cnf.CNF;
+import de.ovgu.featureide.fm.core.analysis.cnf.LiteralSet;
 import de.ovgu.featureide.fm.core.analysis.cnf.Nodes;
 import de.ovgu.featureide.fm.core.analysis.cnf.Variables;
 import de.ovgu.featureide.fm.core.base.FeatureUtils;
@@ -63,25 +64,48 @@ public class DIMACSFormat extends AFeatureModelFormat {
 		setFactory(featureModel);
 
 		// Transform the input into a propositional node.
-		final DimacsReader r = new DimacsReader();
+		final DimacsCNFReader r = new DimacsCNFReader();
 		r.setReadingVariableDirectory(true);
-		r.setFlattenCNF(flattenCNF);
-		try (StringReader reader = new StringReader(source.toString())) {
-			final Node node = r.read(reader);
+		try {
+			final CNF cnf = r.read(source);
 			final List<String> variables = r.getVariables();
+			Node node = createNode(cnf);
+			if (flattenCNF) {
+				node = node.simplifyTree();
+			}
 
 			// Add the propositional node to the feature model.
 			featureModel.reset();
 			addNodeToFeatureModel(featureModel, node, variables);
 		} catch (final ParseException e) {
 			problemList.add(new Problem(e, e.getErrorOffset()));
-		} catch (final IOException e) {
-			problemList.add(new Problem(e));
 		}
 
 		return problemList;
 	}
 
+	/**
+	 * Creates a propositional node with one {@link Or} node per clause of the given CNF.
+	 *
+	 * @param cnf the CNF to transform
+	 * @return a conjunction of all clauses
+	 */
+	private Node createNode(CNF cnf) {
+		final String[] names = cnf.getVariables().getNames();
+		final Node[] clauses = new Node[cnf.getClauses().size()];
+		int i = 0;
+		for (final LiteralSet clause : cnf.getClauses()) {
+			final int[] clauseLiterals = clause.getLiterals();
+			final Node[] literals = new Node[clauseLiterals.length];
+			for (int j = 0; j < clauseLiterals.length; j++) {
+				final int literal = clauseLiterals[j];
+				literals[j] = new Literal(names[Math.abs(literal)], literal > 0);
+			}
+			clauses[i++] = new Or(literals);
+		}
+		return new And(clauses);
+	}
+
 	/**
 	 * Adds the given propositional node to the given feature model. The current implementation is naive in that it does not attempt to interpret any constraint
 	 * as {@link IFeatureStructure structure}.
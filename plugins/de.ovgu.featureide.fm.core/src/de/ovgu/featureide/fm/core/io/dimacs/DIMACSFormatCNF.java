@@ -21,15 +21,11 @@
 package de.ovgu.featureide.fm.core.io.dimacs;
 
 import java.io.IOException;
+import java.nio.file.Path;
 import java.text.ParseException;
 
-import org.prop4j.Node;
-
 import de.ovgu.featureide.fm.core.PluginID;
 import de.ovgu.featureide.fm.core.analysis.cnf.CNF;
-import de.ovgu.featureide.fm.core.analysis.cnf.ClauseList;
-import de.ovgu.featureide.fm.core.analysis.cnf.Nodes;
-import de.ovgu.featureide.fm.core.analysis.cnf.Variables;
 import de.ovgu.featureide.fm.core.io.APersistentFormat;
 import de.ovgu.featureide.fm.core.io.Problem;
 import de.ovgu.featureide.fm.core.io.ProblemList;
@@ -46,30 +42,70 @@ public class DIMACSFormatCNF extends APersistentFormat<CNF> {
 
 	@Override
 	public String write(CNF cnf) {
-		final DimacsWriter w = new DimacsWriter(cnf);
+		final DimacsCNFWriter w = new DimacsCNFWriter(cnf);
 		w.setWritingVariableDirectory(true);
 		return w.write();
 	}
 
+	/**
+	 * Writes the given CNF directly to a file, without creating the whole document in memory.
+	 *
+	 * @param cnf the CNF to write
+	 * @param path the file to write to
+	 * @return a list of problems that occurred during writing
+	 */
+	public ProblemList write(CNF cnf, Path path) {
+		final ProblemList problemList = new ProblemList();
+		final DimacsCNFWriter w = new DimacsCNFWriter(cnf);
+		w.setWritingVariableDirectory(true);
+		try {
+			w.write(path);
+		} catch (final IOException e) {
+			problemList.add(new Problem(e));
+		}
+		return problemList;
+	}
+
 	@Override
 	public ProblemList read(CNF cnf, CharSequence source) {
 		final ProblemList problemList = new ProblemList();
-		final DimacsReader r = new DimacsReader();
+		final DimacsCNFReader r = new DimacsCNFReader();
 		r.setReadingVariableDirectory(true);
-		r.setFlattenCNF(false);
 		try {
-			final Node node = r.read(source.toString());
-			final Variables variables = new Variables(r.getVariables());
-			final ClauseList clauseList = Nodes.convertNF(variables, node, true, true);
-			cnf.setVariables(variables);
-			cnf.getClauses().clear();
-			cnf.getClauses().addAll(clauseList);
-		} catch (ParseException | IOException e) {
+			setCNF(cnf, r.read(source));
+		} catch (final ParseException e) {
+			problemList.add(new Problem(e, e.getErrorOffset()));
+		}
+		return problemList;
+	}
+
+	/**
+	 * Reads a CNF directly from a memory mapped file, without loading the file content into a string first. Should be preferred for large files.
+	 *
+	 * @param cnf the CNF to fill
+	 * @param path the file to read from
+	 * @return a list of problems that occurred during reading
+	 */
+	public ProblemList read(CNF cnf, Path path) {
+		final ProblemList problemList = new ProblemList();
+		final DimacsCNFReader r = new DimacsCNFReader();
+		r.setReadingVariableDirectory(true);
+		try {
+			setCNF(cnf, r.read(path));
+		} catch (final ParseException e) {
+			problemList.add(new Problem(e, e.getErrorOffset()));
+		} catch (final IOException e) {
 			problemList.add(new Problem(e));
 		}
 		return problemList;
 	}
 
+	private void setCNF(CNF cnf, CNF readCNF) {
+		cnf.setVariables(readCNF.getVariables());
+		cnf.getClauses().clear();
+		cnf.getClauses().addAll(readCNF.getClauses());
+	}
+
 	@Override
 	public String getSuffix() {
 		return "dimacs";
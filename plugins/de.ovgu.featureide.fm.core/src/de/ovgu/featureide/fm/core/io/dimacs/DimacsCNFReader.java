@@ -0,0 +1,531 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.io.dimacs;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.text.ParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import de.ovgu.featureide.fm.core.analysis.cnf.CNF;
+import de.ovgu.featureide.fm.core.analysis.cnf.ClauseArena;
+import de.ovgu.featureide.fm.core.analysis.cnf.ClauseList;
+import de.ovgu.featureide.fm.core.analysis.cnf.CompactCNF;
+import de.ovgu.featureide.fm.core.analysis.cnf.LiteralSet;
+import de.ovgu.featureide.fm.core.analysis.cnf.LiteralSet.Order;
+import de.ovgu.featureide.fm.core.analysis.cnf.Variables;
+
+/**
+ * Reads DIMACS CNF files directly into a {@link CNF}.<br> In contrast to the {@link DimacsReader}, the input is parsed byte by byte without creating
+ * intermediate strings or nodes. Literals are collected in a flat integer array, which is only split into clauses at the end. Files are read through a
+ * memory mapped {@link FileChannel}, such that very large files can be read at disk speed.<br> Accepts the same syntax as the {@link DimacsReader}.
+ *
+ * @author FeatureIDE Team
+ */
+public class DimacsCNFReader {
+
+	/** Default number of bytes that are mapped into memory at once. */
+	private static final int WINDOW_SIZE = 1 << 26;
+
+	private static final int EOF = -1;
+
+	/** True to read the variable directory for naming variables. */
+	private boolean readVariableDirectory = false;
+
+	/** True to create a {@link CompactCNF} instead of a {@link CNF}. */
+	private boolean createCompactCNF = false;
+
+	private final int windowSize;
+
+	private ByteBuffer buffer;
+	private FileChannel channel;
+	private long channelPosition;
+	private long channelSize;
+
+	/** The current byte. */
+	private int c;
+	private int lineCount;
+
+	/** Maps indexes to variables. */
+	private final List<String> indexVariables = new ArrayList<>();
+	private int variableCount;
+	private int clauseCount;
+
+	private int[] literals;
+	private int literalCount;
+	private int[] clauseEnds;
+	private int actualClauseCount;
+
+	private byte[] commentBytes = new byte[256];
+
+	public DimacsCNFReader() {
+		this(WINDOW_SIZE);
+	}
+
+	DimacsCNFReader(int windowSize) {
+		this.windowSize = windowSize;
+	}
+
+	/**
+	 * Sets the reading variable directory flag. If true, the reader will look for a variable directory in the comments. Defaults to false.
+	 *
+	 * @param readVariableDirectory whether to read the variable directory
+	 *
+	 * @see DimacsReader#setReadingVariableDirectory(boolean)
+	 */
+	public void setReadingVariableDirectory(boolean readVariableDirectory) {
+		this.readVariableDirectory = readVariableDirectory;
+	}
+
+	public boolean isReadingVariableDirectory() {
+		return readVariableDirectory;
+	}
+
+	/**
+	 * Sets whether the reader returns a {@link CompactCNF}, which directly uses the flat literal array of the reader as {@link ClauseArena}. Defaults to
+	 * false.
+	 *
+	 * @param createCompactCNF whether to create a compact CNF
+	 */
+	public void setCreatingCompactCNF(boolean createCompactCNF) {
+		this.createCompactCNF = createCompactCNF;
+	}
+
+	public boolean isCreatingCompactCNF() {
+		return createCompactCNF;
+	}
+
+	/**
+	 * Reads the given file.
+	 *
+	 * @param path the file to read from
+	 * @return a CNF; not null
+	 * @throws IOException if the file cannot be read
+	 * @throws ParseException if the input does not conform to the DIMACS CNF file format
+	 */
+	public CNF read(Path path) throws ParseException, IOException {
+		try (FileChannel fileChannel = FileChannel.open(path, StandardOpenOption.READ)) {
+			channel = fileChannel;
+			channelPosition = 0;
+			channelSize = fileChannel.size();
+			buffer = ByteBuffer.allocate(0);
+			return read();
+		} finally {
+			channel = null;
+			buffer = null;
+		}
+	}
+
+	/**
+	 * Reads the remaining bytes of the given buffer.
+	 *
+	 * @param source the buffer to read from
+	 * @return a CNF; not null
+	 * @throws ParseException if the input does not conform to the DIMACS CNF file format
+	 */
+	public CNF read(ByteBuffer source) throws ParseException {
+		try {
+			buffer = source;
+			channel = null;
+			return read();
+		} catch (final IOException e) {
+			throw new AssertionError(e);
+		} finally {
+			buffer = null;
+		}
+	}
+
+	/**
+	 * Reads the given string.
+	 *
+	 * @param source the string to read from
+	 * @return a CNF; not null
+	 * @throws ParseException if the input does not conform to the DIMACS CNF file format
+	 */
+	public CNF read(CharSequence source) throws ParseException {
+		return read(ByteBuffer.wrap(source.toString().getBytes(StandardCharsets.UTF_8)));
+	}
+
+	private CNF read() throws ParseException, IOException {
+		indexVariables.clear();
+		indexVariables.add(null);
+		variableCount = -1;
+		clauseCount = -1;
+		lineCount = 1;
+		literals = new int[1024];
+		literalCount = 0;
+		clauseEnds = new int[256];
+		actualClauseCount = 0;
+
+		next();
+		readComments(readVariableDirectory);
+		if (readProblem()) {
+			readComments(readVariableDirectory);
+		}
+		finishVariables();
+		readClauses();
+
+		final int actualVariableCount = indexVariables.size() - 1;
+		if (variableCount != actualVariableCount) {
+			throw new ParseException(String.format("Found %d instead of %d variables", actualVariableCount, variableCount), lineCount);
+		}
+		if (clauseCount != actualClauseCount) {
+			throw new ParseException(String.format("Found %d instead of %d clauses", actualClauseCount, clauseCount), lineCount);
+		}
+		return createCNF();
+	}
+
+	private void next() throws IOException {
+		if (!buffer.hasRemaining()) {
+			if ((channel == null) || (channelPosition >= channelSize)) {
+				c = EOF;
+				return;
+			}
+			final long length = Math.min(windowSize, channelSize - channelPosition);
+			buffer = channel.map(MapMode.READ_ONLY, channelPosition, length);
+			channelPosition += length;
+		}
+		c = buffer.get() & 0xFF;
+	}
+
+	private static boolean isWhitespace(int c) {
+		return (c == ' ') || (c == '\t') || (c == '\f') || (c == 0x0B);
+	}
+
+	private static boolean isLineEnd(int c) {
+		return (c == '\n') || (c == '\r') || (c == EOF);
+	}
+
+	private void skipWhitespace() throws IOException {
+		while (isWhitespace(c)) {
+			next();
+		}
+	}
+
+	/**
+	 * Consumes the current line terminator, treating "\r\n" as a single terminator.
+	 */
+	private void nextLine() throws IOException {
+		if (c == '\r') {
+			next();
+			if (c == '\n') {
+				next();
+			}
+		} else if (c == '\n') {
+			next();
+		}
+		lineCount++;
+	}
+
+	private void skipLine() throws IOException {
+		while (!isLineEnd(c)) {
+			next();
+		}
+		nextLine();
+	}
+
+	/**
+	 * Skips empty lines and lines containing only whitespace. Afterwards, the current byte is either the comment token at the start of a line or the first
+	 * non-whitespace byte of a line.
+	 *
+	 * @return {@code true} if the current line starts with a comment token.
+	 */
+	private boolean skipEmptyLines() throws IOException {
+		while (c != EOF) {
+			if (c == 'c') {
+				return true;
+			}
+			skipWhitespace();
+			if (!isLineEnd(c)) {
+				return false;
+			}
+			nextLine();
+		}
+		return false;
+	}
+
+	private void readComments(boolean readDirectory) throws IOException {
+		while (skipEmptyLines()) {
+			next();
+			if (readDirectory) {
+				readVariableDirectoryEntry();
+			} else {
+				skipLine();
+			}
+		}
+	}
+
+	/**
+	 * Reads the problem definition.
+	 *
+	 * @return {@code true} if the problem definition is the only content of its line.
+	 * @throws ParseException if the input does not conform to the DIMACS CNF file format
+	 */
+	private boolean readProblem() throws ParseException, IOException {
+		skipWhitespace();
+		if (c != 'p') {
+			throw new ParseException("Invalid problem format", lineCount);
+		}
+		next();
+		if (!isWhitespace(c)) {
+			throw new ParseException("Invalid problem format", lineCount);
+		}
+		skipWhitespace();
+		for (final char token : DIMACSConstants.CNF.toCharArray()) {
+			if (c != token) {
+				throw new ParseException("Invalid problem format", lineCount);
+			}
+			next();
+		}
+		if (!isWhitespace(c)) {
+			throw new ParseException("Invalid problem format", lineCount);
+		}
+		skipWhitespace();
+		variableCount = readCount("Variable count is not an integer");
+		if (!isWhitespace(c)) {
+			throw new ParseException("Invalid problem format", lineCount);
+		}
+		skipWhitespace();
+		clauseCount = readCount("Clause count is not an integer");
+
+		skipWhitespace();
+		if (isLineEnd(c)) {
+			nextLine();
+			return true;
+		}
+		return false;
+	}
+
+	private int readCount(String errorMessage) throws ParseException, IOException {
+		if ((c < '0') || (c > '9')) {
+			throw new ParseException("Invalid problem format", lineCount);
+		}
+		long count = 0;
+		do {
+			count = (count * 10) + (c - '0');
+			if (count > Integer.MAX_VALUE) {
+				throw new ParseException(errorMessage, lineCount);
+			}
+			next();
+		} while ((c >= '0') && (c <= '9'));
+		return (int) count;
+	}
+
+	/**
+	 * Reads an entry of the variable directory from the remainder of the current comment line.
+	 */
+	private void readVariableDirectoryEntry() throws IOException {
+		while (isWhitespace(c)) {
+			next();
+		}
+		int length = 0;
+		while (!isLineEnd(c)) {
+			if (length == commentBytes.length) {
+				commentBytes = Arrays.copyOf(commentBytes, length << 1);
+			}
+			commentBytes[length++] = (byte) c;
+			next();
+		}
+		nextLine();
+
+		final String comment = new String(commentBytes, 0, length, StandardCharsets.UTF_8);
+		final int firstSeparator = comment.indexOf(' ');
+		if ((firstSeparator <= 0) || (comment.length() < (firstSeparator + 2))) {
+			return;
+		}
+		final int index;
+		try {
+			index = Integer.parseInt(comment.substring(0, firstSeparator));
+		} catch (final NumberFormatException e) {
+			return;
+		}
+		if (index <= 0) {
+			return;
+		}
+		while (indexVariables.size() <= index) {
+			indexVariables.add(null);
+		}
+		if (indexVariables.get(index) == null) {
+			indexVariables.set(index, comment.substring(firstSeparator + 1));
+		}
+	}
+
+	private void finishVariables() {
+		for (int i = 1; i < indexVariables.size(); i++) {
+			if (indexVariables.get(i) == null) {
+				indexVariables.set(i, Integer.toString(i));
+			}
+		}
+		while (indexVariables.size() <= variableCount) {
+			indexVariables.add(Integer.toString(indexVariables.size()));
+		}
+	}
+
+	/**
+	 * Reads all clauses.
+	 *
+	 * @throws ParseException if the input does not conform to the DIMACS CNF file format
+	 */
+	private void readClauses() throws ParseException, IOException {
+		final int maxIndex = indexVariables.size() - 1;
+		int clauseStart = 0;
+		while (true) {
+			if (skipEmptyLines()) {
+				skipLine();
+				continue;
+			}
+			if (c == EOF) {
+				break;
+			}
+			while (!isLineEnd(c)) {
+				final int literal = readLiteral(maxIndex);
+				if (literal == 0) {
+					if (literalCount == clauseStart) {
+						throw new ParseException("Empty clause", lineCount);
+					}
+					addClauseEnd();
+					clauseStart = literalCount;
+				} else {
+					if (literalCount == literals.length) {
+						literals = Arrays.copyOf(literals, literalCount << 1);
+					}
+					literals[literalCount++] = literal;
+				}
+				skipWhitespace();
+			}
+			nextLine();
+		}
+		if (literalCount > clauseStart) {
+			addClauseEnd();
+		}
+	}
+
+	private int readLiteral(int maxIndex) throws ParseException, IOException {
+		boolean positive = true;
+		if (c == '-') {
+			positive = false;
+			next();
+		} else if (c == '+') {
+			next();
+		}
+		if ((c < '0') || (c > '9')) {
+			throw new ParseException("Illegal literal", lineCount);
+		}
+		int digits = 0;
+		long index = 0;
+		do {
+			index = (index * 10) + (c - '0');
+			if (index > Integer.MAX_VALUE) {
+				throw new ParseException("Illegal literal", lineCount);
+			}
+			digits++;
+			next();
+		} while ((c >= '0') && (c <= '9'));
+		if (!isWhitespace(c) && !isLineEnd(c)) {
+			throw new ParseException("Illegal literal", lineCount);
+		}
+		if (index == 0) {
+			if (positive && (digits == 1)) {
+				return 0;
+			}
+			throw new ParseException("Illegal literal", lineCount);
+		}
+		if (index > maxIndex) {
+			throw new ParseException("Variable count is smaller than given literal", lineCount);
+		}
+		return positive ? (int) index : (int) -index;
+	}
+
+	private void addClauseEnd() {
+		if (actualClauseCount == clauseEnds.length) {
+			clauseEnds = Arrays.copyOf(clauseEnds, actualClauseCount << 1);
+		}
+		clauseEnds[actualClauseCount++] = literalCount;
+	}
+
+	private CNF createCNF() {
+		final Variables variables = new Variables(indexVariables.subList(1, indexVariables.size()));
+
+		// Variables with duplicate names are mapped to the same index (as in Nodes.convertNF)
+		int[] indexMap = null;
+		for (int i = 1; i < indexVariables.size(); i++) {
+			final int index = variables.getVariable(indexVariables.get(i));
+			if (index != i) {
+				if (indexMap == null) {
+					indexMap = new int[indexVariables.size()];
+					for (int j = 0; j < indexMap.length; j++) {
+						indexMap[j] = j;
+					}
+				}
+				indexMap[i] = index;
+			}
+		}
+
+		if (createCompactCNF) {
+			if (indexMap != null) {
+				for (int j = 0; j < literalCount; j++) {
+					final int literal = literals[j];
+					literals[j] = literal > 0 ? indexMap[literal] : -indexMap[-literal];
+				}
+			}
+			final int[] offsets = new int[actualClauseCount + 1];
+			System.arraycopy(clauseEnds, 0, offsets, 1, actualClauseCount);
+			final ClauseArena arena = new ClauseArena(literals, offsets, actualClauseCount, Order.UNORDERED);
+			arena.trimToSize();
+			literals = null;
+			clauseEnds = null;
+			return new CompactCNF(variables, arena);
+		}
+
+		final ClauseList clauses = new ClauseList(actualClauseCount);
+		int clauseStart = 0;
+		for (int i = 0; i < actualClauseCount; i++) {
+			final int clauseEnd = clauseEnds[i];
+			final int[] clauseLiterals = Arrays.copyOfRange(literals, clauseStart, clauseEnd);
+			if (indexMap != null) {
+				for (int j = 0; j < clauseLiterals.length; j++) {
+					final int literal = clauseLiterals[j];
+					clauseLiterals[j] = literal > 0 ? indexMap[literal] : -indexMap[-literal];
+				}
+			}
+			clauses.add(new LiteralSet(clauseLiterals, Order.UNORDERED));
+			clauseStart = clauseEnd;
+		}
+		literals = null;
+		clauseEnds = null;
+
+		final CNF cnf = new CNF(variables);
+		cnf.getClauses().addAll(clauses);
+		return cnf;
+	}
+
+	public List<String> getVariables() {
+		return indexVariables.subList(1, indexVariables.size());
+	}
+
+}
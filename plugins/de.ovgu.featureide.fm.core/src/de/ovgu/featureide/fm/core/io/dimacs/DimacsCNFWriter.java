@@ -0,0 +1,232 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.io.dimacs;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import de.ovgu.featureide.fm.core.analysis.cnf.CNF;
+import de.ovgu.featureide.fm.core.analysis.cnf.IInternalVariables;
+import de.ovgu.featureide.fm.core.analysis.cnf.LiteralSet;
+
+/**
+ * Writes a {@link CNF} in the DIMACS CNF format.<br> In contrast to the {@link DimacsWriter}, literals are encoded directly into a byte buffer, which is
+ * written to a {@link WritableByteChannel} whenever it is full. Thus, no intermediate strings are created and the whole document is never kept in
+ * memory.<br> Produces the same output as the {@link DimacsWriter}.
+ *
+ * @author FeatureIDE Team
+ */
+public class DimacsCNFWriter {
+
+	private static final int BUFFER_SIZE = 1 << 16;
+
+	/** Maximum number of bytes needed to encode a literal followed by a separator. */
+	private static final int MAX_LITERAL_LENGTH = 12;
+
+	private static final byte[] LINE_SEPARATOR = System.lineSeparator().getBytes(StandardCharsets.UTF_8);
+
+	/** Whether the writer should write a variable directory listing the names of the variables. */
+	private boolean writingVariableDirectory = true;
+
+	private final CNF cnf;
+
+	private ByteBuffer buffer;
+	private WritableByteChannel channel;
+
+	/**
+	 * Constructs a new instance of this class with the given CNF.
+	 *
+	 * @param cnf the CNF to transform; not null
+	 * @throws IllegalArgumentException if the input is null
+	 */
+	public DimacsCNFWriter(CNF cnf) throws IllegalArgumentException {
+		if (cnf == null) {
+			throw new IllegalArgumentException();
+		}
+		this.cnf = cnf;
+	}
+
+	/**
+	 * Sets the writing variable directory flag. If true, the writer will write a variable directory at the start of the output. Defaults to true.
+	 *
+	 * @param writingVariableDirectory whether to write the variable directory
+	 *
+	 * @see DimacsWriter#setWritingVariableDirectory(boolean)
+	 */
+	public void setWritingVariableDirectory(boolean writingVariableDirectory) {
+		this.writingVariableDirectory = writingVariableDirectory;
+	}
+
+	public boolean isWritingVariableDirectory() {
+		return writingVariableDirectory;
+	}
+
+	/**
+	 * Writes the DIMACS CNF file format to the given file. An existing file is overwritten.
+	 *
+	 * @param path the file to write to
+	 * @throws IOException if the file cannot be written
+	 */
+	public void write(Path path) throws IOException {
+		try (FileChannel fileChannel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+			write(fileChannel);
+		}
+	}
+
+	/**
+	 * Writes the DIMACS CNF file format to the given channel. The channel is not closed.
+	 *
+	 * @param outputChannel the channel to write to
+	 * @throws IOException if the channel cannot be written
+	 */
+	public void write(WritableByteChannel outputChannel) throws IOException {
+		channel = outputChannel;
+		buffer = ByteBuffer.allocate(BUFFER_SIZE);
+		try {
+			if (writingVariableDirectory) {
+				writeVariableDirectory();
+			}
+			writeProblem();
+			writeClauses();
+			flush();
+		} finally {
+			channel = null;
+			buffer = null;
+		}
+	}
+
+	/**
+	 * Writes the DIMACS CNF file format.
+	 *
+	 * @return the transformed CNF; not null
+	 */
+	public String write() {
+		final ByteArrayOutputStream out = new ByteArrayOutputStream();
+		try {
+			write(Channels.newChannel(out));
+		} catch (final IOException e) {
+			throw new AssertionError(e);
+		}
+		return new String(out.toByteArray(), StandardCharsets.UTF_8);
+	}
+
+	private void flush() throws IOException {
+		buffer.flip();
+		while (buffer.hasRemaining()) {
+			channel.write(buffer);
+		}
+		buffer.clear();
+	}
+
+	private void ensure(int length) throws IOException {
+		if (buffer.remaining() < length) {
+			flush();
+		}
+	}
+
+	private void put(byte[] bytes) throws IOException {
+		int offset = 0;
+		while (offset < bytes.length) {
+			if (!buffer.hasRemaining()) {
+				flush();
+			}
+			final int length = Math.min(buffer.remaining(), bytes.length - offset);
+			buffer.put(bytes, offset, length);
+			offset += length;
+		}
+	}
+
+	private void put(String text) throws IOException {
+		put(text.getBytes(StandardCharsets.UTF_8));
+	}
+
+	/**
+	 * Encodes the given number in decimal notation. The caller has to ensure that the buffer has enough space remaining.
+	 *
+	 * @param number the number to encode
+	 */
+	private void putNumber(int number) {
+		if (number == Integer.MIN_VALUE) {
+			buffer.put(Integer.toString(number).getBytes(StandardCharsets.US_ASCII));
+			return;
+		}
+		if (number < 0) {
+			buffer.put((byte) '-');
+			number = -number;
+		}
+		final int start = buffer.position();
+		do {
+			buffer.put((byte) ('0' + (number % 10)));
+			number /= 10;
+		} while (number > 0);
+		// Reverse digits
+		for (int i = start, j = buffer.position() - 1; i < j; i++, j--) {
+			final byte tmp = buffer.get(i);
+			buffer.put(i, buffer.get(j));
+			buffer.put(j, tmp);
+		}
+	}
+
+	private void writeVariableDirectory() throws IOException {
+		final String[] names = cnf.getVariables().getNames();
+		for (int i = 1; i < names.length; i++) {
+			ensure(MAX_LITERAL_LENGTH + 2);
+			buffer.put((byte) DIMACSConstants.COMMENT.charAt(0));
+			buffer.put((byte) ' ');
+			putNumber(i);
+			buffer.put((byte) ' ');
+			put(String.valueOf(names[i]));
+			put(LINE_SEPARATOR);
+		}
+	}
+
+	private void writeProblem() throws IOException {
+		put(DIMACSConstants.PROBLEM + " " + DIMACSConstants.CNF + " ");
+		ensure(2 * MAX_LITERAL_LENGTH);
+		putNumber(cnf.getVariables().size());
+		buffer.put((byte) ' ');
+		putNumber(cnf.getClauses().size());
+		put(LINE_SEPARATOR);
+	}
+
+	private void writeClauses() throws IOException {
+		final IInternalVariables internalVariables = cnf.getInternalVariables();
+		final byte clauseEnd = (byte) DIMACSConstants.CLAUSE_END.charAt(0);
+		for (final LiteralSet clause : cnf.getClauses()) {
+			for (final int literal : clause.getLiterals()) {
+				ensure(MAX_LITERAL_LENGTH);
+				putNumber(internalVariables.convertToInternal(literal));
+				buffer.put((byte) ' ');
+			}
+			ensure(1);
+			buffer.put(clauseEnd);
+			put(LINE_SEPARATOR);
+		}
+	}
+
+}
@@ -251,6 +251,16 @@ public abstract class AFileManager<T> implements IFileManager<T> {
 		eventManager.fireEvent(event);
 	}
 
+	@Override
+	public void startBatch() {
+		eventManager.startBatch();
+	}
+
+	@Override
+	public void endBatch() {
+		eventManager.endBatch();
+	}
+
 	@Override
 	public T getObject() {
 		return persistentObject;
@@ -21,10 +21,13 @@
 package de.ovgu.featureide.fm.core.io.manager;
 
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
 
 import de.ovgu.featureide.fm.core.FeatureModelAnalyzer;
 import de.ovgu.featureide.fm.core.analysis.cnf.formula.FeatureModelFormula;
 import de.ovgu.featureide.fm.core.base.IFeatureModel;
+import de.ovgu.featureide.fm.core.base.event.FeatureIDEEvent;
 import de.ovgu.featureide.fm.core.base.event.IEventListener;
 import de.ovgu.featureide.fm.core.base.impl.FMFactoryManager;
 import de.ovgu.featureide.fm.core.base.impl.FMFormatManager;
@@ -49,6 +52,13 @@ public class FeatureModelManager extends AFileManager<IFeatureModel> implements
 	private FeatureModelFormula persistentFormula = null;
 	private FeatureModelFormula variableFormula = null;
 
+	/**
+	 * The last variable formula that was invalidated by a change of dependencies. Can be {@link FeatureModelFormula#update(IFeatureModel, java.util.Collection)
+	 * updated} with the {@link #pendingEvents} instead of building a new formula.
+	 */
+	private FeatureModelFormula outdatedFormula = null;
+	private final List<FeatureIDEEvent> pendingEvents = new ArrayList<>();
+
 	public static FeatureModelManager getInstance(Path path) {
 		return getOrCreateInstance(path, FeatureModelManager.class, null);
 	}
@@ -114,7 +124,16 @@ public class FeatureModelManager extends AFileManager<IFeatureModel> implements
 		fileOperationLock.lock();
 		try {
 			if (variableFormula == null) {
-				variableFormula = new FeatureModelFormula(getSnapshot());
+				if ((outdatedFormula != null) && !pendingEvents.isEmpty()) {
+					variableFormula = outdatedFormula.update(getSnapshot(), pendingEvents);
+				} else {
+					variableFormula = new FeatureModelFormula(getSnapshot());
+				}
+				if (outdatedFormula != null) {
+					outdatedFormula.invalidateSolvers();
+				}
+				outdatedFormula = null;
+				pendingEvents.clear();
 			}
 			return variableFormula;
 		} finally {
@@ -125,8 +144,22 @@ public class FeatureModelManager extends AFileManager<IFeatureModel> implements
 	@Override
 	protected void resetSnapshot(int changeIndicator) {
 		super.resetSnapshot(changeIndicator);
+		if (changeIndicator < CHANGE_DEPENDENCIES) {
+			if (outdatedFormula != null) {
+				outdatedFormula.invalidateSolvers();
+			}
+			outdatedFormula = null;
+			pendingEvents.clear();
+		}
 		if (variableFormula != null) {
 			if (changeIndicator <= CHANGE_DEPENDENCIES) {
+				if (changeIndicator == CHANGE_DEPENDENCIES) {
+					// solvers are invalidated once the formula is updated
+					outdatedFormula = variableFormula;
+					pendingEvents.clear();
+				} else {
+					variableFormula.invalidateSolvers();
+				}
 				variableFormula = null;
 			} else if (changeIndicator == CHANGE_MODEL_PROPERTY) {
 				// Not nessessary to rebuild the variable formula, just copy the properties to the variable formula's model
@@ -135,9 +168,25 @@ public class FeatureModelManager extends AFileManager<IFeatureModel> implements
 		}
 	}
 
+	@Override
+	public void fireEvent(FeatureIDEEvent event) {
+		fileOperationLock.lock();
+		try {
+			if (outdatedFormula != null) {
+				pendingEvents.add(event);
+			}
+		} finally {
+			fileOperationLock.unlock();
+		}
+		super.fireEvent(event);
+	}
+
 	@Override
 	protected void setPersistentObject(IFeatureModel persistentObject) {
 		super.setPersistentObject(persistentObject);
+		if (persistentFormula != null) {
+			persistentFormula.invalidateSolvers();
+		}
 		persistentFormula = null;
 	}
 
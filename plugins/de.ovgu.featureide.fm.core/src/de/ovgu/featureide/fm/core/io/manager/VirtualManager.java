@@ -105,6 +105,16 @@ public class VirtualManager<T> implements IManager<T> {
 		eventManager.fireEvent(event);
 	}
 
+	@Override
+	public void startBatch() {
+		eventManager.startBatch();
+	}
+
+	@Override
+	public void endBatch() {
+		eventManager.endBatch();
+	}
+
 	@Override
 	public void removeListener(IEventListener listener) {
 		eventManager.removeListener(listener);
@@ -150,7 +150,12 @@ public class UVLFeatureModelFormat extends AFeatureModelFormat {
 		try {
 			rootModel = uvlModelFactory.parse(source.toString(), path.getParent().toString());
 			uvlModelFactory.convertAllMoreComplexLanguageLevels(rootModel, LanguageLevel.BOOLEAN_LEVEL);
-			constructFeatureModel((MultiFeatureModel) fm);
+			fm.startBatch();
+			try {
+				constructFeatureModel((MultiFeatureModel) fm);
+			} finally {
+				fm.endBatch();
+			}
 		} catch (final ParseError e) {
 			if (e instanceof ParseErrorList) {
 				final List<ParseError> errorList = ((ParseErrorList) e).getErrorList();
@@ -24,8 +24,10 @@ import static de.ovgu.featureide.fm.core.localization.StringTable.YES;
 
 import java.io.BufferedReader;
 import java.io.IOException;
+import java.io.Reader;
 import java.io.StringReader;
 import java.io.StringWriter;
+import java.io.Writer;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.regex.Matcher;
@@ -35,6 +37,11 @@ import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
 import javax.xml.parsers.ParserConfigurationException;
 import javax.xml.parsers.SAXParserFactory;
+import javax.xml.stream.Location;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
 import javax.xml.transform.OutputKeys;
 import javax.xml.transform.Transformer;
 import javax.xml.transform.TransformerException;
@@ -49,6 +56,7 @@ import org.xml.sax.InputSource;
 import org.xml.sax.SAXParseException;
 
 import de.ovgu.featureide.fm.core.Logger;
+import de.ovgu.featureide.fm.core.base.event.IEventManager;
 import de.ovgu.featureide.fm.core.io.APersistentFormat;
 import de.ovgu.featureide.fm.core.io.IPersistentFormat;
 import de.ovgu.featureide.fm.core.io.LazyReader;
@@ -66,6 +74,8 @@ public abstract class AXMLFormat<T> extends APersistentFormat<T> implements IPer
 
 	public static final String FILE_EXTENSION = "xml";
 
+	private static final String XML_HEADER = "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"no\"?>\n";
+
 	private static final Pattern completeTagPattern = Pattern.compile("<(\\w+)[^\\/]*>.*<\\/\\1.*>");
 	private static final Pattern incompleteTagPattern = Pattern.compile("(<\\w+[^\\/>]*>)|(<\\/\\w+[^>]*>)");
 
@@ -166,17 +176,33 @@ public abstract class AXMLFormat<T> extends APersistentFormat<T> implements IPer
 	 * @param node The node that causes the error. this node is used for positioning.
 	 */
 	protected static void throwError(String message, org.w3c.dom.Node node) throws UnsupportedModelException {
-		final Object userData = node.getUserData(PositionalXMLHandler.LINE_NUMBER_KEY_NAME);
-		throw new UnsupportedModelException(message, userData == null ? 0 : Integer.parseInt(userData.toString()));
+		throwError(message, getLineNumber(node));
+	}
+
+	/**
+	 * Throws an error that will be used for error markers
+	 *
+	 * @param message The error message
+	 * @param lineNumber The line that causes the error.
+	 */
+	protected static void throwError(String message, int lineNumber) throws UnsupportedModelException {
+		throw new UnsupportedModelException(message, lineNumber);
 	}
 
 	protected void addToProblemsList(String message, org.w3c.dom.Node node) {
-		addProblem(new Problem(message, Integer.parseInt(node.getUserData(PositionalXMLHandler.LINE_NUMBER_KEY_NAME).toString()),
-				de.ovgu.featureide.fm.core.io.Problem.Severity.ERROR));
+		addToProblemsList(message, getLineNumber(node));
 	}
 
 	protected void throwWarning(String message, org.w3c.dom.Node node) {
-		addProblem(new Problem(message, Integer.parseInt(node.getUserData(PositionalXMLHandler.LINE_NUMBER_KEY_NAME).toString()), Severity.WARNING));
+		throwWarning(message, getLineNumber(node));
+	}
+
+	protected void addToProblemsList(String message, int lineNumber) {
+		addProblem(new Problem(message, lineNumber, Severity.ERROR));
+	}
+
+	protected void throwWarning(String message, int lineNumber) {
+		addProblem(new Problem(message, lineNumber, Severity.WARNING));
 	}
 
 	/**
@@ -195,7 +221,24 @@ public abstract class AXMLFormat<T> extends APersistentFormat<T> implements IPer
 	public ProblemList read(T object, CharSequence source) {
 		this.object = object;
 
+		if (object instanceof IEventManager) {
+			final IEventManager eventManager = (IEventManager) object;
+			eventManager.startBatch();
+			try {
+				return read(source);
+			} finally {
+				eventManager.endBatch();
+			}
+		}
+		return read(source);
+	}
+
+	private ProblemList read(CharSequence source) {
 		final ProblemList lastWarnings = new ProblemList();
+		if (supportsStreaming()) {
+			readStream(source, lastWarnings);
+			return lastWarnings;
+		}
 		try {
 			final Document doc = DocumentBuilderFactory.newInstance().newDocumentBuilder().newDocument();
 			SAXParserFactory.newInstance().newSAXParser().parse(new InputSource(new StringReader(source.toString())), new PositionalXMLHandler(doc));
@@ -212,8 +255,75 @@ public abstract class AXMLFormat<T> extends APersistentFormat<T> implements IPer
 		return lastWarnings;
 	}
 
+	private void readStream(CharSequence source, ProblemList lastWarnings) {
+		XMLStreamReader reader = null;
+		try {
+			final XMLInputFactory factory = XMLInputFactory.newInstance();
+			factory.setProperty(XMLInputFactory.IS_COALESCING, Boolean.TRUE);
+			factory.setProperty(XMLInputFactory.IS_NAMESPACE_AWARE, Boolean.FALSE);
+			factory.setProperty(XMLInputFactory.SUPPORT_DTD, Boolean.FALSE);
+			reader = factory.createXMLStreamReader(source instanceof String ? new StringReader((String) source) : new CharSequenceReader(source));
+			readStream(reader, lastWarnings);
+		} catch (final XMLStreamException e) {
+			final Location location = e.getLocation();
+			lastWarnings.add(new Problem(e, location == null ? 0 : location.getLineNumber()));
+		} catch (final UnsupportedModelException e) {
+			lastWarnings.add(new Problem(e, e.lineNumber));
+		} catch (final Exception e) {
+			lastWarnings.add(new Problem(e));
+		} finally {
+			if (reader != null) {
+				try {
+					reader.close();
+				} catch (final XMLStreamException e) {
+					Logger.logError(e);
+				}
+			}
+		}
+	}
+
 	@Override
 	public String write(T object) {
+		if (supportsStreaming()) {
+			final StringWriter writer = new StringWriter();
+			try {
+				write(object, writer);
+			} catch (final IOException e) {
+				Logger.logError(e);
+				return "";
+			}
+			return writer.toString();
+		}
+		return writeDOM(object);
+	}
+
+	/**
+	 * Writes the given object to the given writer. Streaming formats write the XML elements directly to the writer, all other formats build the complete
+	 * document first.
+	 *
+	 * @param object the object to write
+	 * @param writer the target writer
+	 * @throws IOException if the writer throws an exception
+	 *
+	 * @see #supportsStreaming()
+	 */
+	public void write(T object, Writer writer) throws IOException {
+		if (supportsStreaming()) {
+			this.object = object;
+			writer.write(XML_HEADER);
+			try {
+				final PrettyXMLStreamWriter xmlWriter = new PrettyXMLStreamWriter(writer);
+				writeStream(xmlWriter);
+				xmlWriter.flush();
+			} catch (final XMLStreamException e) {
+				throw new IOException(e);
+			}
+		} else {
+			writer.write(writeDOM(object));
+		}
+	}
+
+	private String writeDOM(T object) {
 		this.object = object;
 
 		// Create Empty DOM Document
@@ -276,6 +386,129 @@ public abstract class AXMLFormat<T> extends APersistentFormat<T> implements IPer
 		return false;
 	}
 
+	/**
+	 * Returns whether this format reads and writes its objects with a streaming XML reader / writer instead of building a complete DOM document. Formats
+	 * that return {@code true} must implement {@link #readStream(XMLStreamReader, List)} and {@link #writeStream(PrettyXMLStreamWriter)}. Does return
+	 * {@code false} on default.
+	 *
+	 * @return {@code true} if this format supports streaming, {@code false} otherwise.
+	 */
+	protected boolean supportsStreaming() {
+		return false;
+	}
+
+	/**
+	 * Reads an XML-Document from a stream. Is only called if {@link #supportsStreaming()} returns {@code true}.
+	 *
+	 * @param reader the reader positioned at the start of the document
+	 * @param warnings list of warnings / errors that occur during read
+	 */
+	protected void readStream(XMLStreamReader reader, List<Problem> warnings) throws XMLStreamException, UnsupportedModelException {
+		throw new UnsupportedOperationException();
+	}
+
+	/**
+	 * Writes an XML-Document to a stream. Is only called if {@link #supportsStreaming()} returns {@code true}.
+	 *
+	 * @param writer the writer
+	 */
+	protected void writeStream(PrettyXMLStreamWriter writer) throws XMLStreamException {
+		throw new UnsupportedOperationException();
+	}
+
+	/**
+	 * Moves the reader to the next child element of the current element.
+	 *
+	 * @param reader the reader
+	 * @return {@code true} if the reader is positioned at the start of the next child element, {@code false} if it reached the end of the current element.
+	 */
+	protected static boolean nextElement(XMLStreamReader reader) throws XMLStreamException {
+		while (reader.hasNext()) {
+			switch (reader.next()) {
+			case XMLStreamConstants.START_ELEMENT:
+				return true;
+			case XMLStreamConstants.END_ELEMENT:
+				return false;
+			default:
+				break;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Skips the current element including all of its children.
+	 *
+	 * @param reader the reader positioned at the start of an element
+	 */
+	protected static void skipElement(XMLStreamReader reader) throws XMLStreamException {
+		int depth = 1;
+		while ((depth > 0) && reader.hasNext()) {
+			switch (reader.next()) {
+			case XMLStreamConstants.START_ELEMENT:
+				depth++;
+				break;
+			case XMLStreamConstants.END_ELEMENT:
+				depth--;
+				break;
+			default:
+				break;
+			}
+		}
+	}
+
+	/**
+	 * Reads the text content of the current element including the text of all of its children.
+	 *
+	 * @param reader the reader positioned at the start of an element
+	 * @return the text content of the element
+	 */
+	protected static String readText(XMLStreamReader reader) throws XMLStreamException {
+		final StringBuilder text = new StringBuilder();
+		int depth = 1;
+		while ((depth > 0) && reader.hasNext()) {
+			switch (reader.next()) {
+			case XMLStreamConstants.START_ELEMENT:
+				depth++;
+				break;
+			case XMLStreamConstants.END_ELEMENT:
+				depth--;
+				break;
+			case XMLStreamConstants.CHARACTERS:
+			case XMLStreamConstants.CDATA:
+			case XMLStreamConstants.SPACE:
+			case XMLStreamConstants.ENTITY_REFERENCE:
+				text.append(reader.getText());
+				break;
+			default:
+				break;
+			}
+		}
+		return text.toString();
+	}
+
+	/**
+	 * Returns the line number of the given node, as stored by the {@link PositionalXMLHandler}.
+	 *
+	 * @param node the node
+	 * @return the line number of the node or {@code 0} if it is unknown
+	 */
+	protected static int getLineNumber(org.w3c.dom.Node node) {
+		final Object userData = node.getUserData(PositionalXMLHandler.LINE_NUMBER_KEY_NAME);
+		return userData == null ? 0 : Integer.parseInt(userData.toString());
+	}
+
+	/**
+	 * Returns the line number of the current position of the given reader.
+	 *
+	 * @param reader the reader
+	 * @return the current line number
+	 */
+	protected static int getLineNumber(XMLStreamReader reader) {
+		final Location location = reader.getLocation();
+		return location == null ? 0 : location.getLineNumber();
+	}
+
 	/**
 	 * Reads an XML-Document.
 	 *
@@ -291,4 +524,35 @@ public abstract class AXMLFormat<T> extends APersistentFormat<T> implements IPer
 	 */
 	protected abstract void writeDocument(Document doc);
 
+	/**
+	 * Provides a {@link CharSequence} to a streaming parser without copying it into a string.
+	 */
+	private static final class CharSequenceReader extends Reader {
+
+		private final CharSequence source;
+		private int position = 0;
+
+		public CharSequenceReader(CharSequence source) {
+			this.source = source;
+		}
+
+		@Override
+		public int read(char[] buffer, int offset, int length) {
+			final int end = Math.min(source.length(), position + length);
+			if (position >= end) {
+				return (length == 0) ? 0 : -1;
+			}
+			for (int i = position; i < end; i++) {
+				buffer[offset++] = source.charAt(i);
+			}
+			final int count = end - position;
+			position = end;
+			return count;
+		}
+
+		@Override
+		public void close() {}
+
+	}
+
 }
@@ -0,0 +1,176 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.io.xml;
+
+import java.io.Writer;
+import java.util.Map.Entry;
+import java.util.TreeMap;
+import java.util.regex.Pattern;
+
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+
+/**
+ * Writes XML elements to a {@link Writer} without building a document first. Produces the same layout as {@link AXMLFormat#prettyPrint(String)}: each
+ * element is placed on its own line and indented by tabs, attributes are sorted by name, and elements without content are closed immediately.<br> <br>
+ * Elements can either contain other elements or text, but not both.
+ *
+ * @author FeatureIDE Team
+ */
+public class PrettyXMLStreamWriter {
+
+	private static final Pattern LINE_BREAK = Pattern.compile("\r\n|\r|\n");
+
+	private final XMLStreamWriter writer;
+
+	private final TreeMap<String, String> attributes = new TreeMap<>();
+	private String pendingElement = null;
+	private String text = null;
+	private int depth = 0;
+
+	public PrettyXMLStreamWriter(Writer out) throws XMLStreamException {
+		writer = XMLOutputFactory.newInstance().createXMLStreamWriter(out);
+	}
+
+	/**
+	 * Starts a new element as child of the current element.
+	 *
+	 * @param name the element name
+	 */
+	public void writeStartElement(String name) throws XMLStreamException {
+		writePendingElement();
+		pendingElement = name;
+	}
+
+	/**
+	 * Adds an attribute to the element that was started last. Must be called before any child element or text is written.
+	 *
+	 * @param name the attribute name
+	 * @param value the attribute value
+	 */
+	public void writeAttribute(String name, String value) {
+		if (pendingElement == null) {
+			throw new IllegalStateException("No element to add attribute " + name);
+		}
+		attributes.put(name, value);
+	}
+
+	/**
+	 * Sets the text content of the element that was started last.
+	 *
+	 * @param text the text content
+	 */
+	public void writeCharacters(String text) {
+		if (pendingElement == null) {
+			throw new IllegalStateException("No element to add text");
+		}
+		this.text = (this.text == null) ? text : this.text + text;
+	}
+
+	/**
+	 * Writes an element containing only the given text.
+	 *
+	 * @param name the element name
+	 * @param text the text content
+	 */
+	public void writeTextElement(String name, String text) throws XMLStreamException {
+		writeStartElement(name);
+		writeCharacters(text);
+		writeEndElement();
+	}
+
+	/**
+	 * Closes the current element.
+	 */
+	public void writeEndElement() throws XMLStreamException {
+		if (pendingElement != null) {
+			writeIndent(depth);
+			if ((text == null) || text.isEmpty()) {
+				writer.writeEmptyElement(pendingElement);
+				writeAttributes();
+			} else {
+				writer.writeStartElement(pendingElement);
+				writeAttributes();
+				writeText();
+				writer.writeEndElement();
+			}
+			pendingElement = null;
+			text = null;
+		} else {
+			depth--;
+			writeIndent(depth);
+			writer.writeEndElement();
+		}
+		writer.writeCharacters("\n");
+	}
+
+	public void flush() throws XMLStreamException {
+		writePendingElement();
+		writer.flush();
+	}
+
+	private void writePendingElement() throws XMLStreamException {
+		if (pendingElement != null) {
+			if (text != null) {
+				throw new IllegalStateException("Element " + pendingElement + " cannot contain text and elements");
+			}
+			writeIndent(depth);
+			writer.writeStartElement(pendingElement);
+			writeAttributes();
+			writer.writeCharacters("\n");
+			pendingElement = null;
+			depth++;
+		}
+	}
+
+	private void writeAttributes() throws XMLStreamException {
+		for (final Entry<String, String> attribute : attributes.entrySet()) {
+			writer.writeAttribute(attribute.getKey(), attribute.getValue());
+		}
+		attributes.clear();
+	}
+
+	private void writeText() throws XMLStreamException {
+		final String[] lines = LINE_BREAK.split(text, -1);
+		if (lines.length == 1) {
+			writer.writeCharacters(text);
+		} else {
+			writer.writeCharacters("\n");
+			for (final String line : lines) {
+				final String trimmedLine = line.trim();
+				if (!trimmedLine.isEmpty()) {
+					writeIndent(depth + 1);
+					writer.writeCharacters(trimmedLine);
+					writer.writeCharacters("\n");
+				}
+			}
+			writeIndent(depth);
+		}
+	}
+
+	private void writeIndent(int level) throws XMLStreamException {
+		for (int i = 0; i < level; i++) {
+			writer.writeCharacters("\t");
+		}
+	}
+
+}
@@ -30,11 +30,16 @@ import static de.ovgu.featureide.fm.core.localization.StringTable.WRONG_SYNTAX;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.regex.Pattern;
 
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
 import org.prop4j.And;
 import org.prop4j.AtMost;
 import org.prop4j.Equals;
@@ -112,6 +117,92 @@ public class XmlFeatureModelFormat extends AXMLFormat<IFeatureModel> implements
 		warnings.addAll(localProblems);
 	}
 
+	@Override
+	protected boolean supportsStreaming() {
+		return true;
+	}
+
+	@Override
+	protected void readStream(XMLStreamReader reader, List<Problem> warnings) throws XMLStreamException, UnsupportedModelException {
+		object.reset();
+
+		factory = FMFactoryManager.getInstance().getFactory(object);
+
+		// feature names referenced by constraints and the feature order are checked after all features have been read
+		final Map<String, Integer> referencedFeatures = new LinkedHashMap<>();
+		final List<IConstraint> constraints = new ArrayList<>();
+		final List<String> featureOrder = new ArrayList<>();
+
+		if ((reader.nextTag() != XMLStreamReader.START_ELEMENT) || !FEATURE_MODEL.equals(reader.getLocalName())) {
+			throwError("Node " + FEATURE_MODEL + " not defined!", 0);
+		}
+		final int featureModelLine = getLineNumber(reader);
+		boolean hasStruct = false;
+		final Set<String> sections = new HashSet<>();
+		while (nextElement(reader)) {
+			final String nodeName = reader.getLocalName();
+			switch (nodeName) {
+			case STRUCT:
+				hasStruct = true;
+				readFeatures(reader, null);
+				break;
+			case CONSTRAINTS:
+				readConstraints(reader, constraints, referencedFeatures);
+				break;
+			case COMMENTS:
+				readComments(reader);
+				break;
+			case FEATURE_ORDER:
+				readFeatureOrder(reader, featureOrder, referencedFeatures);
+				break;
+			case CALCULATIONS:
+				readCalculations(reader);
+				break;
+			case PROPERTIES:
+				readFeatureModelProperties(reader);
+				break;
+			default:
+				skipElement(reader);
+				continue;
+			}
+			if (!sections.add(nodeName)) {
+				throwWarning("Multiple nodes of " + nodeName + " defined.", featureModelLine);
+			}
+		}
+		if (!hasStruct) {
+			throwError("Node " + STRUCT + " not defined!", featureModelLine);
+		}
+
+		for (final Map.Entry<String, Integer> entry : referencedFeatures.entrySet()) {
+			if (object.getFeature(entry.getKey()) == null) {
+				throwError("Feature \"" + entry.getKey() + "\" does not exists", entry.getValue());
+			}
+		}
+		for (final IConstraint constraint : constraints) {
+			object.addConstraint(constraint);
+		}
+		if (!featureOrder.isEmpty()) {
+			object.setFeatureOrderList(featureOrder);
+		}
+
+		if (object.getStructure().getRoot() == null) {
+			throw new UnsupportedModelException(WRONG_SYNTAX, 1);
+		}
+
+		warnings.addAll(localProblems);
+	}
+
+	@Override
+	protected void writeStream(PrettyXMLStreamWriter writer) throws XMLStreamException {
+		writer.writeStartElement(FEATURE_MODEL);
+		writeProperties(writer);
+		writeFeatures(writer);
+		writeConstraints(writer);
+		writeComments(writer);
+		writeFeatureOrder(writer);
+		writer.writeEndElement();
+	}
+
 	@Override
 	protected void writeDocument(Document doc) {
 		final Element root = doc.createElement(FEATURE_MODEL);
@@ -447,7 +538,10 @@ public class XmlFeatureModelFormat extends AXMLFormat<IFeatureModel> implements
 	}
 
 	protected String getDescription(final Node e) {
-		String description = e.getTextContent();
+		return getDescription(e.getTextContent());
+	}
+
+	protected String getDescription(String description) {
 		// NOTE: THe following code is used for backwards compatibility. It replaces spaces and tabs that were added to the XML for indentation, but don't
 		// belong to the actual description.
 		if (description != null) {
@@ -460,7 +554,10 @@ public class XmlFeatureModelFormat extends AXMLFormat<IFeatureModel> implements
 	 * Reads the tag string from the xml file into a set of tags for a constraint
 	 */
 	protected Set<String> getTags(final Node e) {
-		final String tags = e.getTextContent();
+		return getTags(e.getTextContent());
+	}
+
+	protected Set<String> getTags(final String tags) {
 		final String[] tagArray = tags.split(",");
 		final Set<String> tagSet = new HashSet<>();
 
@@ -559,12 +656,25 @@ public class XmlFeatureModelFormat extends AXMLFormat<IFeatureModel> implements
 			}
 		}
 
+		final IFeature f = addFeature(parent, nodeName, name, mandatory, _abstract, hidden, getLineNumber(e));
+		if (e.hasChildNodes()) {
+			parseFeatures(e.getChildNodes(), f);
+		}
+	}
+
+	/**
+	 * Creates a new feature and adds it to the feature model.
+	 *
+	 * @return the new feature
+	 */
+	protected IFeature addFeature(IFeature parent, final String nodeName, String name, boolean mandatory, boolean _abstract, boolean hidden,
+			int lineNumber) throws UnsupportedModelException {
 		if (object.getFeature(name) != null) {
-			throwError("Duplicate entry for feature: " + name, e);
+			throwError("Duplicate entry for feature: " + name, lineNumber);
 		}
 
 		if ((validator != null) && !validator.isValidFeatureName(name)) {
-			addToProblemsList(name + " is not a valid feature name", e);
+			addToProblemsList(name + " is not a valid feature name", lineNumber);
 		}
 
 		final IFeature f = factory.createFeature(object, name);
@@ -594,9 +704,7 @@ public class XmlFeatureModelFormat extends AXMLFormat<IFeatureModel> implements
 		} else {
 			parent.getStructure().addChild(f.getStructure());
 		}
-		if (e.hasChildNodes()) {
-			parseFeatures(e.getChildNodes(), f);
-		}
+		return f;
 	}
 
 	protected void parseProperty(IPropertyContainer properties, final Element e, String type) {
@@ -606,13 +714,15 @@ public class XmlFeatureModelFormat extends AXMLFormat<IFeatureModel> implements
 			if (type == null) {
 				type = e.hasAttribute(TYPE) ? e.getAttribute(TYPE) : TYPE_CUSTOM;
 			}
-			final String key = e.getAttribute(KEY);
-			final String value = e.getAttribute(VALUE);
-			if (properties.has(key, type)) {
-				throwWarning("Redundant property definition for key: " + key, e);
-			} else {
-				properties.set(key, type, value);
-			}
+			setProperty(properties, e.getAttribute(KEY), e.getAttribute(VALUE), type, getLineNumber(e));
+		}
+	}
+
+	private void setProperty(IPropertyContainer properties, final String key, final String value, String type, int lineNumber) {
+		if (properties.has(key, type)) {
+			throwWarning("Redundant property definition for key: " + key, lineNumber);
+		} else {
+			properties.set(key, type, value);
 		}
 	}
 
@@ -674,6 +784,429 @@ public class XmlFeatureModelFormat extends AXMLFormat<IFeatureModel> implements
 		}
 	}
 
+	protected void readFeatures(XMLStreamReader reader, IFeature parent) throws XMLStreamException, UnsupportedModelException {
+		while (nextElement(reader)) {
+			final String nodeName = reader.getLocalName();
+			switch (nodeName) {
+			case AND:
+			case OR:
+			case ALT:
+			case FEATURE:
+				readFeature(reader, parent, nodeName);
+				break;
+			case DESCRIPTION:
+				if (parent != null) {
+					final String description = readText(reader);
+					if (!description.isEmpty()) {
+						parent.getProperty().setDescription(getDescription(description));
+					}
+				} else {
+					throwWarning("Misplaced description element", getLineNumber(reader));
+					skipElement(reader);
+				}
+				break;
+			case GRAPHICS:
+			case PROPERTY:
+				if (parent != null) {
+					readProperty(reader, parent.getCustomProperties(), nodeName.equals(GRAPHICS) ? GRAPHICS : null);
+				} else {
+					throwWarning("Misplaced " + nodeName + " element", getLineNumber(reader));
+					skipElement(reader);
+				}
+				break;
+			default:
+				throwWarning("Unknown feature type: " + nodeName, getLineNumber(reader));
+				skipElement(reader);
+				break;
+			}
+		}
+	}
+
+	protected void readFeature(XMLStreamReader reader, IFeature parent, final String nodeName) throws XMLStreamException, UnsupportedModelException {
+		final int lineNumber = getLineNumber(reader);
+		boolean mandatory = false;
+		boolean _abstract = false;
+		boolean hidden = false;
+		String name = "";
+		for (int i = 0; i < reader.getAttributeCount(); i++) {
+			final String attributeName = reader.getAttributeLocalName(i);
+			final String attributeValue = reader.getAttributeValue(i);
+			if (attributeName.equals(ABSTRACT)) {
+				_abstract = attributeValue.equals(TRUE);
+			} else if (attributeName.equals(MANDATORY)) {
+				mandatory = attributeValue.equals(TRUE);
+			} else if (attributeName.equals(NAME)) {
+				name = attributeValue;
+			} else if (attributeName.equals(HIDDEN)) {
+				hidden = attributeValue.equals(TRUE);
+			} else if (attributeName.equals(COORDINATES)) {
+				// Legacy case, for backwards compatibility
+			} else {
+				throwWarning("Unknown feature attribute: " + attributeName, lineNumber);
+			}
+		}
+		readFeatures(reader, addFeature(parent, nodeName, name, mandatory, _abstract, hidden, lineNumber));
+	}
+
+	protected void readProperty(XMLStreamReader reader, IPropertyContainer properties, String type) throws XMLStreamException {
+		final int lineNumber = getLineNumber(reader);
+		final String key = reader.getAttributeValue(null, KEY);
+		final String value = reader.getAttributeValue(null, VALUE);
+		if ((key == null) || (value == null)) {
+			throwWarning("Missing one of the required attributes: " + KEY + " or " + VALUE, lineNumber);
+		} else {
+			if (type == null) {
+				final String customType = reader.getAttributeValue(null, TYPE);
+				type = customType != null ? customType : TYPE_CUSTOM;
+			}
+			setProperty(properties, key, value, type, lineNumber);
+		}
+		skipElement(reader);
+	}
+
+	protected void readConstraints(XMLStreamReader reader, List<IConstraint> constraints, Map<String, Integer> referencedFeatures)
+			throws XMLStreamException, UnsupportedModelException {
+		final int constraintsLineNumber = getLineNumber(reader);
+		while (nextElement(reader)) {
+			final String nodeName = reader.getLocalName();
+			final int lineNumber = getLineNumber(reader);
+			if (nodeName.equals(RULE)) {
+				final List<String> unknownAttributes = new ArrayList<>();
+				for (int i = 0; i < reader.getAttributeCount(); i++) {
+					final String attributeName = reader.getAttributeLocalName(i);
+					if (!attributeName.equals(COORDINATES)) {
+						unknownAttributes.add(attributeName);
+					}
+				}
+				final IConstraint constraint = factory.createConstraint(object, null);
+				final LinkedList<org.prop4j.Node> constraintNodeList = readConstraintNodes(reader, constraint, referencedFeatures);
+				if (constraintNodeList.isEmpty()) {
+					throwWarning("Missing elements", constraintsLineNumber);
+				} else if (constraintNodeList.size() > 1) {
+					throwWarning("Too many elements", constraintsLineNumber);
+				} else {
+					constraint.setNode(constraintNodeList.getFirst());
+					for (final String attributeName : unknownAttributes) {
+						throwWarning("Unknown constraint attribute: " + attributeName, lineNumber);
+					}
+					constraints.add(constraint);
+				}
+			} else {
+				throwWarning("Unknown constraint node: " + nodeName, lineNumber);
+				skipElement(reader);
+			}
+		}
+	}
+
+	protected LinkedList<org.prop4j.Node> readConstraintNodes(XMLStreamReader reader, IConstraint parent, Map<String, Integer> referencedFeatures)
+			throws XMLStreamException, UnsupportedModelException {
+		final LinkedList<org.prop4j.Node> nodes = new LinkedList<>();
+		LinkedList<org.prop4j.Node> children;
+		while (nextElement(reader)) {
+			final String nodeName = reader.getLocalName();
+			final int lineNumber = getLineNumber(reader);
+			switch (nodeName) {
+			case DESCRIPTION:
+				if (parent != null) {
+					parent.setDescription(getDescription(readText(reader)));
+				} else {
+					throwWarning("Misplaced description element", lineNumber);
+					skipElement(reader);
+				}
+				break;
+			case GRAPHICS:
+				if (parent != null) {
+					readProperty(reader, parent.getCustomProperties(), GRAPHICS);
+				} else {
+					throwWarning("Misplaced graphics element", lineNumber);
+					skipElement(reader);
+				}
+				break;
+			case PROPERTY:
+				if (parent != null) {
+					readProperty(reader, parent.getCustomProperties(), null);
+				} else {
+					throwWarning("Misplaced property element", lineNumber);
+					skipElement(reader);
+				}
+				break;
+			case TAGS:
+				if (parent != null) {
+					parent.setTags(getTags(readText(reader)));
+				} else {
+					throwWarning("Misplaced description element", lineNumber);
+					skipElement(reader);
+				}
+				break;
+			case DISJ:
+				nodes.add(new Or(readConstraintNodes(reader, null, referencedFeatures)));
+				break;
+			case CONJ:
+				nodes.add(new And(readConstraintNodes(reader, null, referencedFeatures)));
+				break;
+			case EQ:
+				children = readConstraintNodes(reader, null, referencedFeatures);
+				nodes.add(new Equals(children.get(0), children.get(1)));
+				break;
+			case IMP:
+				children = readConstraintNodes(reader, null, referencedFeatures);
+				nodes.add(new Implies(children.get(0), children.get(1)));
+				break;
+			case NOT:
+				nodes.add(new Not((readConstraintNodes(reader, null, referencedFeatures)).getFirst()));
+				break;
+			case ATMOST1:
+				nodes.add(new AtMost(1, readConstraintNodes(reader, null, referencedFeatures)));
+				break;
+			case VAR:
+				final String featureName = readText(reader);
+				if (!referencedFeatures.containsKey(featureName)) {
+					referencedFeatures.put(featureName, lineNumber);
+				}
+				nodes.add(new Literal(featureName));
+				break;
+			default:
+				throwWarning("Unknown constraint type: " + nodeName, lineNumber);
+				skipElement(reader);
+			}
+		}
+		return nodes;
+	}
+
+	protected void readComments(XMLStreamReader reader) throws XMLStreamException {
+		while (nextElement(reader)) {
+			final String nodeName = reader.getLocalName();
+			if (nodeName.equals(C)) {
+				object.getProperty().addComment(readText(reader));
+			} else {
+				throwWarning("Unknown comment attribute: " + nodeName, getLineNumber(reader));
+				skipElement(reader);
+			}
+		}
+	}
+
+	protected void readFeatureOrder(XMLStreamReader reader, List<String> featureOrder, Map<String, Integer> referencedFeatures)
+			throws XMLStreamException, UnsupportedModelException {
+		final int lineNumber = getLineNumber(reader);
+		for (int i = 0; i < reader.getAttributeCount(); i++) {
+			final String attributeName = reader.getAttributeLocalName(i);
+			final String attributeValue = reader.getAttributeValue(i);
+			if (attributeName.equals(USER_DEFINED)) {
+				object.setFeatureOrderUserDefined(attributeValue.equals(TRUE));
+			} else if (attributeName.equals(NAME)) {
+				if (!referencedFeatures.containsKey(attributeValue)) {
+					referencedFeatures.put(attributeValue, lineNumber);
+				}
+				featureOrder.add(attributeValue);
+			} else {
+				throwError("Unknown feature order attribute: " + attributeName, lineNumber);
+			}
+		}
+		while (nextElement(reader)) {
+			readFeatureOrder(reader, featureOrder, referencedFeatures);
+		}
+	}
+
+	protected void readCalculations(XMLStreamReader reader) throws XMLStreamException {
+		final int lineNumber = getLineNumber(reader);
+		for (final String key : new String[] { CALCULATE_AUTO, CALCULATE_CONSTRAINTS, CALCULATE_FEATURES, CALCULATE_REDUNDANT, CALCULATE_TAUTOLOGY }) {
+			final String value = reader.getAttributeValue(null, key);
+			if (value != null) {
+				setProperty(object.getProperty(), key, value, CALCULATIONS, lineNumber);
+			}
+		}
+		skipElement(reader);
+	}
+
+	protected void readFeatureModelProperties(XMLStreamReader reader) throws XMLStreamException {
+		while (nextElement(reader)) {
+			switch (reader.getLocalName()) {
+			case GRAPHICS:
+				readProperty(reader, object.getProperty(), GRAPHICS);
+				break;
+			case CALCULATIONS:
+				readProperty(reader, object.getProperty(), CALCULATIONS);
+				break;
+			case PROPERTY:
+				readProperty(reader, object.getProperty(), null);
+				break;
+			default:
+				skipElement(reader);
+				break;
+			}
+		}
+	}
+
+	protected void writeProperties(PrettyXMLStreamWriter writer) throws XMLStreamException {
+		if (!object.getProperty().getProperties().isEmpty()) {
+			writer.writeStartElement(PROPERTIES);
+			writeProperties(writer, object.getProperty());
+			writer.writeEndElement();
+		}
+	}
+
+	protected void writeFeatures(PrettyXMLStreamWriter writer) throws XMLStreamException {
+		writer.writeStartElement(STRUCT);
+		writeFeatureTreeRec(writer, FeatureUtils.getRoot(object));
+		writer.writeEndElement();
+	}
+
+	protected void writeConstraints(PrettyXMLStreamWriter writer) throws XMLStreamException {
+		if (!object.getConstraints().isEmpty()) {
+			writer.writeStartElement(CONSTRAINTS);
+			for (final IConstraint constraint : object.getConstraints()) {
+				writer.writeStartElement(RULE);
+				writeDescription(writer, constraint.getDescription());
+				writeProperties(writer, constraint.getCustomProperties());
+				writeTags(writer, constraint.getTags());
+				writePropositionalConstraints(writer, constraint.getNode());
+				writer.writeEndElement();
+			}
+			writer.writeEndElement();
+		}
+	}
+
+	protected void writeComments(PrettyXMLStreamWriter writer) throws XMLStreamException {
+		if (!object.getProperty().getComments().isEmpty()) {
+			writer.writeStartElement(COMMENTS);
+			for (final String comment : object.getProperty().getComments()) {
+				writer.writeTextElement(C, comment);
+			}
+			writer.writeEndElement();
+		}
+	}
+
+	protected void writeFeatureOrder(PrettyXMLStreamWriter writer) throws XMLStreamException {
+		if (object.isFeatureOrderUserDefined()) {
+			writer.writeStartElement(FEATURE_ORDER);
+			writer.writeAttribute(USER_DEFINED, Boolean.toString(object.isFeatureOrderUserDefined()));
+			Collection<String> featureOrderList = object.getFeatureOrderList();
+
+			if (featureOrderList.isEmpty()) {
+				featureOrderList = FeatureUtils.extractConcreteFeaturesAsStringList(object);
+			}
+
+			for (final String featureName : featureOrderList) {
+				writer.writeStartElement(FEATURE);
+				writer.writeAttribute(NAME, featureName);
+				writer.writeEndElement();
+			}
+			writer.writeEndElement();
+		}
+	}
+
+	protected void writePropositionalConstraints(PrettyXMLStreamWriter writer, org.prop4j.Node node) throws XMLStreamException {
+		if (node == null) {
+			return;
+		}
+
+		if (node instanceof Literal) {
+			final Literal literal = (Literal) node;
+			if (!literal.positive) {
+				writer.writeStartElement(NOT);
+			}
+			writer.writeTextElement(VAR, String.valueOf(literal.var));
+			if (!literal.positive) {
+				writer.writeEndElement();
+			}
+			return;
+		} else if (node instanceof Or) {
+			writer.writeStartElement(DISJ);
+		} else if (node instanceof Equals) {
+			writer.writeStartElement(EQ);
+		} else if (node instanceof Implies) {
+			writer.writeStartElement(IMP);
+		} else if (node instanceof And) {
+			writer.writeStartElement(CONJ);
+		} else if (node instanceof Not) {
+			writer.writeStartElement(NOT);
+		} else if (node instanceof AtMost) {
+			writer.writeStartElement(ATMOST1);
+		} else {
+			writer.writeStartElement(UNKNOWN);
+		}
+
+		for (final org.prop4j.Node child : node.getChildren()) {
+			writePropositionalConstraints(writer, child);
+		}
+		writer.writeEndElement();
+	}
+
+	protected void writeFeatureTreeRec(PrettyXMLStreamWriter writer, IFeature feat) throws XMLStreamException {
+		if (feat == null) {
+			return;
+		}
+
+		final List<IFeature> children = FeatureUtils.convertToFeatureList(feat.getStructure().getChildren());
+
+		if (children.isEmpty()) {
+			writer.writeStartElement(FEATURE);
+		} else if (feat.getStructure().isAnd()) {
+			writer.writeStartElement(AND);
+		} else if (feat.getStructure().isOr()) {
+			writer.writeStartElement(OR);
+		} else if (feat.getStructure().isAlternative()) {
+			writer.writeStartElement(ALT);
+		} else {
+			writer.writeStartElement(UNKNOWN);
+		}
+		writeAttributes(writer, feat);
+		writeDescription(writer, feat.getProperty().getDescription());
+		writeProperties(writer, feat.getCustomProperties());
+
+		for (final IFeature feature : children) {
+			writeFeatureTreeRec(writer, feature);
+		}
+		writer.writeEndElement();
+	}
+
+	protected void writeAttributes(PrettyXMLStreamWriter writer, IFeature feat) {
+		writer.writeAttribute(NAME, feat.getName());
+		if (feat.getStructure().isHidden()) {
+			writer.writeAttribute(HIDDEN, TRUE);
+		}
+		if (feat.getStructure().isMandatory()) {
+			if ((feat.getStructure().getParent() != null) && feat.getStructure().getParent().isAnd()) {
+				writer.writeAttribute(MANDATORY, TRUE);
+			} else if (feat.getStructure().getParent() == null) {
+				writer.writeAttribute(MANDATORY, TRUE);
+			}
+		}
+		if (feat.getStructure().isAbstract()) {
+			writer.writeAttribute(ABSTRACT, TRUE);
+		}
+	}
+
+	protected void writeDescription(PrettyXMLStreamWriter writer, String description) throws XMLStreamException {
+		if ((description != null) && !description.trim().isEmpty()) {
+			writer.writeTextElement(DESCRIPTION, description);
+		}
+	}
+
+	protected void writeProperties(PrettyXMLStreamWriter writer, IPropertyContainer properties) throws XMLStreamException {
+		for (final Entry property : properties.getProperties()) {
+			if (property.getValue() != null) {
+				if (GRAPHICS.equals(property.getType())) {
+					writer.writeStartElement(GRAPHICS);
+				} else if (CALCULATIONS.equals(property.getType())) {
+					writer.writeStartElement(CALCULATIONS);
+				} else {
+					writer.writeStartElement(PROPERTY);
+					writer.writeAttribute(TYPE, property.getType());
+				}
+				writer.writeAttribute(KEY, property.getKey());
+				writer.writeAttribute(VALUE, property.getValue());
+				writer.writeEndElement();
+			}
+		}
+	}
+
+	private void writeTags(PrettyXMLStreamWriter writer, Set<String> tags) throws XMLStreamException {
+		if ((tags != null) && !tags.isEmpty()) {
+			writer.writeTextElement(TAGS, String.join(",", tags));
+		}
+	}
+
 	@Override
 	protected void addProblem(final Problem problem) {
 		localProblems.add(problem);
@@ -48,6 +48,21 @@ public abstract class AbstractSatProblem implements SatProblem {
 	/** The assumptions added to this problem. */
 	private final Map<Object, Boolean> assumptions = new LinkedHashMap<>();
 
+	/**
+	 * Constructs a new, empty problem.
+	 */
+	protected AbstractSatProblem() {}
+
+	/**
+	 * Constructs a copy of the given problem containing the same clauses and assumptions.
+	 *
+	 * @param oldProblem the problem to copy; not null
+	 */
+	protected AbstractSatProblem(AbstractSatProblem oldProblem) {
+		clauses.addAll(oldProblem.clauses);
+		assumptions.putAll(oldProblem.assumptions);
+	}
+
 	@Override
 	public int addFormulas(Node... formulas) {
 		return addFormula(new And(formulas));
@@ -20,17 +20,16 @@
  */
 package org.prop4j.explain.solvers.impl.ltms;
 
-import java.util.AbstractList;
-import java.util.Collection;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Deque;
 import java.util.HashMap;
-import java.util.HashSet;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
-import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.Map.Entry;
 import java.util.NoSuchElementException;
 import java.util.Set;
 import java.util.TreeSet;
@@ -45,7 +44,9 @@ import org.prop4j.explain.solvers.impl.AbstractSatProblem;
  * for managing logical implications. BCP expects two parameters: initial truth values (premises) and a propositional formula in CNF (conjunctive normal form).
  * </p>
  *
- * <p> Clauses are referenced by their index in the CNF. </p>
+ * <p> Clauses are referenced by their index in the CNF. Internally, each variable is referenced by an index and each clause is stored as an array of literals
+ * in the same encoding as in {@link de.ovgu.featureide.fm.core.analysis.cnf.LiteralSet LiteralSet} (i.e., a positive or negative variable index starting at
+ * 1). Unit-open and violated clauses are found using two watched literals per clause. </p>
  *
  * <p> Note that this class does not fulfill the entire contract of each of its interfaces. This is because BCP is inherently incomplete, meaning it does not
  * always find a result. </p>
@@ -55,37 +56,69 @@ import org.prop4j.explain.solvers.impl.AbstractSatProblem;
  */
 public class Ltms extends AbstractSatProblem implements MusExtractor {
 
+	private static final byte UNKNOWN = 0;
+	private static final byte TRUE = 1;
+	private static final byte FALSE = -1;
+
+	/**
+	 * Indexes of the variables contained in the clauses, starting at 1.
+	 */
+	private final Map<Object, Integer> variableIndexes = new HashMap<>();
+	/**
+	 * The variables contained in the clauses. The variable with index {@code i} is stored at position {@code i - 1}.
+	 */
+	private final List<Object> variables = new ArrayList<>();
+	/**
+	 * The literals of each clause, in the same order as {@link #clauses}.
+	 */
+	private final List<int[]> clauseLiterals = new ArrayList<>();
+
+	/**
+	 * The truth value assignments of the variables, indexed by variable. A variable is either {@link #TRUE}, {@link #FALSE}, or {@link #UNKNOWN}.
+	 */
+	private byte[] variableValues = new byte[0];
 	/**
-	 * Variables mapped to the clauses they are contained in. Redundant map for the sake of performance.
+	 * The reason for a derived truth value, represented by a clause index (or {@code -1} for premises and unknown variables). The literals of this clause are
+	 * the antecedents of the variable. The antecedents are the literals whose values were referenced when deriving a new truth value.
 	 */
-	private final Map<Object, Set<Integer>> variableClauses = new HashMap<>();
+	private int[] reasons = new int[0];
 	/**
-	 * The truth value assignments of the variables. If the truth value is true, all positive literals containing the variable evaluate to true and negated ones
-	 * to false. If the truth value is false, all positive literals containing the variable evaluate to false and negated ones to true. If the variable is not
-	 * contained in this map, its truth value is considered unknown.
+	 * The derived variables in the order of their derivation.
 	 */
-	private final Map<Object, Boolean> variableValues = new HashMap<>();
+	private int[] trail = new int[0];
+	private int trailSize = 0;
+
 	/**
-	 * The reason for a derived truth value, represented by a clause. The literals of this clause are the antecedents of the variable. The antecedents are the
-	 * literals whose values were referenced when deriving a new truth value.
+	 * The clauses watching a literal, indexed by {@link #getWatchIndex(int)}.
 	 */
-	private final Map<Object, Integer> reasons = new HashMap<>();
+	private int[][] watchLists = new int[0][];
+	private int[] watchListSizes = new int[0];
+	/**
+	 * The positions of the two watched literals of each clause.
+	 */
+	private int[] firstWatches = new int[0];
+	private int[] secondWatches = new int[0];
+
 	/**
 	 * The stack to collect unit-open clauses.
 	 */
-	private final Deque<Integer> unitOpenClauses = new LinkedList<>();
+	private int[] unitOpenClauses = new int[16];
+	private int unitOpenClauseCount = 0;
+
 	/**
-	 * The clause that was violated during the most recent contradiction check.
+	 * Marks visited variables while collecting antecedents.
 	 */
-	private Integer violatedClause;
+	private int[] visited = new int[0];
+	private int visitStamp = 0;
+
 	/**
-	 * The clause containing the derived literal.
+	 * The clause that was violated during the most recent contradiction check.
 	 */
-	private Integer derivedClause;
+	private int violatedClause = -1;
 	/**
-	 * The literal whose truth value was derived during the most recent propagation.
+	 * The variable whose truth value was derived during the most recent propagation.
 	 */
-	private Literal derivedLiteral;
+	private int derivedVariable = -1;
 
 	/**
 	 * The variables that were assumed in each scope except the current one.
@@ -100,6 +133,34 @@ public class Ltms extends AbstractSatProblem implements MusExtractor {
 	 */
 	private int scopeClauseCount = 0;
 
+	/**
+	 * Constructs a new, empty LTMS.
+	 */
+	public Ltms() {}
+
+	/**
+	 * Constructs a copy of the given LTMS with the same clauses, assumptions, and scopes. The literal arrays of the clauses are shared, as they are never
+	 * modified.
+	 *
+	 * @param oldLtms the LTMS to copy; not null
+	 */
+	protected Ltms(Ltms oldLtms) {
+		super(oldLtms);
+		variableIndexes.putAll(oldLtms.variableIndexes);
+		variables.addAll(oldLtms.variables);
+		clauseLiterals.addAll(oldLtms.clauseLiterals);
+		for (final Map<Object, Boolean> assumptions : oldLtms.previousScopeAssumptions) {
+			previousScopeAssumptions.add(new LinkedHashMap<>(assumptions));
+		}
+		previousScopeClauseCounts.addAll(oldLtms.previousScopeClauseCounts);
+		scopeClauseCount = oldLtms.scopeClauseCount;
+	}
+
+	@Override
+	public Ltms clone() {
+		return new Ltms(this);
+	}
+
 	@Override
 	public Object getOracle() {
 		return this; // direct implementation
@@ -109,41 +170,33 @@ public class Ltms extends AbstractSatProblem implements MusExtractor {
 	public int addClause(Node clause) {
 		final int index = super.addClause(clause);
 		if (index >= 0) {
-			clause = clauses.get(index);
-			if (clause instanceof Literal) {
-				final Literal literal = (Literal) clause;
-				Set<Integer> clauseSet = variableClauses.get(literal.var);
-				if (clauseSet == null) {
-					clauseSet = new HashSet<>();
-					variableClauses.put(literal.var, clauseSet);
-				}
-				clauseSet.add(index);
-			} else {
-				for (final Node child : clause.getChildren()) {
-					final Literal literal = (Literal) child;
-					Set<Integer> clauseSet = variableClauses.get(literal.var);
-					if (clauseSet == null) {
-						clauseSet = new HashSet<>();
-						variableClauses.put(literal.var, clauseSet);
-					}
-					clauseSet.add(index);
-				}
+			final Node[] children = clauses.get(index).getChildren();
+			final int[] literals = new int[children.length];
+			for (int i = 0; i < children.length; i++) {
+				final Literal literal = (Literal) children[i];
+				final int variable = getVariableIndex(literal.var);
+				literals[i] = literal.positive ? variable : -variable;
 			}
+			clauseLiterals.add(index, literals);
 			scopeClauseCount++;
 		}
 		return index;
 	}
 
+	private int getVariableIndex(Object variable) {
+		Integer index = variableIndexes.get(variable);
+		if (index == null) {
+			variables.add(variable);
+			index = variables.size();
+			variableIndexes.put(variable, index);
+		}
+		return index;
+	}
+
 	@Override
 	public Node removeClause(int index) {
 		final Node clause = super.removeClause(index);
-		for (final Node child : clause.getChildren()) {
-			final Literal literal = (Literal) child;
-			final Set<Integer> clauses = variableClauses.get(literal.var);
-			if (clauses.remove(index) && clauses.isEmpty()) {
-				variableClauses.remove(literal.var);
-			}
-		}
+		clauseLiterals.remove(index);
 		return clause;
 	}
 
@@ -185,7 +238,12 @@ public class Ltms extends AbstractSatProblem implements MusExtractor {
 
 	@Override
 	public Map<Object, Boolean> getModel() throws IllegalStateException {
-		return variableValues;
+		final Map<Object, Boolean> model = getAssumptions();
+		for (int i = 0; i < trailSize; i++) {
+			final int variable = trail[i];
+			model.put(variables.get(variable - 1), variableValues[variable] == TRUE);
+		}
+		return model;
 	}
 
 	@Override
@@ -242,23 +300,20 @@ public class Ltms extends AbstractSatProblem implements MusExtractor {
 	 */
 	@Override
 	public List<Set<Integer>> getAllMinimalUnsatisfiableSubsetIndexes() throws IllegalStateException {
-		reset();
-		final List<Set<Integer>> explanations = new LinkedList<>();
-		if (isContradicted()) { // If the initial truth values already lead to a contradiction...
+		initialize();
+		final List<Set<Integer>> explanations = new ArrayList<>();
+		if (violatedClause >= 0) { // If the initial truth values already lead to a contradiction...
 			explanations.add(getContradictionExplanation()); // ... explain immediately.
 			return explanations;
 		}
-		unitOpenClauses.clear();
-		pushUnitOpenClauses(); // Start iterating over the first unit-open clauses using the initial truth value assumptions.
-		while (!unitOpenClauses.isEmpty()) {
-			derivedClause = unitOpenClauses.removeLast();
-			derivedLiteral = getUnboundLiteral(derivedClause);
-			if (derivedLiteral == null) { // not actually unit-open
+		while (unitOpenClauseCount > 0) {
+			final int derivedClause = unitOpenClauses[--unitOpenClauseCount];
+			final int derivedLiteral = getUnboundLiteral(derivedClause);
+			if (derivedLiteral == 0) { // not actually unit-open
 				continue;
 			}
-			propagate(); // Propagate the truth values by deriving a new truth value.
-			pushUnitOpenClauses();
-			if (isContradicted()) { // If the propagation lead to a contradiction...
+			propagate(derivedLiteral, derivedClause); // Propagate the truth values by deriving a new truth value.
+			if (violatedClause >= 0) { // If the propagation lead to a contradiction...
 				explanations.add(getContradictionExplanation()); // ... explain the reason for the contradiction.
 				/*
 				 * At this point, the found explanation could already be returned. Instead, keep generating new explanations as there might be a shorter one
@@ -271,159 +326,209 @@ public class Ltms extends AbstractSatProblem implements MusExtractor {
 	}
 
 	/**
-	 * Clears the internal state for a new explanation. Adds the premises to the variable values.
+	 * Prepares the internal state for a new run. Assigns the premises, chooses the watched literals of each clause, and collects the initially unit-open
+	 * clauses as well as the first violated clause.
 	 */
-	private void reset() {
-		violatedClause = null;
-		derivedClause = null;
-		derivedLiteral = null;
-		reasons.clear();
-		variableValues.clear();
-		variableValues.putAll(getAssumptions());
+	private void initialize() {
+		final int variableCount = variables.size() + 1;
+		if (variableValues.length < variableCount) {
+			final int newLength = Math.max(variableCount, variableValues.length << 1);
+			variableValues = new byte[newLength];
+			reasons = new int[newLength];
+			trail = new int[newLength];
+			visited = new int[newLength];
+			visitStamp = 0;
+			watchLists = Arrays.copyOf(watchLists, newLength << 1);
+			watchListSizes = new int[newLength << 1];
+		} else {
+			Arrays.fill(variableValues, UNKNOWN);
+			Arrays.fill(watchListSizes, 0);
+		}
+		Arrays.fill(reasons, -1);
+		trailSize = 0;
+		for (final Entry<Object, Boolean> assumption : getAssumptions().entrySet()) {
+			final Integer variable = variableIndexes.get(assumption.getKey());
+			if (variable != null) {
+				variableValues[variable] = assumption.getValue() ? TRUE : FALSE;
+			}
+		}
+
+		final int clauseCount = clauseLiterals.size();
+		if (firstWatches.length < clauseCount) {
+			final int newLength = Math.max(clauseCount, firstWatches.length << 1);
+			firstWatches = new int[newLength];
+			secondWatches = new int[newLength];
+		}
+		violatedClause = -1;
+		derivedVariable = -1;
+		unitOpenClauseCount = 0;
+		for (int clause = 0; clause < clauseCount; clause++) {
+			final int[] literals = clauseLiterals.get(clause);
+			if (literals.length == 0) {
+				if (violatedClause < 0) {
+					violatedClause = clause;
+				}
+				continue;
+			}
+			int first = -1;
+			int second = -1;
+			for (int i = 0; i < literals.length; i++) {
+				if (getValue(literals[i]) != FALSE) {
+					if (first < 0) {
+						first = i;
+					} else {
+						second = i;
+						break;
+					}
+				}
+			}
+			if (first < 0) {
+				if (violatedClause < 0) {
+					violatedClause = clause;
+				}
+				first = 0;
+				second = literals.length - 1;
+			} else if (second < 0) {
+				if (getValue(literals[first]) == UNKNOWN) {
+					pushUnitOpenClause(clause);
+				}
+				second = (first == 0) ? literals.length - 1 : 0;
+			}
+			firstWatches[clause] = first;
+			secondWatches[clause] = second;
+			addWatch(literals[first], clause);
+			if (second != first) {
+				addWatch(literals[second], clause);
+			}
+		}
 	}
 
 	/**
-	 * Pushes the unit-open clauses to stack.
+	 * Clears the derived truth values for a new explanation. Keeps the premises and the watched literals.
 	 */
-	private void pushUnitOpenClauses() {
-		unitOpenClauses.addAll(getUnitOpenClauses());
+	private void reset() {
+		for (int i = 0; i < trailSize; i++) {
+			final int variable = trail[i];
+			variableValues[variable] = UNKNOWN;
+			reasons[variable] = -1;
+		}
+		trailSize = 0;
+		violatedClause = -1;
+		derivedVariable = -1;
 	}
 
-	/**
-	 * Returns the unit-open clauses.
-	 *
-	 * @return the unit-open clauses
-	 */
-	private Set<Integer> getUnitOpenClauses() {
-		final Set<Integer> unitOpenClauses = new LinkedHashSet<>(); // linked to maintain order and determinism during iteration later
-		for (final int clause : getDirtyClauses()) {
-			if (isUnitOpenClause(clause)) {
-				unitOpenClauses.add(clause);
-			}
+	private byte getValue(int literal) {
+		final byte value = variableValues[Math.abs(literal)];
+		return literal > 0 ? value : (byte) -value;
+	}
+
+	private static int getWatchIndex(int literal) {
+		return literal > 0 ? literal << 1 : ((-literal) << 1) + 1;
+	}
+
+	private void addWatch(int literal, int clause) {
+		final int watchIndex = getWatchIndex(literal);
+		int[] watchList = watchLists[watchIndex];
+		final int size = watchListSizes[watchIndex];
+		if (watchList == null) {
+			watchList = new int[4];
+			watchLists[watchIndex] = watchList;
+		} else if (size == watchList.length) {
+			watchList = Arrays.copyOf(watchList, size << 1);
+			watchLists[watchIndex] = watchList;
 		}
-		return unitOpenClauses;
+		watchList[size] = clause;
+		watchListSizes[watchIndex] = size + 1;
 	}
 
-	/**
-	 * Returns true iff the given clause is unit-open. A CNF clause is unit-open iff one of the contained literals evaluates to unknown and all others to false.
-	 *
-	 * @param clause clause in conjunctive normal form
-	 * @return true iff the given clause is unit-open
-	 */
-	private boolean isUnitOpenClause(int clause) {
-		return getUnboundLiteral(clause) != null;
+	private void pushUnitOpenClause(int clause) {
+		if (unitOpenClauseCount == unitOpenClauses.length) {
+			unitOpenClauses = Arrays.copyOf(unitOpenClauses, unitOpenClauseCount << 1);
+		}
+		unitOpenClauses[unitOpenClauseCount++] = clause;
 	}
 
 	/**
-	 * Returns the unbound literal in the given clause or null if no such literal exists. A literal is unbound iff it evaluates to unknown while all other
-	 * literals in the same CNF clause evaluate to false. Such a literal is critical for the satisfiability of the clause and as such the entire CNF.
+	 * Returns the unbound literal in the given clause or 0 if no such literal exists. A literal is unbound iff it evaluates to unknown while all other literals
+	 * in the same CNF clause evaluate to false. Such a literal is critical for the satisfiability of the clause and as such the entire CNF.
 	 *
 	 * @param clause clause in conjunctive normal form
-	 * @return the unbound literal in the given clause or null if no such literal exists
+	 * @return the unbound literal in the given clause or 0 if no such literal exists
 	 */
-	private Literal getUnboundLiteral(int clause) {
-		Literal unboundLiteral = null;
-		for (final Node child : getClause(clause).getChildren()) {
-			final Literal literal = (Literal) child;
-			if (!variableValues.containsKey(literal.var)) { // unknown value
-				if (unboundLiteral == null) {
+	private int getUnboundLiteral(int clause) {
+		int unboundLiteral = 0;
+		for (final int literal : clauseLiterals.get(clause)) {
+			final byte value = getValue(literal);
+			if (value == UNKNOWN) {
+				if (unboundLiteral == 0) {
 					unboundLiteral = literal;
 				} else { // more than one unknown literal found, thus actually a non-unit-open clause
-					return null;
+					return 0;
 				}
-			} else if (literal.getValue(variableValues)) { // true value
-				return null;
-			} else { // false value
-				// irrelevant
+			} else if (value == TRUE) {
+				return 0;
 			}
 		}
 		return unboundLiteral;
 	}
 
 	/**
-	 * Returns true iff the conjunctive normal form evaluates to false. A CNF evaluates to false iff any of its clauses evaluates to false.
-	 *
-	 * @return true iff the conjunctive normal form evaluates to false
-	 */
-	private boolean isContradicted() {
-		for (final int clause : getDirtyClauses()) {
-			if (isViolatedClause(clause)) {
-				violatedClause = clause;
-				return true;
-			}
-		}
-		return false;
-	}
-
-	/**
-	 * Returns the dirty clauses. A clause is dirty if it needs to be checked for a possible change in its truth value. At the beginning of the algorithm, all
-	 * clauses are dirty. After propagating, only the clauses containing the variable of the derived literal are dirty.
+	 * Does one iteration of BCP. Changes the assignment of a literal's variable from unknown to whatever makes it evaluate to true in the given clause and sets
+	 * its reason. Afterwards, visits all clauses watching the negation of the literal to find new unit-open clauses and the first violated clause.
 	 *
-	 * @return the dirty clauses
+	 * @param derivedLiteral the unbound literal of the clause
+	 * @param derivedClause the clause containing the literal
 	 */
-	private Collection<Integer> getDirtyClauses() {
-		if (derivedLiteral == null) {
-			final int size = getClauseCount();
-			return new AbstractList<Integer>() {
-
-				@Override
-				public Integer get(int index) {
-					return index;
+	private void propagate(int derivedLiteral, int derivedClause) {
+		derivedVariable = Math.abs(derivedLiteral);
+		variableValues[derivedVariable] = derivedLiteral > 0 ? TRUE : FALSE;
+		reasons[derivedVariable] = derivedClause;
+		trail[trailSize++] = derivedVariable;
+
+		final int falseLiteral = -derivedLiteral;
+		final int watchIndex = getWatchIndex(falseLiteral);
+		final int[] watchList = watchLists[watchIndex];
+		final int size = watchListSizes[watchIndex];
+		int keptCount = 0;
+		for (int i = 0; i < size; i++) {
+			final int clause = watchList[i];
+			final int[] literals = clauseLiterals.get(clause);
+			final boolean firstIsFalse = literals[firstWatches[clause]] == falseLiteral;
+			final int otherLiteral = literals[firstIsFalse ? secondWatches[clause] : firstWatches[clause]];
+			final byte otherValue = getValue(otherLiteral);
+			if ((otherValue != TRUE) && (literals.length > 1)) {
+				final int replacement = findReplacementWatch(clause, literals);
+				if (replacement >= 0) {
+					if (firstIsFalse) {
+						firstWatches[clause] = replacement;
+					} else {
+						secondWatches[clause] = replacement;
+					}
+					addWatch(literals[replacement], clause);
+					continue;
 				}
-
-				@Override
-				public int size() {
-					return size;
+			}
+			watchList[keptCount++] = clause;
+			if ((literals.length == 1) || (otherValue == FALSE)) {
+				if (violatedClause < 0) {
+					violatedClause = clause;
 				}
-			};
+			} else if (otherValue == UNKNOWN) {
+				pushUnitOpenClause(clause);
+			}
 		}
-		return variableClauses.get(derivedLiteral.var);
+		watchListSizes[watchIndex] = keptCount;
 	}
 
-	/**
-	 * Returns true iff the given CNF clause evaluates to false. A CNF clause evaluates to false iff all of its literals evaluate to false.
-	 *
-	 * @param clause clause in conjunctive normal form
-	 * @return true iff the given CNF clause evaluates to false
-	 */
-	private boolean isViolatedClause(int clause) {
-		for (final Node child : getClause(clause).getChildren()) {
-			final Literal literal = (Literal) child;
-			if (!variableValues.containsKey(literal.var)) { // unknown value
-				return false;
-			} else if (literal.getValue(variableValues)) { // true value
-				return false;
-			} else { // false value
-				// irrelevant
+	private int findReplacementWatch(int clause, int[] literals) {
+		final int first = firstWatches[clause];
+		final int second = secondWatches[clause];
+		for (int i = 0; i < literals.length; i++) {
+			if ((i != first) && (i != second) && (getValue(literals[i]) != FALSE)) {
+				return i;
 			}
 		}
-		return true;
-	}
-
-	/**
-	 * Does one iteration of BCP. Changes the assignment of a literal's variable from unknown to whatever makes it evaluate to true in the current clause. Also
-	 * sets its reason and antecedents.
-	 */
-	private void propagate() {
-		deriveValue();
-		justify(derivedLiteral.var, derivedClause);
-	}
-
-	/**
-	 * Satisfies the current unit-open clause by making its unbound literal true or negated false.
-	 */
-	private void deriveValue() {
-		variableValues.put(derivedLiteral.var, derivedLiteral.positive);
-	}
-
-	/**
-	 * Sets a variable's reason and antecedents.
-	 *
-	 * @param variable variable to set
-	 * @param cnfClause clause containing the literal
-	 */
-	private void justify(Object variable, int cnfClause) {
-		reasons.put(variable, cnfClause);
+		return -1;
 	}
 
 	/**
@@ -434,38 +539,43 @@ public class Ltms extends AbstractSatProblem implements MusExtractor {
 	private Set<Integer> getContradictionExplanation() {
 		final Set<Integer> explanation = new TreeSet<>();
 		explanation.add(violatedClause);
-		final Map<Object, Integer> antecedents = new LinkedHashMap<>();
-		if (derivedLiteral != null) {
-			getAntecedents(derivedLiteral.var, antecedents);
+		if (++visitStamp == 0) {
+			Arrays.fill(visited, 0);
+			visitStamp = 1;
+		}
+		final int[] stack = new int[trailSize + 1];
+		int stackSize = 0;
+		if (derivedVariable >= 0) {
+			stackSize = addAntecedent(derivedVariable, explanation, stack, stackSize);
+		}
+		for (final int literal : clauseLiterals.get(violatedClause)) {
+			stackSize = addAntecedent(Math.abs(literal), explanation, stack, stackSize);
 		}
-		for (final Node child : getClause(violatedClause).getChildren()) {
-			final Literal literal = (Literal) child;
-			getAntecedents(literal.var, antecedents);
+		while (stackSize > 0) {
+			for (final int literal : clauseLiterals.get(reasons[stack[--stackSize]])) {
+				stackSize = addAntecedent(Math.abs(literal), explanation, stack, stackSize);
+			}
 		}
-		explanation.addAll(antecedents.values());
 		return explanation;
 	}
 
 	/**
-	 * Returns all antecedents of the given variable recursively. The antecedents explain why the variable was assigned a certain truth value.
+	 * Adds the reason of the given variable to the explanation, if the variable was derived and not yet explained. The variable is put on the stack so that its
+	 * own antecedents are explained as well.
 	 *
 	 * @param variable variable with possible antecedents
-	 * @param antecedents out variable; not null
-	 * @return all antecedents of the given variable recursively; not null
+	 * @param explanation the indexes of the clauses explaining the contradiction
+	 * @param stack the variables whose antecedents still need to be explained
+	 * @param stackSize the current size of the stack
+	 * @return the new size of the stack
 	 */
-	private Map<Object, Integer> getAntecedents(Object variable, Map<Object, Integer> antecedents) {
-		if (antecedents.containsKey(variable)) { // already explained
-			return antecedents;
-		}
-		final Integer reason = reasons.get(variable);
-		if (reason == null) { // premise
-			return antecedents;
-		}
-		antecedents.put(variable, reason);
-		for (final Node child : getClause(reason).getChildren()) {
-			final Literal antecedent = (Literal) child;
-			getAntecedents(antecedent.var, antecedents);
+	private int addAntecedent(int variable, Set<Integer> explanation, int[] stack, int stackSize) {
+		if ((visited[variable] == visitStamp) || (reasons[variable] < 0)) { // already explained or premise
+			return stackSize;
 		}
-		return antecedents;
+		visited[variable] = visitStamp;
+		explanation.add(reasons[variable]);
+		stack[stackSize] = variable;
+		return stackSize + 1;
 	}
 }
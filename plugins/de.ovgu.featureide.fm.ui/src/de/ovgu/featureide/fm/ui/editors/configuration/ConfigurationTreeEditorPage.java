@@ -32,6 +32,7 @@ import static de.ovgu.featureide.fm.core.localization.StringTable.THE_FEATURE_MO
 import static de.ovgu.featureide.fm.core.localization.StringTable.THE_GIVEN_FEATURE_MODEL;
 import static de.ovgu.featureide.fm.core.localization.StringTable.VALID_COMMA_;
 
+import java.math.BigInteger;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -108,6 +109,7 @@ import de.ovgu.featureide.fm.core.color.FeatureColorManager;
 import de.ovgu.featureide.fm.core.configuration.Configuration;
 import de.ovgu.featureide.fm.core.configuration.ConfigurationMatrix;
 import de.ovgu.featureide.fm.core.configuration.ConfigurationPropagator;
+import de.ovgu.featureide.fm.core.configuration.ConfigurationSession;
 import de.ovgu.featureide.fm.core.configuration.SelectableFeature;
 import de.ovgu.featureide.fm.core.configuration.Selection;
 import de.ovgu.featureide.fm.core.configuration.TreeElement;
@@ -211,6 +213,8 @@ public abstract class ConfigurationTreeEditorPage extends EditorPart implements
 	private Label infoLabel;
 	private ToolItem resolveButton;
 
+	private ConfigurationSession session;
+
 	protected final LinkedHashMap<SelectableFeature, TreeItem> itemMap = new LinkedHashMap<>();
 
 	protected final JobToken updateToken = LongRunningWrapper.createToken(JobStartingStrategy.CANCEL_WAIT_ONE);
@@ -675,13 +679,18 @@ public abstract class ConfigurationTreeEditorPage extends EditorPart implements
 			sb.append(POSSIBLE_CONFIGURATIONS);
 			display.asyncExec(() -> setResolveButton(true));
 		} else {
-			final long number = conflicting ? 0 : LongRunningWrapper.runMethod(propagator.number(250));
 			sb.append(valid ? VALID_COMMA_ : INVALID_COMMA_);
-			if (number < 0) {
-				sb.append(MORE_THAN);
-				sb.append(-1 - number);
+			final BigInteger exactNumber = LongRunningWrapper.runMethod(propagator.countSolutions(250));
+			if (exactNumber != null) {
+				sb.append(exactNumber);
 			} else {
-				sb.append(number);
+				final long number = LongRunningWrapper.runMethod(propagator.number(250));
+				if (number < 0) {
+					sb.append(MORE_THAN);
+					sb.append(-1 - number);
+				} else {
+					sb.append(number);
+				}
 			}
 			sb.append(POSSIBLE_CONFIGURATIONS);
 			display.asyncExec(() -> setResolveButton(false));
@@ -1151,9 +1160,26 @@ public abstract class ConfigurationTreeEditorPage extends EditorPart implements
 				ConfigurationManager.CHANGE_AUTOMATIC);
 	}
 
+	/**
+	 * Returns the configuration session for the given formula.
+	 * The session is kept between updates, such that a single selection only requires an incremental propagation.
+	 * A new session is created whenever the feature model changes.
+	 *
+	 * @param formula the current formula of the feature model
+	 * @return the session for the given formula
+	 */
+	private synchronized ConfigurationSession getSession(FeatureModelFormula formula) {
+		if ((session == null) || (session.getFormula() != formula)) {
+			session = new ConfigurationSession(formula);
+		}
+		return session;
+	}
+
 	private void update(UpdateStrategy updateStrategy, final Display currentDisplay, ConfigurationManager configurationManager,
 			final FeatureModelManager featureModelManager, final Configuration configuration) {
-		final ConfigurationPropagator propagator = new ConfigurationPropagator(featureModelManager.getPersistentFormula(), configuration);
+		final FeatureModelFormula formula = featureModelManager.getPersistentFormula();
+		final ConfigurationPropagator propagator = new ConfigurationPropagator(formula, configuration);
+		propagator.setSession(getSession(formula));
 
 		final Boolean canBeValid = LongRunningWrapper.runMethod(propagator.canBeValid());
 		final boolean conflicting;
@@ -20,8 +20,14 @@
  */
 package de.ovgu.featureide.fm.ui.editors.featuremodel.operations;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
 import de.ovgu.featureide.fm.core.Logger;
 import de.ovgu.featureide.fm.core.PluginID;
+import de.ovgu.featureide.fm.core.base.IFeature;
 import de.ovgu.featureide.fm.core.base.IFeatureModel;
 import de.ovgu.featureide.fm.core.base.event.FeatureIDEEvent;
 import de.ovgu.featureide.fm.core.base.event.FeatureModelOperationEvent;
@@ -56,27 +62,57 @@ public abstract class AbstractFeatureModelOperation {
 	}
 
 	public final void execute() {
-		final FeatureIDEEvent event = featureModelManager.processObject(this::firstOperation, getChangeIndicator());
-		if (event instanceof FeatureModelOperationEvent) {
-			((FeatureModelOperationEvent) event).setExecutionType(ExecutionType.EXECUTE);
-		}
-		fireEvent(event);
+		run(this::firstOperation, ExecutionType.EXECUTE);
 	}
 
 	public final void redo() {
-		final FeatureIDEEvent event = featureModelManager.processObject(this::operation, getChangeIndicator());
-		if (event instanceof FeatureModelOperationEvent) {
-			((FeatureModelOperationEvent) event).setExecutionType(ExecutionType.REDO);
-		}
-		fireEvent(event);
+		run(this::operation, ExecutionType.REDO);
 	}
 
 	public final void undo() {
-		final FeatureIDEEvent event = featureModelManager.processObject(this::inverseOperation, getChangeIndicator());
-		if (event instanceof FeatureModelOperationEvent) {
-			((FeatureModelOperationEvent) event).setExecutionType(ExecutionType.UNDO);
+		run(this::inverseOperation, ExecutionType.UNDO);
+	}
+
+	/**
+	 * Applies the given operation to the feature model and fires the resulting event. All events that are fired while the operation is applied are collected
+	 * in a batch of the feature model manager and delivered together with the resulting event.
+	 *
+	 * @param operation the operation to apply
+	 * @param executionType the execution type of the resulting event
+	 */
+	private void run(Function<IFeatureModel, FeatureIDEEvent> operation, ExecutionType executionType) {
+		featureModelManager.startBatch();
+		try {
+			final FeatureIDEEvent event = featureModelManager.processObject(operation, getChangeIndicator());
+			if (event instanceof FeatureModelOperationEvent) {
+				((FeatureModelOperationEvent) event).setExecutionType(executionType);
+			}
+			fireEvent(event);
+		} finally {
+			featureModelManager.endBatch();
+		}
+	}
+
+	/**
+	 * Applies the given operation while the event managers of all features in the given feature model collect their events in a batch. Should be used by
+	 * operations that change many features at once.
+	 *
+	 * @param featureModel the feature model
+	 * @param operation the operation to apply
+	 * @return the result of the operation
+	 */
+	protected static <R> R batchFeatureEvents(IFeatureModel featureModel, Supplier<R> operation) {
+		final List<IFeature> features = new ArrayList<>(featureModel.getFeatures());
+		for (final IFeature feature : features) {
+			feature.startBatch();
+		}
+		try {
+			return operation.get();
+		} finally {
+			for (final IFeature feature : features) {
+				feature.endBatch();
+			}
 		}
-		fireEvent(event);
 	}
 
 	protected int getChangeIndicator() {
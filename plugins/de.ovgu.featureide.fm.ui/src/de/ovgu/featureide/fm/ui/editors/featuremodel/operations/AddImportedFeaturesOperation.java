@@ -80,6 +80,15 @@ public class AddImportedFeaturesOperation extends AbstractFeatureModelOperation
 
 	@Override
 	protected FeatureIDEEvent operation(IFeatureModel featureModel) {
+		return batchFeatureEvents(featureModel, () -> addImportedFeatures(featureModel));
+	}
+
+	@Override
+	protected FeatureIDEEvent inverseOperation(IFeatureModel featureModel) {
+		return batchFeatureEvents(featureModel, () -> removeImportedFeatures(featureModel));
+	}
+
+	private FeatureIDEEvent addImportedFeatures(IFeatureModel featureModel) {
 		// Clear ids in case of a redo
 		clonedImportedFeatureIds.clear();
 		clonedImportedConstraintIds.clear();
@@ -111,8 +120,7 @@ public class AddImportedFeaturesOperation extends AbstractFeatureModelOperation
 		return FeatureIDEEvent.getDefault(EventType.STRUCTURE_CHANGED);
 	}
 
-	@Override
-	protected FeatureIDEEvent inverseOperation(IFeatureModel featureModel) {
+	private FeatureIDEEvent removeImportedFeatures(IFeatureModel featureModel) {
 		// Remove constraints
 		for (final long id : clonedImportedConstraintIds) {
 			final IConstraint constraint = (IConstraint) featureModel.getElement(id);
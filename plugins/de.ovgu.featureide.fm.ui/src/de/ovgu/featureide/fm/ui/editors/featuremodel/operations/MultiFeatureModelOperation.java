@@ -52,6 +52,10 @@ public abstract class MultiFeatureModelOperation extends AbstractFeatureModelOpe
 
 	@Override
 	protected FeatureIDEEvent firstOperation(IFeatureModel featureModel) {
+		return batchFeatureEvents(featureModel, () -> applyFirstOperations(featureModel));
+	}
+
+	private FeatureIDEEvent applyFirstOperations(IFeatureModel featureModel) {
 		createSingleOperations(featureModel);
 		List<IFeature> commonAncestorList = null;
 		for (final String name : featureNames) {
@@ -77,6 +81,10 @@ public abstract class MultiFeatureModelOperation extends AbstractFeatureModelOpe
 
 	@Override
 	protected FeatureIDEEvent operation(IFeatureModel featureModel) {
+		return batchFeatureEvents(featureModel, () -> applyOperations(featureModel));
+	}
+
+	private FeatureIDEEvent applyOperations(IFeatureModel featureModel) {
 		final List<FeatureModelOperationEvent> events = new ArrayList<>(operations.size());
 		for (final AbstractFeatureModelOperation operation : operations) {
 			events.add((FeatureModelOperationEvent) operation.operation(featureModel));
@@ -86,6 +94,10 @@ public abstract class MultiFeatureModelOperation extends AbstractFeatureModelOpe
 
 	@Override
 	protected FeatureIDEEvent inverseOperation(IFeatureModel featureModel) {
+		return batchFeatureEvents(featureModel, () -> applyInverseOperations(featureModel));
+	}
+
+	private FeatureIDEEvent applyInverseOperations(IFeatureModel featureModel) {
 		final List<FeatureModelOperationEvent> events = new ArrayList<>(operations.size());
 
 		final ArrayList<AbstractFeatureModelOperation> copiedList = new ArrayList<>();
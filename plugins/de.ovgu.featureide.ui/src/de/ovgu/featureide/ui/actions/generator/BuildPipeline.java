@@ -0,0 +1,387 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.ui.actions.generator;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Processes elements in a sequence of stages. Each stage has its own worker threads and is connected to its successor by a bounded queue, such that a
+ * slow stage blocks its predecessors instead of letting them buffer an arbitrary number of elements.<br> <br> Elements that cause an exception in a
+ * stage are reported to the {@link Listener} and are not passed to the following stages.
+ *
+ * @param <T> Type of the processed elements.
+ *
+ * @author FeatureIDE Team
+ */
+public class BuildPipeline<T> {
+
+	/**
+	 * The work that is done by a stage for a single element.
+	 */
+	public interface StageTask<T> {
+
+		void process(T element) throws Exception;
+	}
+
+	/**
+	 * Is notified about elements that left the pipeline.
+	 */
+	public interface Listener<T> {
+
+		void completed(T element);
+
+		void failed(String stageName, T element, Exception exception);
+	}
+
+	/**
+	 * Throughput and latency counters of a single stage.
+	 */
+	public static final class StageStatistics {
+
+		private final String name;
+		private final int numberOfWorkers;
+		private final long processed;
+		private final long failed;
+		private final long busyTime;
+		private final long waitingTime;
+
+		private StageStatistics(String name, int numberOfWorkers, long processed, long failed, long busyTime, long waitingTime) {
+			this.name = name;
+			this.numberOfWorkers = numberOfWorkers;
+			this.processed = processed;
+			this.failed = failed;
+			this.busyTime = busyTime;
+			this.waitingTime = waitingTime;
+		}
+
+		public String getName() {
+			return name;
+		}
+
+		public int getNumberOfWorkers() {
+			return numberOfWorkers;
+		}
+
+		public long getProcessed() {
+			return processed;
+		}
+
+		public long getFailed() {
+			return failed;
+		}
+
+		/**
+		 * @return the average time in milliseconds that a worker of this stage spent on one element.
+		 */
+		public long getAverageProcessingTime() {
+			final long count = processed + failed;
+			return count == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(busyTime / count);
+		}
+
+		/**
+		 * @return the average time in milliseconds that an element waited in the queue of this stage.
+		 */
+		public long getAverageWaitingTime() {
+			final long count = processed + failed;
+			return count == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(waitingTime / count);
+		}
+
+		/**
+		 * @return the number of elements this stage processed per second of busy time of all its workers.
+		 */
+		public double getThroughput() {
+			final long count = processed + failed;
+			return busyTime == 0 ? 0 : (count * numberOfWorkers * 1e9) / busyTime;
+		}
+
+		@Override
+		public String toString() {
+			return String.format("%s (%d workers): %d processed, %d failed, %.2f/s, %dms per element, %dms waiting", name, numberOfWorkers, processed, failed,
+					getThroughput(), getAverageProcessingTime(), getAverageWaitingTime());
+		}
+	}
+
+	private static final class Item<T> {
+
+		private final T element;
+		private final long enqueueTime;
+
+		private Item(T element) {
+			this.element = element;
+			enqueueTime = System.nanoTime();
+		}
+	}
+
+	private final class Stage {
+
+		private final String name;
+		private final StageTask<T> task;
+		private final int numberOfWorkers;
+		private final BlockingQueue<Item<T>> queue;
+		private final AtomicInteger runningWorkers;
+
+		private final AtomicLong processed = new AtomicLong();
+		private final AtomicLong failed = new AtomicLong();
+		private final AtomicLong busyTime = new AtomicLong();
+		private final AtomicLong waitingTime = new AtomicLong();
+
+		private Stage next;
+
+		private Stage(String name, StageTask<T> task, int numberOfWorkers, int capacity) {
+			this.name = name;
+			this.task = task;
+			this.numberOfWorkers = numberOfWorkers;
+			queue = new ArrayBlockingQueue<>(capacity);
+			runningWorkers = new AtomicInteger(numberOfWorkers);
+		}
+
+		private void work() {
+			try {
+				while (!canceled) {
+					final Item<T> item = queue.take();
+					if ((item == poison) || canceled) {
+						break;
+					}
+					final long start = System.nanoTime();
+					waitingTime.addAndGet(start - item.enqueueTime);
+					try {
+						task.process(item.element);
+						processed.incrementAndGet();
+					} catch (final Exception e) {
+						if (canceled) {
+							break;
+						}
+						failed.incrementAndGet();
+						listener.failed(name, item.element, e);
+						continue;
+					} finally {
+						busyTime.addAndGet(System.nanoTime() - start);
+					}
+					if (canceled) {
+						break;
+					}
+					if (next != null) {
+						next.queue.put(new Item<>(item.element));
+					} else {
+						listener.completed(item.element);
+					}
+				}
+			} catch (final InterruptedException e) {
+				// canceled
+			} finally {
+				if ((runningWorkers.decrementAndGet() == 0) && (next != null)) {
+					next.close();
+				}
+				terminated.countDown();
+			}
+		}
+
+		/**
+		 * Puts one poison pill per worker into the queue. Stops as soon as the pipeline is canceled, as the workers no longer take elements from the queue,
+		 * which might be full.
+		 */
+		private void close() {
+			final Thread closingThread = Thread.currentThread();
+			boolean interrupted = false;
+			waitingThreads.add(closingThread);
+			try {
+				for (int i = 0; (i < numberOfWorkers) && !canceled;) {
+					try {
+						queue.put(poison);
+						i++;
+					} catch (final InterruptedException e) {
+						interrupted = true;
+					}
+				}
+			} finally {
+				waitingThreads.remove(closingThread);
+				if (interrupted && !canceled) {
+					closingThread.interrupt();
+				}
+			}
+		}
+
+		private StageStatistics getStatistics() {
+			return new StageStatistics(name, numberOfWorkers, processed.get(), failed.get(), busyTime.get(), waitingTime.get());
+		}
+	}
+
+	private final Item<T> poison = new Item<>(null);
+
+	private final List<Stage> stages = new ArrayList<>();
+	private final List<Thread> workers = new ArrayList<>();
+	private final Set<Thread> waitingThreads = Collections.newSetFromMap(new ConcurrentHashMap<Thread, Boolean>());
+
+	private final Listener<T> listener;
+
+	private CountDownLatch terminated;
+
+	private volatile boolean canceled = false;
+	private boolean started = false;
+
+	public BuildPipeline(Listener<T> listener) {
+		this.listener = listener;
+	}
+
+	/**
+	 * Appends a new stage to this pipeline. Must be called before {@link #start()}.
+	 *
+	 * @param name the name of the stage, which is also used to name its worker threads
+	 * @param numberOfWorkers the number of threads working in this stage
+	 * @param capacity the maximal number of elements that can wait in front of this stage
+	 * @param task the work to do for each element
+	 */
+	public void addStage(String name, int numberOfWorkers, int capacity, StageTask<T> task) {
+		if (started) {
+			throw new IllegalStateException();
+		}
+		final Stage stage = new Stage(name, task, Math.max(1, numberOfWorkers), Math.max(1, capacity));
+		if (!stages.isEmpty()) {
+			stages.get(stages.size() - 1).next = stage;
+		}
+		stages.add(stage);
+	}
+
+	/**
+	 * Starts the worker threads of all stages.
+	 */
+	public void start() {
+		if (started || stages.isEmpty()) {
+			throw new IllegalStateException();
+		}
+		started = true;
+		int numberOfWorkers = 0;
+		for (final Stage stage : stages) {
+			numberOfWorkers += stage.numberOfWorkers;
+		}
+		terminated = new CountDownLatch(numberOfWorkers);
+		for (final Stage stage : stages) {
+			for (int i = 0; i < stage.numberOfWorkers; i++) {
+				final Thread worker = new Thread(new Runnable() {
+
+					@Override
+					public void run() {
+						stage.work();
+					}
+				}, stage.name + " " + i);
+				worker.setDaemon(true);
+				workers.add(worker);
+				worker.start();
+			}
+		}
+	}
+
+	/**
+	 * Passes an element to the first stage. Blocks while the queue of the first stage is full. Only {@link #cancel() canceling} the pipeline stops the
+	 * waiting, other interrupts of the calling thread are restored afterwards.
+	 *
+	 * @param element the element to process
+	 * @return {@code true} if the element was accepted, {@code false} if the pipeline was canceled
+	 */
+	public boolean put(T element) {
+		final Thread producer = Thread.currentThread();
+		final Item<T> item = new Item<>(element);
+		boolean interrupted = false;
+		waitingThreads.add(producer);
+		try {
+			while (!canceled) {
+				try {
+					stages.get(0).queue.put(item);
+					return true;
+				} catch (final InterruptedException e) {
+					interrupted = true;
+				}
+			}
+			return false;
+		} finally {
+			waitingThreads.remove(producer);
+			if (interrupted && !canceled) {
+				producer.interrupt();
+			}
+		}
+	}
+
+	/**
+	 * Signals that no more elements will be added. All stages finish after processing the remaining elements.
+	 */
+	public void finish() {
+		stages.get(0).close();
+	}
+
+	/**
+	 * Discards all remaining elements and stops all workers.
+	 */
+	public void cancel() {
+		canceled = true;
+		for (final Thread waitingThread : waitingThreads) {
+			waitingThread.interrupt();
+		}
+		for (final Thread worker : workers) {
+			worker.interrupt();
+		}
+	}
+
+	public boolean isCanceled() {
+		return canceled;
+	}
+
+	/**
+	 * Waits until all workers of all stages have terminated.
+	 *
+	 * @param timeout the maximum time to wait
+	 * @param unit the time unit of {@code timeout}
+	 * @return {@code true} if the pipeline has terminated
+	 * @throws InterruptedException if the current thread was interrupted while waiting
+	 */
+	public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+		return terminated.await(timeout, unit);
+	}
+
+	/**
+	 * @return the number of elements that are currently waiting in the queues of all stages.
+	 */
+	public int getBufferSize() {
+		int size = 0;
+		for (final Stage stage : stages) {
+			size += stage.queue.size();
+		}
+		return size;
+	}
+
+	public List<StageStatistics> getStatistics() {
+		final List<StageStatistics> statistics = new ArrayList<>(stages.size());
+		for (final Stage stage : stages) {
+			statistics.add(stage.getStatistics());
+		}
+		return statistics;
+	}
+
+}
@@ -0,0 +1,342 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.ui.actions.generator;
+
+import static de.ovgu.featureide.fm.core.localization.StringTable.RESTRICTION;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.eclipse.core.resources.IFile;
+import org.eclipse.jdt.internal.compiler.classfmt.ClassFileReader;
+import org.eclipse.jdt.internal.compiler.classfmt.ClassFormatException;
+
+/**
+ * Content-addressed cache for the class files of generated products. Most compilation units of different products are identical, so their class files
+ * are compiled only once and copied into the output folders of all other products.<br> <br> A compilation unit is identified by the hash of its own
+ * content and the contents of all compilation units it depends on transitively. A compilation unit depends on another one if it contains the simple
+ * name of a type that is declared in the other unit as an identifier. Type declarations are found syntactically, including secondary top-level types and
+ * member types. This over-approximates the actual dependencies, but never misses one that is expressed in the source code.<br> <br> The cache must only
+ * be used for products that are compiled with the same class path and compiler options.
+ *
+ * @author FeatureIDE Team
+ */
+@SuppressWarnings(RESTRICTION)
+public class CompilationCache {
+
+	/**
+	 * A warning or error that was reported by the compiler for a compilation unit.
+	 */
+	static final class Problem {
+
+		final boolean warning;
+		final int line;
+		final String message;
+
+		Problem(boolean warning, int line, String message) {
+			this.warning = warning;
+			this.line = line;
+			this.message = message;
+		}
+	}
+
+	/**
+	 * A Java source file of a single product.
+	 */
+	static final class CompilationUnit {
+
+		final IFile file;
+
+		/**
+		 * The path of the source file relative to the root of its package hierarchy, e.g. <code>a/b/C.java</code>.
+		 */
+		final String sourceName;
+
+		private final Set<String> typeNames;
+		private final String contentHash;
+		private final Set<String> identifiers;
+
+		private String key;
+
+		private CompilationUnit(IFile file, String sourceName, Set<String> typeNames, String contentHash, Set<String> identifiers) {
+			this.file = file;
+			this.sourceName = sourceName;
+			this.typeNames = typeNames;
+			this.contentHash = contentHash;
+			this.identifiers = identifiers;
+		}
+
+		/**
+		 * @return the cache key of this unit, which changes whenever this unit or a unit it depends on changes.
+		 */
+		String getKey() {
+			return key;
+		}
+	}
+
+	private static final class CacheEntry {
+
+		private final Map<String, byte[]> classFiles;
+		private final List<Problem> problems;
+
+		private CacheEntry(Map<String, byte[]> classFiles, List<Problem> problems) {
+			this.classFiles = classFiles;
+			this.problems = problems;
+		}
+	}
+
+	private static final Pattern IDENTIFIER = Pattern.compile("\\p{javaJavaIdentifierStart}\\p{javaJavaIdentifierPart}*");
+	private static final Pattern PACKAGE = Pattern.compile("^\\s*package\\s+([\\w.\\s]+?)\\s*;", Pattern.MULTILINE);
+	private static final Pattern TYPE_DECLARATION =
+		Pattern.compile("(?<![\\w.])(?:class|interface|enum)\\s+(\\p{javaJavaIdentifierStart}\\p{javaJavaIdentifierPart}*)");
+
+	private static final String CLASS_FILE_EXTENSION = ".class";
+
+	private final ConcurrentHashMap<String, CacheEntry> entries = new ConcurrentHashMap<>();
+
+	private final AtomicInteger hits = new AtomicInteger();
+	private final AtomicInteger misses = new AtomicInteger();
+
+	/**
+	 * Reads the given source files and computes their cache keys.
+	 *
+	 * @param files all Java files of a product
+	 * @return the compilation units of the product
+	 * @throws IOException if a file cannot be read
+	 */
+	List<CompilationUnit> createUnits(Collection<IFile> files) throws IOException {
+		final List<CompilationUnit> units = new ArrayList<>(files.size());
+		for (final IFile file : files) {
+			units.add(createUnit(file, file.getName(), Files.readAllBytes(file.getLocation().toFile().toPath())));
+		}
+		computeKeys(units);
+		return units;
+	}
+
+	/**
+	 * Creates a compilation unit without computing its cache key.
+	 *
+	 * @param file the source file
+	 * @param fileName the name of the source file
+	 * @param content the content of the source file
+	 * @return the compilation unit
+	 */
+	static CompilationUnit createUnit(IFile file, String fileName, byte[] content) {
+		final String source = new String(content, StandardCharsets.UTF_8);
+
+		final Set<String> identifiers = new HashSet<>();
+		final Matcher identifierMatcher = IDENTIFIER.matcher(source);
+		while (identifierMatcher.find()) {
+			identifiers.add(identifierMatcher.group());
+		}
+
+		final Set<String> typeNames = new HashSet<>();
+		typeNames.add(fileName.substring(0, fileName.length() - ".java".length()));
+		final Matcher typeMatcher = TYPE_DECLARATION.matcher(source);
+		while (typeMatcher.find()) {
+			typeNames.add(typeMatcher.group(1));
+		}
+
+		final Matcher packageMatcher = PACKAGE.matcher(source);
+		final String packagePath = packageMatcher.find() ? packageMatcher.group(1).replaceAll("\\s", "").replace('.', '/') + "/" : "";
+
+		return new CompilationUnit(file, packagePath + fileName, typeNames, hash(content), identifiers);
+	}
+
+	/**
+	 * Computes the cache keys of all compilation units of a product.
+	 *
+	 * @param units all compilation units of the product
+	 */
+	static void computeKeys(List<CompilationUnit> units) {
+		final Map<String, List<CompilationUnit>> unitsByTypeName = new HashMap<>();
+		for (final CompilationUnit unit : units) {
+			for (final String typeName : unit.typeNames) {
+				List<CompilationUnit> list = unitsByTypeName.get(typeName);
+				if (list == null) {
+					list = new ArrayList<>(1);
+					unitsByTypeName.put(typeName, list);
+				}
+				list.add(unit);
+			}
+		}
+
+		for (final CompilationUnit unit : units) {
+			final Set<CompilationUnit> dependencies = new HashSet<>();
+			final LinkedList<CompilationUnit> queue = new LinkedList<>();
+			dependencies.add(unit);
+			queue.add(unit);
+			while (!queue.isEmpty()) {
+				final CompilationUnit next = queue.removeFirst();
+				for (final String identifier : next.identifiers) {
+					final List<CompilationUnit> referencedUnits = unitsByTypeName.get(identifier);
+					if (referencedUnits != null) {
+						for (final CompilationUnit referencedUnit : referencedUnits) {
+							if (dependencies.add(referencedUnit)) {
+								queue.add(referencedUnit);
+							}
+						}
+					}
+				}
+			}
+			final TreeSet<String> sortedDependencies = new TreeSet<>();
+			for (final CompilationUnit dependency : dependencies) {
+				sortedDependencies.add(dependency.sourceName + ':' + dependency.contentHash);
+			}
+			unit.key = unit.sourceName + ':' + hash(String.join("\n", sortedDependencies).getBytes(StandardCharsets.UTF_8));
+		}
+	}
+
+	/**
+	 * Copies the cached class files of the given compilation unit into the output folder.
+	 *
+	 * @param unit the compilation unit
+	 * @param outputFolder the root folder for class files
+	 * @param restoredFiles collects the paths of all copied class files
+	 * @return the problems of the compilation unit or {@code null} if the unit is not in the cache
+	 * @throws IOException if a class file cannot be written
+	 */
+	List<Problem> restore(CompilationUnit unit, Path outputFolder, Set<Path> restoredFiles) throws IOException {
+		final CacheEntry entry = entries.get(unit.key);
+		if (entry == null) {
+			misses.incrementAndGet();
+			return null;
+		}
+		for (final Entry<String, byte[]> classFile : entry.classFiles.entrySet()) {
+			final Path path = outputFolder.resolve(classFile.getKey());
+			Files.createDirectories(path.getParent());
+			Files.write(path, classFile.getValue());
+			restoredFiles.add(path);
+		}
+		hits.incrementAndGet();
+		return entry.problems;
+	}
+
+	/**
+	 * Adds the class files of newly compiled compilation units to the cache. Units with compile errors are not cached. If a class file cannot be
+	 * assigned to its compilation unit, nothing is cached.
+	 *
+	 * @param compiledUnits the units that were passed to the compiler
+	 * @param outputFolder the root folder for class files
+	 * @param restoredFiles the class files that were copied from the cache
+	 * @param problems the problems reported by the compiler
+	 * @throws IOException if a class file cannot be read
+	 */
+	void store(Collection<CompilationUnit> compiledUnits, Path outputFolder, Set<Path> restoredFiles, Map<IFile, List<Problem>> problems)
+			throws IOException {
+		final Map<String, Map<String, byte[]>> classFilesBySource = new HashMap<>();
+		for (final CompilationUnit unit : compiledUnits) {
+			classFilesBySource.put(unit.sourceName, new HashMap<String, byte[]>());
+		}
+
+		final List<Path> classFiles;
+		try (Stream<Path> stream = Files.walk(outputFolder)) {
+			classFiles = stream.filter(path -> path.toString().endsWith(CLASS_FILE_EXTENSION) && !restoredFiles.contains(path)).collect(Collectors.toList());
+		}
+		for (final Path path : classFiles) {
+			final byte[] content = Files.readAllBytes(path);
+			final char[] sourceFileName;
+			try {
+				sourceFileName = new ClassFileReader(content, path.getFileName().toString().toCharArray()).sourceFileName();
+			} catch (final ClassFormatException e) {
+				return;
+			}
+			if (sourceFileName == null) {
+				return;
+			}
+			final Path relativePath = outputFolder.relativize(path);
+			final Path packagePath = relativePath.getParent();
+			final String sourceName = (packagePath == null ? "" : packagePath.toString().replace(packagePath.getFileSystem().getSeparator(), "/") + "/")
+				+ new String(sourceFileName);
+			final Map<String, byte[]> unitClassFiles = classFilesBySource.get(sourceName);
+			if (unitClassFiles == null) {
+				return;
+			}
+			unitClassFiles.put(relativePath.toString(), content);
+		}
+
+		for (final CompilationUnit unit : compiledUnits) {
+			List<Problem> unitProblems = problems.get(unit.file);
+			if (unitProblems == null) {
+				unitProblems = Collections.emptyList();
+			} else {
+				for (final Problem problem : unitProblems) {
+					if (!problem.warning) {
+						unitProblems = null;
+						break;
+					}
+				}
+			}
+			if (unitProblems != null) {
+				entries.putIfAbsent(unit.key, new CacheEntry(classFilesBySource.get(unit.sourceName), unitProblems));
+			}
+		}
+	}
+
+	public int getHits() {
+		return hits.get();
+	}
+
+	public int getMisses() {
+		return misses.get();
+	}
+
+	@Override
+	public String toString() {
+		return "Compilation cache: " + hits + " reused, " + misses + " compiled compilation units";
+	}
+
+	private static String hash(byte[] content) {
+		try {
+			final byte[] digest = MessageDigest.getInstance("SHA-256").digest(content);
+			final StringBuilder sb = new StringBuilder(digest.length * 2);
+			for (final byte b : digest) {
+				sb.append(Character.forDigit((b >> 4) & 0xF, 16));
+				sb.append(Character.forDigit(b & 0xF, 16));
+			}
+			return sb.toString();
+		} catch (final NoSuchAlgorithmException e) {
+			throw new RuntimeException(e);
+		}
+	}
+
+}
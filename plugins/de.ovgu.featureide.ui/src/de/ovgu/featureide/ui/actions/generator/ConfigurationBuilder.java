@@ -23,15 +23,17 @@ package de.ovgu.featureide.ui.actions.generator;
 import static de.ovgu.featureide.fm.core.localization.StringTable.CASA_;
 import static de.ovgu.featureide.fm.core.localization.StringTable.CHVATAL;
 import static de.ovgu.featureide.fm.core.localization.StringTable.COUNTING___;
+import static de.ovgu.featureide.fm.core.localization.StringTable.ERROR_IN_CONFIGURATION;
 import static de.ovgu.featureide.fm.core.localization.StringTable.ICPL;
 import static de.ovgu.featureide.fm.core.localization.StringTable.INCLING;
 import static de.ovgu.featureide.fm.core.localization.StringTable.OF;
 import static de.ovgu.featureide.fm.core.localization.StringTable.RESTRICTION;
 import static de.ovgu.featureide.fm.core.localization.StringTable.YASA;
 
-import java.security.KeyStore.Builder;
-import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.eclipse.core.resources.IFolder;
 import org.eclipse.core.resources.IMarker;
@@ -41,6 +43,7 @@ import org.eclipse.core.resources.ResourcesPlugin;
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Platform;
 import org.eclipse.core.runtime.Status;
 import org.eclipse.core.runtime.SubMonitor;
 import org.eclipse.core.runtime.jobs.Job;
@@ -51,13 +54,16 @@ import org.eclipse.jdt.internal.core.JavaProject;
 import de.ovgu.featureide.core.IFeatureProject;
 import de.ovgu.featureide.fm.core.analysis.cnf.LiteralSet;
 import de.ovgu.featureide.fm.core.analysis.cnf.formula.FeatureModelFormula;
-import de.ovgu.featureide.fm.core.job.IJob.JobStatus;
+import de.ovgu.featureide.fm.core.job.IJob;
 import de.ovgu.featureide.fm.core.job.IRunner;
 import de.ovgu.featureide.fm.core.job.LongRunningWrapper;
 import de.ovgu.featureide.fm.core.job.monitor.IMonitor;
 import de.ovgu.featureide.fm.core.job.monitor.ProgressMonitor;
+import de.ovgu.featureide.fm.core.job.util.JobFinishListener;
 import de.ovgu.featureide.fm.core.localization.StringTable;
 import de.ovgu.featureide.ui.UIPlugin;
+import de.ovgu.featureide.ui.actions.generator.BuildPipeline.StageStatistics;
+import de.ovgu.featureide.ui.actions.generator.BuildPipeline.StageTask;
 import de.ovgu.featureide.ui.actions.generator.configuration.AConfigurationGenerator;
 import de.ovgu.featureide.ui.actions.generator.configuration.AllConfigrationsGenerator;
 import de.ovgu.featureide.ui.actions.generator.configuration.CASAConfigurationGenerator;
@@ -82,6 +88,22 @@ public class ConfigurationBuilder implements IConfigurationBuilderBasics {
 
 	private static final UIPlugin LOGGER = UIPlugin.getDefault();
 
+	private static final boolean JUNIT_INSTALLED = Platform.getBundle("org.junit") != null;
+
+	/**
+	 * The interval in milliseconds in which the progress monitor is updated.
+	 */
+	private static final long UPDATE_INTERVAL = 150;
+
+	/**
+	 * The queue in front of each stage can hold this many configurations per worker.
+	 */
+	private static final int QUEUE_CAPACITY_FACTOR = 2;
+
+	private static final String COMPOSITION_STAGE = "Composition";
+	private static final String COMPILATION_STAGE = "Compilation";
+	private static final String TEST_STAGE = "Test";
+
 	public IFeatureProject featureProject;
 	private FeatureModelFormula featureModel;
 
@@ -118,7 +140,7 @@ public class ConfigurationBuilder implements IConfigurationBuilderBasics {
 	/**
 	 * The count of how many configurations where already built
 	 */
-	private int built;
+	private final AtomicInteger built = new AtomicInteger();
 
 	/**
 	 * This flag indicates that all jobs should be aborted.
@@ -131,9 +153,9 @@ public class ConfigurationBuilder implements IConfigurationBuilderBasics {
 	protected long time;
 
 	/**
-	 * This flag indicates that no more configurations will be added and the {@link Generator} jobs can finish.
+	 * This flag indicates that no more configurations will be added.
 	 */
-	boolean finish = false;
+	volatile boolean finish = false;
 
 	/**
 	 * Which configurations should be built.
@@ -141,9 +163,14 @@ public class ConfigurationBuilder implements IConfigurationBuilderBasics {
 	BuildType buildType;
 
 	/**
-	 * This list contains all {@link Generator} jobs.
+	 * The stages composition, compilation, and test through which all configurations are passed.
+	 */
+	private BuildPipeline<BuilderConfiguration> pipeline;
+
+	/**
+	 * Shares the class files of identical compilation units between all compiled configurations.
 	 */
-	final List<Generator> generatorJobs = new ArrayList<>();
+	private CompilationCache compilationCache;
 
 	public AbstractConfigurationSorter sorter;
 
@@ -154,21 +181,17 @@ public class ConfigurationBuilder implements IConfigurationBuilderBasics {
 	private AConfigurationGenerator configurationGenerator;
 
 	/**
-	 * Gets the first entry of configurations or <code>null</code> if there is none.
-	 *
-	 * @return The first entry
-	 */
-	public synchronized BuilderConfiguration getConfiguration() {
-		return sorter.getConfiguration();
-	}
-
-	/**
-	 * Adds the given configuration to configurations.
+	 * Adds the given configuration to configurations.<br> If the configurations do not need to be sorted, the configuration is passed directly to the
+	 * {@link BuildPipeline}. This call blocks while the first stage of the pipeline is full.
 	 *
 	 * @param configuration to add
 	 */
-	public synchronized void addConfiguration(BuilderConfiguration configuration) {
-		sorter.addConfiguration(configuration);
+	public void addConfiguration(BuilderConfiguration configuration) {
+		if (sorter.isSorted()) {
+			pipeline.put(configuration);
+		} else {
+			sorter.addConfiguration(configuration);
+		}
 	}
 
 	// TODO revise long parameter list
@@ -305,22 +328,20 @@ public class ConfigurationBuilder implements IConfigurationBuilderBasics {
 
 					time = System.currentTimeMillis();
 
-					if (featureProject.getComposer().canGeneratInParallelJobs()) {
-						if (buildType != BuildType.ALL_CURRENT) {
-							newgeneratorJobs(Runtime.getRuntime().availableProcessors() * 2);
-						} else {
-							int contJobs = Runtime.getRuntime().availableProcessors() * 2;
-							if (configurationNumber < contJobs) {
-								contJobs = (int) configurationNumber;
-							}
-							newgeneratorJobs(contJobs);
-						}
-					} else {
-						newgeneratorJobs(1);
-					}
+					pipeline = createPipeline();
+					pipeline.start();
+
+					final CountDownLatch sampled = new CountDownLatch(1);
 					configurationBuilderJob = LongRunningWrapper.getRunner(configurationGenerator, "Create Configurations " + id++);
+					configurationBuilderJob.addJobFinishedListener(new JobFinishListener<List<LiteralSet>>() {
+
+						@Override
+						public void jobFinished(IJob<List<LiteralSet>> finishedJob) {
+							sampled.countDown();
+						}
+					});
 					configurationBuilderJob.schedule();
-					showStatistics(monitor);
+					showStatistics(monitor, sampled);
 					if (outputType != OutputType.PROJECT) {
 						try {
 							folder.refreshLocal(IResource.DEPTH_INFINITE, null);
@@ -329,69 +350,48 @@ public class ConfigurationBuilder implements IConfigurationBuilderBasics {
 						}
 					}
 				} finally {
-					configurationBuilderJob.cancel();
-					cancelGenerationJobs();
-					for (final Thread g : generatorJobs) {
-						g.interrupt();
+					if (configurationBuilderJob != null) {
+						configurationBuilderJob.cancel();
 					}
+					cancelGenerationJobs();
 					monitor.done();
 				}
 				return Status.OK_STATUS;
 			}
 
-			private void showStatistics(IProgressMonitor monitor) {
+			private void showStatistics(IProgressMonitor monitor, CountDownLatch sampled) {
 				try {
-					while (configurationBuilderJob.getStatus() == JobStatus.NOT_STARTED) {
-						try {
-							Thread.sleep(150);
-						} catch (final InterruptedException e) {
-							LOGGER.logError(e);
-						}
-					}
-					while (configurationBuilderJob.getStatus() == JobStatus.RUNNING) {
+					// the progress monitor cannot notify about cancellation, so the waiting times out regularly to check it
+					while (!sampled.await(UPDATE_INTERVAL, TimeUnit.MILLISECONDS)) {
 						monitor.setTaskName(getTaskName());
 						if (monitor.isCanceled()) {
 							cancelGenerationJobs();
 							configurationBuilderJob.cancel();
 							return;
 						}
-						try {
-							Thread.sleep(150);
-						} catch (final InterruptedException e) {
-							LOGGER.logError(e);
-						}
 					}
-					System.err.println(configurationBuilderJob.getStatus());
 
 					if (!sorter.isSorted()) {
 						final IMonitor<?> workMonitor = new ProgressMonitor<>(getTaskName(), monitor);
 						configurationNumber = Math.min(configurationNumber, sorter.sortConfigurations(workMonitor));
-					}
-					finish();
-
-					((SubMonitor) monitor).setWorkRemaining((int) configurationNumber - built);
-					while (!generatorJobs.isEmpty()) {
-						try {
+						BuilderConfiguration configuration;
+						while ((configuration = sorter.getConfiguration()) != null) {
 							if (monitor.isCanceled()) {
 								cancelGenerationJobs();
-								break;
-							}
-							final Generator generator = generatorJobs.get(0);
-							if (generator == null) {
-								// generator can never be null, however see #416
-								generatorJobs.remove(0);
-							} else if (generator.getState() == Thread.State.TERMINATED) {
-								generatorJobs.remove(generator);
-								if (sorter.getBufferSize() != 0) {
-									createNewGenerator(generator.nr);
-								}
+								return;
 							}
-							monitor.setTaskName(getTaskName());
-							Thread.sleep(150);
-						} catch (final InterruptedException e) {
-							LOGGER.logError(e);
-						} catch (final IndexOutOfBoundsException e) {
-							// nothing here
+							pipeline.put(configuration);
+						}
+					}
+					finish();
+					pipeline.finish();
+
+					((SubMonitor) monitor).setWorkRemaining((int) configurationNumber - built.get());
+					while (!pipeline.awaitTermination(UPDATE_INTERVAL, TimeUnit.MILLISECONDS)) {
+						monitor.setTaskName(getTaskName());
+						if (monitor.isCanceled()) {
+							cancelGenerationJobs();
+							return;
 						}
 					}
 
@@ -401,12 +401,23 @@ public class ConfigurationBuilder implements IConfigurationBuilderBasics {
 					final long h = duration / (60 * 60 * 1000);
 					final String t = h + "h " + (min < 10 ? "0" + min : min) + "min " + (s < 10 ? "0" + s : s) + "s.";
 
-					if (built > configurationNumber) {
-						built = (int) configurationNumber;
+					final int builtConfigurations = (int) Math.min(built.get(), configurationNumber);
+					final StringBuilder sb = new StringBuilder();
+					sb.append(builtConfigurations);
+					sb.append(configurationNumber != 0 ? OF + configurationNumber : "");
+					sb.append(" configurations built in ");
+					sb.append(t);
+					for (final StageStatistics statistics : pipeline.getStatistics()) {
+						sb.append("\n\t");
+						sb.append(statistics);
 					}
-					LOGGER.logInfo(built + (configurationNumber != 0 ? OF + configurationNumber : "") + " configurations built in " + t);
-				} finally {
-					generatorJobs.clear();
+					if (compilationCache != null) {
+						sb.append("\n\t");
+						sb.append(compilationCache);
+					}
+					LOGGER.logInfo(sb.toString());
+				} catch (final InterruptedException e) {
+					LOGGER.logError(e);
 				}
 			}
 
@@ -415,6 +426,107 @@ public class ConfigurationBuilder implements IConfigurationBuilderBasics {
 		job.schedule();
 	}
 
+	/**
+	 * Creates the {@link BuildPipeline} for the current output type. Configurations are always composed. Products of Java projects are compiled
+	 * afterwards and, if requested, tested.
+	 *
+	 * @return the new pipeline
+	 */
+	private BuildPipeline<BuilderConfiguration> createPipeline() {
+		final BuildPipeline<BuilderConfiguration> pipeline = new BuildPipeline<>(new BuildPipeline.Listener<BuilderConfiguration>() {
+
+			@Override
+			public void completed(BuilderConfiguration configuration) {
+				builtConfiguration();
+			}
+
+			@Override
+			public void failed(String stageName, BuilderConfiguration configuration, Exception exception) {
+				LOGGER.logError(ERROR_IN_CONFIGURATION + configuration + " (" + stageName + ")", exception);
+			}
+		});
+		final int[] workers = getNumberOfWorkers();
+
+		final Generator generator = new Generator(this);
+		final int compositionWorkers = featureProject.getComposer().canGeneratInParallelJobs() ? workers[0] : 1;
+		pipeline.addStage(COMPOSITION_STAGE, compositionWorkers, compositionWorkers * QUEUE_CAPACITY_FACTOR, new StageTask<BuilderConfiguration>() {
+
+			@Override
+			public void process(BuilderConfiguration configuration) throws Exception {
+				generator.compose(configuration);
+			}
+		});
+
+		if ((outputType == OutputType.PRODUCT) && hasJavaNature()) {
+			compilationCache = new CompilationCache();
+			final JavaCompiler compiler = new JavaCompiler(this, compilationCache);
+			final boolean test = runTests && JUNIT_INSTALLED;
+			pipeline.addStage(COMPILATION_STAGE, workers[1], workers[1] * QUEUE_CAPACITY_FACTOR, new StageTask<BuilderConfiguration>() {
+
+				@Override
+				public void process(BuilderConfiguration configuration) throws Exception {
+					final IFolder binFolder = compiler.compile(configuration);
+					if (!test) {
+						binFolder.delete(true, null);
+					}
+				}
+			});
+			if (test) {
+				final TestRunner testRunner = new TestRunner(testResults, this);
+				pipeline.addStage(TEST_STAGE, workers[2], workers[2] * QUEUE_CAPACITY_FACTOR, new StageTask<BuilderConfiguration>() {
+
+					@Override
+					public void process(BuilderConfiguration configuration) throws Exception {
+						final IFolder binFolder = compiler.getOutputFolder(configuration);
+						try {
+							testRunner.runTests(configuration, binFolder);
+						} finally {
+							binFolder.delete(true, null);
+						}
+					}
+				});
+			}
+		}
+		return pipeline;
+	}
+
+	private boolean hasJavaNature() {
+		try {
+			return featureProject.getProject().hasNature(Generator.JAVA_NATURE);
+		} catch (final CoreException e) {
+			LOGGER.logError(e);
+			return false;
+		}
+	}
+
+	/**
+	 * Reads the number of workers for the composition, compilation, and test stage from the persistent property {@link #WORKERS}, which has the format
+	 * <code>composition|compilation|test</code>. Missing or invalid values are replaced by the number of available processors, except for the test
+	 * stage, which uses a single worker by default because tests replace the global security manager.
+	 *
+	 * @return the number of workers for each stage
+	 */
+	static int[] getNumberOfWorkers() {
+		final int processors = Runtime.getRuntime().availableProcessors();
+		final int[] workers = new int[] { processors, processors, 1 };
+		try {
+			final String property = ResourcesPlugin.getWorkspace().getRoot().getPersistentProperty(WORKERS);
+			if (property != null) {
+				final String[] values = property.split("[|]");
+				for (int i = 0; i < Math.min(values.length, workers.length); i++) {
+					try {
+						workers[i] = Math.max(1, Integer.parseInt(values[i].trim()));
+					} catch (final NumberFormatException e) {
+						LOGGER.logWarning("Invalid number of workers: " + values[i]);
+					}
+				}
+			}
+		} catch (final CoreException e) {
+			LOGGER.logError(e);
+		}
+		return workers;
+	}
+
 	/**
 	 * Initializes the configuration builder.<br> -Removes old products -Generates the build folder
 	 *
@@ -542,41 +654,13 @@ public class ConfigurationBuilder implements IConfigurationBuilderBasics {
 	}
 
 	/**
-	 * Creates new {@link Generator}s
-	 *
-	 * @param count The amount of Generators that will be created.
-	 */
-	private void newgeneratorJobs(int count) {
-		if (count < 1) {
-			return;
-		}
-
-		if (count == 1) {
-			createNewGenerator(0);
-			return;
-		}
-
-		for (; count > 0; count--) {
-			createNewGenerator(count);
-		}
-	}
-
-	/**
-	 * Created a new {@link Generator} with the given number
-	 *
-	 * @param nr
-	 */
-	void createNewGenerator(int nr) {
-		final Generator g = new Generator(nr, this);
-		generatorJobs.add(g);
-		g.start();
-	}
-
-	/**
-	 * This is called if the main job is canceled and all {@link Builder} and {@link JavaCompiler} should finish.
+	 * This is called if the main job is canceled and all stages of the {@link BuildPipeline} should finish.
 	 */
 	public void cancelGenerationJobs() {
 		cancelGeneratorJobs = true;
+		if (pipeline != null) {
+			pipeline.cancel();
+		}
 	}
 
 	/**
@@ -591,6 +675,7 @@ public class ConfigurationBuilder implements IConfigurationBuilderBasics {
 	 */
 	public String getTaskName() {
 		String t = "";
+		final int built = this.built.get();
 		if ((configurationNumber != 0) && (built != 0)) {
 			long duration = System.currentTimeMillis() - time;
 			duration = (duration / built) * (configurationNumber - built);
@@ -599,7 +684,7 @@ public class ConfigurationBuilder implements IConfigurationBuilderBasics {
 			final long h = duration / (60 * 60 * 1000);
 			t = " " + h + "h " + (min < 10 ? "0" + min : min) + "min " + (s < 10 ? "0" + s : s) + "s.";
 		}
-		final long buffer = sorter.getBufferSize();
+		final long buffer = sorter.getBufferSize() + (pipeline != null ? pipeline.getBufferSize() : 0);
 		return "Built configurations: " + built + "/" + (configurationNumber == Integer.MAX_VALUE ? COUNTING___ : configurationNumber) + "(" + buffer
 			+ " buffered)" + " Expected time: " + t;
 	}
@@ -608,7 +693,7 @@ public class ConfigurationBuilder implements IConfigurationBuilderBasics {
 	 * Notification that one configuration has been built.
 	 */
 	public synchronized void builtConfiguration() {
-		built++;
+		final int built = this.built.incrementAndGet();
 		((SubMonitor) globalMonitor).setWorkRemaining((int) configurationNumber - built);
 		globalMonitor.setTaskName(getTaskName());
 		globalMonitor.worked(1);
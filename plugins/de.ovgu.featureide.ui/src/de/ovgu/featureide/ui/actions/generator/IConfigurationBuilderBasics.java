@@ -85,6 +85,9 @@ public interface IConfigurationBuilderBasics {
 		new QualifiedName(IConfigurationBuilderBasics.class.getName() + "#OutputType", IConfigurationBuilderBasics.class.getName() + "#OutputType");
 	QualifiedName TEST = new QualifiedName(IConfigurationBuilderBasics.class.getName() + "#Test", IConfigurationBuilderBasics.class.getName() + "#Test");
 	QualifiedName MAX = new QualifiedName(IConfigurationBuilderBasics.class.getName() + "#MaxConf", IConfigurationBuilderBasics.class.getName() + "#MaxConf");
+	/** Saves the number of workers for the composition, compilation, and test stage separated by <code>|</code>. **/
+	QualifiedName WORKERS =
+		new QualifiedName(IConfigurationBuilderBasics.class.getName() + "#Workers", IConfigurationBuilderBasics.class.getName() + "#Workers");
 	String TRUE = "true";
 	String FALSE = "false";
 
@@ -21,15 +21,21 @@
 package de.ovgu.featureide.ui.actions.generator;
 
 import static de.ovgu.featureide.fm.core.localization.StringTable.CANNOT_FIND_SYMBOL;
-import static de.ovgu.featureide.fm.core.localization.StringTable.COMPILER;
 import static de.ovgu.featureide.fm.core.localization.StringTable.SYMBOL;
 
 import java.io.IOException;
 import java.io.PrintWriter;
 import java.io.StringWriter;
 import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
 import java.util.Scanner;
+import java.util.Set;
 import java.util.TreeMap;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -39,86 +45,153 @@ import org.eclipse.core.resources.IFolder;
 import org.eclipse.core.resources.IMarker;
 import org.eclipse.core.resources.IResource;
 import org.eclipse.core.runtime.CoreException;
-import org.eclipse.core.runtime.jobs.Job;
 import org.eclipse.jdt.core.compiler.batch.BatchCompiler;
 
 import de.ovgu.featureide.ui.UIPlugin;
+import de.ovgu.featureide.ui.actions.generator.CompilationCache.CompilationUnit;
+import de.ovgu.featureide.ui.actions.generator.CompilationCache.Problem;
 
 /**
- * This {@link Job} compiles all configurations of the corresponding {@link Generator}
+ * Compiles the configurations of the corresponding {@link ConfigurationBuilder}. Each configuration is compiled into its own folder, such that several
+ * configurations can be compiled and tested at the same time.
  *
  * @author Jens Meinicke
  */
 public class JavaCompiler implements IConfigurationBuilderBasics {
 
-	private final Generator generator;
+	private final ConfigurationBuilder builder;
 
 	/**
-	 * The parent folder of the generated variants
+	 * Holds the class files of compilation units that are shared by several configurations.
 	 */
-	final IFolder tmp;
+	private final CompilationCache cache;
 
 	/**
 	 *
-	 * @param nr The number of the compiler
-	 * @param generator The generator holding this compiler
+	 * @param builder The builder holding this compiler
+	 * @param cache The cache for class files, which is shared by all configurations of the builder
 	 */
-	public JavaCompiler(int nr, Generator generator) {
-		this.generator = generator;
-
-		tmp = generator.builder.tmp.getFolder(COMPILER + nr);
-		if (!tmp.exists()) {
-			try {
-				tmp.create(true, true, null);
-			} catch (final CoreException e) {
-				UIPlugin.getDefault().logError(e);
-			}
-		}
+	public JavaCompiler(ConfigurationBuilder builder, CompilationCache cache) {
+		this.builder = builder;
+		this.cache = cache;
+	}
 
+	/**
+	 * Returns the folder that contains the binary files of the given configuration.
+	 *
+	 * @param configuration The configuration
+	 * @return The output folder
+	 */
+	IFolder getOutputFolder(BuilderConfiguration configuration) {
+		return builder.tmp.getFolder(configuration.getName());
 	}
 
 	/**
 	 * Compiles the given configuration.
 	 *
 	 * @param configuration The configuration to build
+	 * @return The folder containing the binary files
 	 * @throws CoreException
 	 */
-	protected void compile(BuilderConfiguration configuration) throws CoreException {
+	protected IFolder compile(BuilderConfiguration configuration) throws CoreException {
 		try {
-			generator.builder.folder.getFolder(configuration.getName()).refreshLocal(IResource.DEPTH_INFINITE, null);
+			builder.folder.getFolder(configuration.getName()).refreshLocal(IResource.DEPTH_INFINITE, null);
 		} catch (final CoreException e) {
 			UIPlugin.getDefault().logError(e);
 		}
-		for (final IResource file : tmp.members()) {
-			file.delete(true, null);
+		final IFolder tmp = getOutputFolder(configuration);
+		if (tmp.exists()) {
+			tmp.delete(true, null);
 		}
-		compile(configuration.getName());
+		tmp.create(true, true, null);
+		compile(configuration.getName(), tmp);
+		return tmp;
 	}
 
 	/**
-	 * Compiles the built configuration to create error markers. The binary files will be placed into an temporary folder.
+	 * Compiles the built configuration to create error markers. The binary files will be placed into an temporary folder.<br> Compilation units that
+	 * did not change compared to a previously compiled configuration are not compiled again, instead their class files and problems are taken from
+	 * the {@link CompilationCache}.
 	 *
 	 * @param confName
+	 * @param tmp The output folder
 	 */
-	private void compile(String confName) {
-		final LinkedList<IFile> files = getJavaFiles(generator.builder.folder.getFolder(confName));
-		final LinkedList<String> options = new LinkedList<>();
-		for (final IFile file : files) {
-			options.add(setupPath(file));
+	private void compile(String confName, IFolder tmp) {
+		final LinkedList<IFile> files = getJavaFiles(builder.folder.getFolder(confName));
+		final java.nio.file.Path outputFolder = tmp.getRawLocation().toFile().toPath();
+		final Map<IFile, List<Problem>> problems = new HashMap<>();
+
+		List<CompilationUnit> units;
+		try {
+			units = cache.createUnits(files);
+		} catch (final IOException e) {
+			UIPlugin.getDefault().logError(e);
+			units = null;
+		}
+
+		final Set<java.nio.file.Path> restoredFiles = new HashSet<>();
+		final LinkedList<CompilationUnit> compiledUnits = new LinkedList<>();
+		final LinkedList<IFile> compiledFiles = new LinkedList<>();
+		if (units != null) {
+			try {
+				for (final CompilationUnit unit : units) {
+					final List<Problem> unitProblems = cache.restore(unit, outputFolder, restoredFiles);
+					if (unitProblems == null) {
+						compiledUnits.add(unit);
+						compiledFiles.add(unit.file);
+					} else {
+						problems.put(unit.file, unitProblems);
+					}
+				}
+			} catch (final IOException e) {
+				UIPlugin.getDefault().logError(e);
+				units = null;
+			}
+		}
+		if (units == null) {
+			// compile everything without using the cache
+			problems.clear();
+			restoredFiles.clear();
+			compiledUnits.clear();
+			compiledFiles.clear();
+			compiledFiles.addAll(files);
+		}
+
+		if (!compiledFiles.isEmpty()) {
+			final LinkedList<String> options = new LinkedList<>();
+			for (final IFile file : compiledFiles) {
+				options.add(setupPath(file));
+			}
+			options.add("-g");
+			options.add("-Xlint");
+			options.add("-source");
+			options.add("1.7");
+			options.add("-d");
+			options.add(setupPath(outputFolder.toString()));
+			options.add("-classpath");
+			if (restoredFiles.isEmpty()) {
+				options.add(builder.classpath);
+			} else {
+				// restored class files are needed to compile the remaining compilation units
+				final String outputClasspath = "\"" + outputFolder.toString() + "\"";
+				options.add(builder.classpath.isEmpty() ? outputClasspath : outputClasspath + System.getProperty("path.separator") + builder.classpath);
+			}
+
+			final String output = process(options);
+			final Map<IFile, List<Problem>> newProblems = parseProblems(output, compiledFiles);
+			problems.putAll(newProblems);
+			if (units != null) {
+				try {
+					cache.store(compiledUnits, outputFolder, restoredFiles, newProblems);
+				} catch (final IOException e) {
+					UIPlugin.getDefault().logError(e);
+				}
+			}
 		}
-		options.add("-g");
-		options.add("-Xlint");
-		options.add("-source");
-		options.add("1.7");
-		options.add("-d");
-		options.add(setupPath(tmp.getRawLocation().toOSString()));
-		options.add("-classpath");
-		options.add(generator.builder.classpath);
 
-		final String output = process(options);
-		final LinkedList<IFile> errorFiles = parseJavacOutput(output, files, confName);
+		final LinkedList<IFile> errorFiles = createMarkers(problems, confName);
 		for (final IFile file : errorFiles) {
-			generator.builder.featureProject.getComposer().postCompile(null, file);
+			builder.featureProject.getComposer().postCompile(null, file);
 		}
 	}
 
@@ -164,9 +237,20 @@ public class JavaCompiler implements IConfigurationBuilderBasics {
 	 * @return list of files
 	 */
 	public LinkedList<IFile> parseJavacOutput(String output, LinkedList<IFile> files, String configurationName) {
-		final LinkedList<IFile> errorFiles = new LinkedList<IFile>();
-		if (output.isEmpty()) {
-			return errorFiles;
+		return createMarkers(parseProblems(output, files), configurationName);
+	}
+
+	/**
+	 * Extracts the warnings and errors of the given files from the compiler output.
+	 *
+	 * @param output The output from the compiler
+	 * @param files The compiled files
+	 * @return the problems for each file that has at least one problem
+	 */
+	private Map<IFile, List<Problem>> parseProblems(String output, LinkedList<IFile> files) {
+		final Map<IFile, List<Problem>> problems = new HashMap<>();
+		if ((output == null) || output.isEmpty()) {
+			return problems;
 		}
 		final TreeMap<String, IFile> sourcePaths = new TreeMap<>();
 		for (final IFile file : files) {
@@ -215,21 +299,45 @@ public class JavaCompiler implements IConfigurationBuilderBasics {
 					|| errorMessage.contains(ERROR_IGNOR_DEPRECATION)) {
 					continue;
 				}
-				if (!errorFiles.contains(currentFile)) {
-					errorFiles.add(currentFile);
-				}
-				IMarker newMarker;
-				newMarker = currentFile.createMarker(PROBLEM_MARKER);
-				if (newMarker.exists()) {
-					newMarker.setAttribute(IMarker.LINE_NUMBER, line);
-					newMarker.setAttribute(IMarker.MESSAGE, configurationName + " " + errorMessage);
-					newMarker.setAttribute(IMarker.SEVERITY, warning ? IMarker.SEVERITY_WARNING : IMarker.SEVERITY_ERROR);
+				List<Problem> fileProblems = problems.get(currentFile);
+				if (fileProblems == null) {
+					fileProblems = new ArrayList<>();
+					problems.put(currentFile, fileProblems);
 				}
+				fileProblems.add(new Problem(warning, line, errorMessage));
 			}
-		} catch (final CoreException e) {
-			UIPlugin.getDefault().logError(e);
 		}
 
+		return problems;
+	}
+
+	/**
+	 * Generates the problem markers for the given problems.
+	 *
+	 * @param problems The problems of each file
+	 * @param configurationName Name of the actual configuration
+	 * @return list of files that have a problem
+	 */
+	private LinkedList<IFile> createMarkers(Map<IFile, List<Problem>> problems, String configurationName) {
+		final LinkedList<IFile> errorFiles = new LinkedList<IFile>();
+		for (final Entry<IFile, List<Problem>> entry : problems.entrySet()) {
+			final IFile currentFile = entry.getKey();
+			try {
+				for (final Problem problem : entry.getValue()) {
+					if (!errorFiles.contains(currentFile)) {
+						errorFiles.add(currentFile);
+					}
+					final IMarker newMarker = currentFile.createMarker(PROBLEM_MARKER);
+					if (newMarker.exists()) {
+						newMarker.setAttribute(IMarker.LINE_NUMBER, problem.line);
+						newMarker.setAttribute(IMarker.MESSAGE, configurationName + " " + problem.message);
+						newMarker.setAttribute(IMarker.SEVERITY, problem.warning ? IMarker.SEVERITY_WARNING : IMarker.SEVERITY_ERROR);
+					}
+				}
+			} catch (final CoreException e) {
+				UIPlugin.getDefault().logError(e);
+			}
+		}
 		return errorFiles;
 	}
 
@@ -80,19 +80,17 @@ public class TestRunner {
 	private static final UIPlugin LOGGER = UIPlugin.getDefault();
 	int compiled = 0;
 
-	private final IFolder tmp;
 	private final ConfigurationBuilder builder;
 
-	public TestRunner(IFolder tmp, TestResults testResults, final ConfigurationBuilder builder) {
-		this.tmp = tmp;
+	public TestRunner(TestResults testResults, final ConfigurationBuilder builder) {
 		this.testResults = testResults;
 		this.builder = builder;
 
 	}
 
 	@SuppressWarnings(RESOURCE)
-	public void runTests(final BuilderConfiguration configuration) {
-		final URL[] url = getURLs();
+	public void runTests(final BuilderConfiguration configuration, final IFolder tmp) {
+		final URL[] url = getURLs(tmp);
 		final URLClassLoader classLoader = new URLClassLoader(url, Thread.currentThread().getContextClassLoader());
 		for (final String file : getFiles(tmp)) {
 			try {
@@ -171,7 +169,7 @@ public class TestRunner {
 
 	}
 
-	private URL[] getURLs() {
+	private URL[] getURLs(IFolder tmp) {
 		final ArrayList<URL> urls = new ArrayList<>();
 		try {
 			URL url = tmp.getLocationURI().toURL();
@@ -109,6 +109,7 @@ public abstract class ACNFConfigurationGenerator extends AConfigurationGenerator
 		}
 		consumer.stop();
 		thread.interrupt();
+		thread.join();
 		return null;
 	}
 
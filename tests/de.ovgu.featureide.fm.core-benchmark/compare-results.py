@@ -0,0 +1,99 @@
+#!/usr/bin/env python3
+"""Compares two JMH result files and reports regressions.
+
+Usage: compare-results.py <baseline.json> <candidate.json> [--threshold PERCENT]
+
+A benchmark is reported as regression if its throughput decreases, its sampled
+latency (p50, p99) increases, or its normalized allocation rate increases by
+more than the threshold (default 10%). Changes within the error margin of the
+measurement are ignored. Exits with status 1 if a regression was found.
+"""
+
+import argparse
+import json
+import sys
+
+LATENCY_PERCENTILES = ["50.0", "99.0"]
+ALLOCATION_METRIC = "·gc.alloc.rate.norm"
+
+
+def load(path):
+    with open(path) as f:
+        results = {}
+        for entry in json.load(f):
+            params = entry.get("params", {})
+            key = (entry["benchmark"], entry["mode"], tuple(sorted(params.items())))
+            results[key] = entry
+        return results
+
+
+def relative_change(old, new):
+    return (new - old) / old * 100.0 if old != 0 else 0.0
+
+
+def compare(name, old, new, old_error, new_error, higher_is_better, threshold):
+    change = relative_change(old, new)
+    worse = -change if higher_is_better else change
+    significant = abs(new - old) > (old_error + new_error)
+    status = "REGRESSION" if worse > threshold and significant else ("improved" if -worse > threshold and significant else "")
+    return (name, old, new, change, status)
+
+
+def error_of(metric):
+    error = metric.get("scoreError", 0.0)
+    return 0.0 if error != error else error  # NaN for single iterations
+
+
+def compare_entry(old_entry, new_entry, threshold):
+    rows = []
+    old_metric = old_entry["primaryMetric"]
+    new_metric = new_entry["primaryMetric"]
+    unit = old_metric["scoreUnit"]
+    if old_entry["mode"] == "thrpt":
+        rows.append(compare("throughput [%s]" % unit, old_metric["score"], new_metric["score"],
+                            error_of(old_metric), error_of(new_metric), True, threshold))
+    elif old_entry["mode"] == "sample":
+        for percentile in LATENCY_PERCENTILES:
+            old_value = old_metric["scorePercentiles"][percentile]
+            new_value = new_metric["scorePercentiles"][percentile]
+            rows.append(compare("p%s [%s]" % (percentile.split(".")[0], unit), old_value, new_value, 0.0, 0.0, False, threshold))
+    else:
+        rows.append(compare("score [%s]" % unit, old_metric["score"], new_metric["score"],
+                            error_of(old_metric), error_of(new_metric), False, threshold))
+    old_alloc = old_entry.get("secondaryMetrics", {}).get(ALLOCATION_METRIC)
+    new_alloc = new_entry.get("secondaryMetrics", {}).get(ALLOCATION_METRIC)
+    if old_alloc and new_alloc:
+        rows.append(compare("allocation [%s]" % old_alloc["scoreUnit"], old_alloc["score"], new_alloc["score"],
+                            error_of(old_alloc), error_of(new_alloc), False, threshold))
+    return rows
+
+
+def main():
+    parser = argparse.ArgumentParser(description="Compares two JMH result files and reports regressions.")
+    parser.add_argument("baseline")
+    parser.add_argument("candidate")
+    parser.add_argument("--threshold", type=float, default=10.0, help="relative change in percent that is reported (default 10)")
+    args = parser.parse_args()
+
+    baseline = load(args.baseline)
+    candidate = load(args.candidate)
+
+    regressions = 0
+    for key in sorted(baseline.keys() & candidate.keys()):
+        benchmark, mode, params = key
+        print("%s (%s) %s" % (benchmark, mode, ", ".join("%s=%s" % p for p in params)))
+        for name, old, new, change, status in compare_entry(baseline[key], candidate[key], args.threshold):
+            print("    %-28s %14.3f -> %14.3f  %+7.1f%%  %s" % (name, old, new, change, status))
+            if status == "REGRESSION":
+                regressions += 1
+    for key in sorted(baseline.keys() - candidate.keys()):
+        print("missing in candidate: %s (%s)" % (key[0], key[1]))
+    for key in sorted(candidate.keys() - baseline.keys()):
+        print("new in candidate: %s (%s)" % (key[0], key[1]))
+
+    print("%d regression(s) found" % regressions)
+    return 1 if regressions > 0 else 0
+
+
+if __name__ == "__main__":
+    sys.exit(main())
@@ -0,0 +1,9 @@
+#!/bin/sh
+# Runs the fm.core benchmarks and stores the results as JSON.
+# Usage: run-benchmarks.sh [result file] [additional JMH arguments]
+# Example: run-benchmarks.sh results/current.json MIGBenchmark -p model=featuremodels/GPLmedium/model.xml
+cd "$(dirname "$0")"
+RESULT_FILE="${1:-results/$(date +%Y%m%d-%H%M%S).json}"
+[ $# -gt 0 ] && shift
+mkdir -p "$(dirname "$RESULT_FILE")"
+exec java -Dfeatureide.root=../.. -cp "target/classes:target/lib/*" org.openjdk.jmh.Main -prof gc -rf json -rff "$RESULT_FILE" "$@"
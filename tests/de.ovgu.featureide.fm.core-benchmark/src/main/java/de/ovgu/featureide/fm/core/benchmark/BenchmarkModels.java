@@ -0,0 +1,78 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.benchmark;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import de.ovgu.featureide.fm.core.analysis.cnf.CNF;
+import de.ovgu.featureide.fm.core.analysis.cnf.formula.FeatureModelFormula;
+import de.ovgu.featureide.fm.core.base.IFeatureModel;
+import de.ovgu.featureide.fm.core.init.FMCoreLibrary;
+import de.ovgu.featureide.fm.core.init.LibraryManager;
+import de.ovgu.featureide.fm.core.io.manager.FeatureModelManager;
+
+/**
+ * Loads the feature models used as benchmark parameters.
+ * Model paths are resolved against the root folder of the FeatureIDE repository, which can be set via the system property {@value #ROOT_PROPERTY}.
+ *
+ * @author FeatureIDE Team
+ */
+public final class BenchmarkModels {
+
+	public static final String ROOT_PROPERTY = "featureide.root";
+
+	public static final String GPL_MEDIUM = "featuremodels/GPLmedium/model.xml";
+	public static final String BERKELEY_DB = "featuremodels/BerkeleyDB/model.xml";
+	public static final String E_SHOP = "featuremodels/E-Shop/model.xml";
+	public static final String WATERLOO = "featuremodels/WaterlooGenerated/model.xml";
+	public static final String BUSYBOX = "plugins/de.ovgu.featureide.examples/featureide_examples/FeatureModels/Busybox_1.18.0/model.xml";
+
+	static {
+		LibraryManager.registerLibrary(FMCoreLibrary.getInstance());
+	}
+
+	private BenchmarkModels() {}
+
+	public static Path resolve(String model) {
+		final Path root = Paths.get(System.getProperty(ROOT_PROPERTY, "../.."));
+		final Path path = root.resolve(model).normalize();
+		if (!Files.isReadable(path)) {
+			throw new IllegalArgumentException("Cannot read feature model " + path.toAbsolutePath());
+		}
+		return path;
+	}
+
+	public static IFeatureModel loadFeatureModel(String model) {
+		final Path path = resolve(model);
+		final IFeatureModel featureModel = FeatureModelManager.load(path);
+		if (featureModel == null) {
+			throw new IllegalArgumentException("Cannot load feature model " + path.toAbsolutePath());
+		}
+		return featureModel;
+	}
+
+	public static CNF loadCNF(String model) {
+		return new FeatureModelFormula(loadFeatureModel(model)).getCNF();
+	}
+
+}
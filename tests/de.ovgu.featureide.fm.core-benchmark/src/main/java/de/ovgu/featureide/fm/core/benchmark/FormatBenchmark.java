@@ -0,0 +1,102 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import de.ovgu.featureide.fm.core.ExtensionManager.NoSuchExtensionException;
+import de.ovgu.featureide.fm.core.base.IFeatureModel;
+import de.ovgu.featureide.fm.core.base.IFeatureModelFactory;
+import de.ovgu.featureide.fm.core.base.impl.FMFactoryManager;
+import de.ovgu.featureide.fm.core.io.IPersistentFormat;
+import de.ovgu.featureide.fm.core.io.manager.SimpleFileHandler;
+import de.ovgu.featureide.fm.core.io.uvl.UVLFeatureModelFormat;
+import de.ovgu.featureide.fm.core.io.xml.XmlFeatureModelFormat;
+
+/**
+ * Benchmarks reading and writing feature models with the {@link XmlFeatureModelFormat} and the {@link UVLFeatureModelFormat}.
+ * The models are serialized in memory beforehand, so file system access is not measured.
+ *
+ * @author FeatureIDE Team
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FormatBenchmark {
+
+	@Param({ BenchmarkModels.GPL_MEDIUM, BenchmarkModels.BERKELEY_DB, BenchmarkModels.E_SHOP, BenchmarkModels.WATERLOO, BenchmarkModels.BUSYBOX })
+	public String model;
+
+	@Param({ XmlFeatureModelFormat.FILE_EXTENSION, UVLFeatureModelFormat.FILE_EXTENSION })
+	public String format;
+
+	private IPersistentFormat<IFeatureModel> persistentFormat;
+	private IFeatureModelFactory factory;
+	private IFeatureModel featureModel;
+	private String source;
+
+	private IPersistentFormat<IFeatureModel> createFormat() {
+		switch (format) {
+		case XmlFeatureModelFormat.FILE_EXTENSION:
+			return new XmlFeatureModelFormat();
+		case UVLFeatureModelFormat.FILE_EXTENSION:
+			return new UVLFeatureModelFormat();
+		default:
+			throw new IllegalArgumentException(format);
+		}
+	}
+
+	@Setup
+	public void setup() throws NoSuchExtensionException {
+		featureModel = BenchmarkModels.loadFeatureModel(model);
+		persistentFormat = createFormat();
+		factory = FMFactoryManager.getInstance().getFactory(persistentFormat);
+		source = SimpleFileHandler.saveToString(featureModel, persistentFormat);
+	}
+
+	@Benchmark
+	public IFeatureModel read() {
+		final IFeatureModel readModel = factory.create();
+		SimpleFileHandler.loadFromString(source, readModel, persistentFormat.getInstance());
+		return readModel;
+	}
+
+	@Benchmark
+	public String write() {
+		return SimpleFileHandler.saveToString(featureModel, persistentFormat.getInstance());
+	}
+
+}
@@ -0,0 +1,78 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import de.ovgu.featureide.fm.core.analysis.cnf.CNF;
+import de.ovgu.featureide.fm.core.analysis.mig.MIGBuilder;
+import de.ovgu.featureide.fm.core.analysis.mig.ModalImplicationGraph;
+import de.ovgu.featureide.fm.core.job.LongRunningWrapper;
+
+/**
+ * Benchmarks the construction of a {@link ModalImplicationGraph} by the {@link MIGBuilder}.
+ *
+ * @author FeatureIDE Team
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MIGBenchmark {
+
+	@Param({ BenchmarkModels.GPL_MEDIUM, BenchmarkModels.BERKELEY_DB, BenchmarkModels.E_SHOP, BenchmarkModels.WATERLOO, BenchmarkModels.BUSYBOX })
+	public String model;
+
+	@Param({ "false", "true" })
+	public boolean detectStrong;
+
+	@Param({ "1", "4" })
+	public int threads;
+
+	private CNF cnf;
+
+	@Setup
+	public void setup() {
+		cnf = BenchmarkModels.loadCNF(model);
+	}
+
+	@Benchmark
+	public ModalImplicationGraph buildMIG() {
+		final MIGBuilder builder = new MIGBuilder(cnf, detectStrong);
+		builder.setNumberOfThreads(threads);
+		return LongRunningWrapper.runMethod(builder);
+	}
+
+}
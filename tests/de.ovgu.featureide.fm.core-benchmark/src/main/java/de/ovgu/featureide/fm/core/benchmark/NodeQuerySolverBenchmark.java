@@ -0,0 +1,141 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.prop4j.And;
+import org.prop4j.Implies;
+import org.prop4j.Literal;
+import org.prop4j.Node;
+import org.prop4j.Not;
+import org.prop4j.Or;
+import org.prop4j.SatSolver;
+import org.sat4j.specs.TimeoutException;
+
+import de.ovgu.featureide.fm.core.analysis.cnf.CNF;
+import de.ovgu.featureide.fm.core.analysis.cnf.solver.ISimpleSatSolver.SatResult;
+import de.ovgu.featureide.fm.core.analysis.cnf.solver.NodeQuerySolver;
+import de.ovgu.featureide.fm.core.analysis.cnf.formula.FeatureModelFormula;
+import de.ovgu.featureide.fm.core.base.IFeatureModel;
+import de.ovgu.featureide.fm.core.editing.AdvancedNodeCreator;
+
+/**
+ * Benchmarks implication queries answered by the legacy {@link SatSolver}, which is created for each query, and by the {@link NodeQuerySolver}.
+ * Each invocation checks the same random queries of the form {@code A => B} and {@code A => (B | C)} over the features of the model.
+ * {@link #nodeQuerySolver()} creates a new solver for each invocation, whereas {@link #nodeQuerySolverCached()} reuses translated queries.
+ *
+ * @author FeatureIDE Team
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class NodeQuerySolverBenchmark {
+
+	private static final int NUMBER_OF_QUERIES = 100;
+
+	@Param({ BenchmarkModels.GPL_MEDIUM, BenchmarkModels.BERKELEY_DB, BenchmarkModels.E_SHOP, BenchmarkModels.WATERLOO, BenchmarkModels.BUSYBOX })
+	public String model;
+
+	private Node featureModelNode;
+	private CNF cnf;
+	private NodeQuerySolver sharedSolver;
+	private List<Node> queries;
+
+	@Setup
+	public void setup() {
+		final IFeatureModel featureModel = BenchmarkModels.loadFeatureModel(model);
+		featureModelNode = AdvancedNodeCreator.createNodes(featureModel);
+		cnf = new FeatureModelFormula(featureModel).getCNF();
+		sharedSolver = new NodeQuerySolver(cnf);
+
+		final List<String> names = new ArrayList<>();
+		for (final String name : cnf.getVariables().getNames()) {
+			if (name != null) {
+				names.add(name);
+			}
+		}
+		final Random random = new Random(112358);
+		queries = new ArrayList<>(NUMBER_OF_QUERIES);
+		for (int i = 0; i < NUMBER_OF_QUERIES; i++) {
+			final Literal a = new Literal(names.get(random.nextInt(names.size())));
+			final Literal b = new Literal(names.get(random.nextInt(names.size())));
+			if ((i % 2) == 0) {
+				queries.add(new Implies(a, b));
+			} else {
+				final Literal c = new Literal(names.get(random.nextInt(names.size())));
+				queries.add(new Implies(a, new Or(b, c)));
+			}
+		}
+	}
+
+	@Benchmark
+	public int legacySolver() throws TimeoutException {
+		int implied = 0;
+		for (final Node query : queries) {
+			if (!new SatSolver(new And(featureModelNode.clone(), new Not(query.clone())), 10_000).hasSolution()) {
+				implied++;
+			}
+		}
+		return implied;
+	}
+
+	@Benchmark
+	public int nodeQuerySolver() {
+		final NodeQuerySolver solver = new NodeQuerySolver(cnf);
+		int implied = 0;
+		for (final Node query : queries) {
+			if (solver.isImplied(query) == SatResult.TRUE) {
+				implied++;
+			}
+		}
+		return implied;
+	}
+
+	@Benchmark
+	public int nodeQuerySolverCached() {
+		int implied = 0;
+		for (final Node query : queries) {
+			if (sharedSolver.isImplied(query) == SatResult.TRUE) {
+				implied++;
+			}
+		}
+		return implied;
+	}
+
+}
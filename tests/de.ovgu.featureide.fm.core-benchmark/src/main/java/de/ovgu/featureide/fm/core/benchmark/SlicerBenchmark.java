@@ -0,0 +1,87 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import de.ovgu.featureide.fm.core.analysis.cnf.CNF;
+import de.ovgu.featureide.fm.core.analysis.cnf.manipulator.remove.CNFSlicer;
+import de.ovgu.featureide.fm.core.job.LongRunningWrapper;
+
+/**
+ * Benchmarks the removal of variables by the {@link CNFSlicer}.
+ * The sliced variables are chosen randomly with a fixed seed, such that every run slices the same variables.
+ *
+ * @author FeatureIDE Team
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SlicerBenchmark {
+
+	@Param({ BenchmarkModels.GPL_MEDIUM, BenchmarkModels.BERKELEY_DB, BenchmarkModels.E_SHOP, BenchmarkModels.WATERLOO, BenchmarkModels.BUSYBOX })
+	public String model;
+
+	/**
+	 * Percentage of variables to slice.
+	 */
+	@Param({ "10", "50" })
+	public int slicePercentage;
+
+	private CNF cnf;
+	private List<String> slicedVariables;
+
+	@Setup
+	public void setup() {
+		cnf = BenchmarkModels.loadCNF(model);
+		final Random random = new Random(112358);
+		slicedVariables = new ArrayList<>();
+		for (final String name : cnf.getVariables().getNames()) {
+			if ((name != null) && (random.nextInt(100) < slicePercentage)) {
+				slicedVariables.add(name);
+			}
+		}
+	}
+
+	@Benchmark
+	public CNF slice() {
+		return LongRunningWrapper.runMethod(new CNFSlicer(cnf, slicedVariables));
+	}
+
+}
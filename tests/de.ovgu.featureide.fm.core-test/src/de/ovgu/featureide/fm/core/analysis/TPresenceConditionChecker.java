@@ -0,0 +1,178 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.analysis;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Test;
+import org.prop4j.And;
+import org.prop4j.Implies;
+import org.prop4j.Literal;
+import org.prop4j.Node;
+import org.prop4j.Not;
+import org.prop4j.Or;
+import org.prop4j.SatSolver;
+
+import de.ovgu.featureide.Commons;
+import de.ovgu.featureide.fm.core.analysis.PresenceConditionChecker.Status;
+import de.ovgu.featureide.fm.core.base.FeatureUtils;
+import de.ovgu.featureide.fm.core.base.IFeatureModel;
+import de.ovgu.featureide.fm.core.editing.AdvancedNodeCreator;
+
+/**
+ * Tests for {@link PresenceConditionChecker}.
+ *
+ * @author FeatureIDE Team
+ */
+public class TPresenceConditionChecker {
+
+	private static final Literal S = new Literal("S");
+	private static final Literal A = new Literal("A");
+	private static final Literal B = new Literal("B");
+	private static final Literal C = new Literal("C");
+	private static final Literal X = new Literal("X");
+
+	private static PresenceConditionChecker createChecker() {
+		return new PresenceConditionChecker(new And(S, new Implies(S, new Or(A, B)), new Not(new And(A, B)), new Implies(C, A)));
+	}
+
+	private static Status check(Node fm, Node expression, List<Node> context) throws Exception {
+		if (!new SatSolver(fm, 1000).hasSolution()) {
+			return Status.VOID;
+		}
+		if (!new SatSolver(expression, 1000).hasSolution()) {
+			return Status.CONTRADICTION;
+		}
+		if (!new SatSolver(new Not(expression), 1000).hasSolution()) {
+			return Status.TAUTOLOGY;
+		}
+		final Node contextNode = new And(fm, new And(context.toArray(new Node[0])));
+		if (!new SatSolver(new And(contextNode, expression), 1000).hasSolution()) {
+			return Status.DEAD;
+		}
+		if (!new SatSolver(new And(contextNode, new Not(expression)), 1000).hasSolution()) {
+			return Status.SUPERFLUOUS;
+		}
+		return Status.NORMAL;
+	}
+
+	@Test
+	public void status() {
+		final PresenceConditionChecker checker = createChecker();
+		final List<Node> none = Collections.emptyList();
+		assertFalse(checker.isVoid());
+		assertEquals(Status.NORMAL, checker.check(A, none));
+		assertEquals(Status.CONTRADICTION, checker.check(new And(A, new Not(A)), none));
+		assertEquals(Status.TAUTOLOGY, checker.check(new Or(A, new Not(A)), none));
+		assertEquals(Status.DEAD, checker.check(new And(A, B), none));
+		assertEquals(Status.SUPERFLUOUS, checker.check(S, none));
+		assertEquals(Status.SUPERFLUOUS, checker.check(A, Arrays.<Node> asList(C)));
+		assertEquals(Status.DEAD, checker.check(B, Arrays.<Node> asList(C)));
+		assertEquals(Status.DEAD, checker.check(B, Arrays.<Node> asList(S, C)));
+		assertEquals(Status.NORMAL, checker.check(X, none));
+		assertEquals(Status.SUPERFLUOUS, checker.check(X, Arrays.<Node> asList(X)));
+		assertEquals(Status.DEAD, checker.check(new Not(X), Arrays.<Node> asList(X)));
+	}
+
+	@Test
+	public void voidFeatureModel() {
+		final PresenceConditionChecker checker = new PresenceConditionChecker(new And(A, new Not(A)));
+		assertTrue(checker.isVoid());
+		assertEquals(Status.VOID, checker.check(B, Collections.<Node> emptyList()));
+	}
+
+	@Test
+	public void memoization() {
+		final PresenceConditionChecker checker = createChecker();
+		assertEquals(Status.DEAD, checker.check(B, Arrays.<Node> asList(S, C)));
+		assertEquals(1, checker.getNumberOfCachedResults());
+		assertEquals(Status.DEAD, checker.check(B.clone(), Arrays.<Node> asList(C.clone(), S.clone(), C.clone())));
+		assertEquals(1, checker.getNumberOfCachedResults());
+		assertEquals(Status.NORMAL, checker.check(B, Collections.<Node> emptyList()));
+		assertEquals(2, checker.getNumberOfCachedResults());
+	}
+
+	@Test
+	public void featureModel() throws Exception {
+		final IFeatureModel featureModel = Commons.loadTestFeatureModelFromFile("gpl_medium_model.xml");
+		final Node fm = AdvancedNodeCreator.createNodes(featureModel);
+		final PresenceConditionChecker checker = new PresenceConditionChecker(fm);
+		final List<String> names = FeatureUtils.getFeatureNamesList(featureModel);
+		for (int i = 0; i < names.size(); i++) {
+			final Literal a = new Literal(names.get(i));
+			final Literal b = new Literal(names.get((i * 7) % names.size()));
+			final List<Node> context = Arrays.<Node> asList(new Literal(names.get((i * 3) % names.size())));
+			for (final Node expression : new Node[] { a, new Not(a), new Or(a, b), new And(a, new Not(b)) }) {
+				assertEquals(expression + " " + context, check(fm, expression, context), checker.check(expression, context));
+			}
+		}
+	}
+
+	@Test
+	public void parallel() throws Exception {
+		final IFeatureModel featureModel = Commons.loadTestFeatureModelFromFile("gpl_medium_model.xml");
+		final Node fm = AdvancedNodeCreator.createNodes(featureModel);
+		final List<String> names = FeatureUtils.getFeatureNamesList(featureModel);
+		final List<Node> expressions = new ArrayList<>();
+		for (int i = 0; i < names.size(); i++) {
+			expressions.add(new And(new Literal(names.get(i)), new Literal(names.get((i * 5) % names.size()), false)));
+		}
+		final List<Node> context = Arrays.<Node> asList(new Literal(names.get(names.size() - 1)));
+
+		final PresenceConditionChecker sequentialChecker = new PresenceConditionChecker(fm);
+		final List<Status> expected = new ArrayList<>();
+		for (final Node expression : expressions) {
+			expected.add(sequentialChecker.check(expression, context));
+		}
+
+		final PresenceConditionChecker parallelChecker = new PresenceConditionChecker(fm);
+		final ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			final List<Callable<List<Status>>> tasks = new ArrayList<>();
+			for (int t = 0; t < 4; t++) {
+				tasks.add(() -> {
+					final List<Status> result = new ArrayList<>();
+					for (final Node expression : expressions) {
+						result.add(parallelChecker.check(expression, context));
+					}
+					return result;
+				});
+			}
+			for (final Future<List<Status>> future : executor.invokeAll(tasks)) {
+				assertEquals(expected, future.get());
+			}
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+}
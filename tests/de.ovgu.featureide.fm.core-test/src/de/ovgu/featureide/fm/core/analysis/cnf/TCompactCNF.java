@@ -0,0 +1,180 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.analysis.cnf;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import de.ovgu.featureide.Commons;
+import de.ovgu.featureide.fm.core.analysis.cnf.formula.FeatureModelFormula;
+import de.ovgu.featureide.fm.core.analysis.cnf.solver.AdvancedSatSolver;
+import de.ovgu.featureide.fm.core.analysis.cnf.solver.ModifiableSatSolver;
+import de.ovgu.featureide.fm.core.analysis.mig.MIGBuilder;
+import de.ovgu.featureide.fm.core.analysis.mig.ModalImplicationGraph;
+import de.ovgu.featureide.fm.core.analysis.mig.Vertex;
+import de.ovgu.featureide.fm.core.job.LongRunningWrapper;
+
+/**
+ * Tests for {@link CompactCNF} and {@link ClauseArena}.
+ *
+ * @author FeatureIDE Team
+ */
+public class TCompactCNF {
+
+	private static final String[] MODEL_NAMES = { "car.xml", "gpl_medium_model.xml", "berkeley_db_model.xml", "500-100.xml" };
+
+	private static CNF loadCNF(String modelName) {
+		return new FeatureModelFormula(Commons.loadTestFeatureModelFromFile(modelName)).getCNF();
+	}
+
+	@Test
+	public void arena() {
+		final ClauseArena arena = new ClauseArena(1, 1);
+		arena.add(new LiteralSet(1, -2));
+		arena.add(3);
+		arena.add(new int[0]);
+		arena.add(-1, 2, -3);
+		assertEquals(4, arena.size());
+		assertEquals(6, arena.getNumberOfLiterals());
+		assertEquals(0, arena.getClauseLength(2));
+		assertEquals(new LiteralSet(-3, -1, 2), new LiteralSet(arena.get(3).getLiterals()));
+		assertEquals(LiteralSet.Order.UNORDERED, arena.getOrder());
+
+		final List<LiteralSet> clauses = new ArrayList<>();
+		for (final LiteralSet clause : arena) {
+			clauses.add(clause);
+		}
+		assertEquals(arena.toClauseList(), clauses);
+		assertEquals(arena, new ClauseArena(clauses));
+		assertEquals(arena.hashCode(), arena.clone().hashCode());
+
+		final ClauseArena adapted = arena.adapt(new int[] { 0, 3, 1, 2 });
+		assertEquals(Arrays.asList(-1, 3), toList(adapted.getLiterals(0)));
+		assertEquals(Arrays.asList(-3, 1, -2), toList(adapted.getLiterals(3)));
+
+		arena.addAll(adapted);
+		assertEquals(8, arena.size());
+		assertEquals(adapted.get(3), arena.get(7));
+	}
+
+	@Test
+	public void shuffleEqualsCollectionsShuffle() {
+		final ClauseArena arena = new ClauseArena();
+		for (int i = 1; i <= 100; i++) {
+			arena.add(i, -i - 1);
+		}
+		final ClauseList expected = arena.toClauseList();
+		java.util.Collections.shuffle(expected, new Random(42));
+		assertEquals(expected, arena.shuffle(new Random(42)).toClauseList());
+	}
+
+	@Test
+	public void compactEqualsCNF() {
+		for (final String modelName : MODEL_NAMES) {
+			final CNF cnf = loadCNF(modelName);
+			final CompactCNF compactCNF = new CompactCNF(cnf);
+			assertEquals(modelName, cnf.getVariables(), compactCNF.getVariables());
+			assertEquals(modelName, cnf.getClauses(), compactCNF.getClauseArena().toClauseList());
+			assertEquals(modelName, cnf.getClauseString(), compactCNF.getClauseString());
+
+			final CNF randomCNF = cnf.randomize(new Random(112358));
+			final CompactCNF randomCompactCNF = compactCNF.randomize(new Random(112358));
+			assertEquals(modelName, randomCNF.getVariables(), randomCompactCNF.getVariables());
+			assertEquals(modelName, randomCNF.getClauses(), randomCompactCNF.getClauseArena().toClauseList());
+
+			final Variables newVariables = randomCNF.getVariables();
+			assertEquals(modelName, cnf.adapt(newVariables).getClauses(), compactCNF.adapt(newVariables).getClauseArena().toClauseList());
+			assertEquals(modelName, cnf.adaptClauseList(newVariables), compactCNF.adaptClauseList(newVariables));
+			assertNull(compactCNF.adapt(new Variables(Arrays.asList("a", "b"))));
+
+			assertEquals(modelName, compactCNF, compactCNF.clone());
+			assertEquals(modelName, new CNF(cnf.getVariables(), cnf.getClauses()), compactCNF.toCNF());
+		}
+	}
+
+	@Test
+	public void clauseListIsCopy() {
+		final CompactCNF compactCNF = new CompactCNF(new Variables(Arrays.asList("a", "b", "c")));
+		compactCNF.addClause(new LiteralSet(1, 2));
+		final ClauseList clauses = compactCNF.getClauses();
+		clauses.add(new LiteralSet(-3));
+		compactCNF.addClause(new LiteralSet(2, 3));
+		assertEquals(compactCNF, compactCNF.clone());
+		assertEquals(2, clauses.size());
+		assertEquals(new LiteralSet(1, 2), clauses.get(0));
+		assertEquals(2, compactCNF.getClauseArena().size());
+		assertEquals(new LiteralSet(2, 3), compactCNF.getClauseArena().get(1));
+		assertEquals(2, compactCNF.getClauses().size());
+	}
+
+	@Test
+	public void solverAndMIG() {
+		for (final String modelName : MODEL_NAMES) {
+			final CNF cnf = loadCNF(modelName);
+			final CompactCNF compactCNF = new CompactCNF(cnf);
+
+			final AdvancedSatSolver solver = new AdvancedSatSolver(cnf);
+			final AdvancedSatSolver compactSolver = new AdvancedSatSolver(compactCNF);
+			final ModifiableSatSolver modifiableSolver = new ModifiableSatSolver(compactCNF);
+			final Random random = new Random(0);
+			for (int i = 0; i < 50; i++) {
+				final int literal = (random.nextInt(cnf.getVariables().size()) + 1) * (random.nextBoolean() ? 1 : -1);
+				assertEquals(modelName, solver.hasSolution(literal), compactSolver.hasSolution(literal));
+				assertEquals(modelName, solver.hasSolution(literal), modifiableSolver.hasSolution(literal));
+			}
+
+			final ModalImplicationGraph mig = LongRunningWrapper.runMethod(new MIGBuilder(cnf, true));
+			final ModalImplicationGraph compactMIG = LongRunningWrapper.runMethod(new MIGBuilder(compactCNF, true));
+			assertEquals(modelName, mig.getAdjList().size(), compactMIG.getAdjList().size());
+			for (int i = 0; i < mig.getAdjList().size(); i++) {
+				final Vertex vertex = mig.getAdjList().get(i);
+				final Vertex compactVertex = compactMIG.getAdjList().get(i);
+				assertEquals(modelName, vertex.isCore(), compactVertex.isCore());
+				assertEquals(modelName, vertex.isDead(), compactVertex.isDead());
+				assertEquals(modelName, sorted(vertex.getStrongEdges()), sorted(compactVertex.getStrongEdges()));
+			}
+			assertNotNull(compactCNF.getClauseArena());
+		}
+	}
+
+	private static List<Integer> toList(int[] literals) {
+		final List<Integer> list = new ArrayList<>(literals.length);
+		for (final int literal : literals) {
+			list.add(literal);
+		}
+		return list;
+	}
+
+	private static String sorted(int[] literals) {
+		final int[] copy = Arrays.copyOf(literals, literals.length);
+		Arrays.sort(copy);
+		return Arrays.toString(copy);
+	}
+
+}
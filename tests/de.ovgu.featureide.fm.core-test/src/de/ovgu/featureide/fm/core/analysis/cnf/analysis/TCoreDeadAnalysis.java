@@ -0,0 +1,91 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.analysis.cnf.analysis;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+import de.ovgu.featureide.Commons;
+import de.ovgu.featureide.fm.core.FeatureModelAnalyzer;
+import de.ovgu.featureide.fm.core.analysis.cnf.CNF;
+import de.ovgu.featureide.fm.core.analysis.cnf.LiteralSet;
+import de.ovgu.featureide.fm.core.analysis.cnf.formula.FeatureModelFormula;
+import de.ovgu.featureide.fm.core.base.IFeatureModel;
+import de.ovgu.featureide.fm.core.job.LongRunningWrapper;
+
+/**
+ * Tests the sequential and the parallel mode of the {@link CoreDeadAnalysis}.
+ *
+ * @author FeatureIDE Team
+ */
+public class TCoreDeadAnalysis {
+
+	private static final String[] MODEL_NAMES =
+		{ "car.xml", "gpl_medium_model.xml", "apl_model.xml", "berkeley_db_model.xml", "false_optional_test.xml", "500-100.xml" };
+
+	@Test
+	public void parallelEqualsSequential() {
+		for (final String modelName : MODEL_NAMES) {
+			final CNF cnf = new FeatureModelFormula(Commons.loadTestFeatureModelFromFile(modelName)).getCNF();
+			final LiteralSet expected = coreDead(cnf, 1, null);
+			for (final int numberOfThreads : new int[] { 2, 4, 7 }) {
+				assertEquals(modelName, expected, coreDead(cnf, numberOfThreads, null));
+			}
+		}
+	}
+
+	@Test
+	public void parallelWithAssumptions() {
+		final Random random = new Random(42);
+		for (final String modelName : MODEL_NAMES) {
+			final CNF cnf = new FeatureModelFormula(Commons.loadTestFeatureModelFromFile(modelName)).getCNF();
+			final int literal = (1 + random.nextInt(cnf.getVariables().size())) * (random.nextBoolean() ? 1 : -1);
+			final LiteralSet assumptions = new LiteralSet(literal);
+			assertEquals(modelName, coreDead(cnf, 1, assumptions), coreDead(cnf, 4, assumptions));
+		}
+	}
+
+	@Test
+	public void parallelInFeatureModelAnalyzer() {
+		for (final String modelName : MODEL_NAMES) {
+			final IFeatureModel fm = Commons.loadTestFeatureModelFromFile(modelName);
+			final FeatureModelAnalyzer sequentialAnalyzer = new FeatureModelAnalyzer(fm);
+			sequentialAnalyzer.getAnalysesCollection().setNumberOfThreads(1);
+			final FeatureModelAnalyzer parallelAnalyzer = new FeatureModelAnalyzer(fm);
+			parallelAnalyzer.getAnalysesCollection().setNumberOfThreads(4);
+
+			assertEquals(modelName, sequentialAnalyzer.getCoreFeatures(null), parallelAnalyzer.getCoreFeatures(null));
+			assertEquals(modelName, sequentialAnalyzer.getDeadFeatures(null), parallelAnalyzer.getDeadFeatures(null));
+		}
+	}
+
+	private static LiteralSet coreDead(CNF cnf, int numberOfThreads, LiteralSet assumptions) {
+		final CoreDeadAnalysis analysis = new CoreDeadAnalysis(cnf);
+		analysis.setNumberOfThreads(numberOfThreads);
+		analysis.setRandom(new Random(0));
+		analysis.setAssumptions(assumptions);
+		return LongRunningWrapper.runMethod(analysis);
+	}
+
+}
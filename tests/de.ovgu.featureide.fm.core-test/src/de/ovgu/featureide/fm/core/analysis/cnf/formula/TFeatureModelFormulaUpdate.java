@@ -0,0 +1,209 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.analysis.cnf.formula;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Consumer;
+
+import org.junit.Test;
+import org.prop4j.Implies;
+import org.prop4j.Literal;
+import org.prop4j.Node;
+import org.prop4j.Not;
+import org.prop4j.Or;
+
+import de.ovgu.featureide.Commons;
+import de.ovgu.featureide.fm.core.analysis.cnf.CNF;
+import de.ovgu.featureide.fm.core.analysis.cnf.LiteralSet;
+import de.ovgu.featureide.fm.core.analysis.cnf.LiteralSet.Order;
+import de.ovgu.featureide.fm.core.analysis.cnf.analysis.CoreDeadAnalysis;
+import de.ovgu.featureide.fm.core.analysis.cnf.solver.ISimpleSatSolver.SatResult;
+import de.ovgu.featureide.fm.core.analysis.cnf.solver.ModifiableSatSolver;
+import de.ovgu.featureide.fm.core.analysis.mig.MIGUpdater;
+import de.ovgu.featureide.fm.core.analysis.mig.ModalImplicationGraph;
+import de.ovgu.featureide.fm.core.analysis.mig.Vertex;
+import de.ovgu.featureide.fm.core.base.IFeature;
+import de.ovgu.featureide.fm.core.base.IFeatureModel;
+import de.ovgu.featureide.fm.core.base.event.FeatureIDEEvent;
+import de.ovgu.featureide.fm.core.base.event.FeatureIDEEvent.EventType;
+import de.ovgu.featureide.fm.core.base.impl.FMFactoryManager;
+import de.ovgu.featureide.fm.core.job.LongRunningWrapper;
+
+/**
+ * Tests the incremental {@link FeatureModelFormula#update(IFeatureModel, java.util.Collection) update} of a formula.
+ *
+ * @author FeatureIDE Team
+ */
+public class TFeatureModelFormulaUpdate {
+
+	private static final String[] MODEL_NAMES = { "car.xml", "gpl_medium_model.xml", "berkeley_db_model.xml", "apl_model.xml" };
+
+	@Test
+	public void addConstraints() {
+		final Random random = new Random(42);
+		for (final String modelName : MODEL_NAMES) {
+			final IFeatureModel featureModel = Commons.loadTestFeatureModelFromFile(modelName);
+			final List<String> names = getFeatureNames(featureModel);
+			for (int i = 0; i < 10; i++) {
+				final Literal a = randomLiteral(random, names);
+				final Literal b = randomLiteral(random, names);
+				final Literal c = randomLiteral(random, names);
+				final Node node = (i % 2) == 0 ? new Implies(a, b) : new Or(a, b, c);
+				assertIncrementalUpdate(modelName, featureModel, fm -> addConstraint(fm, node), EventType.CONSTRAINT_ADD, true);
+			}
+		}
+	}
+
+	@Test
+	public void removeConstraints() {
+		for (final String modelName : MODEL_NAMES) {
+			final IFeatureModel featureModel = Commons.loadTestFeatureModelFromFile(modelName);
+			for (int i = 0; i < featureModel.getConstraintCount(); i++) {
+				final int index = i;
+				assertIncrementalUpdate(modelName, featureModel, fm -> fm.removeConstraint(index), EventType.CONSTRAINT_DELETE, false);
+			}
+		}
+	}
+
+	@Test
+	public void changeGroupTypes() {
+		for (final String modelName : MODEL_NAMES) {
+			final IFeatureModel featureModel = Commons.loadTestFeatureModelFromFile(modelName);
+			for (final IFeature feature : featureModel.getFeatures()) {
+				if (feature.getStructure().getChildrenCount() > 1) {
+					final String name = feature.getName();
+					assertIncrementalUpdate(modelName, featureModel, fm -> fm.getFeature(name).getStructure().changeToOr(), EventType.GROUP_TYPE_CHANGED,
+							false);
+					assertIncrementalUpdate(modelName, featureModel, fm -> fm.getFeature(name).getStructure().changeToAlternative(),
+							EventType.GROUP_TYPE_CHANGED, false);
+				}
+			}
+		}
+	}
+
+	@Test
+	public void voidModel() {
+		final IFeatureModel featureModel = Commons.loadTestFeatureModelFromFile("car.xml");
+		final String rootName = featureModel.getStructure().getRoot().getFeature().getName();
+		final FeatureModelFormula updatedFormula =
+			assertIncrementalUpdate("car.xml", featureModel, fm -> addConstraint(fm, new Not(rootName)), EventType.CONSTRAINT_ADD, false);
+		assertNull(updatedFormula.getElement(new ModalImplicationGraphCreator()));
+	}
+
+	@Test
+	public void unsupportedEvent() {
+		final IFeatureModel featureModel = Commons.loadTestFeatureModelFromFile("car.xml");
+		final FeatureModelFormula oldFormula = new FeatureModelFormula(featureModel);
+		oldFormula.getCNF();
+		final IFeatureModel newFeatureModel = featureModel.clone();
+		final FeatureModelFormula newFormula = new FeatureModelFormula(newFeatureModel);
+		assertNull(FormulaDelta.compute(oldFormula, newFormula, Arrays.asList(new FeatureIDEEvent(newFeatureModel, EventType.FEATURE_ADD))));
+		assertNotNull(FormulaDelta.compute(oldFormula, newFormula, Arrays.asList(new FeatureIDEEvent(newFeatureModel, EventType.CONSTRAINT_ADD))));
+	}
+
+	private static FeatureModelFormula assertIncrementalUpdate(String modelName, IFeatureModel featureModel, Consumer<IFeatureModel> edit,
+			EventType eventType, boolean expectMIGUpdate) {
+		final FeatureModelFormula oldFormula = new FeatureModelFormula(featureModel.clone());
+		oldFormula.getCNF();
+		final ModalImplicationGraph oldMig = oldFormula.getElement(new ModalImplicationGraphCreator());
+		oldFormula.getElement(new IncrementalSolverCreator());
+
+		final IFeatureModel newFeatureModel = featureModel.clone();
+		edit.accept(newFeatureModel);
+		final List<FeatureIDEEvent> events = Arrays.asList(new FeatureIDEEvent(newFeatureModel, eventType));
+		final FeatureModelFormula expectedFormula = new FeatureModelFormula(newFeatureModel);
+
+		final FormulaDelta delta = FormulaDelta.compute(oldFormula, expectedFormula, events);
+		assertNotNull(modelName, delta);
+		final CNF expectedCNF = expectedFormula.getCNF();
+		final ModifiableSatSolver newSolver = new ModifiableSatSolver(expectedCNF);
+		final ModalImplicationGraph updatedMig =
+			new MIGUpdater(oldMig, expectedCNF, newSolver).update(delta.getAddedClauses(), delta.getRemovedClauses());
+		if (expectMIGUpdate && (newSolver.hasSolution() == SatResult.TRUE)) {
+			assertNotNull(modelName, updatedMig);
+		}
+		if (updatedMig != null) {
+			assertEqualMIGs(modelName, expectedFormula.getElement(new ModalImplicationGraphCreator()), updatedMig);
+		}
+
+		final FeatureModelFormula updatedFormula = oldFormula.update(newFeatureModel, events);
+		assertEquals(modelName, countClauses(expectedCNF), countClauses(updatedFormula.getCNF()));
+
+		final ModifiableSatSolver updatedSolver = updatedFormula.getElement(new IncrementalSolverCreator());
+		assertEquals(modelName, newSolver.hasSolution(), updatedSolver.hasSolution());
+		if (newSolver.hasSolution() == SatResult.TRUE) {
+			assertEquals(modelName, LongRunningWrapper.runMethod(new CoreDeadAnalysis(newSolver)),
+					LongRunningWrapper.runMethod(new CoreDeadAnalysis(updatedSolver)));
+		}
+		return updatedFormula;
+	}
+
+	private static void assertEqualMIGs(String modelName, ModalImplicationGraph expectedMig, ModalImplicationGraph actualMig) {
+		assertEquals(modelName, expectedMig.getAdjList().size(), actualMig.getAdjList().size());
+		for (int i = 0; i < expectedMig.getAdjList().size(); i++) {
+			final Vertex expectedVertex = expectedMig.getAdjList().get(i);
+			final Vertex actualVertex = actualMig.getAdjList().get(i);
+			assertEquals(modelName, expectedVertex.getVar(), actualVertex.getVar());
+			assertEquals(modelName, expectedVertex.isCore(), actualVertex.isCore());
+			assertEquals(modelName, expectedVertex.isDead(), actualVertex.isDead());
+			final int[] expectedEdges = Arrays.copyOf(expectedVertex.getStrongEdges(), expectedVertex.getStrongEdges().length);
+			final int[] actualEdges = Arrays.copyOf(actualVertex.getStrongEdges(), actualVertex.getStrongEdges().length);
+			Arrays.sort(expectedEdges);
+			Arrays.sort(actualEdges);
+			assertEquals(modelName, Arrays.toString(expectedEdges), Arrays.toString(actualEdges));
+		}
+	}
+
+	private static HashMap<LiteralSet, Integer> countClauses(CNF cnf) {
+		final HashMap<LiteralSet, Integer> clauseCount = new HashMap<>();
+		for (final LiteralSet clause : cnf.getClauses()) {
+			clauseCount.merge(new LiteralSet(clause, Order.NATURAL), 1, Integer::sum);
+		}
+		return clauseCount;
+	}
+
+	private static void addConstraint(IFeatureModel featureModel, Node node) {
+		featureModel.addConstraint(FMFactoryManager.getInstance().getFactory(featureModel).createConstraint(featureModel, node.clone()));
+	}
+
+	private static List<String> getFeatureNames(IFeatureModel featureModel) {
+		final List<String> names = new ArrayList<>();
+		for (final IFeature feature : featureModel.getFeatures()) {
+			names.add(feature.getName());
+		}
+		Collections.sort(names);
+		return names;
+	}
+
+	private static Literal randomLiteral(Random random, List<String> names) {
+		return new Literal(names.get(random.nextInt(names.size())), random.nextBoolean());
+	}
+
+}
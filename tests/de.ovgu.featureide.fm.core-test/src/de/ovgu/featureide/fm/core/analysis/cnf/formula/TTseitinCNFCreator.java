@@ -0,0 +1,176 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.analysis.cnf.formula;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+import org.prop4j.And;
+import org.prop4j.Equals;
+import org.prop4j.Implies;
+import org.prop4j.Literal;
+import org.prop4j.Node;
+import org.prop4j.Not;
+import org.prop4j.Or;
+
+import de.ovgu.featureide.Commons;
+import de.ovgu.featureide.fm.core.analysis.cnf.CNF;
+import de.ovgu.featureide.fm.core.analysis.cnf.LiteralSet;
+import de.ovgu.featureide.fm.core.analysis.cnf.Nodes;
+import de.ovgu.featureide.fm.core.analysis.cnf.TseitinTransformer;
+import de.ovgu.featureide.fm.core.analysis.cnf.TseitinTransformer.Encoding;
+import de.ovgu.featureide.fm.core.analysis.cnf.Variables;
+import de.ovgu.featureide.fm.core.analysis.cnf.analysis.CoreDeadAnalysis;
+import de.ovgu.featureide.fm.core.analysis.cnf.analysis.CountSolutionsAnalysis;
+import de.ovgu.featureide.fm.core.analysis.cnf.generator.configuration.AllConfigurationGenerator;
+import de.ovgu.featureide.fm.core.base.IConstraint;
+import de.ovgu.featureide.fm.core.job.LongRunningWrapper;
+
+/**
+ * Tests for {@link TseitinCNFCreator} and {@link TseitinTransformer}.
+ *
+ * @author FeatureIDE Team
+ */
+public class TTseitinCNFCreator {
+
+	private static final String[] MODEL_NAMES = { "car.xml", "gpl_medium_model.xml", "berkeley_db_model.xml" };
+
+	private static final int NUMBER_OF_PAIRS = 5;
+
+	private static CNF createTseitinCNF(FeatureModelFormula formula, Encoding encoding) {
+		final CNF featureTreeCNF = formula.getElement(new FeatureTreeCNFCreator());
+		final TseitinTransformer transformer = new TseitinTransformer(featureTreeCNF.getVariables(), encoding);
+		transformer.setMaximumDirectClauses(0);
+		transformer.getClauses().addAll(featureTreeCNF.getClauses());
+		for (final IConstraint constraint : formula.getFeatureModel().getConstraints()) {
+			transformer.addNode(constraint.getNode().clone());
+		}
+		return transformer.getCNF();
+	}
+
+	private static Variables createPairVariables() {
+		final List<String> names = new ArrayList<>();
+		for (int i = 0; i < NUMBER_OF_PAIRS; i++) {
+			names.add("A" + i);
+			names.add("B" + i);
+		}
+		return new Variables(names);
+	}
+
+	private static Node createPairNode() {
+		final Node[] pairs = new Node[NUMBER_OF_PAIRS];
+		for (int i = 0; i < NUMBER_OF_PAIRS; i++) {
+			pairs[i] = new And(new Literal("A" + i), new Literal("B" + i));
+		}
+		return new Or(pairs);
+	}
+
+	private static long count(CNF cnf) {
+		return LongRunningWrapper.runMethod(new CountSolutionsAnalysis(cnf));
+	}
+
+	@Test
+	public void coreDead() {
+		for (final String modelName : MODEL_NAMES) {
+			final FeatureModelFormula formula = new FeatureModelFormula(Commons.loadTestFeatureModelFromFile(modelName));
+			final LiteralSet expected = LongRunningWrapper.runMethod(new CoreDeadAnalysis(formula.getCNF()));
+			for (final Encoding encoding : Encoding.values()) {
+				final CNF cnf = createTseitinCNF(formula, encoding);
+				assertEquals(modelName + " " + encoding, expected, LongRunningWrapper.runMethod(new CoreDeadAnalysis(cnf)));
+				assertEquals(modelName + " " + encoding, expected,
+						LongRunningWrapper.runMethod(new CoreDeadAnalysis(formula.getElement(new TseitinCNFCreator(encoding)))));
+			}
+		}
+	}
+
+	@Test
+	public void countSolutions() {
+		final FeatureModelFormula formula = new FeatureModelFormula(Commons.loadTestFeatureModelFromFile("car.xml"));
+		final long expected = count(formula.getCNF());
+		for (final Encoding encoding : Encoding.values()) {
+			assertEquals(encoding.toString(), expected, count(createTseitinCNF(formula, encoding)));
+		}
+	}
+
+	@Test
+	public void linearSize() {
+		final Variables variables = createPairVariables();
+		final CNF directCNF = new CNF(variables, Nodes.convert(variables, createPairNode()));
+		assertEquals(1 << NUMBER_OF_PAIRS, directCNF.getClauses().size());
+
+		for (final Encoding encoding : Encoding.values()) {
+			final TseitinTransformer transformer = new TseitinTransformer(variables, encoding);
+			transformer.setMaximumDirectClauses(0);
+			transformer.addNode(createPairNode());
+			final CNF cnf = transformer.getCNF();
+
+			assertEquals(NUMBER_OF_PAIRS, cnf.getVariables().getNumberOfAuxiliaryVariables());
+			assertTrue(cnf.getVariables().isAuxiliary(variables.size() + 1));
+			assertFalse(cnf.getVariables().isAuxiliary(variables.size()));
+			assertTrue(cnf.getClauses().size() <= ((3 * NUMBER_OF_PAIRS) + 1));
+			assertEquals(variables.getLiterals(), cnf.getVariables().getLiterals());
+			assertEquals(count(directCNF), count(cnf));
+		}
+	}
+
+	@Test
+	public void directConversion() {
+		final Variables variables = createPairVariables();
+		final TseitinTransformer transformer = new TseitinTransformer(variables);
+		transformer.setMaximumDirectClauses(1 << NUMBER_OF_PAIRS);
+		transformer.addNode(createPairNode());
+		assertEquals(0, transformer.getNumberOfAuxiliaryVariables());
+		assertEquals(1 << NUMBER_OF_PAIRS, transformer.getClauses().size());
+	}
+
+	@Test
+	public void allOperators() {
+		final Variables variables = createPairVariables();
+		final Node node = new And(new Equals(new Literal("A0"), new Or(new Literal("A1"), new Not(new And(new Literal("B1"), new Literal("B2"))))),
+				new Not(new Implies(new Literal("A2"), new Equals(new Literal("A3"), new Literal("B3")))), new Or(new Literal("A4"), new Literal("B4")));
+		final long expected = count(new CNF(variables, Nodes.convert(variables, node)));
+		for (final Encoding encoding : Encoding.values()) {
+			final TseitinTransformer transformer = new TseitinTransformer(variables, encoding);
+			transformer.setMaximumDirectClauses(0);
+			transformer.addNode(node.clone());
+			assertEquals(encoding.toString(), expected, count(transformer.getCNF()));
+		}
+	}
+
+	@Test
+	public void sampling() {
+		final Variables variables = createPairVariables();
+		final TseitinTransformer transformer = new TseitinTransformer(variables);
+		transformer.setMaximumDirectClauses(0);
+		transformer.addNode(createPairNode());
+		final List<LiteralSet> sample = LongRunningWrapper.runMethod(new AllConfigurationGenerator(transformer.getCNF()));
+		assertEquals(count(new CNF(variables, Nodes.convert(variables, createPairNode()))), sample.size());
+		for (final LiteralSet configuration : sample) {
+			assertEquals(variables.size(), configuration.size());
+		}
+	}
+
+}
@@ -0,0 +1,135 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.analysis.cnf.solver;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+import org.prop4j.And;
+import org.prop4j.Equals;
+import org.prop4j.Implies;
+import org.prop4j.Literal;
+import org.prop4j.Node;
+import org.prop4j.Not;
+import org.prop4j.Or;
+import org.prop4j.SatSolver;
+import org.sat4j.specs.TimeoutException;
+
+import de.ovgu.featureide.Commons;
+import de.ovgu.featureide.fm.core.analysis.cnf.LiteralSet;
+import de.ovgu.featureide.fm.core.analysis.cnf.formula.FeatureModelFormula;
+import de.ovgu.featureide.fm.core.analysis.cnf.solver.ISimpleSatSolver.SatResult;
+import de.ovgu.featureide.fm.core.base.IFeature;
+import de.ovgu.featureide.fm.core.base.IFeatureModel;
+import de.ovgu.featureide.fm.core.editing.AdvancedNodeCreator;
+
+/**
+ * Tests the {@link NodeQuerySolver} against the legacy {@link SatSolver}.
+ *
+ * @author FeatureIDE Team
+ */
+public class TNodeQuerySolver {
+
+	private static IFeatureModel loadFeatureModel(String modelName) {
+		return Commons.loadTestFeatureModelFromFile(modelName);
+	}
+
+	private static NodeQuerySolver createSolver(IFeatureModel featureModel) {
+		return new NodeQuerySolver(new FeatureModelFormula(featureModel).getCNF(), new SolverPool(4));
+	}
+
+	private static Node createRandomQuery(Random random, List<String> names, int depth) {
+		if ((depth == 0) || (random.nextInt(3) == 0)) {
+			return new Literal(names.get(random.nextInt(names.size())), random.nextBoolean());
+		}
+		final Node[] children = new Node[2 + random.nextInt(3)];
+		for (int i = 0; i < children.length; i++) {
+			children[i] = createRandomQuery(random, names, depth - 1);
+		}
+		switch (random.nextInt(5)) {
+		case 0:
+			return new And(children);
+		case 1:
+			return new Or(children);
+		case 2:
+			return new Not(new And(children));
+		case 3:
+			return new Implies(children[0], children[1]);
+		default:
+			return new Equals(children[0], children[1]);
+		}
+	}
+
+	@Test
+	public void equalsLegacySolver() throws TimeoutException {
+		for (final String modelName : new String[] { "car.xml", "gpl_medium_model.xml" }) {
+			final IFeatureModel featureModel = loadFeatureModel(modelName);
+			final Node featureModelNode = AdvancedNodeCreator.createNodes(featureModel);
+			final NodeQuerySolver solver = createSolver(featureModel);
+
+			final List<String> names = new ArrayList<>();
+			for (final IFeature feature : featureModel.getFeatures()) {
+				names.add(feature.getName());
+			}
+			names.add("UnknownFeature");
+
+			final Random random = new Random(112358);
+			for (int i = 0; i < 200; i++) {
+				final Node query = createRandomQuery(random, names, 3);
+				final boolean satisfiable = new SatSolver(new And(featureModelNode.clone(), query.clone()), 10_000).hasSolution();
+				final boolean implied = !new SatSolver(new And(featureModelNode.clone(), new Not(query.clone())), 10_000).hasSolution();
+				assertEquals(query.toString(), satisfiable ? SatResult.TRUE : SatResult.FALSE, solver.hasSolution(query));
+				assertEquals(query.toString(), implied ? SatResult.TRUE : SatResult.FALSE, solver.isImplied(query));
+			}
+		}
+	}
+
+	@Test
+	public void findSolution() {
+		final IFeatureModel featureModel = loadFeatureModel("car.xml");
+		final NodeQuerySolver solver = createSolver(featureModel);
+		final String name = featureModel.getFeatures().iterator().next().getName();
+
+		final LiteralSet solution = solver.findSolution(new Literal(name));
+		assertNotNull(solution);
+		assertEquals(solver.getVariables().size(), solution.size());
+		assertTrue(solution.containsAll(new LiteralSet(solver.getVariables().getVariable(name))));
+
+		assertNull(solver.findSolution(new And(new Literal("UnknownFeature"), new Literal("UnknownFeature", false))));
+	}
+
+	@Test
+	public void cachedQueries() {
+		final NodeQuerySolver solver = createSolver(loadFeatureModel("car.xml"));
+		final Node query = new Or(new Literal("UnknownFeature"), new Literal("OtherUnknownFeature"));
+		assertEquals(SatResult.TRUE, solver.hasSolution(query));
+		assertEquals(SatResult.TRUE, solver.hasSolution(query.clone()));
+		assertEquals(1, solver.getNumberOfCachedQueries());
+	}
+
+}
@@ -0,0 +1,139 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.analysis.cnf.solver;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import de.ovgu.featureide.Commons;
+import de.ovgu.featureide.fm.core.analysis.cnf.CNF;
+import de.ovgu.featureide.fm.core.analysis.cnf.LiteralSet;
+import de.ovgu.featureide.fm.core.analysis.cnf.analysis.CoreDeadAnalysis;
+import de.ovgu.featureide.fm.core.analysis.cnf.formula.FeatureModelFormula;
+import de.ovgu.featureide.fm.core.analysis.cnf.solver.ISatSolver.SelectionStrategy;
+import de.ovgu.featureide.fm.core.analysis.cnf.solver.ISimpleSatSolver.SatResult;
+import de.ovgu.featureide.fm.core.base.util.RingList;
+import de.ovgu.featureide.fm.core.job.LongRunningWrapper;
+
+/**
+ * Tests leasing and releasing solvers from a {@link SolverPool}.
+ *
+ * @author FeatureIDE Team
+ */
+public class TSolverPool {
+
+	private static CNF loadCNF(String modelName) {
+		return new FeatureModelFormula(Commons.loadTestFeatureModelFromFile(modelName)).getCNF();
+	}
+
+	private static int getOptionalVariable(CNF cnf) {
+		final AdvancedSatSolver solver = new AdvancedSatSolver(cnf);
+		for (int i = 1; i <= cnf.getVariables().size(); i++) {
+			if ((solver.hasSolution(i) == SatResult.TRUE) && (solver.hasSolution(-i) == SatResult.TRUE)) {
+				return i;
+			}
+		}
+		throw new AssertionError();
+	}
+
+	@Test
+	public void reuseAndReset() {
+		final CNF cnf = loadCNF("car.xml");
+		final SolverPool pool = new SolverPool(4);
+
+		final AdvancedSatSolver solver = pool.leaseSolver(cnf);
+		solver.assignmentPush(1);
+		solver.setSelectionStrategy(SelectionStrategy.POSITIVE);
+		solver.useSolutionList(10);
+		assertTrue(pool.release(solver));
+		assertEquals(1, pool.size());
+
+		final AdvancedSatSolver reusedSolver = pool.leaseSolver(cnf);
+		assertSame(solver, reusedSolver);
+		assertEquals(0, pool.size());
+		assertEquals(0, reusedSolver.getAssignmentSize());
+		assertEquals(SelectionStrategy.ORG, reusedSolver.getSelectionStrategy());
+		assertSame(RingList.empytRingList(), reusedSolver.getSolutionList());
+
+		assertNotSame(reusedSolver, pool.leaseSolver(loadCNF("car.xml")));
+		assertNotSame(reusedSolver, pool.leaseModifiableSolver(cnf));
+	}
+
+	@Test
+	public void modifiedSolvers() {
+		final CNF cnf = loadCNF("car.xml");
+		final SolverPool pool = new SolverPool(4);
+		final int variable = getOptionalVariable(cnf);
+
+		final AdvancedSatSolver solver = pool.leaseSolver(cnf);
+		solver.addClause(new LiteralSet(-variable));
+		assertFalse(pool.release(solver));
+		assertEquals(0, pool.size());
+
+		final ModifiableSatSolver modifiableSolver = pool.leaseModifiableSolver(cnf);
+		modifiableSolver.addClause(new LiteralSet(-variable));
+		assertEquals(SatResult.FALSE, modifiableSolver.hasSolution(variable));
+		assertTrue(pool.release(modifiableSolver));
+
+		final ModifiableSatSolver reusedSolver = pool.leaseModifiableSolver(cnf);
+		assertSame(modifiableSolver, reusedSolver);
+		assertEquals(SatResult.TRUE, reusedSolver.hasSolution(variable));
+		assertEquals(LongRunningWrapper.runMethod(new CoreDeadAnalysis(cnf)), LongRunningWrapper.runMethod(new CoreDeadAnalysis(reusedSolver)));
+	}
+
+	@Test
+	public void eviction() {
+		final CNF cnf1 = loadCNF("car.xml");
+		final CNF cnf2 = loadCNF("gpl_medium_model.xml");
+		final SolverPool pool = new SolverPool(2);
+
+		final AdvancedSatSolver solver1 = pool.leaseSolver(cnf1);
+		final AdvancedSatSolver solver2 = pool.leaseSolver(cnf2);
+		final AdvancedSatSolver solver3 = pool.leaseSolver(cnf2);
+		pool.release(solver1);
+		pool.release(solver2);
+		pool.release(solver3);
+		assertEquals(2, pool.size());
+		assertNotSame(solver1, pool.leaseSolver(cnf1));
+
+		pool.invalidate(cnf2);
+		assertEquals(0, pool.size());
+		assertFalse(new SolverPool(0).release(solver1));
+	}
+
+	@Test
+	public void invalidateFormula() {
+		final FeatureModelFormula formula = new FeatureModelFormula(Commons.loadTestFeatureModelFromFile("car.xml"));
+		final CNF cnf = formula.getCNF();
+		final SolverPool pool = SolverPool.getDefault();
+
+		final AdvancedSatSolver solver = pool.leaseSolver(cnf);
+		assertTrue(pool.release(solver));
+		formula.invalidateSolvers();
+		assertNotSame(solver, pool.leaseSolver(cnf));
+	}
+
+}
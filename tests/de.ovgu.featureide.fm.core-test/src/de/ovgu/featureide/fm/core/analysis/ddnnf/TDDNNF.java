@@ -0,0 +1,184 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.analysis.ddnnf;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Test;
+
+import de.ovgu.featureide.Commons;
+import de.ovgu.featureide.fm.core.analysis.cnf.CNF;
+import de.ovgu.featureide.fm.core.analysis.cnf.LiteralSet;
+import de.ovgu.featureide.fm.core.analysis.cnf.LiteralSet.Order;
+import de.ovgu.featureide.fm.core.analysis.cnf.Variables;
+import de.ovgu.featureide.fm.core.analysis.cnf.formula.ACreator;
+import de.ovgu.featureide.fm.core.analysis.cnf.formula.DDNNFCreator;
+import de.ovgu.featureide.fm.core.analysis.cnf.formula.FeatureModelFormula;
+import de.ovgu.featureide.fm.core.analysis.cnf.solver.AdvancedSatSolver;
+import de.ovgu.featureide.fm.core.analysis.cnf.solver.ISimpleSatSolver.SatResult;
+import de.ovgu.featureide.fm.core.analysis.cnf.solver.RuntimeContradictionException;
+import de.ovgu.featureide.fm.core.base.IFeatureModel;
+import de.ovgu.featureide.fm.core.job.LongRunningWrapper;
+
+/**
+ * Tests the compilation of a {@link CNF} into a {@link DDNNF}.
+ *
+ * @author FeatureIDE Team
+ */
+public class TDDNNF {
+
+	@Test
+	public void countRandomCNFs() {
+		final Random random = new Random(42);
+		for (int i = 0; i < 200; i++) {
+			final int numberOfVariables = 1 + random.nextInt(10);
+			final CNF cnf = createRandomCNF(random, numberOfVariables, random.nextInt(3 * numberOfVariables));
+			final DDNNF ddnnf = LongRunningWrapper.runMethod(new DDNNFBuilder(cnf));
+
+			assertEquals(cnf.toString(), BigInteger.valueOf(countByEnumeration(cnf, new int[0])), ddnnf.countSolutions());
+
+			final int literal = (1 + random.nextInt(numberOfVariables)) * (random.nextBoolean() ? 1 : -1);
+			assertEquals(cnf.toString(), BigInteger.valueOf(countByEnumeration(cnf, new int[] { literal })), ddnnf.countSolutions(literal));
+
+			final BigInteger[] commonality = ddnnf.getCommonality();
+			for (int var = 1; var <= numberOfVariables; var++) {
+				assertEquals(cnf.toString(), BigInteger.valueOf(countByEnumeration(cnf, new int[] { var })), commonality[var]);
+			}
+		}
+	}
+
+	@Test
+	public void countUnsatisfiableCNF() {
+		final CNF cnf = new CNF(new Variables(Arrays.asList("A", "B")));
+		cnf.addClause(new LiteralSet(1, 2));
+		cnf.addClause(new LiteralSet(-1));
+		cnf.addClause(new LiteralSet(-2));
+		final DDNNF ddnnf = LongRunningWrapper.runMethod(new DDNNFBuilder(cnf));
+		assertEquals(BigInteger.ZERO, ddnnf.countSolutions());
+		assertEquals(BigInteger.ZERO, ddnnf.getCommonality()[1]);
+	}
+
+	@Test
+	public void countFeatureModels() {
+		for (final String modelName : new String[] { "car.xml", "gpl_medium_model.xml" }) {
+			final IFeatureModel fm = Commons.loadTestFeatureModelFromFile(modelName);
+			final FeatureModelFormula formula = new FeatureModelFormula(fm);
+			final CNF cnf = formula.getCNF();
+			final DDNNF ddnnf = formula.getElement(new DDNNFCreator());
+			assertEquals(modelName, BigInteger.valueOf(countBySolver(cnf, new int[0])), ddnnf.countSolutions());
+
+			final BigInteger[] commonality = ddnnf.getCommonality();
+			for (int var = 1; var <= cnf.getVariables().size(); var += 3) {
+				assertEquals(modelName, BigInteger.valueOf(countBySolver(cnf, new int[] { var })), commonality[var]);
+			}
+		}
+	}
+
+	@Test
+	public void compilationTimeout() {
+		final FeatureModelFormula formula = new FeatureModelFormula(Commons.loadTestFeatureModelFromFile("car.xml"));
+		final ACreator<CNF> randomCNFCreator = new ACreator<CNF>() {
+
+			@Override
+			protected CNF create() {
+				// random 3-CNF with too many models to be compiled in time
+				final Random random = new Random(0);
+				final CNF cnf = createRandomCNF(random, 100, 0);
+				for (int i = 0; i < 200; i++) {
+					final int[] literals = new int[3];
+					for (int j = 0; j < literals.length; j++) {
+						literals[j] = (1 + random.nextInt(100)) * (random.nextBoolean() ? 1 : -1);
+					}
+					cnf.addClause(new LiteralSet(literals));
+				}
+				return cnf;
+			}
+		};
+		final long start = System.currentTimeMillis();
+		assertNull(formula.getElement(new DDNNFCreator(randomCNFCreator, 10)));
+		assertNull(formula.getElement(new DDNNFCreator(randomCNFCreator, 10)));
+		assertTrue((System.currentTimeMillis() - start) < 5000);
+	}
+
+	private static CNF createRandomCNF(Random random, int numberOfVariables, int numberOfClauses) {
+		final String[] names = new String[numberOfVariables];
+		for (int i = 0; i < numberOfVariables; i++) {
+			names[i] = "V" + i;
+		}
+		final CNF cnf = new CNF(new Variables(Arrays.asList(names)));
+		for (int i = 0; i < numberOfClauses; i++) {
+			final int[] literals = new int[1 + random.nextInt(3)];
+			for (int j = 0; j < literals.length; j++) {
+				literals[j] = (1 + random.nextInt(numberOfVariables)) * (random.nextBoolean() ? 1 : -1);
+			}
+			cnf.addClause(new LiteralSet(literals));
+		}
+		return cnf;
+	}
+
+	private static long countBySolver(CNF cnf, int[] assumptions) {
+		final AdvancedSatSolver solver = new AdvancedSatSolver(cnf);
+		solver.assignmentPushAll(assumptions);
+		long count = 0;
+		while (solver.hasSolution() == SatResult.TRUE) {
+			count++;
+			try {
+				solver.addClause(new LiteralSet(solver.getSolution(), Order.INDEX, false).negate());
+			} catch (final RuntimeContradictionException e) {
+				break;
+			}
+		}
+		return count;
+	}
+
+	private static long countByEnumeration(CNF cnf, int[] assumptions) {
+		final int numberOfVariables = cnf.getVariables().size();
+		long count = 0;
+		assignmentLoop: for (int assignment = 0; assignment < (1 << numberOfVariables); assignment++) {
+			for (final int literal : assumptions) {
+				if (!isTrue(assignment, literal)) {
+					continue assignmentLoop;
+				}
+			}
+			clauseLoop: for (final LiteralSet clause : cnf.getClauses()) {
+				for (final int literal : clause.getLiterals()) {
+					if (isTrue(assignment, literal)) {
+						continue clauseLoop;
+					}
+				}
+				continue assignmentLoop;
+			}
+			count++;
+		}
+		return count;
+	}
+
+	private static boolean isTrue(int assignment, int literal) {
+		return (((assignment >> (Math.abs(literal) - 1)) & 1) == 1) == (literal > 0);
+	}
+
+}
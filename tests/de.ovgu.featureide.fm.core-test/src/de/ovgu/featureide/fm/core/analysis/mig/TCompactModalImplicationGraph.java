@@ -0,0 +1,181 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.analysis.mig;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+import org.sat4j.core.VecInt;
+
+import de.ovgu.featureide.Commons;
+import de.ovgu.featureide.fm.core.analysis.cnf.CNF;
+import de.ovgu.featureide.fm.core.analysis.cnf.LiteralSet;
+import de.ovgu.featureide.fm.core.analysis.cnf.LiteralSet.Order;
+import de.ovgu.featureide.fm.core.analysis.cnf.formula.FeatureModelFormula;
+import de.ovgu.featureide.fm.core.analysis.cnf.solver.AdvancedSatSolver;
+import de.ovgu.featureide.fm.core.analysis.cnf.solver.ISimpleSatSolver.SatResult;
+import de.ovgu.featureide.fm.core.io.CompactMIGFormat;
+import de.ovgu.featureide.fm.core.job.LongRunningWrapper;
+
+/**
+ * Tests the {@link CompactModalImplicationGraph}, its builder, and its binary format.
+ *
+ * @author FeatureIDE Team
+ */
+public class TCompactModalImplicationGraph {
+
+	private static final String[] MODEL_NAMES = { "car.xml", "gpl_medium_model.xml", "berkeley_db_model.xml", "apl_model.xml" };
+
+	private static CNF loadCNF(String modelName) {
+		return new FeatureModelFormula(Commons.loadTestFeatureModelFromFile(modelName)).getCNF();
+	}
+
+	@Test
+	public void builderEqualsConversion() {
+		for (final String modelName : MODEL_NAMES) {
+			for (final boolean detectStrong : new boolean[] { false, true }) {
+				final CNF cnf = loadCNF(modelName);
+				final ModalImplicationGraph mig = LongRunningWrapper.runMethod(new MIGBuilder(cnf, detectStrong));
+				final CompactModalImplicationGraph graph = LongRunningWrapper.runMethod(new CompactMIGBuilder(cnf, detectStrong));
+				assertEqualGraphs(modelName, mig.getCompactGraph(), graph);
+				assertEqualGraphs(modelName, graph, CompactModalImplicationGraph.of(graph.toModalImplicationGraph()));
+			}
+		}
+	}
+
+	@Test
+	public void writeAndMap() throws IOException {
+		for (final String modelName : MODEL_NAMES) {
+			final CompactModalImplicationGraph graph = LongRunningWrapper.runMethod(new CompactMIGBuilder(loadCNF(modelName), false));
+			final Path file = Files.createTempFile("mig", "." + CompactMIGFormat.FILE_EXTENSION);
+			try {
+				CompactMIGFormat.write(graph, file);
+				final CompactModalImplicationGraph mappedGraph = CompactMIGFormat.read(file);
+				assertEqualGraphs(modelName, graph, mappedGraph);
+				for (int literal = 1; literal <= graph.getNumberOfVariables(); literal++) {
+					assertEquals(modelName, traverse(new Traverser(graph), literal), traverse(new Traverser(mappedGraph), literal));
+					assertEquals(modelName, traverse(new Traverser(graph), -literal), traverse(new Traverser(mappedGraph), -literal));
+				}
+			} finally {
+				Files.deleteIfExists(file);
+			}
+		}
+	}
+
+	@Test(expected = IOException.class)
+	public void readInvalidFile() throws IOException {
+		final Path file = Files.createTempFile("mig", "." + CompactMIGFormat.FILE_EXTENSION);
+		try {
+			Files.write(file, new byte[64]);
+			CompactMIGFormat.read(file);
+		} finally {
+			Files.deleteIfExists(file);
+		}
+	}
+
+	@Test
+	public void traversersAreSound() {
+		for (final String modelName : MODEL_NAMES) {
+			final CNF cnf = loadCNF(modelName);
+			final ModalImplicationGraph mig = LongRunningWrapper.runMethod(new MIGBuilder(cnf, false));
+			final AdvancedSatSolver solver = new AdvancedSatSolver(cnf);
+			for (int var = 1; var <= cnf.getVariables().size(); var++) {
+				for (final int literal : new int[] { var, -var }) {
+					if ((solver.hasSolution(literal) == SatResult.TRUE) && !mig.getVertex(literal).isDead()) {
+						for (final ITraverser traverser : new ITraverser[] { new Traverser(mig), new TransitiveTraverser(mig) }) {
+							for (final int impliedLiteral : traverse(traverser, literal).getLiterals()) {
+								assertEquals(modelName, SatResult.FALSE, solver.hasSolution(literal, -impliedLiteral));
+							}
+						}
+					}
+				}
+			}
+		}
+	}
+
+	@Test
+	public void traversersFollowStrongEdges() {
+		for (final String modelName : MODEL_NAMES) {
+			final ModalImplicationGraph mig = LongRunningWrapper.runMethod(new MIGBuilder(loadCNF(modelName), false));
+			for (final Vertex vertex : mig.getAdjList()) {
+				if (!vertex.isCore() && !vertex.isDead()) {
+					final LiteralSet expected = new LiteralSet(vertex.getStrongEdges());
+					assertTrue(modelName, traverse(new Traverser(mig), vertex.getVar()).containsAll(expected));
+					assertTrue(modelName, traverse(new TransitiveTraverser(mig), vertex.getVar()).containsAll(expected));
+					assertTrue(modelName, traverse(new RecursiveTraverser(mig), vertex.getVar()).containsAll(expected));
+				}
+			}
+		}
+	}
+
+	private static LiteralSet traverse(ITraverser traverser, int literal) {
+		traverser.setModel(new int[traverser instanceof ATraverser ? ((ATraverser) traverser).graph.getNumberOfVariables() : 0]);
+		final CollectingStrongVisitor visitor = new CollectingStrongVisitor();
+		traverser.setVisitor(visitor);
+		traverser.traverse(literal);
+		final VecInt strong = visitor.getResult()[0];
+		return new LiteralSet(new LiteralSet(Arrays.copyOf(strong.toArray(), strong.size())), Order.NATURAL);
+	}
+
+	private static void assertEqualGraphs(String modelName, CompactModalImplicationGraph expected, CompactModalImplicationGraph actual) {
+		assertEquals(modelName, expected.getNumberOfVariables(), actual.getNumberOfVariables());
+		assertEquals(modelName, expected.getStatus(), actual.getStatus());
+		assertEquals(modelName, expected.getStrongOffsets(), actual.getStrongOffsets());
+		assertEquals(modelName, expected.getComplexOffsets(), actual.getComplexOffsets());
+		for (int i = 0; i < expected.getNumberOfVertices(); i++) {
+			assertEquals(modelName, getStrongEdges(expected, i), getStrongEdges(actual, i));
+			assertEquals(modelName, getComplexClauses(expected, i), getComplexClauses(actual, i));
+		}
+	}
+
+	private static LiteralSet getStrongEdges(CompactModalImplicationGraph graph, int vertexIndex) {
+		final int begin = graph.getStrongEdgesBegin(vertexIndex);
+		final int[] edges = new int[graph.getStrongEdgesEnd(vertexIndex) - begin];
+		for (int i = 0; i < edges.length; i++) {
+			edges[i] = graph.getStrongEdge(begin + i);
+		}
+		return new LiteralSet(new LiteralSet(edges), Order.NATURAL);
+	}
+
+	private static List<LiteralSet> getComplexClauses(CompactModalImplicationGraph graph, int vertexIndex) {
+		final List<LiteralSet> clauses = new ArrayList<>();
+		for (int i = graph.getComplexClausesBegin(vertexIndex); i < graph.getComplexClausesEnd(vertexIndex); i++) {
+			final int clauseIndex = graph.getComplexClause(i);
+			final int begin = graph.getClauseBegin(clauseIndex);
+			final int[] literals = new int[graph.getClauseEnd(clauseIndex) - begin];
+			for (int j = 0; j < literals.length; j++) {
+				literals[j] = graph.getClauseLiteral(begin + j);
+			}
+			clauses.add(new LiteralSet(new LiteralSet(literals), Order.NATURAL));
+		}
+		clauses.sort((c1, c2) -> c1.toString().compareTo(c2.toString()));
+		return clauses;
+	}
+
+}
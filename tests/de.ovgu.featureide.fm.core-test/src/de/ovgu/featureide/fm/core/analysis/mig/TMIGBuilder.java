@@ -0,0 +1,94 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.analysis.mig;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
+
+import org.junit.Test;
+
+import de.ovgu.featureide.Commons;
+import de.ovgu.featureide.fm.core.analysis.cnf.CNF;
+import de.ovgu.featureide.fm.core.analysis.cnf.LiteralSet;
+import de.ovgu.featureide.fm.core.analysis.cnf.formula.FeatureModelFormula;
+import de.ovgu.featureide.fm.core.analysis.cnf.solver.AdvancedSatSolver;
+import de.ovgu.featureide.fm.core.analysis.cnf.solver.ISimpleSatSolver.SatResult;
+import de.ovgu.featureide.fm.core.job.LongRunningWrapper;
+
+/**
+ * Tests the sequential and the parallel mode of the {@link MIGBuilder}.
+ *
+ * @author FeatureIDE Team
+ */
+public class TMIGBuilder {
+
+	private static final String[] MODEL_NAMES = { "car.xml", "gpl_medium_model.xml", "berkeley_db_model.xml", "apl_model.xml", "500-100.xml" };
+
+	private static ModalImplicationGraph build(CNF cnf, boolean detectStrong, int numberOfThreads) {
+		final MIGBuilder builder = new MIGBuilder(cnf, detectStrong);
+		builder.setNumberOfThreads(numberOfThreads);
+		return LongRunningWrapper.runMethod(builder);
+	}
+
+	@Test
+	public void parallelEqualsSequential() {
+		for (final String modelName : MODEL_NAMES) {
+			final CNF cnf = new FeatureModelFormula(Commons.loadTestFeatureModelFromFile(modelName)).getCNF();
+			for (final boolean detectStrong : new boolean[] { false, true }) {
+				final ModalImplicationGraph expected = build(cnf, detectStrong, 1);
+				for (final int numberOfThreads : new int[] { 2, 4 }) {
+					final ModalImplicationGraph actual = build(cnf, detectStrong, numberOfThreads);
+					assertEquals(modelName, expected.getAdjList().size(), actual.getAdjList().size());
+					for (int i = 0; i < expected.getAdjList().size(); i++) {
+						final Vertex expectedVertex = expected.getAdjList().get(i);
+						final Vertex actualVertex = actual.getAdjList().get(i);
+						assertEquals(modelName, expectedVertex.isCore(), actualVertex.isCore());
+						assertEquals(modelName, expectedVertex.isDead(), actualVertex.isDead());
+						assertEquals(modelName, sorted(expectedVertex.getStrongEdges()), sorted(actualVertex.getStrongEdges()));
+					}
+				}
+			}
+		}
+	}
+
+	@Test
+	public void parallelIsDeterministicAndSound() {
+		for (final String modelName : MODEL_NAMES) {
+			final CNF cnf = new FeatureModelFormula(Commons.loadTestFeatureModelFromFile(modelName)).getCNF();
+			final ModalImplicationGraph mig1 = build(cnf, true, 4);
+			final ModalImplicationGraph mig2 = build(cnf, true, 4);
+			assertEquals(modelName, mig1.getComplexClauses(), mig2.getComplexClauses());
+
+			final AdvancedSatSolver solver = new AdvancedSatSolver(cnf);
+			for (final LiteralSet clause : mig1.getComplexClauses()) {
+				assertEquals(modelName, SatResult.FALSE, solver.hasSolution(clause.negate().getLiterals()));
+			}
+		}
+	}
+
+	private static String sorted(int[] literals) {
+		final int[] copy = Arrays.copyOf(literals, literals.length);
+		Arrays.sort(copy);
+		return Arrays.toString(copy);
+	}
+
+}
@@ -0,0 +1,148 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.base.event;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import de.ovgu.featureide.fm.core.base.event.FeatureIDEEvent.EventType;
+
+/**
+ * Tests batches of events and asynchronous listeners of {@link DefaultEventManager}.
+ *
+ * @author FeatureIDE Team
+ */
+public class TDefaultEventManager {
+
+	private static class RecordingListener implements IEventListener {
+
+		protected final List<FeatureIDEEvent> events = Collections.synchronizedList(new ArrayList<FeatureIDEEvent>());
+
+		@Override
+		public void propertyChange(FeatureIDEEvent event) {
+			events.add(event);
+		}
+
+	}
+
+	private static class AsynchronousRecordingListener extends RecordingListener implements IAsynchronousEventListener {
+
+		private final CountDownLatch latch;
+		private Thread thread;
+
+		public AsynchronousRecordingListener(int expectedEvents) {
+			latch = new CountDownLatch(expectedEvents);
+		}
+
+		@Override
+		public void propertyChange(FeatureIDEEvent event) {
+			thread = Thread.currentThread();
+			super.propertyChange(event);
+			latch.countDown();
+		}
+
+	}
+
+	private final Object source = new Object();
+
+	@Test
+	public void testImmediateDelivery() {
+		final DefaultEventManager eventManager = new DefaultEventManager();
+		final RecordingListener listener = new RecordingListener();
+		eventManager.addListener(listener);
+
+		eventManager.fireEvent(new FeatureIDEEvent(source, EventType.MODEL_DATA_CHANGED));
+		eventManager.fireEvent(new FeatureIDEEvent(source, EventType.MODEL_DATA_CHANGED));
+		assertEquals(2, listener.events.size());
+	}
+
+	@Test
+	public void testCoalescing() {
+		final DefaultEventManager eventManager = new DefaultEventManager();
+		final RecordingListener listener = new RecordingListener();
+		eventManager.addListener(listener);
+
+		final Object otherSource = new Object();
+		eventManager.startBatch();
+		for (int i = 0; i < 100; i++) {
+			eventManager.fireEvent(new FeatureIDEEvent(source, EventType.MODEL_DATA_CHANGED, Boolean.FALSE, Boolean.TRUE));
+		}
+		eventManager.fireEvent(new FeatureIDEEvent(otherSource, EventType.FEATURE_NAME_CHANGED, "A", "B"));
+		eventManager.startBatch();
+		eventManager.fireEvent(new FeatureIDEEvent(otherSource, EventType.FEATURE_NAME_CHANGED, "B", "C"));
+		eventManager.fireEvent(new FeatureIDEEvent(otherSource, EventType.FEATURE_NAME_CHANGED, "X", "Y"));
+		eventManager.endBatch();
+		assertTrue(listener.events.isEmpty());
+		eventManager.endBatch();
+
+		assertEquals(3, listener.events.size());
+		assertSame(source, listener.events.get(0).getSource());
+		assertEquals(EventType.MODEL_DATA_CHANGED, listener.events.get(0).getEventType());
+		assertEquals(Arrays.asList("A", "C"), Arrays.asList(listener.events.get(1).getOldValue(), listener.events.get(1).getNewValue()));
+		assertEquals(Arrays.asList("X", "Y"), Arrays.asList(listener.events.get(2).getOldValue(), listener.events.get(2).getNewValue()));
+	}
+
+	@Test
+	public void testOperationEventsAreNotMerged() {
+		final DefaultEventManager eventManager = new DefaultEventManager();
+		final RecordingListener listener = new RecordingListener();
+		eventManager.addListener(listener);
+
+		eventManager.startBatch();
+		eventManager.fireEvent(new FeatureModelOperationEvent("a", EventType.STRUCTURE_CHANGED, source, null, null));
+		eventManager.fireEvent(new FeatureModelOperationEvent("b", EventType.STRUCTURE_CHANGED, source, null, null));
+		eventManager.endBatch();
+		assertEquals(2, listener.events.size());
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void testUnbalancedBatch() {
+		new DefaultEventManager().endBatch();
+	}
+
+	@Test
+	public void testAsynchronousDelivery() throws InterruptedException {
+		final DefaultEventManager eventManager = new DefaultEventManager();
+		final AsynchronousRecordingListener listener = new AsynchronousRecordingListener(50);
+		eventManager.addListener(listener);
+
+		final List<FeatureIDEEvent> firedEvents = new ArrayList<>();
+		for (int i = 0; i < 50; i++) {
+			final FeatureIDEEvent event = new FeatureIDEEvent(source, EventType.ATTRIBUTE_CHANGED, i, i + 1);
+			firedEvents.add(event);
+			eventManager.fireEvent(event);
+		}
+		assertTrue(listener.latch.await(10, TimeUnit.SECONDS));
+		assertTrue(Thread.currentThread() != listener.thread);
+		assertEquals(firedEvents, listener.events);
+	}
+
+}
@@ -31,6 +31,7 @@ import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Random;
 import java.util.stream.IntStream;
@@ -41,8 +42,10 @@ import de.ovgu.featureide.Commons;
 import de.ovgu.featureide.fm.core.analysis.cnf.CNF;
 import de.ovgu.featureide.fm.core.analysis.cnf.LiteralSet;
 import de.ovgu.featureide.fm.core.analysis.cnf.SolutionList;
+import de.ovgu.featureide.fm.core.analysis.cnf.Variables;
 import de.ovgu.featureide.fm.core.analysis.cnf.formula.FeatureModelFormula;
 import de.ovgu.featureide.fm.core.analysis.cnf.generator.configuration.RandomConfigurationGenerator;
+import de.ovgu.featureide.fm.core.analysis.cnf.generator.configuration.XORSamplingConfigurationGenerator;
 import de.ovgu.featureide.fm.core.analysis.cnf.generator.configuration.twise.SampleTester;
 import de.ovgu.featureide.fm.core.analysis.cnf.generator.configuration.twise.TWiseCoverageCriterion;
 import de.ovgu.featureide.fm.core.base.IFeatureModel;
@@ -114,6 +117,80 @@ public class ConfigurationGeneratorTest {
 		testLimitedSize("apl_model", "random", 100, 100);
 	}
 
+	@Test
+	public void UniformLimit() {
+		testLimitedSize("basic", "uniform", 1, 0);
+		testLimitedSize("basic", "uniform", 1, 1);
+		testLimitedSize("basic", "uniform", 1, 2);
+		testLimitedSize("simple", "uniform", 2, 1);
+		testLimitedSize("simple", "uniform", 2, 3);
+		testLimitedSize("car", "uniform", 7, 5);
+		testLimitedSize("car", "uniform", 7, 10);
+		testLimitedSize("gpl_medium_model", "uniform", 960, 10);
+		testLimitedSize("gpl_medium_model", "uniform", 960, Integer.MAX_VALUE);
+		testLimitedSize("apl_model", "uniform", 100, 100);
+	}
+
+	@Test
+	public void UniformParallelEqualsSequential() {
+		for (final String modelName : Arrays.asList("gpl_medium_model", "apl_model")) {
+			final CNF cnf = new FeatureModelFormula(FeatureModelManager.load(modelDirectory.resolve(modelName + ".xml"))).getCNF();
+			assertEquals("Different sample for " + modelName, sampleUniform(cnf, 1), sampleUniform(cnf, 4));
+		}
+	}
+
+	@Test
+	public void UniformHashingSize() {
+		// gpl_medium_model has 960 configurations, which exceeds the cell size for the default tolerance
+		final CNF cnf = new FeatureModelFormula(FeatureModelManager.load(modelDirectory.resolve("gpl_medium_model.xml"))).getCNF();
+		final XORSamplingConfigurationGenerator generator = new XORSamplingConfigurationGenerator(cnf, 10);
+		generator.setRandom(new Random(123));
+		final SampleTester tester = new SampleTester(cnf);
+		tester.setSample(LongRunningWrapper.runMethod(generator, new ConsoleMonitor<>()));
+		assertEquals(10, tester.getSize());
+		assertFalse("Invalid solutions for gpl_medium_model", tester.hasInvalidSolutions());
+	}
+
+	@Test
+	public void UniformHashingDistribution() {
+		// (a | b) over seven variables has 96 solutions, which exceeds the cell size for the default tolerance
+		final CNF cnf = new CNF(new Variables(Arrays.asList("a", "b", "c", "d", "e", "f", "g")));
+		cnf.addClause(new LiteralSet(1, 2));
+		final int numberOfSolutions = 96;
+		final int expectedFrequency = 20;
+
+		final XORSamplingConfigurationGenerator generator = new XORSamplingConfigurationGenerator(cnf, numberOfSolutions * expectedFrequency);
+		generator.setAllowDuplicates(true);
+		generator.setRandom(new Random(123));
+		final List<LiteralSet> sample = LongRunningWrapper.runMethod(generator, new ConsoleMonitor<>());
+		assertEquals(numberOfSolutions * expectedFrequency, sample.size());
+
+		final SampleTester tester = new SampleTester(cnf);
+		tester.setSample(sample);
+		assertFalse("Invalid solutions", tester.hasInvalidSolutions());
+
+		final HashMap<LiteralSet, Integer> frequencies = new HashMap<>();
+		for (final LiteralSet configuration : sample) {
+			frequencies.merge(configuration, 1, Integer::sum);
+		}
+		assertEquals("Not every solution was sampled", numberOfSolutions, frequencies.size());
+
+		// Coarse bound that only fails for clearly non-uniform samples (the 99.9% quantile of chi-square with 95 degrees of freedom is about 145)
+		double chiSquare = 0;
+		for (final int frequency : frequencies.values()) {
+			chiSquare += ((double) (frequency - expectedFrequency) * (frequency - expectedFrequency)) / expectedFrequency;
+		}
+		assertTrue("Sample is not near-uniform (chi-square: " + chiSquare + ")", chiSquare < 2 * numberOfSolutions);
+	}
+
+	private static List<LiteralSet> sampleUniform(CNF cnf, int numberOfThreads) {
+		final XORSamplingConfigurationGenerator generator = new XORSamplingConfigurationGenerator(cnf, 20);
+		generator.setTolerance(20);
+		generator.setNumberOfThreads(numberOfThreads);
+		generator.setRandom(new Random(123));
+		return LongRunningWrapper.runMethod(generator, new ConsoleMonitor<>());
+	}
+
 	@Test
 	public void ChvatalLimit() {
 		testTWiseLimitedSize("gpl_medium_model", "chvatal", 1, 5);
@@ -187,6 +264,18 @@ public class ConfigurationGeneratorTest {
 		testCoverageAndDeterminism("yasa", 3, modelNames);
 	}
 
+	@Test
+	public void YASAParallelEqualsSequential() {
+		for (int t = 2; t <= 3; t++) {
+			for (final String modelName : modelNames) {
+				final Path modelFile = modelDirectory.resolve(modelName + ".xml");
+				final SampleTester tester = sample(modelFile, "yasa", Arrays.asList("-t", Integer.toString(t)));
+				final SampleTester parallelTester = sample(modelFile, "yasa", Arrays.asList("-t", Integer.toString(t), "-threads", "4"));
+				assertEquals("Different sample for " + modelName, tester.getSample(), parallelTester.getSample());
+			}
+		}
+	}
+
 	@Test
 	public void InclingTwoWiseCoverage() {
 		testCoverageAndDeterminism("incling", 2, modelNames);
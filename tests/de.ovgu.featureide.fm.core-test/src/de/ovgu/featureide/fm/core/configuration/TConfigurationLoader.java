@@ -0,0 +1,223 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.configuration;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import de.ovgu.featureide.fm.core.base.IFeatureModel;
+import de.ovgu.featureide.fm.core.configuration.io.CompactConfiguration;
+import de.ovgu.featureide.fm.core.configuration.io.ConfigurationIndex;
+import de.ovgu.featureide.fm.core.configuration.io.ConfigurationLoader;
+import de.ovgu.featureide.fm.core.configuration.io.IConfigurationLoaderCallback;
+import de.ovgu.featureide.fm.core.init.FMCoreLibrary;
+import de.ovgu.featureide.fm.core.init.LibraryManager;
+import de.ovgu.featureide.fm.core.io.manager.ConfigurationManager;
+
+/**
+ * Tests the parallel and the compact loading of configurations with {@link ConfigurationLoader}.
+ *
+ * @author FeatureIDE Team
+ */
+public class TConfigurationLoader extends AbstractConfigurationTest {
+
+	private static final int NUMBER_OF_CONFIGURATIONS = 20;
+
+	@BeforeClass
+	public static void registerLibrary() {
+		LibraryManager.registerLibrary(FMCoreLibrary.getInstance());
+	}
+
+	private Path directory;
+
+	@Override
+	IFeatureModel loadModel() {
+		return loadXML("<and abstract=\"true\" mandatory=\"true\" name=\"Root\"><feature name=\"A\"/><feature name=\"B\"/><feature name=\"C\"/></and>");
+	}
+
+	@After
+	public void deleteDirectory() throws IOException {
+		if (directory != null) {
+			Files.walk(directory).sorted((p1, p2) -> p2.compareTo(p1)).forEach(p -> p.toFile().delete());
+		}
+	}
+
+	private void createConfigurations() throws IOException {
+		directory = Files.createTempDirectory("configurations");
+		for (int i = 0; i < NUMBER_OF_CONFIGURATIONS; i++) {
+			writeConfiguration(i, (i & 1) != 0, (i & 2) != 0);
+		}
+	}
+
+	private Path writeConfiguration(int i, boolean selectA, boolean selectB) {
+		final Configuration configuration = new Configuration(formula);
+		configuration.setManual("A", selectA ? Selection.SELECTED : Selection.UNSELECTED);
+		configuration.setManual("B", selectB ? Selection.SELECTED : Selection.UNDEFINED);
+		final Path file = directory.resolve(String.format("config%03d.xml", i));
+		assertTrue(ConfigurationManager.save(configuration, file, new XMLConfFormat()));
+		return file;
+	}
+
+	private static CompactConfiguration getByPath(List<CompactConfiguration> configurations, Path path) {
+		for (final CompactConfiguration configuration : configurations) {
+			if (configuration.getPath().equals(path)) {
+				return configuration;
+			}
+		}
+		throw new AssertionError(path);
+	}
+
+	@Test
+	public void testParallelLoading() throws IOException {
+		createConfigurations();
+
+		final List<Path> loadedPaths = new ArrayList<>();
+		final ConfigurationLoader parallelLoader = new ConfigurationLoader(new IConfigurationLoaderCallback() {
+
+			@Override
+			public void onLoadingStarted() {}
+
+			@Override
+			public void onConfigurationLoaded(Configuration configuration, Path path) {
+				loadedPaths.add(path);
+			}
+
+			@Override
+			public void onLoadingFinished() {}
+
+			@Override
+			public void onLoadingError(IOException exception) {}
+		});
+		parallelLoader.setNumberOfThreads(4);
+		final List<Configuration> parallelConfigurations = parallelLoader.loadConfigurations(formula, directory);
+
+		final ConfigurationLoader sequentialLoader = new ConfigurationLoader();
+		sequentialLoader.setNumberOfThreads(1);
+		final List<Configuration> sequentialConfigurations = sequentialLoader.loadConfigurations(formula, directory);
+
+		assertEquals(NUMBER_OF_CONFIGURATIONS, parallelConfigurations.size());
+		assertEquals(NUMBER_OF_CONFIGURATIONS, loadedPaths.size());
+		for (int i = 0; i < NUMBER_OF_CONFIGURATIONS; i++) {
+			assertEquals(sequentialConfigurations.get(i).getSelectedFeatureNames(), parallelConfigurations.get(i).getSelectedFeatureNames());
+			assertEquals(sequentialConfigurations.get(i).getUnselectedFeatureNames(), parallelConfigurations.get(i).getUnselectedFeatureNames());
+		}
+	}
+
+	@Test
+	public void testCompactLoading() throws IOException {
+		createConfigurations();
+
+		final ConfigurationLoader loader = new ConfigurationLoader();
+		final List<Configuration> configurations = loader.loadConfigurations(formula, directory);
+		final List<CompactConfiguration> compactConfigurations = loader.loadCompactConfigurations(formula, directory, null, null);
+
+		assertEquals(configurations.size(), compactConfigurations.size());
+		for (int i = 0; i < configurations.size(); i++) {
+			final Configuration configuration = configurations.get(i);
+			final CompactConfiguration compactConfiguration = compactConfigurations.get(i);
+			for (final SelectableFeature feature : configuration.getFeatures()) {
+				assertEquals(feature.getName(), feature.getSelection(), compactConfiguration.getSelection(feature.getName()));
+			}
+			final Configuration materializedConfiguration = compactConfiguration.toConfiguration(formula);
+			assertNotNull(materializedConfiguration);
+			assertEquals(configuration.getSelectedFeatureNames(), materializedConfiguration.getSelectedFeatureNames());
+		}
+	}
+
+	@Test
+	public void testIndex() throws IOException {
+		createConfigurations();
+		final Path indexFile = directory.resolve(".featureide").resolve(ConfigurationMatrix.INDEX_FILE_NAME);
+
+		final ConfigurationLoader loader = new ConfigurationLoader();
+		final List<CompactConfiguration> firstConfigurations =
+			loader.loadCompactConfigurations(formula, directory, null, new ConfigurationIndex(indexFile, directory, formula.getVariables()));
+		assertTrue(Files.exists(indexFile));
+		assertEquals(NUMBER_OF_CONFIGURATIONS, firstConfigurations.size());
+
+		// files that did not change are taken from the index
+		final ConfigurationIndex index = new ConfigurationIndex(indexFile, directory, formula.getVariables());
+		index.load();
+		final Path unchangedFile = firstConfigurations.get(0).getPath();
+		final CompactConfiguration indexedConfiguration =
+			index.get(unchangedFile, Files.getLastModifiedTime(unchangedFile).toMillis(), Files.size(unchangedFile));
+		assertNotNull(indexedConfiguration);
+		assertEquals(firstConfigurations.get(0).getLiterals(), indexedConfiguration.getLiterals());
+
+		// changed files are parsed again
+		final Path changedFile = writeConfiguration(1, false, false);
+		Files.setLastModifiedTime(changedFile, FileTime.fromMillis(Files.getLastModifiedTime(changedFile).toMillis() + 2000));
+		final List<CompactConfiguration> secondConfigurations =
+			loader.loadCompactConfigurations(formula, directory, null, new ConfigurationIndex(indexFile, directory, formula.getVariables()));
+		assertEquals(NUMBER_OF_CONFIGURATIONS, secondConfigurations.size());
+		for (final CompactConfiguration secondConfiguration : secondConfigurations) {
+			if (secondConfiguration.getPath().equals(changedFile)) {
+				assertEquals(Selection.UNSELECTED, secondConfiguration.getSelection("A"));
+				assertEquals(Selection.UNDEFINED, secondConfiguration.getSelection("B"));
+			} else {
+				assertEquals(getByPath(firstConfigurations, secondConfiguration.getPath()).getLiterals(), secondConfiguration.getLiterals());
+			}
+		}
+	}
+
+	@Test
+	public void testIndexIsNotLoaded() throws IOException {
+		createConfigurations();
+		// a configuration with the same name as the index file
+		final Path configurationFile = directory.resolve("configurations.xml");
+		assertTrue(ConfigurationManager.save(new Configuration(formula), configurationFile, new XMLConfFormat()));
+		new ConfigurationMatrix(formula, directory).readConfigurations();
+		assertTrue(Files.exists(directory.resolve(".featureide").resolve(ConfigurationMatrix.INDEX_FILE_NAME)));
+
+		final List<Path> loadedPaths = new ArrayList<>();
+		final List<Configuration> configurations = new ConfigurationLoader(new IConfigurationLoaderCallback() {
+
+			@Override
+			public void onLoadingStarted() {}
+
+			@Override
+			public void onConfigurationLoaded(Configuration configuration, Path path) {
+				loadedPaths.add(path);
+			}
+
+			@Override
+			public void onLoadingFinished() {}
+
+			@Override
+			public void onLoadingError(IOException exception) {}
+		}).loadConfigurations(formula, directory);
+		assertEquals(NUMBER_OF_CONFIGURATIONS + 1, configurations.size());
+		assertTrue(loadedPaths.contains(configurationFile));
+	}
+
+}
@@ -0,0 +1,164 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.configuration;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+
+import de.ovgu.featureide.Commons;
+import de.ovgu.featureide.fm.core.analysis.cnf.CNF;
+import de.ovgu.featureide.fm.core.analysis.cnf.LiteralSet;
+import de.ovgu.featureide.fm.core.analysis.cnf.analysis.CoreDeadAnalysis;
+import de.ovgu.featureide.fm.core.analysis.cnf.formula.FeatureModelFormula;
+import de.ovgu.featureide.fm.core.job.LongRunningWrapper;
+
+/**
+ * Compares the incremental results of {@link ConfigurationSession} with a {@link CoreDeadAnalysis} from scratch.
+ *
+ * @author FeatureIDE Team
+ */
+public class TConfigurationSession {
+
+	private static final String[] MODELS = { "car.xml", "gpl_medium_model.xml", "berkeley_db_model.xml", "500-100.xml" };
+
+	private static int[] expected(CNF cnf, List<Integer> decisions) {
+		final CoreDeadAnalysis analysis = new CoreDeadAnalysis(cnf);
+		analysis.setAssumptions(new LiteralSet(toArray(decisions)));
+		final LiteralSet result = LongRunningWrapper.runMethod(analysis);
+		if (result == null) {
+			return null;
+		}
+		// the analysis does not return the assumptions
+		final int[] literals = Arrays.copyOf(result.getLiterals(), result.size() + decisions.size());
+		for (int i = 0; i < decisions.size(); i++) {
+			literals[result.size() + i] = decisions.get(i);
+		}
+		return sorted(literals);
+	}
+
+	private static int[] sorted(int[] literals) {
+		if (literals == null) {
+			return null;
+		}
+		final int[] copy = Arrays.copyOf(literals, literals.length);
+		Arrays.sort(copy);
+		return copy;
+	}
+
+	private static int[] toArray(List<Integer> list) {
+		final int[] array = new int[list.size()];
+		for (int i = 0; i < array.length; i++) {
+			array[i] = list.get(i);
+		}
+		return array;
+	}
+
+	@Test
+	public void testRandomDecisions() {
+		final Random random = new Random(42);
+		for (final String model : MODELS) {
+			final FeatureModelFormula formula = new FeatureModelFormula(Commons.loadTestFeatureModelFromFile(model));
+			final CNF cnf = formula.getCNF();
+			final ConfigurationSession session = new ConfigurationSession(formula);
+			final List<Integer> decisions = new ArrayList<>();
+
+			assertTrue(model, Arrays.equals(expected(cnf, decisions), sorted(session.getImpliedLiterals().getLiterals())));
+			for (int step = 0; step < 40; step++) {
+				if (!decisions.isEmpty() && (random.nextInt(4) == 0)) {
+					final int literal = decisions.remove(random.nextInt(decisions.size()));
+					assertNotNull(session.unselect(literal));
+				} else {
+					final int[] implied = session.getImpliedLiterals().getLiterals();
+					final boolean[] fixed = new boolean[cnf.getVariables().size()];
+					for (final int literal : implied) {
+						fixed[Math.abs(literal) - 1] = true;
+					}
+					final List<Integer> open = new ArrayList<>();
+					for (int i = 0; i < fixed.length; i++) {
+						if (!fixed[i]) {
+							open.add(i + 1);
+						}
+					}
+					if (open.isEmpty()) {
+						continue;
+					}
+					final int variable = open.get(random.nextInt(open.size()));
+					final int literal = random.nextBoolean() ? variable : -variable;
+					decisions.add(literal);
+					assertNotNull(session.select(literal));
+				}
+				assertTrue(model + " " + decisions, Arrays.equals(expected(cnf, decisions), sorted(session.getImpliedLiterals().getLiterals())));
+			}
+		}
+	}
+
+	@Test
+	public void testSetDecisions() {
+		final FeatureModelFormula formula = new FeatureModelFormula(Commons.loadTestFeatureModelFromFile("gpl_medium_model.xml"));
+		final CNF cnf = formula.getCNF();
+		final ConfigurationSession session = new ConfigurationSession(formula);
+		final int a = cnf.getVariables().getVariable("Undirected");
+		final int b = cnf.getVariables().getVariable("Weighted");
+
+		assertNotNull(session.setDecisions(a, b));
+		assertTrue(Arrays.equals(sorted(new int[] { a, b }), sorted(session.getDecisions().getLiterals())));
+		final LiteralSet implied = session.setDecisions(b);
+		assertTrue(Arrays.equals(expected(cnf, Arrays.asList(b)), sorted(implied.getLiterals())));
+		assertEquals(1, session.getDecisions().size());
+	}
+
+	@Test
+	public void testContradictingDecision() {
+		final FeatureModelFormula formula = new FeatureModelFormula(Commons.loadTestFeatureModelFromFile("car.xml"));
+		final CNF cnf = formula.getCNF();
+		final ConfigurationSession session = new ConfigurationSession(formula);
+		final int root = cnf.getVariables().getVariable(formula.getFeatureModel().getStructure().getRoot().getFeature().getName());
+
+		assertNull(session.select(-root));
+		assertEquals(0, session.getDecisions().size());
+		assertNotNull(session.select(root));
+	}
+
+	@Test
+	public void testWitnessesAvoidSatCalls() {
+		final FeatureModelFormula formula = new FeatureModelFormula(Commons.loadTestFeatureModelFromFile("berkeley_db_model.xml"));
+		final ConfigurationSession session = new ConfigurationSession(formula);
+		final int[] implied = session.getImpliedLiterals().getLiterals();
+		final long initialCalls = session.getSatCallCount();
+
+		// selecting a core feature does not change anything
+		for (final int literal : implied) {
+			assertNotNull(session.select(literal));
+		}
+		assertEquals(initialCalls, session.getSatCallCount());
+		assertTrue(Arrays.equals(sorted(implied), sorted(session.getImpliedLiterals().getLiterals())));
+	}
+
+}
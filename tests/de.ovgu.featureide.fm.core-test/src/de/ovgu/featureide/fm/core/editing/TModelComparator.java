@@ -30,6 +30,7 @@ import org.junit.Test;
 import org.sat4j.specs.TimeoutException;
 
 import de.ovgu.featureide.Commons;
+import de.ovgu.featureide.fm.core.analysis.cnf.solver.SolverPool;
 import de.ovgu.featureide.fm.core.base.IFeatureModel;
 import de.ovgu.featureide.fm.core.configuration.Configuration;
 import de.ovgu.featureide.fm.core.io.UnsupportedModelException;
@@ -54,6 +55,7 @@ public class TModelComparator {
 	public void testForFeatureIDEaddedProducts() throws FileNotFoundException, UnsupportedModelException, TimeoutException {
 		final IFeatureModel fm = Commons.loadBenchmarkFeatureModelFromFile("issue_264_model_optional.xml");
 		final IFeatureModel fmGen = Commons.loadBenchmarkFeatureModelFromFile("issue_264_model_alternative.xml");
+		final int pooledSolvers = SolverPool.getDefault().size();
 		final ModelComparator comparator = new ModelComparator(1000000);
 		final Comparison comparison = comparator.compare(fm, fmGen);
 
@@ -67,5 +69,8 @@ public class TModelComparator {
 			addedProducts.add(c.toString());
 		}
 		// TODO: assertEquals(12, addedProducts.size());
+
+		// the comparison must not occupy the shared solver pool
+		assertEquals(pooledSolvers, SolverPool.getDefault().size());
 	}
 }
@@ -0,0 +1,148 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.explanations.fm;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import de.ovgu.featureide.Commons;
+import de.ovgu.featureide.fm.core.FeatureModelAnalyzer;
+import de.ovgu.featureide.fm.core.analysis.ConstraintProperties.ConstraintStatus;
+import de.ovgu.featureide.fm.core.analysis.FeatureProperties.FeatureStatus;
+import de.ovgu.featureide.fm.core.base.IConstraint;
+import de.ovgu.featureide.fm.core.base.IFeature;
+import de.ovgu.featureide.fm.core.base.IFeatureModel;
+import de.ovgu.featureide.fm.core.base.IFeatureModelElement;
+import de.ovgu.featureide.fm.core.io.manager.FeatureModelManager;
+
+/**
+ * Tests for {@link MultipleAnomaliesExplanationCreator}.
+ *
+ * @author FeatureIDE Team
+ */
+public class MultipleAnomaliesExplanationCreatorTests {
+
+	private IFeatureModel fm;
+	private FeatureModelAnalyzer analyzer;
+
+	@Before
+	public void loadFeatureModel() {
+		final FeatureModelManager manager =
+			FeatureModelManager.getInstance(Paths.get(Commons.getRemoteOrLocalFolder(Commons.TEST_FEATURE_MODEL_PATH).getPath(), "car.xml"));
+		assertNotNull(manager);
+		fm = manager.getObject();
+		analyzer = manager.getVariableFormula().getAnalyzer();
+		resetAnalyzer();
+	}
+
+	private void resetAnalyzer() {
+		analyzer.reset();
+		analyzer.analyzeFeatureModel(null);
+	}
+
+	private MultipleAnomaliesExplanationCreator getInstance(int numberOfThreads) {
+		final MultipleAnomaliesExplanationCreator c = FeatureModelExplanationCreatorFactory.getDefault().getMultipleAnomaliesExplanationCreator();
+		c.setFeatureModel(fm);
+		c.setAnomalyTypes(new FeatureStatus[] { FeatureStatus.DEAD, FeatureStatus.FALSE_OPTIONAL },
+				new ConstraintStatus[] { ConstraintStatus.REDUNDANT });
+		c.setNumberOfThreads(numberOfThreads);
+		return c;
+	}
+
+	private static List<String> getSubjects(MultipleAnomaliesExplanation explanation) {
+		final List<String> subjects = new ArrayList<>();
+		for (final FeatureModelExplanation<? extends IFeatureModelElement> singleExplanation : explanation.getSingleExplanations()) {
+			subjects.add(singleExplanation.getClass().getSimpleName() + ":" + singleExplanation.getSubject().getName());
+		}
+		return subjects;
+	}
+
+	@Test
+	public void testParallelExplanationsEqualSequential() {
+		final MultipleAnomaliesExplanation sequential = getInstance(1).getExplanation();
+		// do not reuse the explanations of the sequential run
+		resetAnalyzer();
+		final MultipleAnomaliesExplanation parallel = getInstance(4).getExplanation();
+		assertNotNull(sequential);
+		assertNotNull(parallel);
+		assertEquals(getSubjects(sequential), getSubjects(parallel));
+		final List<FeatureModelExplanation<? extends IFeatureModelElement>> sequentialExplanations = sequential.getSingleExplanations();
+		final List<FeatureModelExplanation<? extends IFeatureModelElement>> parallelExplanations = parallel.getSingleExplanations();
+		for (int i = 0; i < sequentialExplanations.size(); i++) {
+			assertEquals(sequentialExplanations.get(i).getReasons(), parallelExplanations.get(i).getReasons());
+		}
+	}
+
+	@Test
+	public void testAnalyzerCache() {
+		final List<FeatureModelExplanation<? extends IFeatureModelElement>> explanations = getInstance(2).getExplanation().getSingleExplanations();
+		for (final FeatureModelExplanation<? extends IFeatureModelElement> explanation : explanations) {
+			if (explanation instanceof DeadFeatureExplanation) {
+				assertSame(explanation, analyzer.getDeadFeatureExplanation((IFeature) explanation.getSubject()));
+			} else if (explanation instanceof FalseOptionalFeatureExplanation) {
+				assertSame(explanation, analyzer.getFalseOptionalFeatureExplanation((IFeature) explanation.getSubject()));
+			} else {
+				assertSame(explanation, analyzer.getRedundantConstraintExplanation((IConstraint) explanation.getSubject()));
+			}
+		}
+		final List<FeatureModelExplanation<? extends IFeatureModelElement>> cachedExplanations =
+			getInstance(2).getExplanation().getSingleExplanations();
+		assertEquals(explanations.size(), cachedExplanations.size());
+		for (int i = 0; i < explanations.size(); i++) {
+			assertSame(explanations.get(i), cachedExplanations.get(i));
+		}
+	}
+
+	@Test
+	public void testExplanationListener() {
+		final List<FeatureModelExplanation<? extends IFeatureModelElement>> reported = Collections.synchronizedList(new ArrayList<>());
+		final MultipleAnomaliesExplanationCreator c = getInstance(2);
+		c.setExplanationListener(reported::add);
+		final MultipleAnomaliesExplanation explanation = c.getExplanation();
+		assertNotNull(explanation);
+		assertEquals(explanation.getSingleExplanations().size(), reported.size());
+		assertTrue(reported.containsAll(explanation.getSingleExplanations()));
+	}
+
+	@Test
+	public void testMaximumExplanationCount() {
+		final List<FeatureModelExplanation<? extends IFeatureModelElement>> all = getInstance(2).getExplanation().getSingleExplanations();
+		assertTrue(all.size() > 1);
+		final MultipleAnomaliesExplanationCreator c = getInstance(2);
+		c.setMaximumExplanationCount(1);
+		final List<FeatureModelExplanation<? extends IFeatureModelElement>> shortest = c.getExplanation().getSingleExplanations();
+		assertEquals(1, shortest.size());
+		for (final FeatureModelExplanation<? extends IFeatureModelElement> explanation : all) {
+			assertTrue(shortest.get(0).getReasonCount() <= explanation.getReasonCount());
+		}
+	}
+
+}
@@ -0,0 +1,202 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.io.dimacs;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.util.List;
+
+import org.junit.Test;
+import org.prop4j.Node;
+
+import de.ovgu.featureide.Commons;
+import de.ovgu.featureide.fm.core.analysis.cnf.CNF;
+import de.ovgu.featureide.fm.core.analysis.cnf.LiteralSet;
+import de.ovgu.featureide.fm.core.analysis.cnf.Nodes;
+import de.ovgu.featureide.fm.core.analysis.cnf.Variables;
+import de.ovgu.featureide.fm.core.analysis.cnf.formula.FeatureModelFormula;
+
+/**
+ * Tests for {@link DimacsCNFReader} and {@link DimacsCNFWriter}. Results are compared with the {@link DimacsReader} and {@link DimacsWriter}.
+ *
+ * @author FeatureIDE Team
+ */
+public class TDimacsCNFReader {
+
+	private static final String[] INPUTS = { //
+		"p cnf 3 2\n1 -3 0\n2 3 -1 0", //
+		"p cnf 3 2\n1 -3 0\n2 3 -1 0\n", //
+		"p cnf 3 2 1 -3 0 2 3 -1 0", //
+		"p cnf 3 2\n1 -3 0\n\n\n \n \n\n2 3 -1 0", //
+		"p cnf 3 2\n1\n-3 0\n2 3 -1 0", //
+		"p\tcnf\t3\t2\n1\t-3\t0\t\n2\t3\t-1\t0", //
+		"  p cnf 3 2\n  1 -3 0  \n  2 3 -1 0  ", //
+		"p cnf 3 2\r\n1 -3 0\r\n2 3 -1 0\r\n", //
+		"p cnf 3 2\r1 -3 0\r2 3 -1 0\r", //
+		"p\n  cnf\n    3\n    2\n  1 -3 0\n  2 3 -1 0", //
+		"c Hello!\np cnf 3 2\n1 -3 0\n2 3 -1 0", //
+		"c\nc \ncWhere is my space?\np cnf 3 2\n1 -3 0\n2 3 -1 0", //
+		"p cnf 3 2\nc hidden\n1 -3 0\nc sneaky\n2 3 -1 0\nc Bye!", //
+		"p cnf 3 2\n1 c comment\n-3 0\n2 3 -1 0", //
+		"p cnf c comment\n3 2\n1 -3 0\n2 3 -1 0", //
+		"p cnf 3 2\n1 -3 0\n2 3 -1 0\nBye, correctness!", //
+		"P cnf 3 2\n1 -3 0\n2 3 -1 0", //
+		"p CNF 3 2\n1 -3 0\n2 3 -1 0", //
+		"C comment\np cnf 3 2\n1 -3 0\n2 3 -1 0", //
+		"p cnf 3 2\n1 -3 0\n2 3 -1", //
+		"p cnf 3 2\n1 -3 0\n2 3 -1\nc comment", //
+		"p cnf 3 2\n1 -3 0\n2 3 -1\nc comment\ntrailing", //
+		"p cnf 0 2\n1 -3 0\n2 3 -1 0", //
+		"p cnf -3 2\n1 -3 0\n2 3 -1 0", //
+		"p cnf 4 2\n1 -3 0\n2 3 -1 0", //
+		"p cnf 2 2\n1 -3 0\n2 3 -1 0", //
+		"p cnf 3 3\n1 -3 0\n2 3 -1 0", //
+		"p cnf 3 1\n1 -3 0\n2 3 -1 0", //
+		"p cnf 3 1\n0\n", //
+		"p cnf 3 2\n1 -0 0\n2 3 -1 0", //
+		"p cnf 3 2\n1 00 0\n2 3 -1 0", //
+		"p cnf 3 2\n1 -3x 0\n2 3 -1 0", //
+		"p cnf 3 2\n1 -99999999999 0\n2 3 -1 0", //
+		"", //
+		"p cnf 0 0", //
+		"1 -3 0\n2 3 -1 0", //
+		"p cnf 3 2\n1 -3 0\n2 3 -1 0\np cnf 3 2\n1 -3 0\n2 3 -1 0", //
+		"p cnf 1 2\n1 -1 0\n1 1 -1 0", //
+		"c 1 Foo\nc 2 Bar\nc 3 Baz\np cnf 3 2\n1 -3 0\n2 3 -1 0", //
+		"c 1 Variable\twith\twhitespace\nc 2  \nc 3   Surrounding whitespace  \np cnf 3 2\n1 -3 0\n2 3 -1 0", //
+		"c 1\nc 2 \nc\t\t3 c 3 Foo\np cnf 3 2\n1 -3 0\n2 3 -1 0", //
+		"c 3 Baz\nc 2 Bar\nc 1 Foo\np cnf 3 2\n1 -3 0\n2 3 -1 0", //
+		"c 1 Foo\nc 1 Overwritten\nc 2 Bar\nc 3 Baz\np cnf 3 2\n1 -3 0\n2 3 -1 0", //
+		"p cnf 3 2\nc 1 Foo\nc 2 Bar\nc 3 Baz\n1 -3 0\n2 3 -1 0", //
+		"c 1 Foo\nc 2 Bar\np cnf 3 2\nc 3 Baz\n1 -3 0\n2 3 -1 0", //
+		"c 1 Foo\nc 2 Bar\np cnf 3 2\n1 -3 0\nc 3 Baz\n2 3 -1 0", //
+		"c 1 Foo\nc 2 Foo\np cnf 3 2\n1 -3 0\n2 3 -1 0", //
+		"c 4 Foo\np cnf 3 2\n1 -3 0\n2 3 -1 0", //
+		"c 1 Föö\np cnf 3 2\n1 -3 0\n2 3 -1 0", //
+	};
+
+	@Test
+	public void readEqualsDimacsReader() throws Exception {
+		for (final String input : INPUTS) {
+			CNF expected;
+			try {
+				expected = readWithDimacsReader(input);
+			} catch (final ParseException e) {
+				expected = null;
+			}
+
+			final DimacsCNFReader reader = new DimacsCNFReader();
+			reader.setReadingVariableDirectory(true);
+			try {
+				final CNF actual = reader.read(input);
+				if (expected == null) {
+					fail("Expected exception for: " + input);
+				}
+				assertCNFEquals(input, expected, actual);
+			} catch (final ParseException e) {
+				if (expected != null) {
+					throw new AssertionError("Unexpected exception for: " + input, e);
+				}
+			}
+		}
+	}
+
+	@Test
+	public void readFile() throws Exception {
+		final Path file = Files.createTempFile("test", ".dimacs");
+		try {
+			for (final String input : INPUTS) {
+				CNF expected;
+				try {
+					expected = readWithDimacsReader(input);
+				} catch (final ParseException e) {
+					continue;
+				}
+				Files.write(file, input.getBytes(StandardCharsets.UTF_8));
+				for (final int windowSize : new int[] { 1, 3, 7, 1 << 16 }) {
+					final DimacsCNFReader reader = new DimacsCNFReader(windowSize);
+					reader.setReadingVariableDirectory(true);
+					assertCNFEquals(input, expected, reader.read(file));
+				}
+			}
+		} finally {
+			Files.deleteIfExists(file);
+		}
+	}
+
+	@Test
+	public void writeEqualsDimacsWriter() throws IOException {
+		for (final String modelName : new String[] { "car.xml", "gpl_medium_model.xml", "berkeley_db_model.xml" }) {
+			final CNF cnf = new FeatureModelFormula(Commons.loadTestFeatureModelFromFile(modelName)).getCNF();
+			final String expected = new DimacsWriter(cnf).write();
+			assertEquals(modelName, expected, new DimacsCNFWriter(cnf).write());
+
+			final Path file = Files.createTempFile("test", ".dimacs");
+			try {
+				new DimacsCNFWriter(cnf).write(file);
+				assertEquals(modelName, expected, new String(Files.readAllBytes(file), StandardCharsets.UTF_8));
+			} finally {
+				Files.deleteIfExists(file);
+			}
+		}
+	}
+
+	@Test
+	public void roundTrip() throws ParseException {
+		for (final String modelName : new String[] { "car.xml", "gpl_medium_model.xml", "berkeley_db_model.xml" }) {
+			final CNF cnf = new FeatureModelFormula(Commons.loadTestFeatureModelFromFile(modelName)).getCNF();
+			final DimacsCNFReader reader = new DimacsCNFReader();
+			reader.setReadingVariableDirectory(true);
+			assertCNFEquals(modelName, cnf, reader.read(new DimacsCNFWriter(cnf).write()));
+
+			final CNF formatCNF = new CNF();
+			final DIMACSFormatCNF format = new DIMACSFormatCNF();
+			assertEquals(0, format.read(formatCNF, format.write(cnf)).size());
+			assertCNFEquals(modelName, cnf, formatCNF);
+		}
+	}
+
+	private CNF readWithDimacsReader(String input) throws ParseException, IOException {
+		final DimacsReader reader = new DimacsReader();
+		reader.setReadingVariableDirectory(true);
+		final Node node = reader.read(input);
+		final Variables variables = new Variables(reader.getVariables());
+		return new CNF(variables, Nodes.convertNF(variables, node, true, true));
+	}
+
+	private void assertCNFEquals(String message, CNF expected, CNF actual) {
+		assertArrayEquals(message, expected.getVariables().getNames(), actual.getVariables().getNames());
+		final List<LiteralSet> expectedClauses = expected.getClauses();
+		final List<LiteralSet> actualClauses = actual.getClauses();
+		assertEquals(message, expectedClauses.size(), actualClauses.size());
+		for (int i = 0; i < expectedClauses.size(); i++) {
+			assertArrayEquals(message, expectedClauses.get(i).getLiterals(), actualClauses.get(i).getLiterals());
+		}
+	}
+
+}
@@ -0,0 +1,131 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.io.xml;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import org.junit.Test;
+
+import de.ovgu.featureide.Commons;
+import de.ovgu.featureide.fm.core.base.IFeatureModel;
+import de.ovgu.featureide.fm.core.base.impl.DefaultFeatureModelFactory;
+import de.ovgu.featureide.fm.core.io.Problem;
+import de.ovgu.featureide.fm.core.io.ProblemList;
+
+/**
+ * Tests that the streaming implementation of {@link XmlFeatureModelFormat} reads and writes the same models as the document based implementation.
+ *
+ * @author FeatureIDE Team
+ */
+public class XmlFeatureModelStreamingTest {
+
+	private static class DocumentFormat extends XmlFeatureModelFormat {
+
+		@Override
+		protected boolean supportsStreaming() {
+			return false;
+		}
+
+	}
+
+	@Test
+	public void testSameOutputAsDocument() throws IOException {
+		final File[] modelFiles = Commons.getRemoteOrLocalFolder(Commons.TEST_FEATURE_MODEL_PATH).listFiles();
+		assertTrue(modelFiles.length > 0);
+		for (final File modelFile : modelFiles) {
+			final String source = new String(Files.readAllBytes(modelFile.toPath()), StandardCharsets.UTF_8);
+
+			final IFeatureModel documentModel = DefaultFeatureModelFactory.getInstance().create();
+			final ProblemList documentProblems = new DocumentFormat().read(documentModel, source);
+			final IFeatureModel streamModel = DefaultFeatureModelFactory.getInstance().create();
+			final ProblemList streamProblems = new XmlFeatureModelFormat().read(streamModel, new StringBuilder(source));
+
+			assertEquals(modelFile.getName(), documentProblems.containsError(), streamProblems.containsError());
+			if (!documentProblems.containsError()) {
+				final String documentOutput = new DocumentFormat().write(documentModel);
+				assertEquals(modelFile.getName(), documentOutput, new XmlFeatureModelFormat().write(streamModel));
+				assertEquals(modelFile.getName(), documentOutput, new XmlFeatureModelFormat().write(documentModel));
+			}
+		}
+	}
+
+	@Test
+	public void testErrorLineNumber() {
+		final String source = "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"no\"?>\n" //
+			+ "<featureModel>\n" //
+			+ "\t<struct>\n" //
+			+ "\t\t<and name=\"Root\">\n" //
+			+ "\t\t\t<feature name=\"A\"/>\n" //
+			+ "\t\t\t<feature name=\"A\"/>\n" //
+			+ "\t\t</and>\n" //
+			+ "\t</struct>\n" //
+			+ "</featureModel>\n";
+		final ProblemList problems = new XmlFeatureModelFormat().read(DefaultFeatureModelFactory.getInstance().create(), source);
+		assertTrue(problems.containsError());
+		final Problem problem = problems.getErrors().get(0);
+		assertEquals(6, problem.getLine());
+	}
+
+	@Test
+	public void testConstraintBeforeStruct() {
+		final String source = "<featureModel>\n" //
+			+ "\t<constraints>\n" //
+			+ "\t\t<rule>\n" //
+			+ "\t\t\t<not>\n" //
+			+ "\t\t\t\t<var>A</var>\n" //
+			+ "\t\t\t</not>\n" //
+			+ "\t\t</rule>\n" //
+			+ "\t</constraints>\n" //
+			+ "\t<struct>\n" //
+			+ "\t\t<and name=\"Root\">\n" //
+			+ "\t\t\t<feature name=\"A\"/>\n" //
+			+ "\t\t</and>\n" //
+			+ "\t</struct>\n" //
+			+ "</featureModel>\n";
+		final IFeatureModel featureModel = DefaultFeatureModelFactory.getInstance().create();
+		final ProblemList problems = new XmlFeatureModelFormat().read(featureModel, source);
+		assertFalse(problems.toString(), problems.containsError());
+		assertEquals(2, featureModel.getNumberOfFeatures());
+		assertEquals(1, featureModel.getConstraintCount());
+	}
+
+	@Test
+	public void testMultiLineDescription() {
+		final IFeatureModel featureModel = DefaultFeatureModelFactory.getInstance().create();
+		new XmlFeatureModelFormat().read(featureModel, "<featureModel><struct><feature name=\"Root\"/></struct></featureModel>");
+		featureModel.getStructure().getRoot().getFeature().getProperty().setDescription("first line\nsecond <line>");
+
+		final String output = new XmlFeatureModelFormat().write(featureModel);
+		assertEquals(new DocumentFormat().write(featureModel), output);
+
+		final IFeatureModel readModel = DefaultFeatureModelFactory.getInstance().create();
+		new XmlFeatureModelFormat().read(readModel, output);
+		assertEquals("first line\nsecond <line>", readModel.getStructure().getRoot().getFeature().getProperty().getDescription());
+	}
+
+}
@@ -0,0 +1,100 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package org.prop4j.explain.solvers.impl.ltms;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Test;
+import org.prop4j.And;
+import org.prop4j.Implies;
+import org.prop4j.Literal;
+import org.prop4j.Not;
+import org.prop4j.Or;
+
+/**
+ * Tests for {@link Ltms}.
+ *
+ * @author FeatureIDE Team
+ */
+public class LtmsTests {
+
+	@Test
+	public void testImplicationChain() {
+		final Ltms ltms = new Ltms();
+		ltms.addFormula(new And(new Implies("A", "B"), new Implies("B", "C"), new Implies("C", "D"), new Or("E", "F"), new Not("D")));
+		ltms.addAssumption("A", true);
+		assertEquals(new HashSet<>(Arrays.asList(0, 1, 2, 4)), ltms.getMinimalUnsatisfiableSubsetIndexes());
+	}
+
+	@Test
+	public void testInitialContradiction() {
+		final Ltms ltms = new Ltms();
+		ltms.addFormula(new And(new Or("A", "B"), new Or(new Literal("A", false), "C")));
+		ltms.addAssumption("A", true);
+		ltms.addAssumption("C", false);
+		assertEquals(Collections.singletonList(Collections.singleton(1)), ltms.getAllMinimalUnsatisfiableSubsetIndexes());
+	}
+
+	@Test
+	public void testNoContradiction() {
+		final Ltms ltms = new Ltms();
+		ltms.addFormula(new And(new Implies("A", "B"), new Or(new Not("B"), "C", "D")));
+		ltms.addAssumption("A", true);
+		assertTrue(ltms.getAllMinimalUnsatisfiableSubsetIndexes().isEmpty());
+		assertEquals(Boolean.TRUE, ltms.getModel().get("B"));
+	}
+
+	@Test
+	public void testShortestExplanation() {
+		final Ltms ltms = new Ltms();
+		ltms.addFormula(new And(new Implies("A", "B"), new Implies("B", "C"), new Implies("C", "D"), new Implies("A", "D"), new Not("D")));
+		ltms.addAssumption("A", true);
+		final List<Set<Integer>> explanations = ltms.getAllMinimalUnsatisfiableSubsetIndexes();
+		assertTrue(explanations.size() > 1);
+		assertEquals(new HashSet<>(Arrays.asList(3, 4)), ltms.getMinimalUnsatisfiableSubsetIndexes());
+	}
+
+	@Test
+	public void testScopes() {
+		final Ltms ltms = new Ltms();
+		ltms.addFormula(new Implies("A", "B"));
+		ltms.push();
+		ltms.addFormula(new Not("B"));
+		ltms.addAssumption("A", true);
+		assertEquals(new HashSet<>(Arrays.asList(0, 1)), ltms.getMinimalUnsatisfiableSubsetIndexes());
+		ltms.pop();
+		ltms.push();
+		ltms.addAssumption("A", true);
+		assertTrue(ltms.getAllMinimalUnsatisfiableSubsetIndexes().isEmpty());
+		ltms.addFormula(new Or(new Not("B"), "C"));
+		ltms.addAssumption("C", false);
+		assertEquals(new HashSet<>(Arrays.asList(0, 1)), ltms.getMinimalUnsatisfiableSubsetIndexes());
+		ltms.pop();
+	}
+
+}
@@ -0,0 +1,100 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.ui.editors.featuremodel.operations;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import de.ovgu.featureide.Commons;
+import de.ovgu.featureide.fm.core.base.IFeature;
+import de.ovgu.featureide.fm.core.base.IFeatureModel;
+import de.ovgu.featureide.fm.core.base.event.FeatureIDEEvent;
+import de.ovgu.featureide.fm.core.base.event.FeatureIDEEvent.EventType;
+import de.ovgu.featureide.fm.core.io.manager.IFeatureModelManager;
+
+/**
+ * Tests that feature model operations deliver the events they fire in a batch, i.e., after the operation is applied and with repeated events coalesced.
+ *
+ * @author FeatureIDE Team
+ */
+public class FeatureModelOperationBatchTest {
+
+	private IFeatureModelManager manager;
+
+	@Before
+	public void initialize() {
+		manager = Commons.loadTestFeatureModelFromFile("TestConfigurationModel.xml");
+	}
+
+	@Test
+	public void testRepeatedEventsAreCoalesced() {
+		final List<FeatureIDEEvent> events = new ArrayList<>();
+		final int[] deliveredDuringOperation = new int[1];
+		manager.addListener(events::add);
+
+		final AbstractFeatureModelOperation operation = new AbstractFeatureModelOperation(manager, "Repeat events") {
+
+			@Override
+			protected FeatureIDEEvent operation(IFeatureModel featureModel) {
+				final IFeature feature = featureModel.getFeature("Or1");
+				for (int i = 0; i < 3; i++) {
+					featureModel.fireEvent(new FeatureIDEEvent(feature, EventType.ATTRIBUTE_CHANGED));
+				}
+				deliveredDuringOperation[0] = events.size();
+				return new FeatureIDEEvent(featureModel, EventType.MODEL_DATA_CHANGED);
+			}
+
+			@Override
+			protected FeatureIDEEvent inverseOperation(IFeatureModel featureModel) {
+				return operation(featureModel);
+			}
+		};
+		operation.execute();
+
+		assertEquals(0, deliveredDuringOperation[0]);
+		assertEquals(2, events.size());
+		assertSame(EventType.ATTRIBUTE_CHANGED, events.get(0).getEventType());
+		assertSame(EventType.MODEL_DATA_CHANGED, events.get(1).getEventType());
+	}
+
+	@Test
+	public void testCompoundOperationDeliversFeatureEventsAfterwards() {
+		final IFeatureModel featureModel = manager.getVarObject();
+		final IFeature firstFeature = featureModel.getFeature("Or1");
+		final IFeature secondFeature = featureModel.getFeature("Or2");
+		final List<Boolean> secondFeatureAbstract = new ArrayList<>();
+		firstFeature.addListener(event -> secondFeatureAbstract.add(secondFeature.getStructure().isAbstract()));
+
+		new SetFeatureToAbstractOperation(manager, Arrays.asList("Or1", "Or2")).execute();
+
+		assertEquals(1, secondFeatureAbstract.size());
+		assertTrue(secondFeatureAbstract.get(0));
+	}
+
+}
@@ -0,0 +1,127 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.ui.actions.generator;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+/**
+ * Tests completion, failing elements, and canceling of a {@link BuildPipeline}.
+ *
+ * @author FeatureIDE Team
+ */
+public class BuildPipelineTest {
+
+	private static final class RecordingListener implements BuildPipeline.Listener<Integer> {
+
+		private final List<Integer> completed = Collections.synchronizedList(new ArrayList<Integer>());
+		private final List<String> failed = Collections.synchronizedList(new ArrayList<String>());
+
+		@Override
+		public void completed(Integer element) {
+			completed.add(element);
+		}
+
+		@Override
+		public void failed(String stageName, Integer element, Exception exception) {
+			failed.add(stageName + ":" + element);
+		}
+	}
+
+	@Test(timeout = 10000)
+	public void testCompletion() throws InterruptedException {
+		final RecordingListener listener = new RecordingListener();
+		final BuildPipeline<Integer> pipeline = new BuildPipeline<>(listener);
+		pipeline.addStage("first", 2, 2, element -> {});
+		pipeline.addStage("second", 3, 1, element -> {});
+		pipeline.start();
+		for (int i = 0; i < 100; i++) {
+			assertTrue(pipeline.put(i));
+		}
+		pipeline.finish();
+
+		assertTrue(pipeline.awaitTermination(5, TimeUnit.SECONDS));
+		assertEquals(100, listener.completed.size());
+		assertTrue(listener.failed.isEmpty());
+		assertEquals(100, pipeline.getStatistics().get(0).getProcessed());
+		assertEquals(100, pipeline.getStatistics().get(1).getProcessed());
+		assertEquals(0, pipeline.getBufferSize());
+	}
+
+	@Test(timeout = 10000)
+	public void testFailingElement() throws InterruptedException {
+		final RecordingListener listener = new RecordingListener();
+		final BuildPipeline<Integer> pipeline = new BuildPipeline<>(listener);
+		pipeline.addStage("first", 1, 2, element -> {
+			if (element == 3) {
+				throw new IllegalArgumentException();
+			}
+		});
+		pipeline.addStage("second", 1, 2, element -> {});
+		pipeline.start();
+		for (int i = 0; i < 10; i++) {
+			assertTrue(pipeline.put(i));
+		}
+		pipeline.finish();
+
+		assertTrue(pipeline.awaitTermination(5, TimeUnit.SECONDS));
+		assertEquals(Collections.singletonList("first:3"), listener.failed);
+		assertEquals(9, listener.completed.size());
+		assertFalse(listener.completed.contains(3));
+		assertEquals(1, pipeline.getStatistics().get(0).getFailed());
+		assertEquals(9, pipeline.getStatistics().get(1).getProcessed());
+	}
+
+	@Test(timeout = 10000)
+	public void testCancelWithFullQueue() throws InterruptedException {
+		final RecordingListener listener = new RecordingListener();
+		final BuildPipeline<Integer> pipeline = new BuildPipeline<>(listener);
+		final CountDownLatch release = new CountDownLatch(1);
+		pipeline.addStage("first", 1, 10, element -> {});
+		pipeline.addStage("second", 1, 1, element -> release.await());
+		pipeline.start();
+		for (int i = 0; i < 5; i++) {
+			assertTrue(pipeline.put(i));
+		}
+
+		// The second stage blocks on its first element and its queue holds the second one, so the first stage blocks when passing on the third one
+		while (pipeline.getStatistics().get(0).getProcessed() < 3) {
+			Thread.sleep(10);
+		}
+		pipeline.cancel();
+
+		assertTrue(pipeline.awaitTermination(5, TimeUnit.SECONDS));
+		assertTrue(pipeline.isCanceled());
+		assertFalse(pipeline.put(5));
+		assertTrue(listener.completed.isEmpty());
+		assertTrue(listener.failed.isEmpty());
+	}
+
+}
@@ -0,0 +1,94 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2019  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.ui.actions.generator;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+
+import de.ovgu.featureide.ui.actions.generator.CompilationCache.CompilationUnit;
+
+/**
+ * Tests the computation of cache keys of a {@link CompilationCache}.
+ *
+ * @author FeatureIDE Team
+ */
+public class CompilationCacheTest {
+
+	private static final String USER = "package p; class User { B b; }";
+	private static final String OTHER = "package p; class Other { }";
+
+	private static List<CompilationUnit> createUnits(String... sources) {
+		final CompilationUnit[] units = new CompilationUnit[sources.length / 2];
+		for (int i = 0; i < units.length; i++) {
+			units[i] = CompilationCache.createUnit(null, sources[2 * i], sources[(2 * i) + 1].getBytes(StandardCharsets.UTF_8));
+		}
+		final List<CompilationUnit> unitList = Arrays.asList(units);
+		CompilationCache.computeKeys(unitList);
+		return unitList;
+	}
+
+	@Test
+	public void testUnchangedDependencies() {
+		final List<CompilationUnit> units1 = createUnits("User.java", USER, "A.java", "package p; class A { } class B { }");
+		final List<CompilationUnit> units2 = createUnits("User.java", USER, "A.java", "package p; class A { } class B { }");
+		assertEquals(units1.get(0).getKey(), units2.get(0).getKey());
+		assertEquals(units1.get(1).getKey(), units2.get(1).getKey());
+	}
+
+	@Test
+	public void testChangedSecondaryType() {
+		final List<CompilationUnit> units1 = createUnits("User.java", USER, "A.java", "package p; class A { } class B { }");
+		final List<CompilationUnit> units2 = createUnits("User.java", USER, "A.java", "package p; class A { } class B { int x; }");
+		assertFalse(units1.get(0).getKey().equals(units2.get(0).getKey()));
+	}
+
+	@Test
+	public void testChangedMemberType() {
+		final String user = "package p; class User { A.Inner inner; }";
+		final List<CompilationUnit> units1 = createUnits("User.java", user, "A.java", "package p; class A { static class Inner { } }");
+		final List<CompilationUnit> units2 = createUnits("User.java", user, "A.java", "package p; class A { static class Inner { int x; } }");
+		assertFalse(units1.get(0).getKey().equals(units2.get(0).getKey()));
+	}
+
+	@Test
+	public void testChangedTransitiveDependency() {
+		final List<CompilationUnit> units1 =
+			createUnits("User.java", USER, "B.java", "package p; interface B { C c(); }", "C.java", "package p; enum C { X }");
+		final List<CompilationUnit> units2 =
+			createUnits("User.java", USER, "B.java", "package p; interface B { C c(); }", "C.java", "package p; enum C { X, Y }");
+		assertFalse(units1.get(0).getKey().equals(units2.get(0).getKey()));
+	}
+
+	@Test
+	public void testChangedUnrelatedUnit() {
+		final List<CompilationUnit> units1 = createUnits("User.java", USER, "B.java", "package p; class B { }", "Other.java", OTHER);
+		final List<CompilationUnit> units2 = createUnits("User.java", USER, "B.java", "package p; class B { }", "Other.java", OTHER + " // changed");
+		assertEquals(units1.get(0).getKey(), units2.get(0).getKey());
+		assertFalse(units1.get(2).getKey().equals(units2.get(2).getKey()));
+	}
+
+}